@@ -1,12 +1,14 @@
 package domain;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import exceptions.InformationRequiredExceptionAddress;
 import interfaces.RequiredElement;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -16,6 +18,8 @@ import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.eclipse.persistence.annotations.Cache;
+import repository.SharedCache;
 import util.RequiredElementAddress;
 import util.RequiredElementSite;
 
@@ -26,6 +30,8 @@ import util.RequiredElementSite;
 @Getter
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(expiry = SharedCache.EXPIRY_MILLIS)
 @Table(name = "addresses")
 public class Address implements Serializable
 {
@@ -86,6 +92,18 @@ public class Address implements Serializable
 		this.postalcode = builder.postalcode;
 		this.city = builder.city;
 	}
+
+	/**
+	 * Returns the parts of the address, to compare two addresses by value.
+	 *
+	 * @param address the address, or {@code null}
+	 * @return the street, number, postal code and city, or {@code null}
+	 */
+	static List<Object> fieldsOf(Address address)
+	{
+		return address == null ? null
+				: Arrays.asList(address.street, address.number, address.postalcode, address.city);
+	}
 	
 	/**
      * Builder class for constructing Address objects with validation.
@@ -0,0 +1,93 @@
+package domain;
+
+import java.util.List;
+
+import event.DomainEvent;
+import event.EventBus;
+import event.ImportCompleted;
+import event.MachineCreated;
+import event.MachineUpdated;
+import event.NotificationsAdded;
+import event.NotificationsRead;
+import event.SiteCreated;
+import event.SiteUpdated;
+import event.UserCreated;
+import event.UserUpdated;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import repository.SharedCache;
+
+/**
+ * Subscribes the reactions of the application to committed changes: every
+ * change drops the {@link QueryCache}, evicts the entities of the shared JPA
+ * cache that do not see it, and is turned into a notification. The
+ * controllers publish on the bus of {@link #sharedBus()}, so these listeners
+ * are in place before the first change, whichever controller makes it.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ChangeListeners
+{
+	private static boolean subscribed;
+
+	/**
+	 * Returns the shared {@link EventBus}, subscribing the listeners of the
+	 * application on first use.
+	 *
+	 * @return the shared bus
+	 */
+	static synchronized EventBus sharedBus()
+	{
+		EventBus eventBus = EventBus.getInstance();
+		if (!subscribed)
+		{
+			subscribeTo(eventBus, QueryCache.getInstance(), new ChangeNotifier(NotificationWriter.getInstance()));
+			subscribed = true;
+		}
+		return eventBus;
+	}
+
+	/**
+	 * Subscribes the cache invalidation and the notifications to a bus.
+	 *
+	 * @param eventBus   the bus the changes are published on
+	 * @param queryCache the cache to drop on every change
+	 * @param notifier   writes the notifications
+	 * @return the subscriptions
+	 */
+	static List<EventBus.Subscription> subscribeTo(EventBus eventBus, QueryCache queryCache, ChangeNotifier notifier)
+	{
+		return List.of(eventBus.subscribe(DomainEvent.class, event -> {
+			List<Class<?>> staleTypes = staleTypesAfter(event);
+			if (staleTypes != null)
+			{
+				queryCache.invalidateAll();
+				staleTypes.forEach(SharedCache::evict);
+			}
+		}), eventBus.subscribe(DomainEvent.class, notifier::notify));
+	}
+
+	/**
+	 * Returns the entity types whose cached instances are stale after a change:
+	 * addresses are owned by sites and users, and the machine set of a cached
+	 * site does not see machines that were added or moved.
+	 *
+	 * @param event a change
+	 * @return the stale entity types, or {@code null} if the event is not a
+	 *         change of the cached data
+	 */
+	static List<Class<?>> staleTypesAfter(DomainEvent event)
+	{
+		return switch (event)
+		{
+		case SiteCreated site -> List.of(Site.class, Address.class);
+		case SiteUpdated site -> List.of(Site.class, Address.class);
+		case MachineCreated machine -> List.of(Site.class);
+		case MachineUpdated machine -> List.of(Site.class);
+		case UserCreated user -> List.of(Address.class);
+		case UserUpdated user -> List.of(Address.class);
+		case ImportCompleted importCompleted -> List.of(Site.class, Address.class);
+		case NotificationsAdded added -> null;
+		case NotificationsRead read -> null;
+		};
+	}
+}
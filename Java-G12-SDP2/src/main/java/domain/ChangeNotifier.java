@@ -0,0 +1,86 @@
+package domain;
+
+import java.time.LocalDateTime;
+
+import event.DomainEvent;
+import event.ImportCompleted;
+import event.MachineCreated;
+import event.MachineUpdated;
+import event.NotificationsAdded;
+import event.NotificationsRead;
+import event.SiteCreated;
+import event.SiteUpdated;
+import event.UserCreated;
+import event.UserUpdated;
+
+/**
+ * Turns the changes published on the {@link event.EventBus} into
+ * notifications for the users, and hands them to a {@link NotificationWriter},
+ * which persists them in the background.
+ */
+public class ChangeNotifier
+{
+	private final NotificationWriter notificationWriter;
+
+	/**
+	 * @param notificationWriter the writer that persists the notifications
+	 */
+	public ChangeNotifier(NotificationWriter notificationWriter)
+	{
+		this.notificationWriter = notificationWriter;
+	}
+
+	/**
+	 * Writes the notification of a change. Events about notifications
+	 * themselves do not get one.
+	 *
+	 * @param event the change
+	 * @implNote The notification is written after this method returns, in a
+	 *           batch with other notifications, and not in the transaction of
+	 *           the change that caused it.
+	 */
+	public void notify(DomainEvent event)
+	{
+		String message = messageOf(event);
+		if (message != null)
+		{
+			notificationWriter.write(new Notification(false, message, LocalDateTime.now()));
+		}
+	}
+
+	/**
+	 * @param event a change
+	 * @return the text of the notification of the change, or {@code null} if it
+	 *         does not get one
+	 */
+	static String messageOf(DomainEvent event)
+	{
+		return switch (event)
+		{
+		case SiteCreated site -> "Site aangemaakt " + site.siteId() + " " + site.siteName();
+		case SiteUpdated site -> "Site bijgewerkt " + site.siteId() + " " + site.siteName();
+		case MachineCreated machine -> "Nieuwe machine toegevoegd: " + machine.code();
+		case MachineUpdated machine -> "Machine bijgewerkt: " + machine.code();
+		case UserCreated user -> "Gebruiker bijgewerkt: " + user.userId() + " " + user.fullName();
+		case UserUpdated user -> "Gebruiker bijgewerkt: " + user.userId() + " " + user.fullName();
+		case ImportCompleted importCompleted -> String.format("Import: %d %s toegevoegd, %d rijen geweigerd",
+				importCompleted.imported(), importedEntities(importCompleted.entityType()),
+				importCompleted.rejected());
+		case NotificationsAdded added -> null;
+		case NotificationsRead read -> null;
+		};
+	}
+
+	private static String importedEntities(Class<?> entityType)
+	{
+		if (entityType == Site.class)
+		{
+			return "sites";
+		}
+		if (entityType == Machine.class)
+		{
+			return "machines";
+		}
+		return entityType == User.class ? "gebruikers" : entityType.getSimpleName();
+	}
+}
@@ -0,0 +1,107 @@
+package domain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+import dto.MaintenanceExportRow;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import repository.GenericDao;
+import repository.GenericDaoJpa;
+import repository.Projection;
+import repository.Specification;
+import util.ExportFormat;
+import util.RowWriter;
+
+/**
+ * Controller for exporting machines and the maintenance history to files.
+ * <p>
+ * Rows are read through a database cursor {@value #CHUNK_SIZE} at a time and
+ * written straight to the given writer, so an export of any size runs in
+ * constant memory. Pass a buffered writer, e.g. from
+ * {@code Files.newBufferedWriter}, for good performance.
+ */
+public class ExportController
+{
+	/** The number of rows fetched from the database at a time. */
+	static final int CHUNK_SIZE = 500;
+
+	/** The columns of the maintenance history export. */
+	private static final Projection<Maintenance, MaintenanceExportRow> MAINTENANCE_EXPORT_ROW = new Projection<>(
+			MaintenanceExportRow.class, (root, cb) -> {
+				Join<Maintenance, Machine> machine = root.join("machine", JoinType.LEFT);
+				Join<Machine, Site> site = machine.join("site", JoinType.LEFT);
+				Join<Maintenance, User> technician = root.join("technician", JoinType.LEFT);
+				return List.of(root.get("id"), machine.get("code"), site.get("siteName"), root.get("executionDate"),
+						root.get("startDate"), root.get("endDate"), technician.get("firstName"),
+						technician.get("lastName"), root.get("reason"), root.get("comments"), root.get("status"));
+			});
+
+	private GenericDaoJpa<Machine> machineRepo;
+	private GenericDaoJpa<Maintenance> maintenanceRepo;
+
+	/**
+	 * Constructs a new ExportController with default repository
+	 * implementations.
+	 */
+	public ExportController()
+	{
+		machineRepo = new GenericDaoJpa<Machine>(Machine.class);
+		maintenanceRepo = new GenericDaoJpa<Maintenance>(Maintenance.class);
+	}
+
+	/**
+	 * Exports the machines matching a filter, with the columns of the machine
+	 * list.
+	 *
+	 * @param filter the filter to apply, or null for all machines
+	 * @param format the format to write
+	 * @param out    the destination; it is flushed but not closed
+	 * @return the number of exported machines
+	 * @throws IOException if writing fails
+	 */
+	public long exportMachines(MachineFilter filter, ExportFormat format, Writer out) throws IOException
+	{
+		return export(machineRepo, filter, MachineController.MACHINE_ROW, format, out);
+	}
+
+	/**
+	 * Exports the maintenance history matching a filter, with the code and site
+	 * of the maintained machine.
+	 *
+	 * @param filter the filter to apply, or null for all maintenance records
+	 * @param format the format to write
+	 * @param out    the destination; it is flushed but not closed
+	 * @return the number of exported maintenance records
+	 * @throws IOException if writing fails
+	 */
+	public long exportMaintenances(MaintenanceFilter filter, ExportFormat format, Writer out) throws IOException
+	{
+		return export(maintenanceRepo, filter, MAINTENANCE_EXPORT_ROW, format, out);
+	}
+
+	private static <T, R extends Record> long export(GenericDao<T> repo, Specification<T> filter,
+			Projection<T, R> projection, ExportFormat format, Writer out) throws IOException
+	{
+		RowWriter<R> writer = new RowWriter<>(format, projection.rowType(), out);
+		try
+		{
+			long count = repo.streamRows(filter, projection, CHUNK_SIZE, row -> {
+				try
+				{
+					writer.write(row);
+				} catch (IOException e)
+				{
+					throw new UncheckedIOException(e);
+				}
+			});
+			writer.flush();
+			return count;
+		} catch (UncheckedIOException e)
+		{
+			throw e.getCause();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package domain;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One piece of a {@link FileContent}. Content is stored as consecutive chunks
+ * of at most the configured chunk size, so that uploads and downloads only
+ * ever hold one chunk in memory and no single row exceeds the maximum packet
+ * size of the database.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@Table(name = "maintenance_file_chunks", indexes = @Index(columnList = "content_id, sequence", unique = true))
+@NamedQueries({
+		@NamedQuery(name = "FileChunk.data", query = "SELECT c.data FROM FileChunk c WHERE c.content.id = :contentId AND c.sequence = :sequence"),
+		@NamedQuery(name = "FileChunk.deleteByContent", query = "DELETE FROM FileChunk c WHERE c.content.id = :contentId") })
+public class FileChunk implements Serializable
+{
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private int id;
+
+	/**
+	 * The content this chunk belongs to.
+	 */
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
+	@JoinColumn(name = "content_id")
+	private FileContent content;
+
+	/**
+	 * The position of this chunk in the content, starting at 0.
+	 */
+	private int sequence;
+
+	/**
+	 * The bytes of this chunk.
+	 */
+	@Lob
+	private byte[] data;
+
+	/**
+	 * Constructs a chunk of content.
+	 *
+	 * @param content  the content the chunk belongs to
+	 * @param sequence the position of the chunk in the content
+	 * @param data     the bytes of the chunk
+	 */
+	public FileChunk(FileContent content, int sequence, byte[] data)
+	{
+		this.content = content;
+		this.sequence = sequence;
+		this.data = data;
+	}
+}
@@ -0,0 +1,80 @@
+package domain;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The stored content of one or more {@link FileInfo}s, identified by the
+ * SHA-256 hash of its bytes. A document that is attached to many maintenance
+ * records is stored once; the content is deleted when the last file referring
+ * to it is deleted. The bytes themselves are kept by a
+ * {@link repository.AttachmentStore}: as {@link FileChunk}s in the database, or
+ * as a file at {@link #path}.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@Table(name = "maintenance_file_contents")
+@NamedQueries({ @NamedQuery(name = "FileContent.byHash", query = "SELECT c FROM FileContent c WHERE c.sha256 = :sha256"),
+		@NamedQuery(name = "FileContent.addReference", query = "UPDATE FileContent c SET c.referenceCount = c.referenceCount + 1 WHERE c.id = :id"),
+		@NamedQuery(name = "FileContent.removeReference", query = "UPDATE FileContent c SET c.referenceCount = c.referenceCount - 1 WHERE c.id = :id"),
+		@NamedQuery(name = "FileContent.referenceCount", query = "SELECT c.referenceCount FROM FileContent c WHERE c.id = :id"),
+		@NamedQuery(name = "FileContent.deleteById", query = "DELETE FROM FileContent c WHERE c.id = :id"),
+		@NamedQuery(name = "FileContent.idsInDatabase", query = "SELECT c.id FROM FileContent c WHERE c.path IS NULL ORDER BY c.id"),
+		@NamedQuery(name = "FileContent.movedToFile", query = "UPDATE FileContent c SET c.path = :path WHERE c.id = :id") })
+public class FileContent implements Serializable
+{
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private int id;
+
+	/**
+	 * The SHA-256 hash of the content, as 64 lowercase hexadecimal digits.
+	 */
+	@Column(length = 64, nullable = false, unique = true)
+	private String sha256;
+
+	/**
+	 * The path of the file holding the bytes, relative to the attachment
+	 * directory; {@code null} for content stored in the database.
+	 */
+	@Setter
+	private String path;
+
+	/**
+	 * Size of the content in bytes.
+	 */
+	private long size;
+
+	/**
+	 * The number of files referring to this content.
+	 */
+	private int referenceCount;
+
+	/**
+	 * Constructs new content referred to by one file.
+	 *
+	 * @param sha256 the SHA-256 hash of the content
+	 * @param size   the size of the content in bytes
+	 */
+	public FileContent(String sha256, long size)
+	{
+		this.sha256 = sha256;
+		this.size = size;
+		this.referenceCount = 1;
+	}
+}
@@ -4,24 +4,41 @@ import java.io.Serializable;
 import java.time.LocalDateTime;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 /**
- * Entity representing a file attached to a maintenance record. Contains
- * metadata and the binary content of the file.
+ * Entity representing a file attached to a maintenance record. Contains the
+ * metadata of the file; its content is a {@link FileContent} that files with
+ * the same bytes share. Lists of
+ * files are read as {@link dto.FileInfoRow} metadata, the content only when it
+ * is needed.
  */
 @Entity
 @Getter
 @Setter
 @Table(name = "maintenance_files")
+@NamedQueries({ @NamedQuery(name = "FileInfo.rowsByMaintenance", query = """
+		SELECT NEW dto.FileInfoRow(f.id, f.name, f.type, f.size, f.uploadDate)
+		FROM FileInfo f WHERE f.maintenance.id = :maintenanceId ORDER BY f.id
+		"""), @NamedQuery(name = "FileInfo.content", query = "SELECT f.content FROM FileInfo f WHERE f.id = :id"),
+		@NamedQuery(name = "FileInfo.storedContent", query = "SELECT f.storedContent FROM FileInfo f WHERE f.id = :id"),
+		@NamedQuery(name = "FileInfo.originalContent", query = "SELECT f.originalContent FROM FileInfo f WHERE f.id = :id"),
+		@NamedQuery(name = "FileInfo.idsWithLegacyContent", query = "SELECT f.id FROM FileInfo f WHERE f.storedContent IS NULL AND f.content IS NOT NULL ORDER BY f.id"),
+		@NamedQuery(name = "FileInfo.attachStoredContent", query = "UPDATE FileInfo f SET f.storedContent = :storedContent, f.content = NULL WHERE f.id = :id"),
+		@NamedQuery(name = "FileInfo.thumbnail", query = "SELECT f.thumbnail FROM FileInfo f WHERE f.id = :id"),
+		@NamedQuery(name = "FileInfo.saveThumbnail", query = "UPDATE FileInfo f SET f.thumbnail = :thumbnail WHERE f.id = :id"),
+		@NamedQuery(name = "FileInfo.deleteById", query = "DELETE FROM FileInfo f WHERE f.id = :id") })
 public class FileInfo implements Serializable
 {
 
@@ -45,11 +62,35 @@ public class FileInfo implements Serializable
 	public String type;
 
 	/**
-	 * The binary content of the file.
+	 * The binary content of files uploaded before content was stored in
+	 * {@link FileChunk}s; {@code null} for newer files.
 	 */
 	@Lob
 	private byte[] content;
 
+	/**
+	 * The stored content of the file, shared with files with the same bytes;
+	 * {@code null} for files uploaded before content was stored separately.
+	 */
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "content_id")
+	private FileContent storedContent;
+
+	/**
+	 * The content of a photo as it was uploaded, when it was stored compressed
+	 * and the original was kept; {@code null} otherwise.
+	 */
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "original_content_id")
+	private FileContent originalContent;
+
+	/**
+	 * A small JPEG preview of the content, created on upload; {@code null} for
+	 * files without preview.
+	 */
+	@Lob
+	private byte[] thumbnail;
+
 	/**
 	 * Timestamp when the file was uploaded.
 	 */
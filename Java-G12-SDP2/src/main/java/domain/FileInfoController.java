@@ -1,30 +1,158 @@
 package domain;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-import repository.GenericDao;
-import repository.GenericDaoJpa;
+import dto.FileInfoRow;
+import dto.UploadProgress;
+import repository.AttachmentStore;
+import repository.DatabaseAttachmentStore;
+import repository.DirectoryAttachmentStore;
+import repository.FileInfoDao;
+import repository.FileInfoDaoJpa;
+import util.PdfPageRenderer;
+import util.PhotoCompressor;
+import util.ThumbnailGenerator;
+import util.UploadStatus;
 
 /**
  * Controller class responsible for managing {@link FileInfo} entities. Provides
  * operations to retrieve, save, delete, and update file information related to
  * maintenance records.
+ * <p>
+ * File content is streamed, so memory use does not grow with the size of a
+ * file. Files with the same bytes share one {@link FileContent}, found by the
+ * SHA-256 hash of the bytes and deleted with the last file that refers to it.
+ * <p>
+ * The bytes of new content go to the {@link AttachmentStore} chosen with the
+ * system property {@value #STORE_PROPERTY}: {@code database} (the default)
+ * stores them in the database in chunks of at most
+ * {@value #DEFAULT_CHUNK_SIZE} bytes, or {@value #CHUNK_SIZE_PROPERTY} bytes
+ * when set; {@code directory} stores them as files in the directory set with
+ * {@value #DIRECTORY_PROPERTY}, by default {@code shopfloor/attachments} in
+ * the home directory of the user. Content is always read from the store that
+ * holds it, so both kinds can be mixed, and {@link #moveContentToDirectory()}
+ * moves existing content out of the database.
  */
 public class FileInfoController
 {
+	/** The default maximum size of a stored chunk of file content, 1 MiB. */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
 
-	private final GenericDao<FileInfo> fileInfoDao;
+	/** The system property that overrides the maximum chunk size, in bytes. */
+	public static final String CHUNK_SIZE_PROPERTY = "shopfloor.attachment.chunk-size";
+
+	/** The system property that selects where new content is stored. */
+	public static final String STORE_PROPERTY = "shopfloor.attachment.store";
+
+	/** The system property that sets the directory of stored files. */
+	public static final String DIRECTORY_PROPERTY = "shopfloor.attachment.directory";
+
+	/** The maximum number of files {@link #uploadFiles} prepares at a time. */
+	public static final int MAX_CONCURRENT_UPLOADS = 4;
+
+	private final FileInfoDao fileInfoDao;
+	private final DatabaseAttachmentStore databaseStore;
+	private final DirectoryAttachmentStore directoryStore;
+	private final AttachmentStore store;
+	private PhotoCompressor photoCompressor = PhotoCompressor.configured();
 
 	/**
-	 * Constructs a new FileInfoController using a GenericDaoJpa for FileInfo.
+	 * Constructs a new FileInfoController using a FileInfoDaoJpa.
 	 */
 	public FileInfoController()
 	{
-		this.fileInfoDao = new GenericDaoJpa<>(FileInfo.class);
+		this(new FileInfoDaoJpa());
+	}
+
+	/**
+	 * Constructs a new FileInfoController using the given DAO and the configured
+	 * chunk size and store.
+	 * 
+	 * @param fileInfoDao the DAO for FileInfo database operations
+	 */
+	public FileInfoController(FileInfoDao fileInfoDao)
+	{
+		this(fileInfoDao, Integer.getInteger(CHUNK_SIZE_PROPERTY, DEFAULT_CHUNK_SIZE));
+	}
+
+	/**
+	 * Constructs a new FileInfoController using the given DAO and chunk size and
+	 * the configured store.
+	 * 
+	 * @param fileInfoDao the DAO for FileInfo database operations
+	 * @param chunkSize   the maximum size of a chunk stored in the database, in
+	 *                    bytes
+	 */
+	public FileInfoController(FileInfoDao fileInfoDao, int chunkSize)
+	{
+		this(fileInfoDao, new DatabaseAttachmentStore(fileInfoDao, chunkSize),
+				new DirectoryAttachmentStore(attachmentDirectory()),
+				"directory".equals(System.getProperty(STORE_PROPERTY)));
+	}
+
+	/**
+	 * Constructs a new FileInfoController using the given DAO and stores.
+	 * 
+	 * @param fileInfoDao      the DAO for FileInfo database operations
+	 * @param databaseStore    the store of content kept in the database
+	 * @param directoryStore   the store of content kept as files
+	 * @param storeInDirectory whether new content goes to the directory store
+	 */
+	public FileInfoController(FileInfoDao fileInfoDao, DatabaseAttachmentStore databaseStore,
+			DirectoryAttachmentStore directoryStore, boolean storeInDirectory)
+	{
+		this.fileInfoDao = fileInfoDao;
+		this.databaseStore = databaseStore;
+		this.directoryStore = directoryStore;
+		this.store = storeInDirectory ? directoryStore : databaseStore;
+	}
+
+	/**
+	 * Sets how uploaded photos are compressed, by default as configured with
+	 * the system properties of {@link PhotoCompressor}.
+	 * 
+	 * @param photoCompressor the compressor, or {@code null} to store photos as
+	 *                        they are uploaded
+	 */
+	public void setPhotoCompressor(PhotoCompressor photoCompressor)
+	{
+		this.photoCompressor = photoCompressor;
+	}
+
+	/**
+	 * Returns the configured directory of stored files.
+	 * 
+	 * @return the value of {@value #DIRECTORY_PROPERTY}, or
+	 *         {@code shopfloor/attachments} in the home directory of the user
+	 */
+	public static Path attachmentDirectory()
+	{
+		String directory = System.getProperty(DIRECTORY_PROPERTY);
+		return directory != null ? Path.of(directory)
+				: Path.of(System.getProperty("user.home"), "shopfloor", "attachments");
 	}
 
 	/**
@@ -32,22 +160,21 @@ public class FileInfoController
 	 * 
 	 * @return the fileInfo DAO instance
 	 */
-	protected GenericDao<FileInfo> getFileInfoDao()
+	protected FileInfoDao getFileInfoDao()
 	{
 		return fileInfoDao;
 	}
 
 	/**
-	 * Retrieves a list of all files associated with a specific maintenance ID.
+	 * Retrieves the metadata of all files associated with a specific maintenance
+	 * ID. The content of the files is not loaded.
 	 * 
 	 * @param maintenanceId the ID of the maintenance record
-	 * @return list of FileInfo linked to the specified maintenance
+	 * @return list of FileInfoRow linked to the specified maintenance
 	 */
-	public List<FileInfo> getFilesForMaintenance(int maintenanceId)
+	public List<FileInfoRow> getFilesForMaintenance(int maintenanceId)
 	{
-		return fileInfoDao.findAll().stream()
-				.filter(file -> file.getMaintenance() != null && file.getMaintenance().getId() == maintenanceId)
-				.collect(Collectors.toList());
+		return fileInfoDao.findRowsByMaintenance(maintenanceId);
 	}
 
 	/**
@@ -64,33 +191,392 @@ public class FileInfoController
 	}
 
 	/**
-	 * Deletes a file record from the database. Starts and commits a transaction
-	 * around the delete operation.
+	 * Deletes a file record from the database. Its content is deleted as well
+	 * once no other file refers to it. Starts and commits a transaction around
+	 * the delete operation; content kept as a file is removed after the commit.
 	 * 
-	 * @param fileInfo the FileInfo entity to delete
+	 * @param fileId the ID of the file to delete
 	 */
-	public void deleteFile(FileInfo fileInfo)
+	public void deleteFile(int fileId)
 	{
+		List<FileContent> deleted = new ArrayList<>();
 		fileInfoDao.startTransaction();
-		fileInfoDao.delete(fileInfo);
-		fileInfoDao.commitTransaction();
+		try
+		{
+			List<FileContent> contents = Stream
+					.of(fileInfoDao.findContent(fileId), fileInfoDao.findOriginalContent(fileId))
+					.filter(Objects::nonNull).toList();
+			fileInfoDao.deleteById(fileId);
+			for (FileContent content : contents)
+			{
+				if (fileInfoDao.removeReference(content.getId()) <= 0)
+				{
+					fileInfoDao.deleteContent(content.getId());
+					deleted.add(content);
+				}
+			}
+			fileInfoDao.commitTransaction();
+		} catch (RuntimeException e)
+		{
+			fileInfoDao.rollbackTransaction();
+			throw e;
+		}
+		for (FileContent content : deleted)
+		{
+			try
+			{
+				storeOf(content).delete(content);
+			} catch (IOException e)
+			{
+				// The file is deleted; a stored file left behind only takes space
+			}
+		}
 	}
 
 	/**
-	 * Retrieves the binary content of a given file.
+	 * Opens the content of a file for reading. The content is loaded from its
+	 * store piece by piece while the stream is read; close it when done.
 	 * 
-	 * @param fileInfo the file entity
-	 * @return the content as a byte array
+	 * @param fileId the ID of the file
+	 * @return the content, or {@code null} if the file does not exist
+	 * @throws IOException if the content cannot be opened
 	 */
-	public byte[] getFileContent(FileInfo fileInfo)
+	public InputStream openFileContent(int fileId) throws IOException
 	{
-		return fileInfo.getContent();
+		FileContent content = fileInfoDao.findContent(fileId);
+		if (content != null)
+		{
+			return storeOf(content).open(content);
+		}
+		byte[] legacy = fileInfoDao.getLegacyContent(fileId);
+		return legacy == null ? null : new ByteArrayInputStream(legacy);
 	}
 
 	/**
-	 * Reads file content from the given {@link File} and saves it into the provided
-	 * {@link FileInfo} entity, then persists the entity. Updates the file size and
-	 * upload timestamp.
+	 * Opens the content of a file as it was uploaded: the original of a photo
+	 * that was compressed on upload, if it was kept, or else the stored content.
+	 * 
+	 * @param fileId the ID of the file
+	 * @return the content, or {@code null} if the file does not exist
+	 * @throws IOException if the content cannot be opened
+	 */
+	public InputStream openOriginalContent(int fileId) throws IOException
+	{
+		FileContent original = fileInfoDao.findOriginalContent(fileId);
+		return original != null ? storeOf(original).open(original) : openFileContent(fileId);
+	}
+
+	/**
+	 * Opens a PDF to render its pages one at a time. The content is copied to a
+	 * temporary file, which is deleted when the renderer is closed, so the
+	 * document is never held in memory as a whole.
+	 * 
+	 * @param fileId the ID of the PDF
+	 * @return the renderer, or {@code null} if the file does not exist
+	 * @throws IOException if the content cannot be read as a PDF
+	 */
+	public PdfPageRenderer openPdf(int fileId) throws IOException
+	{
+		Path copy = Files.createTempFile("attachment-" + fileId + "-", ".pdf");
+		try
+		{
+			try (InputStream content = openFileContent(fileId))
+			{
+				if (content == null)
+				{
+					Files.delete(copy);
+					return null;
+				}
+				Files.copy(content, copy, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return new PdfPageRenderer(copy, true);
+		} catch (IOException | RuntimeException e)
+		{
+			Files.deleteIfExists(copy);
+			throw e;
+		}
+	}
+
+	private AttachmentStore storeOf(FileContent content)
+	{
+		return content.getPath() != null ? directoryStore : databaseStore;
+	}
+
+	/**
+	 * Returns the thumbnail of a file. Files uploaded before thumbnails were
+	 * stored get theirs created and saved on first use.
+	 * 
+	 * @param file the file
+	 * @return the JPEG thumbnail, or {@code null} if the file has no preview
+	 */
+	public byte[] getThumbnail(FileInfoRow file)
+	{
+		byte[] thumbnail = fileInfoDao.getThumbnail(file.id());
+		if (thumbnail == null && ThumbnailGenerator.supports(file.type()))
+		{
+			thumbnail = createThumbnail(file.type(), readContent(file.id()));
+			if (thumbnail != null)
+			{
+				fileInfoDao.startTransaction();
+				fileInfoDao.saveThumbnail(file.id(), thumbnail);
+				fileInfoDao.commitTransaction();
+			}
+		}
+		return thumbnail;
+	}
+
+	/**
+	 * Reads the whole content of a file, only to create a missing thumbnail.
+	 */
+	private byte[] readContent(int fileId)
+	{
+		try (InputStream content = openFileContent(fileId))
+		{
+			return content == null ? null : content.readAllBytes();
+		} catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Creates the thumbnail of a file. A file that cannot be previewed is still
+	 * saved, it just gets no thumbnail.
+	 */
+	private static byte[] createThumbnail(String type, byte[] content)
+	{
+		try
+		{
+			return ThumbnailGenerator.generate(type, content);
+		} catch (IOException | RuntimeException e)
+		{
+			return null;
+		}
+	}
+
+	private static byte[] createThumbnail(String type, File file)
+	{
+		try
+		{
+			return ThumbnailGenerator.generate(type, file);
+		} catch (IOException | RuntimeException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the type of a file, judged by its name.
+	 * 
+	 * @param fileName the name of the file
+	 * @return {@code "pdf"}, {@code "image"} or {@code "other"}
+	 */
+	public static String fileTypeOf(String fileName)
+	{
+		String lowerCaseName = fileName.toLowerCase();
+		if (lowerCaseName.endsWith(".pdf"))
+		{
+			return "pdf";
+		} else if (lowerCaseName.matches(".*\\.(jpg|jpeg|png|gif)$"))
+		{
+			return "image";
+		}
+		return "other";
+	}
+
+	/**
+	 * Whether files of a type can be attached to a maintenance.
+	 * 
+	 * @param fileType the type of the file
+	 * @return {@code true} for PDFs and images
+	 */
+	public static boolean isSupportedType(String fileType)
+	{
+		return fileType.equals("pdf") || fileType.equals("image");
+	}
+
+	/**
+	 * Uploads files to a maintenance. Up to {@value #MAX_CONCURRENT_UPLOADS}
+	 * files are read, checked and previewed at the same time; then all files
+	 * that passed are saved in one transaction, so their inserts are sent as
+	 * JDBC batches. A file that fails to be prepared is reported as failed and
+	 * does not stop the others, but when saving fails, none of the files is
+	 * saved.
+	 * <p>
+	 * This takes a while, so call it from a background thread. The listener is
+	 * called for every stage of every file, from several threads.
+	 * 
+	 * @param files       the files to upload
+	 * @param maintenance the maintenance to attach the files to
+	 * @param listener    receives the progress of every file
+	 * @return the saved files, in the order of {@code files}
+	 */
+	public List<FileInfo> uploadFiles(List<File> files, Maintenance maintenance, Consumer<UploadProgress> listener)
+	{
+		List<PreparedUpload> prepared = new ArrayList<>();
+		try (ExecutorService workers = Executors
+				.newFixedThreadPool(Math.max(1, Math.min(MAX_CONCURRENT_UPLOADS, files.size()))))
+		{
+			List<Future<PreparedUpload>> futures = files.stream()
+					.map(file -> workers.submit(() -> prepareUpload(file, maintenance, listener))).toList();
+			for (Future<PreparedUpload> future : futures)
+			{
+				PreparedUpload upload = future.get();
+				if (upload != null)
+				{
+					prepared.add(upload);
+				}
+			}
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Upload interrupted", e);
+		} catch (ExecutionException e)
+		{
+			throw new IllegalStateException("Upload failed", e.getCause());
+		}
+		if (prepared.isEmpty())
+		{
+			return List.of();
+		}
+
+		Map<FileInfo, PreparedUpload> uploads = new IdentityHashMap<>();
+		prepared.forEach(upload -> uploads.put(upload.fileInfo(), upload));
+		List<FileInfo> fileInfos = prepared.stream().map(PreparedUpload::fileInfo).toList();
+		fileInfoDao.startTransaction();
+		try
+		{
+			// The content is stored right before its file is persisted, so it is still managed when insertAll clears
+			fileInfoDao.insertAll(fileInfos, fileInfo -> {
+				try
+				{
+					save(uploads.get(fileInfo));
+				} catch (IOException e)
+				{
+					throw new UncheckedIOException(e);
+				}
+			});
+			fileInfoDao.commitTransaction();
+		} catch (RuntimeException e)
+		{
+			fileInfoDao.rollbackTransaction();
+			String message = e instanceof UncheckedIOException ? e.getCause().getMessage() : e.getMessage();
+			prepared.forEach(
+					upload -> listener.accept(new UploadProgress(upload.file(), UploadStatus.FAILED, message)));
+			return List.of();
+		}
+		prepared.forEach(upload -> listener.accept(new UploadProgress(upload.file(), UploadStatus.SAVED, null)));
+		return fileInfos;
+	}
+
+	/**
+	 * Checks, hashes and previews one file of an upload.
+	 *
+	 * @return the prepared file, or null if it failed
+	 */
+	private PreparedUpload prepareUpload(File file, Maintenance maintenance, Consumer<UploadProgress> listener)
+	{
+		listener.accept(new UploadProgress(file, UploadStatus.PROCESSING, null));
+		String fileType = fileTypeOf(file.getName());
+		if (!isSupportedType(fileType))
+		{
+			listener.accept(new UploadProgress(file, UploadStatus.FAILED,
+					"Bestandstype niet ondersteund. Alleen PDF en afbeelding bestanden zijn toegestaan."));
+			return null;
+		}
+		PreparedUpload upload;
+		try
+		{
+			upload = prepare(file, new FileInfo(file.getName(), fileType, null, maintenance));
+		} catch (IOException e)
+		{
+			listener.accept(new UploadProgress(file, UploadStatus.FAILED, e.getMessage()));
+			return null;
+		}
+		listener.accept(new UploadProgress(file, UploadStatus.READY, null));
+		return upload;
+	}
+
+	/**
+	 * Hashes and previews an uploaded file, after compressing it when it is a
+	 * photo. The content is read from disk again when it is saved, unless it
+	 * is a compressed photo, which is small enough to keep in memory.
+	 */
+	private PreparedUpload prepare(File file, FileInfo fileInfo) throws IOException
+	{
+		byte[] photo = null;
+		if ("image".equals(fileInfo.getType()) && photoCompressor != null)
+		{
+			try
+			{
+				photo = photoCompressor.compress(file);
+			} catch (IOException | RuntimeException e)
+			{
+				// A photo that cannot be compressed is stored as it is
+			}
+		}
+		String fileSha256 = null;
+		if (photo == null || photoCompressor.isKeepOriginal())
+		{
+			try (FileInputStream fis = new FileInputStream(file))
+			{
+				fileSha256 = sha256(fis);
+			}
+		}
+		fileInfo.setContent(null);
+		fileInfo.setUploadDate(LocalDateTime.now());
+		if (photo == null)
+		{
+			fileInfo.setSize(file.length());
+			fileInfo.setThumbnail(createThumbnail(fileInfo.getType(), file));
+			return new PreparedUpload(file, fileInfo, null, fileSha256, null);
+		}
+		fileInfo.setSize(photo.length);
+		fileInfo.setThumbnail(createThumbnail(fileInfo.getType(), photo));
+		return new PreparedUpload(file, fileInfo, photo, sha256(new ByteArrayInputStream(photo)), fileSha256);
+	}
+
+	/**
+	 * Stores the content of a prepared file in the current transaction.
+	 */
+	private void save(PreparedUpload upload) throws IOException
+	{
+		FileInfo fileInfo = upload.fileInfo();
+		File file = upload.file();
+		if (upload.photo() == null)
+		{
+			fileInfo.setStoredContent(
+					storeContent(() -> new FileInputStream(file), file.length(), upload.sha256(), store));
+			return;
+		}
+		fileInfo.setStoredContent(storeContent(() -> new ByteArrayInputStream(upload.photo()), upload.photo().length,
+				upload.sha256(), store));
+		if (upload.originalSha256() != null)
+		{
+			fileInfo.setOriginalContent(
+					storeContent(() -> new FileInputStream(file), file.length(), upload.originalSha256(), store));
+		}
+	}
+
+	/**
+	 * A file of an upload that is ready to be saved.
+	 *
+	 * @param photo          the compressed photo to store instead of the file,
+	 *                       or null
+	 * @param sha256         the hash of the content to store
+	 * @param originalSha256 the hash of the file, when it is stored next to the
+	 *                       compressed photo
+	 */
+	private record PreparedUpload(File file, FileInfo fileInfo, byte[] photo, String sha256, String originalSha256)
+	{
+	}
+
+	/**
+	 * Streams the content of the given {@link File} into the database and
+	 * persists the provided {@link FileInfo} entity with it. Updates the file
+	 * size, upload timestamp and thumbnail. Only one chunk of the file is held
+	 * in memory at a time, and content that is already stored, e.g. a manual
+	 * attached to another maintenance, is not stored again.
 	 * 
 	 * @param file     the file to read content from
 	 * @param fileInfo the file entity to update and save
@@ -98,28 +584,172 @@ public class FileInfoController
 	 */
 	public void saveFileContent(File file, FileInfo fileInfo) throws IOException
 	{
-		try (FileInputStream fis = new FileInputStream(file))
+		PreparedUpload upload = prepare(file, fileInfo);
+		fileInfoDao.startTransaction();
+		try
 		{
-			byte[] content = fis.readAllBytes();
-			fileInfo.setContent(content);
-			fileInfo.setSize(content.length);
-			fileInfo.setUploadDate(java.time.LocalDateTime.now());
-			saveFile(fileInfo);
+			save(upload);
+			fileInfoDao.insert(fileInfo);
+			fileInfoDao.commitTransaction();
+		} catch (IOException | RuntimeException e)
+		{
+			fileInfoDao.rollbackTransaction();
+			throw e;
 		}
 	}
 
 	/**
-	 * Saves the provided byte array content into the {@link FileInfo} entity and
-	 * persists it. Updates the file size and upload timestamp.
+	 * Saves the provided byte array content with the {@link FileInfo} entity and
+	 * persists it. Updates the file size, upload timestamp and thumbnail.
 	 * 
 	 * @param content  the file content as a byte array
 	 * @param fileInfo the file entity to update and save
 	 */
 	public void saveFileContent(byte[] content, FileInfo fileInfo)
 	{
-		fileInfo.setContent(content);
-		fileInfo.setSize(content.length);
-		fileInfo.setUploadDate(java.time.LocalDateTime.now());
-		saveFile(fileInfo);
+		fileInfo.setThumbnail(createThumbnail(fileInfo.getType(), content));
+		try
+		{
+			saveFileContent(() -> new ByteArrayInputStream(content), content.length,
+					sha256(new ByteArrayInputStream(content)), fileInfo);
+		} catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Inserts the file and its content in one transaction.
+	 */
+	private void saveFileContent(ContentSource source, long size, String sha256, FileInfo fileInfo)
+			throws IOException
+	{
+		fileInfo.setContent(null);
+		fileInfo.setSize(size);
+		fileInfo.setUploadDate(LocalDateTime.now());
+		fileInfoDao.startTransaction();
+		try
+		{
+			fileInfo.setStoredContent(storeContent(source, size, sha256, store));
+			fileInfoDao.insert(fileInfo);
+			fileInfoDao.commitTransaction();
+		} catch (IOException | RuntimeException e)
+		{
+			fileInfoDao.rollbackTransaction();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the stored content with the given hash, in the current
+	 * transaction. Content that is already stored gets one more reference
+	 * instead of being stored again; new content is written to the given store.
+	 */
+	private FileContent storeContent(ContentSource source, long size, String sha256, AttachmentStore target)
+			throws IOException
+	{
+		FileContent stored = fileInfoDao.findContentByHash(sha256);
+		if (stored != null)
+		{
+			return fileInfoDao.addReference(stored.getId());
+		}
+		stored = new FileContent(sha256, size);
+		fileInfoDao.insertContent(stored);
+		try (InputStream content = source.open())
+		{
+			target.write(stored, content);
+		}
+		return stored;
+	}
+
+	/**
+	 * Moves all content kept in the database to the directory store: the
+	 * content of files uploaded before content was stored separately, and
+	 * content stored in chunks. Every file or content is moved in its own
+	 * transaction, so the move can be interrupted and run again.
+	 * 
+	 * @return the number of files and contents moved
+	 * @throws IOException if content cannot be written to the directory
+	 */
+	public int moveContentToDirectory() throws IOException
+	{
+		int moved = 0;
+		for (int fileId : fileInfoDao.findLegacyFileIds())
+		{
+			byte[] content = fileInfoDao.getLegacyContent(fileId);
+			if (content == null)
+			{
+				continue;
+			}
+			String sha256 = sha256(new ByteArrayInputStream(content));
+			fileInfoDao.startTransaction();
+			try
+			{
+				FileContent stored = storeContent(() -> new ByteArrayInputStream(content), content.length, sha256,
+						directoryStore);
+				fileInfoDao.attachContent(fileId, stored);
+				fileInfoDao.commitTransaction();
+			} catch (IOException | RuntimeException e)
+			{
+				fileInfoDao.rollbackTransaction();
+				throw e;
+			}
+			moved++;
+		}
+		for (int contentId : fileInfoDao.findContentIdsInDatabase())
+		{
+			FileContent content = fileInfoDao.findContentById(contentId);
+			try (InputStream data = databaseStore.open(content))
+			{
+				if (data == null)
+				{
+					continue;
+				}
+				directoryStore.write(content, data);
+			}
+			fileInfoDao.startTransaction();
+			try
+			{
+				fileInfoDao.moveContentToFile(contentId, content.getPath());
+				fileInfoDao.commitTransaction();
+			} catch (RuntimeException e)
+			{
+				fileInfoDao.rollbackTransaction();
+				throw e;
+			}
+			moved++;
+		}
+		return moved;
+	}
+
+	/**
+	 * @return the SHA-256 hash of the content, in lowercase hexadecimal
+	 */
+	private static String sha256(InputStream content) throws IOException
+	{
+		MessageDigest digest;
+		try
+		{
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = content.read(buffer)) != -1)
+		{
+			digest.update(buffer, 0, read);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	/**
+	 * Opens the content of a file to store, only when it is not stored yet.
+	 */
+	@FunctionalInterface
+	private interface ContentSource
+	{
+		InputStream open() throws IOException;
 	}
 }
@@ -0,0 +1,486 @@
+package domain;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import dto.ImportError;
+import dto.ImportReport;
+import event.EventBus;
+import event.ImportCompleted;
+import exceptions.InformationRequired;
+import exceptions.UserNotFoundWithEmailException;
+import repository.GenericDao;
+import repository.GenericDaoJpa;
+import repository.UserDao;
+import repository.UserDaoJpa;
+import util.CsvReader;
+import util.MachineStatus;
+import util.PasswordHasher;
+import util.ProductionStatus;
+import util.Role;
+import util.Status;
+
+/**
+ * Controller for importing sites, machines and users from CSV files.
+ * <p>
+ * A file is streamed in chunks of {@value #CHUNK_SIZE} rows, so only one chunk
+ * is held in memory regardless of the size of the file. The rows of a chunk
+ * are validated in parallel with the builders of the entities, and the valid
+ * ones are saved with a single batched insert per chunk. The sites and
+ * technicians a machine file can refer to are resolved with one query each
+ * before the import starts; the responsible users of a site file are looked up
+ * by e-mail the first time a row refers to them, and loaded again in the
+ * transaction that saves the sites. Rows that fail are reported
+ * with their line number and are not saved; they do not stop the rest of the
+ * import.
+ * <p>
+ * The columns are matched by their header, ignoring case and order:
+ * <ul>
+ * <li>sites: {@code siteName, street, number, postalCode, city,
+ * verantwoordelijke} (e-mail) and optionally {@code status}</li>
+ * <li>machines: {@code code, site} (site name), {@code technician} (e-mail),
+ * {@code location, productInfo, machineStatus, productionStatus,
+ * futureMaintenance}</li>
+ * <li>users: {@code firstName, lastName, email, phoneNumber, birthdate, street,
+ * number, postalCode, city, role} and optionally {@code status}</li>
+ * </ul>
+ * Dates are written as {@code yyyy-MM-dd}, enum values by their name.
+ */
+public class ImportController
+{
+	/** The number of rows validated and saved together. */
+	static final int CHUNK_SIZE = 500;
+	/** Caps the worker threads, as every user row hashes a password. */
+	private static final int MAX_PARALLELISM = 4;
+	/** Validates the rows of every import; its threads are daemons and idle ones stop. */
+	private static final ForkJoinPool workers = new ForkJoinPool(
+			Math.min(Runtime.getRuntime().availableProcessors(), MAX_PARALLELISM));
+
+	private GenericDaoJpa<Site> siteRepo;
+	private GenericDaoJpa<Machine> machineRepo;
+	private UserDao userRepo;
+	private EventBus eventBus = ChangeListeners.sharedBus();
+
+	/**
+	 * Constructs a new ImportController with default repository
+	 * implementations.
+	 */
+	public ImportController()
+	{
+		siteRepo = new GenericDaoJpa<Site>(Site.class);
+		machineRepo = new GenericDaoJpa<Machine>(Machine.class);
+		userRepo = new UserDaoJpa();
+	}
+
+	/**
+	 * Imports sites. The responsible user of a site is looked up by e-mail; new
+	 * sites are active unless the file has a status column.
+	 *
+	 * @param source the CSV file
+	 * @return the report of the import
+	 * @throws IOException if the file cannot be read
+	 */
+	public ImportReport importSites(Reader source) throws IOException
+	{
+		Function<String, User> users = lookup(email -> {
+			try
+			{
+				return userRepo.getByEmail(email);
+			} catch (UserNotFoundWithEmailException e)
+			{
+				return null;
+			}
+		});
+		ImportReport report = importRows(source, siteRepo, row -> new Site.Builder()
+				.buildSiteName(row.text("siteName"))
+				.buildAddress(row.text("street"), row.number("number"), row.number("postalCode"), row.text("city"))
+				.buildVerantwoordelijke(row.reference("verantwoordelijke", users))
+				.buildStatus(row.enumValue("status", Status.class, Status.ACTIEF))
+				.build(), null,
+				// Persisting a site cascades to its user, which must be managed by the transaction, not a detached copy
+				site -> site.setVerantwoordelijke(userRepo.get(site.getVerantwoordelijke().getId())));
+		notifyImported(report, Site.class);
+		return report;
+	}
+
+	/**
+	 * Imports machines. The site of a machine is looked up by name and its
+	 * technician by e-mail.
+	 *
+	 * @param source the CSV file
+	 * @return the report of the import
+	 * @throws IOException if the file cannot be read
+	 */
+	public ImportReport importMachines(Reader source) throws IOException
+	{
+		Map<String, Site> sites = index(siteRepo.findAll(null, Site.SUMMARY_GRAPH), Site::getSiteName);
+		Map<String, User> technicians = index(userRepo.getAllTechniekers(), User::getEmail);
+		ImportReport report = importRows(source, machineRepo, row -> new Machine.Builder()
+				.buildCode(row.text("code"))
+				.buildSite(row.reference("site", sites::get))
+				.buildTechnician(row.reference("technician", technicians::get))
+				.buildLocation(row.text("location"))
+				.buildProductInfo(row.text("productInfo"))
+				.buildMachineStatus(row.enumValue("machineStatus", MachineStatus.class, null))
+				.buildProductionStatus(row.enumValue("productionStatus", ProductionStatus.class, null))
+				.buildFutureMaintenance(row.date("futureMaintenance"))
+				.build(), null, null);
+		notifyImported(report, Machine.class);
+		return report;
+	}
+
+	/**
+	 * Imports users. E-mail addresses must not be in use yet, neither in the
+	 * database nor earlier in the file. Like users created through the
+	 * {@link UserController}, imported users get a generated password; new
+	 * users are active unless the file has a status column.
+	 *
+	 * @param source the CSV file
+	 * @return the report of the import
+	 * @throws IOException if the file cannot be read
+	 */
+	public ImportReport importUsers(Reader source) throws IOException
+	{
+		Set<String> emails = new HashSet<>(userRepo.getAllEmails());
+		ImportReport report = importRows(source, userRepo, row -> {
+			User user = new User.Builder()
+					.buildFirstName(row.text("firstName"))
+					.buildLastName(row.text("lastName"))
+					.buildEmail(row.text("email"))
+					.buildPhoneNumber(row.text("phoneNumber"))
+					.buildBirthdate(row.date("birthdate"))
+					.buildAddress(row.text("street"), row.number("number"), row.number("postalCode"), row.text("city"))
+					.buildRole(row.enumValue("role", Role.class, null))
+					.buildStatus(row.enumValue("status", Status.class, Status.ACTIEF))
+					.build();
+			user.setPassword(PasswordHasher.hash(UserController.generatePassword()));
+			return user;
+		}, new Uniqueness<>("email", User::getEmail, emails, "E-mailadres is al in gebruik!"), null);
+		notifyImported(report, User.class);
+		return report;
+	}
+
+	/**
+	 * Streams the rows of a file through the mapper in chunks and saves the
+	 * valid entities of every chunk in one transaction.
+	 *
+	 * @param source     the CSV file
+	 * @param repo       the repository to save the entities to
+	 * @param mapper     turns a row into a validated entity
+	 * @param uniqueness a key that must be unique, or {@code null}
+	 * @param prepare    called in the transaction before an entity is saved,
+	 *                   or {@code null}; see
+	 *                   {@link GenericDao#insertAll(java.util.Collection, Consumer)}
+	 * @return the report of the import
+	 * @throws IOException if the file cannot be read
+	 */
+	<T> ImportReport importRows(Reader source, GenericDao<T> repo, RowMapper<T> mapper, Uniqueness<T> uniqueness,
+			Consumer<? super T> prepare) throws IOException
+	{
+		Tally report = new Tally();
+		try (CsvReader csv = new CsvReader(source))
+		{
+			Map<String, Integer> columns = new HashMap<>();
+			for (int i = 0; i < csv.header().size(); i++)
+			{
+				columns.putIfAbsent(csv.header().get(i).toLowerCase(Locale.ROOT), i);
+			}
+
+			List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+			for (List<String> values = csv.next(); values != null; values = csv.next())
+			{
+				chunk.add(new Row(columns, values, csv.lineNumber()));
+				if (chunk.size() == CHUNK_SIZE)
+				{
+					importChunk(chunk, repo, mapper, uniqueness, prepare, report);
+					chunk.clear();
+				}
+			}
+			importChunk(chunk, repo, mapper, uniqueness, prepare, report);
+		}
+		return report.toImportReport();
+	}
+
+	private <T> void importChunk(List<Row> chunk, GenericDao<T> repo, RowMapper<T> mapper, Uniqueness<T> uniqueness,
+			Consumer<? super T> prepare, Tally report)
+	{
+		if (chunk.isEmpty())
+		{
+			return;
+		}
+		List<Parsed<T>> parsed = workers.submit(() -> chunk.parallelStream().map(row -> parse(row, mapper)).toList())
+				.join();
+
+		List<T> valid = new ArrayList<>(parsed.size());
+		List<Row> validRows = new ArrayList<>(parsed.size());
+		for (Parsed<T> result : parsed)
+		{
+			report.rowsRead++;
+			if (!result.errors().isEmpty())
+			{
+				report.reject(result.errors());
+			} else if (uniqueness != null && !uniqueness.taken().add(uniqueness.key().apply(result.entity())))
+			{
+				report.reject(List.of(new ImportError(result.row().line, uniqueness.field(), uniqueness.message())));
+			} else
+			{
+				valid.add(result.entity());
+				validRows.add(result.row());
+			}
+		}
+		if (valid.isEmpty())
+		{
+			return;
+		}
+
+		try
+		{
+			repo.startTransaction();
+			repo.insertAll(valid, prepare);
+			repo.commitTransaction();
+			report.imported += valid.size();
+		} catch (RuntimeException e)
+		{
+			repo.rollbackTransaction();
+			String message = "Opslaan mislukt: " + e.getMessage();
+			validRows.forEach(row -> report.reject(List.of(new ImportError(row.line, "", message))));
+			if (uniqueness != null)
+			{
+				valid.forEach(entity -> uniqueness.taken().remove(uniqueness.key().apply(entity)));
+			}
+		}
+	}
+
+	private static <T> Parsed<T> parse(Row row, RowMapper<T> mapper)
+	{
+		try
+		{
+			return new Parsed<>(row, mapper.map(row), List.of());
+		} catch (InformationRequired e)
+		{
+			List<ImportError> errors = new ArrayList<>();
+			new TreeMap<>(e.getRequiredElements())
+					.forEach((field, element) -> errors.add(new ImportError(row.line, field, element.getMessage())));
+			return new Parsed<>(row, null, errors);
+		} catch (FieldException e)
+		{
+			return new Parsed<>(row, null, List.of(new ImportError(row.line, e.field, e.getMessage())));
+		}
+	}
+
+	private static <T> Map<String, T> index(List<T> entities, Function<T, String> key)
+	{
+		Map<String, T> index = new HashMap<>();
+		entities.forEach(entity -> index.putIfAbsent(key.apply(entity), entity));
+		return index;
+	}
+
+	/**
+	 * Wraps a query by key so every key is queried once, from any worker thread.
+	 *
+	 * @param query finds the entity of a key, or returns {@code null}
+	 * @return the cached lookup
+	 */
+	private static <T> Function<String, T> lookup(Function<String, T> query)
+	{
+		Map<String, Optional<T>> found = new ConcurrentHashMap<>();
+		return key -> found.computeIfAbsent(key, k -> Optional.ofNullable(query.apply(k))).orElse(null);
+	}
+
+	private void notifyImported(ImportReport report, Class<?> type)
+	{
+		if (report.imported() > 0)
+		{
+			eventBus.publish(new ImportCompleted(type, report.imported(), report.rejected()));
+		}
+	}
+
+	/**
+	 * Turns a row into a validated entity.
+	 */
+	@FunctionalInterface
+	interface RowMapper<T>
+	{
+		/**
+		 * @param row the row to map
+		 * @return the entity
+		 * @throws InformationRequired if the builder rejects the row
+		 * @throws FieldException      if a field cannot be read
+		 */
+		T map(Row row);
+	}
+
+	/**
+	 * A key that may occur only once, both in the database and in the file.
+	 *
+	 * @param field   the column of the key
+	 * @param key     reads the key of an entity
+	 * @param taken   the keys in use; grows with every row that is imported
+	 * @param message the error of a row whose key is in use
+	 */
+	record Uniqueness<T>(String field, Function<T, String> key, Set<String> taken, String message)
+	{
+	}
+
+	private record Parsed<T>(Row row, T entity, List<ImportError> errors)
+	{
+	}
+
+	/**
+	 * One data row of the file, with typed access to its columns.
+	 */
+	static final class Row
+	{
+		private final Map<String, Integer> columns;
+		private final List<String> values;
+		private final long line;
+
+		Row(Map<String, Integer> columns, List<String> values, long line)
+		{
+			this.columns = columns;
+			this.values = values;
+			this.line = line;
+		}
+
+		/**
+		 * @param column the name of the column
+		 * @return the trimmed value, or {@code null} if it is missing or empty
+		 */
+		String text(String column)
+		{
+			Integer index = columns.get(column.toLowerCase(Locale.ROOT));
+			if (index == null || index >= values.size())
+			{
+				return null;
+			}
+			String value = values.get(index).trim();
+			return value.isEmpty() ? null : value;
+		}
+
+		/**
+		 * @return the value as a number, or 0 if it is missing, which the builders
+		 *         report as required
+		 */
+		int number(String column)
+		{
+			String value = text(column);
+			try
+			{
+				return value == null ? 0 : Integer.parseInt(value);
+			} catch (NumberFormatException e)
+			{
+				throw new FieldException(column, String.format("'%s' is geen geldig getal!", value));
+			}
+		}
+
+		LocalDate date(String column)
+		{
+			String value = text(column);
+			try
+			{
+				return value == null ? null : LocalDate.parse(value);
+			} catch (DateTimeParseException e)
+			{
+				throw new FieldException(column, String.format("'%s' is geen geldige datum (jjjj-mm-dd)!", value));
+			}
+		}
+
+		<E extends Enum<E>> E enumValue(String column, Class<E> type, E defaultValue)
+		{
+			String value = text(column);
+			if (value == null)
+			{
+				return defaultValue;
+			}
+			try
+			{
+				return Enum.valueOf(type, value.toUpperCase(Locale.ROOT).replace(' ', '_'));
+			} catch (IllegalArgumentException e)
+			{
+				throw new FieldException(column, String.format("'%s' is geen geldige waarde!", value));
+			}
+		}
+
+		/**
+		 * @return the entity the value refers to, or {@code null} if the value is
+		 *         missing, which the builders report as required
+		 */
+		<T> T reference(String column, Function<String, T> entities)
+		{
+			String value = text(column);
+			if (value == null)
+			{
+				return null;
+			}
+			T entity = entities.apply(value);
+			if (entity == null)
+			{
+				throw new FieldException(column, String.format("'%s' is niet gekend!", value));
+			}
+			return entity;
+		}
+	}
+
+	/**
+	 * A field of a row that cannot be read.
+	 */
+	static final class FieldException extends IllegalArgumentException
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String field;
+
+		FieldException(String field, String message)
+		{
+			super(message);
+			this.field = field;
+		}
+	}
+
+	/**
+	 * Running totals of an import.
+	 */
+	private static final class Tally
+	{
+		private long rowsRead;
+		private long imported;
+		private long rejected;
+		private boolean truncated;
+		private final List<ImportError> errors = new ArrayList<>();
+
+		void reject(List<ImportError> rowErrors)
+		{
+			rejected++;
+			for (ImportError error : rowErrors)
+			{
+				if (errors.size() < ImportReport.MAX_REPORTED_ERRORS)
+				{
+					errors.add(error);
+				} else
+				{
+					truncated = true;
+				}
+			}
+		}
+
+		ImportReport toImportReport()
+		{
+			return new ImportReport(rowsRead, imported, rejected, errors, truncated);
+		}
+	}
+}
@@ -5,12 +5,10 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import exceptions.InformationRequiredExceptionMachine;
-import interfaces.Observer;
-import interfaces.Subject;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
@@ -19,12 +17,18 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.Table;
-import jakarta.persistence.Transient;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.eclipse.persistence.annotations.BatchFetch;
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.annotations.Cache;
+import repository.SharedCache;
 import util.MachineStatus;
 import util.MachineStatusConverter;
 import util.ProductionStatus;
@@ -39,13 +43,24 @@ import util.RequiredElementMachine;
  * 
  */
 @Entity
+@Cacheable
+@Cache(expiry = SharedCache.EXPIRY_MILLIS)
 @ToString
 @NoArgsConstructor
 @Getter
 @Setter
 @Table(name = "machines")
-public class Machine implements Serializable, Subject
+@NamedEntityGraph(name = Machine.LIST_ROW_GRAPH, attributeNodes =
+{ @NamedAttributeNode(value = "site", subgraph = "site"),
+		@NamedAttributeNode(value = "technician", subgraph = "user") }, subgraphs =
+		{ @NamedSubgraph(name = "site", attributeNodes =
+		{ @NamedAttributeNode(value = "verantwoordelijke", subgraph = "user"), @NamedAttributeNode("address") }),
+				@NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("address")) })
+public class Machine implements Serializable
 {
+	/** Fetch plan of a machine list row: site, technician and their addresses. */
+	public static final String LIST_ROW_GRAPH = "Machine.listRow";
+
 
 	private static final long serialVersionUID = 1L;
 
@@ -60,6 +75,7 @@ public class Machine implements Serializable, Subject
 	 * The site where the machine is located.
 	 */
 	@ManyToOne
+	@BatchFetch(BatchFetchType.IN)
 	@JoinColumn(name = "SITE_ID")
 	private Site site;
 
@@ -67,14 +83,9 @@ public class Machine implements Serializable, Subject
 	 * The technician responsible for the machine.
 	 */
 	@ManyToOne
+	@BatchFetch(BatchFetchType.IN)
 	private User technician;
 
-	/**
-	 * The observers interested in updates about this machine (not persisted).
-	 */
-	@Transient
-	private List<Observer> observers;
-
 	/**
 	 * The unique code identifying the machine.
 	 */
@@ -176,24 +187,6 @@ public class Machine implements Serializable, Subject
 		}
 	}
 
-	@Override
-	public void addObserver(Observer o)
-	{
-		observers.add(o);
-	}
-
-	@Override
-	public void removeObserver(Observer o)
-	{
-		observers.remove(o);
-	}
-
-	@Override
-	public void notifyObservers(String message)
-	{
-		observers.stream().forEach((o) -> o.update(message));
-	}
-
 	/**
 	 * Builder class for constructing {@link Machine} instances.
 	 */
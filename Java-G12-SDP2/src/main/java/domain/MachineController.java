@@ -1,40 +1,69 @@
 package domain;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import dto.MachineDTO;
+import dto.MachineRow;
 import dto.SiteDTOWithoutMachines;
 import dto.UserDTO;
+import event.EventBus;
+import event.FieldChanges;
+import event.MachineCreated;
+import event.MachineUpdated;
 import exceptions.InformationRequiredExceptionMachine;
-import interfaces.Observer;
-import interfaces.Subject;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
 import repository.GenericDaoJpa;
+import repository.Page;
+import repository.PageRequest;
+import repository.Projection;
 import util.DTOMapper;
+import util.DTOMapper.MappingContext;
 import util.MachineStatus;
 import util.ProductionStatus;
 
 /**
- * Controller class for managing machine operations. Implements the Subject
- * interface for observer pattern functionality. Handles CRUD operations for
- * machines and converts between DTOs and domain objects.
+ * Controller class for managing machine operations. Handles CRUD operations
+ * for machines, publishes every committed change as an event and converts
+ * between DTOs and domain objects.
  */
-public class MachineController implements Subject
+public class MachineController
 {
+	/** The columns of the machine list. */
+	static final Projection<Machine, MachineRow> MACHINE_ROW = new Projection<>(MachineRow.class,
+			(root, cb) -> {
+				Join<Machine, Site> site = root.join("site", JoinType.LEFT);
+				Join<Machine, User> technician = root.join("technician", JoinType.LEFT);
+				return List.of(root.get("id"), root.get("code"), root.get("location"), root.get("productInfo"),
+						root.get("machineStatus"), root.get("productionStatus"), root.get("lastMaintenance"),
+						root.get("futureMaintenance"), root.get("numberDaysSinceLastMaintenance"),
+						site.get("siteName"), technician.get("firstName"));
+			});
+
+	/** The fields of a machine reported in {@link MachineUpdated}. */
+	private static final FieldChanges<Machine> MACHINE_FIELDS = new FieldChanges<Machine>()
+			.field("site", MachineController::siteIdOf)
+			.field("technician", machine -> machine.getTechnician() == null ? null : machine.getTechnician().getId())
+			.field("code", Machine::getCode)
+			.field("location", Machine::getLocation)
+			.field("productInfo", Machine::getProductInfo)
+			.field("machineStatus", Machine::getMachineStatus)
+			.field("productionStatus", Machine::getProductionStatus)
+			.field("futureMaintenance", Machine::getFutureMaintenance);
+
 	private GenericDaoJpa<Machine> machineRepo;
-	private List<Observer> observers = new ArrayList<>();
+	private EventBus eventBus = ChangeListeners.sharedBus();
 
 	/**
 	 * Constructs a new MachineController and initializes dependencies.
-	 * Automatically adds a NotificationObserver to observe changes.
 	 */
 	public MachineController()
 	{
 		machineRepo = new GenericDaoJpa<Machine>(Machine.class);
-		addObserver(new NotificationObserver());
 	}
 
 	/**
@@ -44,16 +73,42 @@ public class MachineController implements Subject
 	 */
 	public List<MachineDTO> getMachineList()
 	{
-		List<Machine> machines = machineRepo.findAll();
+		List<Machine> machines = machineRepo.findAll(null, Machine.LIST_ROW_GRAPH);
 		if (machines == null)
 		{
 			return List.of();
 		}
-		return machines.stream().map(machine -> DTOMapper.toMachineDTO(machine)).toList();
+		MappingContext context = new MappingContext();
+		return machines.stream().map(machine -> DTOMapper.toMachineDTO(machine, context)).toList();
+	}
+
+	/**
+	 * Retrieves one page of machine list rows matching a filter in keyset order.
+	 * The rows are read-only projections; use {@link #getMachineById(int)} for
+	 * the full machine.
+	 * 
+	 * @param filter  the filter to apply, or null for all machines
+	 * @param request the page to retrieve
+	 * @return the requested page of MachineRow objects
+	 */
+	public Page<MachineRow> getMachineRows(MachineFilter filter, PageRequest request)
+	{
+		return machineRepo.findRows(request, filter, MACHINE_ROW);
 	}
 
 	/**
-	 * Adds a new machine to the system and notifies observers.
+	 * Counts the machines matching a filter.
+	 * 
+	 * @param filter the filter to apply, or null for all machines
+	 * @return the number of matching machines
+	 */
+	public long countMachines(MachineFilter filter)
+	{
+		return machineRepo.count(filter);
+	}
+
+	/**
+	 * Adds a new machine to the system and publishes a {@link MachineCreated}.
 	 * 
 	 * @param machine the machine to add
 	 */
@@ -62,20 +117,33 @@ public class MachineController implements Subject
 		machineRepo.startTransaction();
 		machineRepo.insert(machine);
 		machineRepo.commitTransaction();
-		notifyObservers("Nieuwe machine toegevoegd: " + machine.getCode());
+		eventBus.publish(new MachineCreated(machine.getId(), siteIdOf(machine), machine.getCode()));
 	}
 
 	/**
-	 * Updates an existing machine and notifies observers.
+	 * Updates an existing machine and publishes a {@link MachineUpdated}. As the
+	 * previous state
+	 * of the machine is unknown, all its fields are reported as changed.
 	 * 
 	 * @param machine the machine to update
 	 */
 	public void updateMachine(Machine machine)
+	{
+		updateMachine(null, machine);
+	}
+
+	private void updateMachine(Machine previous, Machine machine)
 	{
 		machineRepo.startTransaction();
 		machineRepo.update(machine);
 		machineRepo.commitTransaction();
-		notifyObservers("Machine bijgewerkt: " + machine.getCode());
+		eventBus.publish(new MachineUpdated(machine.getId(), siteIdOf(machine), machine.getCode(),
+				MACHINE_FIELDS.between(previous, machine)));
+	}
+
+	private static int siteIdOf(Machine machine)
+	{
+		return machine.getSite() == null ? 0 : machine.getSite().getId();
 	}
 
 	/**
@@ -148,28 +216,10 @@ public class MachineController implements Subject
 				.buildProductInfo(productInfo).buildFutureMaintenance(futureMaintenance).build();
 
 		machine.setId(existingMachine.getId());
-		updateMachine(machine);
+		updateMachine(existingMachine, machine);
 		return DTOMapper.toMachineDTO(machine);
 	}
 
-	@Override
-	public void addObserver(Observer observer)
-	{
-		observers.add(observer);
-	}
-
-	@Override
-	public void removeObserver(Observer observer)
-	{
-		observers.remove(observer);
-	}
-
-	@Override
-	public void notifyObservers(String message)
-	{
-		observers.forEach(o -> o.update(message));
-	}
-
 	/**
 	 * Retrieves a machine by its ID.
 	 * 
@@ -182,26 +232,26 @@ public class MachineController implements Subject
 	}
 
 	/**
-	 * Retrieves all distinct production status values from sites.
+	 * Retrieves all production status values a machine can have, without
+	 * reading the machines.
 	 * 
-	 * @return List of unique status strings
+	 * @return List of status strings
 	 */
 	public Collection<? extends String> getAllProductionStatusses()
 	{
-		List<MachineDTO> allMachines = getMachineList();
-		return allMachines.stream().map(m -> m.productionStatus().toString()).distinct().sorted()
+		return Arrays.stream(ProductionStatus.values()).map(ProductionStatus::toString).sorted()
 				.collect(Collectors.toList());
 	}
 
 	/**
-	 * Retrieves all distinct machine status values from sites.
+	 * Retrieves all machine status values a machine can have, without reading
+	 * the machines.
 	 * 
-	 * @return List of unique status strings
+	 * @return List of status strings
 	 */
 	public Collection<? extends String> getAllMachineStatusses()
 	{
-		List<MachineDTO> allMachines = getMachineList();
-		return allMachines.stream().map(m -> m.machineStatus().toString()).distinct().sorted()
+		return Arrays.stream(MachineStatus.values()).map(MachineStatus::toString).sorted()
 				.collect(Collectors.toList());
 	}
 
@@ -215,17 +265,10 @@ public class MachineController implements Subject
 	 */
 	public List<MachineDTO> getFilteredMachines(String searchFilter, String selectedProdStat, String selectedMachStat)
 	{
-		String lowerCaseSearchFilter = searchFilter == null ? "" : searchFilter.toLowerCase();
-
-		return getMachineList().stream()
-				.filter(machine -> selectedProdStat == null
-						|| machine.productionStatus().toString().equals(selectedProdStat))
-				.filter(machine -> selectedMachStat == null
-						|| machine.machineStatus().toString().equals(selectedMachStat))
-				.filter(machine -> machine.code().toLowerCase().contains(lowerCaseSearchFilter)
-						|| machine.location().toLowerCase().contains(lowerCaseSearchFilter)
-						|| machine.site().siteName().toLowerCase().contains(lowerCaseSearchFilter)
-						|| machine.productInfo().toLowerCase().contains(lowerCaseSearchFilter))
+		MachineFilter filter = MachineFilter.of(searchFilter, selectedProdStat, selectedMachStat);
+		MappingContext context = new MappingContext();
+		return machineRepo.findAll(filter, Machine.LIST_ROW_GRAPH).stream()
+				.map(machine -> DTOMapper.toMachineDTO(machine, context))
 				.collect(Collectors.toList());
 	}
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package domain;
+
+import static repository.Specification.containsIgnoreCase;
+import static repository.Specification.hasText;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import repository.Specification;
+import util.MachineStatus;
+import util.ProductionStatus;
+
+/**
+ * Filter criteria of the machine list, evaluated by the database.
+ *
+ * @param search           text matched against code, location, site name and
+ *                         product info (case insensitive)
+ * @param productionStatus production status to match, or {@code null}
+ * @param machineStatus    machine status to match, or {@code null}
+ */
+public record MachineFilter(String search, ProductionStatus productionStatus, MachineStatus machineStatus)
+		implements Specification<Machine>
+{
+	/**
+	 * Creates a filter from the values selected in the user interface.
+	 *
+	 * @param search           the search text
+	 * @param productionStatus name of the production status, or {@code null}
+	 * @param machineStatus    name of the machine status, or {@code null}
+	 * @return the filter
+	 */
+	public static MachineFilter of(String search, String productionStatus, String machineStatus)
+	{
+		return new MachineFilter(search, productionStatus == null ? null : ProductionStatus.valueOf(productionStatus),
+				machineStatus == null ? null : MachineStatus.valueOf(machineStatus));
+	}
+
+	@Override
+	public Predicate toPredicate(Root<Machine> root, CriteriaQuery<?> query, CriteriaBuilder cb)
+	{
+		List<Predicate> predicates = new ArrayList<>();
+		if (productionStatus != null)
+		{
+			predicates.add(cb.equal(root.get("productionStatus"), productionStatus));
+		}
+		if (machineStatus != null)
+		{
+			predicates.add(cb.equal(root.get("machineStatus"), machineStatus));
+		}
+		if (hasText(search))
+		{
+			Join<Machine, Site> site = root.join("site", JoinType.LEFT);
+			predicates.add(cb.or(containsIgnoreCase(cb, root.get("code"), search),
+					containsIgnoreCase(cb, root.get("location"), search),
+					containsIgnoreCase(cb, site.get("siteName"), search),
+					containsIgnoreCase(cb, root.get("productInfo"), search)));
+		}
+		return cb.and(predicates.toArray(Predicate[]::new));
+	}
+}
@@ -19,12 +19,17 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.eclipse.persistence.annotations.BatchFetch;
+import org.eclipse.persistence.annotations.BatchFetchType;
 import util.MaintenanceStatus;
 import util.RequiredElementMaintenance;
 
@@ -37,8 +42,21 @@ import util.RequiredElementMaintenance;
 @NoArgsConstructor
 @Getter
 @Setter
+@NamedEntityGraph(name = Maintenance.DETAIL_GRAPH, attributeNodes =
+{ @NamedAttributeNode(value = "technician", subgraph = "user"),
+		@NamedAttributeNode(value = "machine", subgraph = "machine") }, subgraphs =
+		{ @NamedSubgraph(name = "machine", attributeNodes =
+		{ @NamedAttributeNode(value = "site", subgraph = "site"),
+				@NamedAttributeNode(value = "technician", subgraph = "user") }),
+				@NamedSubgraph(name = "site", attributeNodes =
+				{ @NamedAttributeNode(value = "verantwoordelijke", subgraph = "user"),
+						@NamedAttributeNode("address") }),
+				@NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("address")) })
 public class Maintenance implements Serializable
 {
+	/** Fetch plan of a maintenance with its technician and machine. */
+	public static final String DETAIL_GRAPH = "Maintenance.detail";
+
 
 	private static final long serialVersionUID = 1L;
 
@@ -60,6 +78,7 @@ public class Maintenance implements Serializable
 	/** The technician responsible for performing the maintenance. */
 	@ManyToOne(cascade =
 	{ CascadeType.PERSIST, CascadeType.MERGE })
+	@BatchFetch(BatchFetchType.IN)
 	@JoinColumn(name = "technician_id")
 	private User technician;
 
@@ -76,6 +95,7 @@ public class Maintenance implements Serializable
 	/** The machine on which the maintenance is being performed. */
 	@ManyToOne(cascade =
 	{ CascadeType.PERSIST, CascadeType.MERGE })
+	@BatchFetch(BatchFetchType.IN)
 	@JoinColumn(name = "machine_id")
 	private Machine machine;
 
@@ -7,16 +7,23 @@ import java.util.stream.Collectors;
 
 import dto.MachineDTO;
 import dto.MaintenanceDTO;
+import dto.MaintenanceRow;
 import dto.SiteDTOWithoutMachines;
 import dto.UserDTO;
 import exceptions.InformationRequiredExceptionMaintenance;
 import gui.AppServices;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
 import lombok.Getter;
 import lombok.Setter;
 import repository.GenericDaoJpa;
+import repository.Page;
+import repository.PageRequest;
+import repository.Projection;
 import repository.UserDao;
 import repository.UserDaoJpa;
 import util.DTOMapper;
+import util.DTOMapper.MappingContext;
 import util.MaintenanceStatus;
 
 /**
@@ -25,6 +32,16 @@ import util.MaintenanceStatus;
  */
 public class MaintenanceController
 {
+	/** The columns of the maintenance list. */
+	private static final Projection<Maintenance, MaintenanceRow> MAINTENANCE_ROW = new Projection<>(
+			MaintenanceRow.class, (root, cb) -> {
+				Join<Maintenance, User> technician = root.join("technician", JoinType.LEFT);
+				Join<Maintenance, Machine> machine = root.join("machine", JoinType.LEFT);
+				return List.of(root.get("id"), root.get("executionDate"), root.get("startDate"),
+						root.get("endDate"), technician.get("firstName"), technician.get("lastName"),
+						root.get("reason"), root.get("comments"), root.get("status"), machine.get("id"));
+			});
+
 	private GenericDaoJpa<Maintenance> maintenanceRepo;
 	private GenericDaoJpa<Machine> machineRepo;
 	private UserDao userRepo;
@@ -74,7 +91,33 @@ public class MaintenanceController
 	}
 
 	/**
-	 * Converts a list of Maintenance objects to MaintenanceDTOs.
+	 * Retrieves one page of maintenance list rows matching a filter in keyset
+	 * order. The rows are read-only projections; use
+	 * {@link #getMaintenanceDTO(int)} for the full record.
+	 * 
+	 * @param filter  the filter to apply, or null for all records
+	 * @param request the page to retrieve
+	 * @return the requested page of MaintenanceRow objects
+	 */
+	public Page<MaintenanceRow> getMaintenanceRows(MaintenanceFilter filter, PageRequest request)
+	{
+		return maintenanceRepo.findRows(request, filter, MAINTENANCE_ROW);
+	}
+
+	/**
+	 * Counts the maintenance records matching a filter.
+	 * 
+	 * @param filter the filter to apply, or null for all records
+	 * @return the number of matching maintenance records
+	 */
+	public long countMaintenances(MaintenanceFilter filter)
+	{
+		return maintenanceRepo.count(filter);
+	}
+
+	/**
+	 * Converts a list of Maintenance objects to MaintenanceDTOs. Technicians and
+	 * machines shared by several maintenances are mapped once and reused.
 	 * 
 	 * @param maintenances list of Maintenance objects
 	 * @return unmodifiable list of MaintenanceDTO objects
@@ -86,7 +129,9 @@ public class MaintenanceController
 			return List.of();
 		}
 
-		return maintenances.stream().map(this::makeMaintenanceDTO).collect(Collectors.toUnmodifiableList());
+		MappingContext context = new MappingContext();
+		return maintenances.stream().map(maintenance -> DTOMapper.toMaintenanceDTO(maintenance, context))
+				.collect(Collectors.toUnmodifiableList());
 	}
 	
 	public Maintenance makeMaintenance(MaintenanceDTO maintenanceDTO)
@@ -124,7 +169,7 @@ public class MaintenanceController
 	 */
 	public MaintenanceDTO getMaintenanceDTO(int id)
 	{
-		Maintenance maintenance = getMaintenance(id);
+		Maintenance maintenance = maintenanceRepo.get(id, Maintenance.DETAIL_GRAPH);
 		return makeMaintenanceDTO(maintenance);
 	}
 
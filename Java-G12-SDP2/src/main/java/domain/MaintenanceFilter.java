@@ -0,0 +1,117 @@
+package domain;
+
+import static repository.Specification.containsIgnoreCase;
+import static repository.Specification.hasText;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import repository.Specification;
+import util.MaintenanceStatus;
+
+/**
+ * Filter criteria of the maintenance list, evaluated by the database.
+ *
+ * @param machineId     only maintenances of this machine, or {@code null}
+ * @param search        text matched against reason, comments and technician
+ *                      name (case insensitive)
+ * @param executionDate execution date to match, or {@code null}
+ * @param startTime     time of day the maintenance starts, or {@code null}
+ * @param endTime       time of day the maintenance ends, or {@code null}
+ * @param technician    full name ("first last") of the technician, case
+ *                      insensitive, or {@code null}
+ * @param reason        text the reason must contain, or {@code null}
+ * @param comments      text the comments must contain, or {@code null}
+ * @param status        status to match, or {@code null}
+ */
+public record MaintenanceFilter(Integer machineId, String search, LocalDate executionDate, LocalTime startTime,
+		LocalTime endTime, String technician, String reason, String comments, MaintenanceStatus status)
+		implements Specification<Maintenance>
+{
+	/**
+	 * Filter matching all maintenances of one machine.
+	 *
+	 * @param machineId the id of the machine
+	 * @return the filter
+	 */
+	public static MaintenanceFilter forMachine(Integer machineId)
+	{
+		return new MaintenanceFilter(machineId, null, null, null, null, null, null, null, null);
+	}
+
+	/**
+	 * Resolves a status from its display text as shown in the user interface.
+	 *
+	 * @param displayText the text of {@link MaintenanceStatus#toString()}
+	 * @return the matching status, or {@code null}
+	 */
+	public static MaintenanceStatus statusOf(String displayText)
+	{
+		if (displayText == null)
+		{
+			return null;
+		}
+		return Arrays.stream(MaintenanceStatus.values()).filter(s -> s.toString().equalsIgnoreCase(displayText))
+				.findFirst().orElse(null);
+	}
+
+	@Override
+	public Predicate toPredicate(Root<Maintenance> root, CriteriaQuery<?> query, CriteriaBuilder cb)
+	{
+		List<Predicate> predicates = new ArrayList<>();
+		Join<Maintenance, User> tech = root.join("technician", JoinType.LEFT);
+
+		if (machineId != null)
+		{
+			predicates.add(cb.equal(root.get("machine").get("id"), machineId));
+		}
+		if (executionDate != null)
+		{
+			predicates.add(cb.equal(root.get("executionDate"), executionDate));
+		}
+		if (startTime != null)
+		{
+			predicates.add(cb.equal(cb.function("TIME", LocalTime.class, root.get("startDate")), startTime));
+		}
+		if (endTime != null)
+		{
+			predicates.add(cb.equal(cb.function("TIME", LocalTime.class, root.get("endDate")), endTime));
+		}
+		if (technician != null)
+		{
+			Expression<String> fullName = cb.concat(cb.concat(tech.get("firstName"), " "), tech.get("lastName"));
+			predicates.add(cb.equal(cb.lower(fullName), technician.toLowerCase()));
+		}
+		if (hasText(reason))
+		{
+			predicates.add(containsIgnoreCase(cb, root.get("reason"), reason.trim()));
+		}
+		if (hasText(comments))
+		{
+			predicates.add(containsIgnoreCase(cb, root.get("comments"), comments.trim()));
+		}
+		if (status != null)
+		{
+			predicates.add(cb.equal(root.get("status"), status));
+		}
+		if (hasText(search))
+		{
+			String text = search.trim();
+			predicates.add(cb.or(containsIgnoreCase(cb, root.get("reason"), text),
+					containsIgnoreCase(cb, root.get("comments"), text),
+					containsIgnoreCase(cb, tech.get("firstName"), text),
+					containsIgnoreCase(cb, tech.get("lastName"), text)));
+		}
+		return cb.and(predicates.toArray(Predicate[]::new));
+	}
+}
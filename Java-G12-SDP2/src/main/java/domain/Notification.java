@@ -6,17 +6,22 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.NamedQueries;
 import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 /**
- * Represents a notification in the system.
+ * Represents a notification in the system. Notifications are indexed by read
+ * status and time, so counting the unread ones and paging through either list
+ * newest first does not scan all notifications.
  */
 @Entity
+@Table(indexes = @Index(columnList = "isRead, time"))
 @NoArgsConstructor
 @Getter
 @Setter
@@ -27,6 +32,33 @@ import lombok.Setter;
 		"""), @NamedQuery(name = "Notification.getAllUnread", query = """
 		SELECT n FROM Notification n
 		WHERE n.isRead = 0
+		"""), @NamedQuery(name = "Notification.newest", query = """
+		SELECT n FROM Notification n
+		WHERE n.isRead = :read
+		ORDER BY n.time DESC, n.id DESC
+		"""), @NamedQuery(name = "Notification.olderThan", query = """
+		SELECT n FROM Notification n
+		WHERE n.isRead = :read
+		AND (n.time < :time OR (n.time = :time AND n.id < :id))
+		ORDER BY n.time DESC, n.id DESC
+		"""), @NamedQuery(name = "Notification.countUnread", query = """
+		SELECT COUNT(n) FROM Notification n
+		WHERE n.isRead = 0
+		"""), @NamedQuery(name = "Notification.markAsRead", query = """
+		UPDATE Notification n
+		SET n.isRead = 1
+		WHERE n.isRead = 0 AND n.id IN :ids
+		"""), @NamedQuery(name = "Notification.markAllAsRead", query = """
+		UPDATE Notification n
+		SET n.isRead = 1
+		WHERE n.isRead = 0
+		"""), @NamedQuery(name = "Notification.readBefore", query = """
+		SELECT n FROM Notification n
+		WHERE n.isRead = 1 AND n.time < :cutoff
+		ORDER BY n.time, n.id
+		"""), @NamedQuery(name = "Notification.deleteByIds", query = """
+		DELETE FROM Notification n
+		WHERE n.id IN :ids
 		""") })
 public class Notification implements Serializable
 {
@@ -0,0 +1,237 @@
+package domain;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import repository.NotificationDao;
+import repository.NotificationDaoJpa;
+import util.ExportFormat;
+import util.RowWriter;
+
+/**
+ * Moves old read notifications out of the database into compressed archive
+ * files, so the notification table no longer grows with every change ever
+ * made. Read notifications older than {@value #RETENTION_DAYS_PROPERTY} days
+ * (by default {@value #DEFAULT_RETENTION_DAYS}) are written as gzipped JSON
+ * lines to a new file in {@value #DIRECTORY_PROPERTY}, by default
+ * {@code shopfloor/notification-archive} in the home directory of the user.
+ * Unread notifications are always kept.
+ * <p>
+ * Notifications are moved in batches of {@value #DEFAULT_BATCH_SIZE}: a batch
+ * is flushed to the archive before it is deleted in a short transaction of its
+ * own, so the table is never locked for long. A notification can end up in
+ * two archive files if the application stops between both steps, but it is
+ * never lost.
+ * <p>
+ * The outcome of the last scheduled run is kept as {@link #lastRun()}, so the
+ * application can show when notifications were last archived and why it
+ * failed.
+ */
+public class NotificationArchiver
+{
+	/** The number of days read notifications are kept. */
+	public static final String RETENTION_DAYS_PROPERTY = "shopfloor.notifications.retention-days";
+
+	/** The directory the archive files are written to. */
+	public static final String DIRECTORY_PROPERTY = "shopfloor.notifications.archive-directory";
+
+	/** The default number of days read notifications are kept. */
+	public static final int DEFAULT_RETENTION_DAYS = 30;
+
+	/** The default number of notifications moved per transaction. */
+	public static final int DEFAULT_BATCH_SIZE = 500;
+
+	private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+	private static ScheduledExecutorService scheduler;
+	private static volatile ArchiveRun lastRun;
+
+	private final NotificationDao notificationDao;
+	private final Path directory;
+	private final Duration retention;
+	private final int batchSize;
+
+	/**
+	 * Creates an archiver with the configured retention and directory.
+	 */
+	public NotificationArchiver()
+	{
+		this(new NotificationDaoJpa(), archiveDirectory(),
+				Duration.ofDays(Integer.getInteger(RETENTION_DAYS_PROPERTY, DEFAULT_RETENTION_DAYS)),
+				DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * @param notificationDao reads and deletes the notifications
+	 * @param directory       the directory the archive files are written to
+	 * @param retention       how long read notifications are kept
+	 * @param batchSize       the number of notifications moved per transaction
+	 */
+	public NotificationArchiver(NotificationDao notificationDao, Path directory, Duration retention, int batchSize)
+	{
+		this.notificationDao = notificationDao;
+		this.directory = directory;
+		this.retention = retention;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Returns the directory archive files are written to.
+	 *
+	 * @return the value of {@value #DIRECTORY_PROPERTY}, or
+	 *         {@code shopfloor/notification-archive} in the home directory of
+	 *         the user
+	 */
+	public static Path archiveDirectory()
+	{
+		String directory = System.getProperty(DIRECTORY_PROPERTY);
+		return directory != null ? Path.of(directory)
+				: Path.of(System.getProperty("user.home"), "shopfloor", "notification-archive");
+	}
+
+	/**
+	 * Returns the outcome of the last run of {@link #scheduleDaily()}.
+	 *
+	 * @return the last run, or {@code null} if it did not run yet
+	 */
+	public static ArchiveRun lastRun()
+	{
+		return lastRun;
+	}
+
+	/**
+	 * Archives the read notifications once a day on a background thread,
+	 * starting a minute from now. Calling it again has no effect.
+	 */
+	public static synchronized void scheduleDaily()
+	{
+		if (scheduler != null)
+		{
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "notification-archiver");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(() -> run(new NotificationArchiver()), 1, TimeUnit.DAYS.toMinutes(1),
+				TimeUnit.MINUTES);
+	}
+
+	/**
+	 * Archives once and keeps the outcome as {@link #lastRun()}. A failure is
+	 * also reported on the standard error stream.
+	 *
+	 * @param archiver the archiver to run
+	 * @return the outcome
+	 */
+	static ArchiveRun run(NotificationArchiver archiver)
+	{
+		LocalDateTime startedAt = LocalDateTime.now();
+		ArchiveRun run;
+		try
+		{
+			run = new ArchiveRun(startedAt, archiver.directory, archiver.archive(), null);
+		} catch (IOException | RuntimeException e)
+		{
+			System.err.println("Could not archive notifications: " + e.getMessage());
+			run = new ArchiveRun(startedAt, archiver.directory, 0, e);
+		}
+		lastRun = run;
+		return run;
+	}
+
+	/**
+	 * Moves the read notifications that are older than the retention to a new
+	 * archive file. No file is created when there is nothing to move.
+	 *
+	 * @return the number of notifications moved
+	 * @throws IOException if the archive cannot be written; the notifications
+	 *                     moved before are kept in the file
+	 */
+	public long archive() throws IOException
+	{
+		LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+		List<Notification> batch = notificationDao.getReadBefore(cutoff, batchSize);
+		if (batch.isEmpty())
+		{
+			return 0;
+		}
+		Files.createDirectories(directory);
+		Path file = directory.resolve("notifications-" + LocalDateTime.now().format(FILE_TIME) + ".jsonl.gz");
+		long moved = 0;
+		try (Writer out = new OutputStreamWriter(
+				new GZIPOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE_NEW), true),
+				StandardCharsets.UTF_8))
+		{
+			RowWriter<ArchivedNotification> writer = new RowWriter<>(ExportFormat.JSON_LINES,
+					ArchivedNotification.class, out);
+			while (true)
+			{
+				for (Notification notification : batch)
+				{
+					writer.write(new ArchivedNotification(notification.getId(), notification.getTime(),
+							notification.getMessage()));
+				}
+				writer.flush();
+				notificationDao.deleteByIds(batch.stream().map(Notification::getId).toList());
+				moved += batch.size();
+				if (batch.size() < batchSize)
+				{
+					return moved;
+				}
+				batch = notificationDao.getReadBefore(cutoff, batchSize);
+				if (batch.isEmpty())
+				{
+					return moved;
+				}
+			}
+		}
+	}
+
+	/**
+	 * A line of an archive file.
+	 *
+	 * @param id      the ID the notification had
+	 * @param time    the time of the notification
+	 * @param message the message of the notification
+	 */
+	public record ArchivedNotification(int id, LocalDateTime time, String message)
+	{
+	}
+
+	/**
+	 * The outcome of one archive run.
+	 *
+	 * @param startedAt the time the run started
+	 * @param directory the directory the archive file was written to
+	 * @param moved     the number of notifications moved, 0 if the run failed;
+	 *                  the notifications moved before a failure are kept in
+	 *                  the archive file
+	 * @param failure   the reason the run failed, or {@code null} if it
+	 *                  succeeded
+	 */
+	public record ArchiveRun(LocalDateTime startedAt, Path directory, long moved, Exception failure)
+	{
+		/**
+		 * @return whether the run succeeded
+		 */
+		public boolean succeeded()
+		{
+			return failure == null;
+		}
+	}
+}
@@ -1,10 +1,15 @@
 package domain;
 
+import java.util.Collection;
 import java.util.List;
 
 import dto.NotificationDTO;
+import event.EventBus;
+import event.NotificationsRead;
 import repository.NotificationDao;
 import repository.NotificationDaoJpa;
+import repository.Page;
+import repository.PageRequest;
 
 /**
  * Controller class for managing notifications. Provides functionality to
@@ -15,6 +20,8 @@ public class NotificationController
 {
 	private NotificationDao notificationRepo;
 	private List<Notification> notificationList;
+	private UnreadNotificationCounter unreadCounter = UnreadNotificationCounter.getInstance();
+	private EventBus eventBus = EventBus.getInstance();
 
 	/**
 	 * Constructs a new NotificationController and initializes the notification
@@ -46,6 +53,50 @@ public class NotificationController
 		return notificationRepo.getAllUnread().stream().map(this::toDTO).toList();
 	}
 
+	/**
+	 * Retrieves one page of read notifications, newest first, in keyset order.
+	 *
+	 * @param request the page to retrieve
+	 * @return the requested page of NotificationDTO objects
+	 */
+	public Page<NotificationDTO> getAllRead(PageRequest request)
+	{
+		return notificationRepo.getAllRead(request).map(this::toDTO);
+	}
+
+	/**
+	 * Retrieves one page of unread notifications, newest first, in keyset
+	 * order.
+	 *
+	 * @param request the page to retrieve
+	 * @return the requested page of NotificationDTO objects
+	 */
+	public Page<NotificationDTO> getAllUnread(PageRequest request)
+	{
+		return notificationRepo.getAllUnread(request).map(this::toDTO);
+	}
+
+	/**
+	 * Retrieves the most recent unread notifications and converts them to DTOs.
+	 *
+	 * @param max the maximum number of notifications to return
+	 * @return the newest unread notifications, newest first
+	 */
+	public List<NotificationDTO> getLatestUnread(int max)
+	{
+		return notificationRepo.getLatestUnread(max).stream().map(this::toDTO).toList();
+	}
+
+	/**
+	 * Returns the number of unread notifications without loading them.
+	 *
+	 * @return the number of unread notifications
+	 */
+	public long countUnread()
+	{
+		return unreadCounter.get();
+	}
+
 	/**
 	 * Converts a Notification entity to a NotificationDTO.
 	 *
@@ -64,6 +115,42 @@ public class NotificationController
 	 */
 	public void markAsRead(int id)
 	{
-		notificationRepo.markAsRead(id);
+		long startedAt = System.nanoTime();
+		if (notificationRepo.markAsRead(id))
+		{
+			eventBus.publish(new NotificationsRead(1, startedAt));
+		}
+	}
+
+	/**
+	 * Marks the given notifications as read in one database statement.
+	 *
+	 * @param ids the IDs of the notifications to mark as read
+	 * @return the number of notifications that were unread
+	 */
+	public int markAsRead(Collection<Integer> ids)
+	{
+		long startedAt = System.nanoTime();
+		return read(notificationRepo.markAsRead(ids), startedAt);
+	}
+
+	/**
+	 * Marks all unread notifications as read in one database statement.
+	 *
+	 * @return the number of notifications that were unread
+	 */
+	public int markAllAsRead()
+	{
+		long startedAt = System.nanoTime();
+		return read(notificationRepo.markAllAsRead(), startedAt);
+	}
+
+	private int read(int count, long startedAt)
+	{
+		if (count > 0)
+		{
+			eventBus.publish(new NotificationsRead(count, startedAt));
+		}
+		return count;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,289 @@
+package domain;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import event.EventBus;
+import event.NotificationsAdded;
+import repository.NotificationDao;
+import repository.NotificationDaoJpa;
+
+/**
+ * Writes notifications behind the back of the controllers that create them.
+ * Notifications are queued and a background thread inserts them in batches of
+ * up to {@value #BATCH_SIZE}, one transaction per batch, so saving a site or
+ * importing thousands of rows no longer commits a notification per change.
+ * <p>
+ * The queue is bounded. When it is full, or once the writer is closed, the
+ * calling thread writes its notification itself; a burst of changes is then
+ * slowed down to the speed of the database instead of filling the heap.
+ * Queued notifications are written when the writer is closed, which happens
+ * on JVM shutdown for the shared writer.
+ * <p>
+ * A batch that cannot be written is tried again up to {@value #MAX_ATTEMPTS}
+ * times in all, waiting twice as long before every next attempt, so a database
+ * that is briefly unreachable does not cost notifications. Only then is the
+ * batch reported and dropped, so a lasting failure does not stop later
+ * notifications. Every written batch is announced with a
+ * {@link NotificationsAdded} event.
+ */
+public class NotificationWriter implements AutoCloseable
+{
+	/** The default number of notifications that can wait to be written. */
+	public static final int DEFAULT_CAPACITY = 10_000;
+
+	/** The number of notifications that can wait to be written. */
+	public static final String CAPACITY_PROPERTY = "shopfloor.notifications.queue-capacity";
+
+	/** The maximum number of notifications inserted in one transaction. */
+	static final int BATCH_SIZE = 100;
+
+	/** The number of times a batch is tried before it is dropped. */
+	static final int MAX_ATTEMPTS = 3;
+
+	/** The default time to wait before a failed batch is tried again. */
+	static final Duration DEFAULT_RETRY_DELAY = Duration.ofSeconds(1);
+
+	private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+	private static NotificationWriter instance;
+
+	private final NotificationDao notificationDao;
+	private final EventBus eventBus;
+	private final Duration retryDelay;
+	private final BlockingQueue<Notification> queue;
+	private final Thread thread;
+
+	/** The lock that guards {@link #pending} and {@link #closed}. */
+	private final Object lock = new Object();
+	/** The number of queued notifications that are not written yet. */
+	private int pending;
+	private boolean closed;
+
+	/**
+	 * @param notificationDao inserts the notifications
+	 * @param capacity        the number of notifications that can wait to be
+	 *                        written
+	 */
+	public NotificationWriter(NotificationDao notificationDao, int capacity)
+	{
+		this(notificationDao, capacity, EventBus.getInstance(), DEFAULT_RETRY_DELAY);
+	}
+
+	/**
+	 * @param notificationDao inserts the notifications
+	 * @param capacity        the number of notifications that can wait to be
+	 *                        written
+	 * @param eventBus        the bus the written batches are announced on
+	 * @param retryDelay      the time to wait before a failed batch is tried
+	 *                        the second time, doubled for every next attempt
+	 */
+	public NotificationWriter(NotificationDao notificationDao, int capacity, EventBus eventBus, Duration retryDelay)
+	{
+		this.notificationDao = notificationDao;
+		this.eventBus = eventBus;
+		this.retryDelay = retryDelay;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.thread = new Thread(this::run, "notification-writer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Returns the shared writer, sized with {@value #CAPACITY_PROPERTY}. It is
+	 * closed on JVM shutdown.
+	 *
+	 * @return the shared writer
+	 */
+	public static synchronized NotificationWriter getInstance()
+	{
+		if (instance == null)
+		{
+			instance = new NotificationWriter(new NotificationDaoJpa(),
+					Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+			Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "notification-writer-shutdown"));
+		}
+		return instance;
+	}
+
+	/**
+	 * Queues a notification to be written, or writes it right away when the
+	 * queue is full or the writer is closed.
+	 *
+	 * @param notification the new notification
+	 * @throws RuntimeException if the notification is written right away and
+	 *                          that fails
+	 */
+	public void write(Notification notification)
+	{
+		boolean queueing;
+		synchronized (lock)
+		{
+			// Decided with the lock held, so close() either waits for this notification or it is written here
+			queueing = !closed;
+			if (queueing)
+			{
+				pending++;
+			}
+		}
+		if (queueing)
+		{
+			if (queue.offer(notification))
+			{
+				return;
+			}
+			written(1);
+		}
+		eventBus.publish(insert(List.of(notification)));
+	}
+
+	/**
+	 * Waits until all queued notifications are written.
+	 *
+	 * @param timeout the maximum time to wait
+	 * @param unit    the unit of the timeout
+	 * @return {@code true} if all notifications were written in time
+	 * @throws InterruptedException if the calling thread is interrupted
+	 */
+	public boolean flush(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		synchronized (lock)
+		{
+			while (pending > 0)
+			{
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0)
+				{
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the queued notifications and stops the background thread. Later
+	 * notifications are written by the thread that creates them.
+	 */
+	@Override
+	public void close()
+	{
+		synchronized (lock)
+		{
+			closed = true;
+		}
+		try
+		{
+			if (!flush(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+			{
+				System.err.println("Not all notifications were written within " + CLOSE_TIMEOUT_SECONDS + " seconds");
+			}
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		} finally
+		{
+			thread.interrupt();
+		}
+	}
+
+	private void run()
+	{
+		while (true)
+		{
+			List<Notification> batch = new ArrayList<>(BATCH_SIZE);
+			try
+			{
+				batch.add(queue.take());
+			} catch (InterruptedException e)
+			{
+				return;
+			}
+			queue.drainTo(batch, BATCH_SIZE - 1);
+			try
+			{
+				NotificationsAdded added = insertRetrying(batch);
+				if (added != null)
+				{
+					eventBus.publish(added);
+				}
+			} catch (RuntimeException e)
+			{
+				System.err.println("Listener of NotificationsAdded failed: " + e.getMessage());
+			} finally
+			{
+				written(batch.size());
+			}
+		}
+	}
+
+	/**
+	 * Inserts a batch, trying again after a growing delay when it fails.
+	 *
+	 * @return the event that announces the batch, or {@code null} if it was
+	 *         dropped
+	 */
+	private NotificationsAdded insertRetrying(List<Notification> batch)
+	{
+		Duration delay = retryDelay;
+		for (int attempt = 1;; attempt++)
+		{
+			try
+			{
+				return insert(batch);
+			} catch (RuntimeException e)
+			{
+				if (attempt == MAX_ATTEMPTS)
+				{
+					System.err.println("Could not write " + batch.size() + " notifications after " + MAX_ATTEMPTS
+							+ " attempts: " + e.getMessage());
+					return null;
+				}
+			}
+			try
+			{
+				Thread.sleep(delay);
+			} catch (InterruptedException e)
+			{
+				System.err.println("Could not write " + batch.size() + " notifications: interrupted");
+				Thread.currentThread().interrupt();
+				return null;
+			}
+			delay = delay.multipliedBy(2);
+		}
+	}
+
+	private NotificationsAdded insert(List<Notification> notifications)
+	{
+		long startedAt = System.nanoTime();
+		notificationDao.startTransaction();
+		try
+		{
+			notificationDao.insertAll(notifications);
+			notificationDao.commitTransaction();
+		} catch (RuntimeException e)
+		{
+			notificationDao.rollbackTransaction();
+			throw e;
+		}
+		return new NotificationsAdded(notifications.size(), startedAt);
+	}
+
+	private void written(int count)
+	{
+		synchronized (lock)
+		{
+			pending -= count;
+			if (pending == 0)
+			{
+				lock.notifyAll();
+			}
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the results of domain queries, keyed by a query name
+ * and its parameters. The least recently used entry is evicted once the cache
+ * holds its maximum number of entries.
+ * <p>
+ * All entries are dropped on every change published by the controllers (see
+ * {@link ChangeListeners}), so a cached result never outlives a write made
+ * through this application. Cached values are shared between callers and must
+ * therefore be immutable.
+ */
+public class QueryCache
+{
+	private static final int DEFAULT_MAX_ENTRIES = 128;
+
+	private static QueryCache instance;
+
+	private final int maxEntries;
+	private final Map<Key, Object> entries;
+	/** Incremented on every invalidation, so loads that raced with it are not stored. */
+	private long generation;
+
+	/**
+	 * @param maxEntries the maximum number of cached results
+	 */
+	public QueryCache(int maxEntries)
+	{
+		if (maxEntries < 1)
+		{
+			throw new IllegalArgumentException("maxEntries must be at least 1");
+		}
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest)
+			{
+				return size() > QueryCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cache shared by the controllers of the application.
+	 *
+	 * @return the shared cache
+	 */
+	public static synchronized QueryCache getInstance()
+	{
+		if (instance == null)
+		{
+			instance = new QueryCache(DEFAULT_MAX_ENTRIES);
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the cached result of a query, running the query on a miss. The
+	 * query runs without holding the cache lock.
+	 *
+	 * @param query      name of the query
+	 * @param loader     runs the query
+	 * @param parameters the parameters of the query
+	 * @return the (possibly cached) result
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V get(String query, Supplier<V> loader, Object... parameters)
+	{
+		Key key = new Key(query, Arrays.asList(parameters));
+		long loadGeneration;
+		synchronized (this)
+		{
+			if (entries.containsKey(key))
+			{
+				return (V) entries.get(key);
+			}
+			loadGeneration = generation;
+		}
+
+		V value = loader.get();
+		synchronized (this)
+		{
+			if (loadGeneration == generation)
+			{
+				entries.put(key, value);
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Drops all cached results.
+	 */
+	public synchronized void invalidateAll()
+	{
+		generation++;
+		entries.clear();
+	}
+
+	public synchronized int size()
+	{
+		return entries.size();
+	}
+
+	private record Key(String query, List<Object> parameters)
+	{
+	}
+}
@@ -10,9 +10,8 @@ import java.util.stream.Collectors;
 import exceptions.InformationRequiredExceptionAddress;
 import exceptions.InformationRequiredExceptionSite;
 import exceptions.InvalidInputException;
-import interfaces.Observer;
 import interfaces.RequiredElement;
-import interfaces.Subject;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -23,34 +22,52 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedEntityGraphs;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
-import jakarta.persistence.Transient;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.eclipse.persistence.annotations.BatchFetch;
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.annotations.Cache;
+import repository.SharedCache;
 import util.RequiredElementSite;
 import util.Status;
 
 /**
  * Represents a physical site/location containing machines and managed by a
- * responsible user. Implements the Subject interface for observer pattern
- * functionality.
+ * responsible user.
  */
 @Getter
 @Table(name = "sites")
 @Entity
+@Cacheable
+@Cache(expiry = SharedCache.EXPIRY_MILLIS)
 @NoArgsConstructor
-public class Site implements Serializable, Subject
+@NamedEntityGraphs(
+{ @NamedEntityGraph(name = Site.SUMMARY_GRAPH, attributeNodes =
+		{ @NamedAttributeNode(value = "verantwoordelijke", subgraph = "user"),
+				@NamedAttributeNode("address") }, subgraphs = @NamedSubgraph(name = "user", attributeNodes =
+				@NamedAttributeNode("address"))),
+		@NamedEntityGraph(name = Site.WITH_MACHINES_GRAPH, attributeNodes =
+		{ @NamedAttributeNode(value = "verantwoordelijke", subgraph = "user"), @NamedAttributeNode("address"),
+				@NamedAttributeNode(value = "machines", subgraph = "machine") }, subgraphs =
+				{ @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("address")),
+						@NamedSubgraph(name = "machine", attributeNodes =
+						@NamedAttributeNode(value = "technician", subgraph = "user")) }) })
+public class Site implements Serializable
 {
-	private static final long serialVersionUID = 1L;
+	/** Fetch plan of a site without its machines. */
+	public static final String SUMMARY_GRAPH = "Site.summary";
 
-	/**
-	 * Set of observers that are monitoring changes to this site. Marked as
-	 * transient as it doesn't need to be persisted.
-	 */
-	@Transient
-	private Set<Observer> observers = new HashSet<>();
+	/** Fetch plan of a site with its machines and their technicians. */
+	public static final String WITH_MACHINES_GRAPH = "Site.withMachines";
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * Unique identifier for the site. Automatically generated by the database.
@@ -70,6 +87,7 @@ public class Site implements Serializable, Subject
 	 * User entity. Cascade persist is enabled for this relationship.
 	 */
 	@ManyToOne(cascade = CascadeType.PERSIST)
+	@BatchFetch(BatchFetchType.IN)
 	@JoinColumn(name = "VERANTWOORDELIJKE_ID")
 	private User verantwoordelijke;
 
@@ -79,15 +97,18 @@ public class Site implements Serializable, Subject
 	 */
 	@Setter
 	@ManyToOne(cascade = CascadeType.PERSIST)
+	@BatchFetch(BatchFetchType.IN)
 	@JoinColumn(name = "ADDRESS_ID")
 	private Address address;
 
 	/**
 	 * Set of machines located at this site. Maintains a one-to-many bidirectional
-	 * relationship with Machine entity. Uses eager fetching to load machines when
-	 * the site is loaded.
+	 * relationship with Machine entity. Machines are loaded lazily, for all
+	 * loaded sites at once in one batch query, or together with the site
+	 * through the {@value #WITH_MACHINES_GRAPH} entity graph.
 	 */
-	@OneToMany(mappedBy = "site", fetch = FetchType.EAGER)
+	@OneToMany(mappedBy = "site", fetch = FetchType.LAZY)
+	@BatchFetch(BatchFetchType.IN)
 	private Set<Machine> machines = new HashSet<>();
 
 	/**
@@ -117,7 +138,7 @@ public class Site implements Serializable, Subject
 	}
 
 	/**
-	 * Sets the name of the site and notifies observers of the change.
+	 * Sets the name of the site.
 	 *
 	 * @param siteName the new name for the site (will be trimmed)
 	 * @throws InvalidInputException if siteName is null or empty
@@ -129,11 +150,10 @@ public class Site implements Serializable, Subject
 			throw new InvalidInputException("Site name cannot be null or empty");
 		}
 		this.siteName = siteName.trim();
-		notifyObservers("");
 	}
 
 	/**
-	 * Sets the responsible user for this site and notifies observers.
+	 * Sets the responsible user for this site.
 	 *
 	 * @param verantwoordelijke the new responsible user (cannot be null)
 	 * @throws InvalidInputException if verantwoordelijke is null
@@ -147,11 +167,10 @@ public class Site implements Serializable, Subject
 		{
 			this.verantwoordelijke = verantwoordelijke;
 		}
-		notifyObservers("");
 	}
 
 	/**
-	 * Sets the status of the site and notifies observers.
+	 * Sets the status of the site.
 	 *
 	 * @param status the new status for the site (cannot be null)
 	 * @throws InvalidInputException if status is null
@@ -165,7 +184,6 @@ public class Site implements Serializable, Subject
 		{
 			this.status = status;
 		}
-		notifyObservers("");
 	}
 
 	public Set<Machine> getMachines()
@@ -188,26 +206,6 @@ public class Site implements Serializable, Subject
 		}
 	}
 
-	@Override
-	public void addObserver(Observer o)
-	{
-		observers.add(o);
-	}
-
-	@Override
-	public void removeObserver(Observer o)
-	{
-		observers.remove(o);
-	}
-
-	@Override
-	public void notifyObservers(String message)
-	{
-		observers.forEach(observer -> {
-			observer.update(message);
-		});
-	}
-
 	/**
 	 * Builder class for constructing Site objects with validation. Implements the
 	 * Builder pattern to create Site instances with required fields.
@@ -2,41 +2,67 @@ package domain;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import dto.MachineDTO;
 import dto.SiteDTOWithMachines;
 import dto.SiteDTOWithoutMachines;
+import dto.SiteRow;
 import dto.UserDTO;
+import event.EventBus;
+import event.FieldChanges;
+import event.SiteCreated;
+import event.SiteUpdated;
 import exceptions.InformationRequiredExceptionSite;
-import interfaces.Observer;
-import interfaces.Subject;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
 import repository.GenericDaoJpa;
+import repository.Page;
+import repository.PageRequest;
+import repository.Projection;
 import repository.UserDao;
 import repository.UserDaoJpa;
 import util.DTOMapper;
+import util.DTOMapper.MappingContext;
 import util.Status;
 
 /**
- * Controller class for managing site operations and business logic. Implements
- * the Subject interface for observer pattern functionality. Handles CRUD
- * operations for sites and provides various filtering capabilities.
+ * Controller class for managing site operations and business logic. Handles
+ * CRUD operations for sites, publishes every committed change as an event and
+ * provides various filtering capabilities.
  */
-public class SiteController implements Subject
+public class SiteController
 {
+	/** The columns of the site list. */
+	private static final Projection<Site, SiteRow> SITE_ROW = new Projection<>(SiteRow.class, (root, cb) -> {
+		Join<Site, User> verantwoordelijke = root.join("verantwoordelijke", JoinType.LEFT);
+		return List.of(root.get("id"), root.get("siteName"), verantwoordelijke.get("firstName"), root.get("status"),
+				cb.size(root.get("machines")));
+	});
+
+	/** The fields of a site reported in {@link SiteUpdated}. */
+	private static final FieldChanges<Site> SITE_FIELDS = new FieldChanges<Site>()
+			.field("siteName", Site::getSiteName)
+			.field("address", site -> Address.fieldsOf(site.getAddress()))
+			.field("verantwoordelijke",
+					site -> site.getVerantwoordelijke() == null ? null : site.getVerantwoordelijke().getId())
+			.field("status", Site::getStatus);
+
 	private GenericDaoJpa<Site> siteRepo;
-	private List<Observer> observers = new ArrayList<>();
+	private EventBus eventBus = ChangeListeners.sharedBus();
 	private UserDao userRepo;
+	private QueryCache queryCache;
 	
 	/**
 	 * Constructs a new SiteController with default repository implementations.
-	 * Automatically adds a NotificationObserver to observe changes.
+	 * Query results are cached in the shared QueryCache.
 	 */
 	public SiteController()
 	{
 		userRepo = new UserDaoJpa();
 		siteRepo = new GenericDaoJpa<Site>(Site.class);
-		addObserver(new NotificationObserver());
+		queryCache = QueryCache.getInstance();
 	}
 
 	/**
@@ -59,7 +85,33 @@ public class SiteController implements Subject
 	public List<SiteDTOWithMachines> getSites()
 	{
 		List<Site> sites = siteRepo.findAll();
-		return sites.stream().map(site -> DTOMapper.toSiteDTOWithMachines(site)).toList();
+		MappingContext context = new MappingContext();
+		return sites.stream().map(site -> DTOMapper.toSiteDTOWithMachines(site, context)).toList();
+	}
+
+	/**
+	 * Retrieves one page of site list rows matching a filter in keyset order.
+	 * The rows are read-only projections; use {@link #getSite(int)} for the
+	 * full site.
+	 * 
+	 * @param filter  the filter to apply, or null for all sites
+	 * @param request the page to retrieve
+	 * @return the requested page of SiteRow objects
+	 */
+	public Page<SiteRow> getSiteRows(SiteFilter filter, PageRequest request)
+	{
+		return siteRepo.findRows(request, filter, SITE_ROW);
+	}
+
+	/**
+	 * Counts the sites matching a filter.
+	 * 
+	 * @param filter the filter to apply, or null for all sites
+	 * @return the number of matching sites
+	 */
+	public long countSites(SiteFilter filter)
+	{
+		return siteRepo.count(filter);
 	}
 
 	/**
@@ -97,24 +149,11 @@ public class SiteController implements Subject
 	public List<SiteDTOWithMachines> getFilteredSites(String searchFilter, String statusFilter, String siteNameFilter,
 			String verantwoordelijkeFilter, Integer minMachinesFilter, Integer maxMachinesFilter)
 	{
-
-		String lowerCaseSearchFilter = searchFilter == null ? "" : searchFilter.toLowerCase();
-
-		int minMachines = minMachinesFilter != null ? minMachinesFilter : 0;
-		int maxMachines = maxMachinesFilter != null ? maxMachinesFilter : Integer.MAX_VALUE;
-
-		return getSites().stream().filter(site -> statusFilter == null || site.status().toString().equals(statusFilter))
-				.filter(site -> siteNameFilter == null
-						|| site.siteName().toLowerCase().contains(siteNameFilter.toLowerCase()))
-				.filter(site -> verantwoordelijkeFilter == null || (site.verantwoordelijke() != null
-						&& (site.verantwoordelijke().firstName() + " " + site.verantwoordelijke().lastName())
-								.equals(verantwoordelijkeFilter)))
-				.filter(site -> site.machines().size() >= minMachines && site.machines().size() <= maxMachines)
-				.filter(site -> site.siteName().toLowerCase().contains(lowerCaseSearchFilter)
-						|| (site.verantwoordelijke() != null && (site.verantwoordelijke().firstName().toLowerCase()
-								.contains(lowerCaseSearchFilter)
-								|| site.verantwoordelijke().lastName().toLowerCase().contains(lowerCaseSearchFilter)))
-						|| site.status().toString().toLowerCase().contains(lowerCaseSearchFilter))
+		SiteFilter filter = SiteFilter.of(searchFilter, statusFilter, siteNameFilter, verantwoordelijkeFilter,
+				minMachinesFilter, maxMachinesFilter);
+		MappingContext context = new MappingContext();
+		return siteRepo.findAll(filter, Site.WITH_MACHINES_GRAPH).stream()
+				.map(site -> DTOMapper.toSiteDTOWithMachines(site, context))
 				.collect(Collectors.toList());
 	}
 
@@ -162,39 +201,59 @@ public class SiteController implements Subject
 	}
 
 	/**
-	 * Retrieves all distinct status values from sites.
+	 * Retrieves all distinct status values from sites. The result is cached
+	 * until sites, machines or users change.
 	 * 
-	 * @return List of unique status strings
+	 * @return unmodifiable list of unique status strings
 	 */
 	public List<String> getAllStatusses()
 	{
-		List<SiteDTOWithMachines> allSites = getSites();
-		return allSites.stream().map(s -> s.status().toString()).distinct().sorted().collect(Collectors.toList());
+		return filterOptions().statusses();
 	}
 
 	/**
-	 * Retrieves all distinct site names.
+	 * Retrieves all distinct site names. The result is cached until sites,
+	 * machines or users change.
 	 * 
-	 * @return List of unique site names
+	 * @return unmodifiable list of unique site names
 	 */
 	public List<String> getAllSiteNames()
 	{
-		List<SiteDTOWithMachines> allSites = getSites();
-		return allSites.stream().map(SiteDTOWithMachines::siteName).distinct().sorted().collect(Collectors.toList());
+		return filterOptions().siteNames();
 	}
 
 	/**
-	 * Retrieves all distinct responsible persons from sites.
+	 * Retrieves all distinct responsible persons from sites. The result is
+	 * cached until sites, machines or users change.
 	 * 
-	 * @return List of unique responsible person names in "firstName lastName"
-	 *         format
+	 * @return unmodifiable list of unique responsible person names in
+	 *         "firstName lastName" format
 	 */
 	public List<String> getAllVerantwoordelijken()
 	{
-		List<SiteDTOWithMachines> allSites = getSites();
-		return allSites.stream().filter(s -> s.verantwoordelijke() != null)
-				.map(s -> s.verantwoordelijke().firstName() + " " + s.verantwoordelijke().lastName()).distinct()
-				.sorted().collect(Collectors.toList());
+		return filterOptions().verantwoordelijken();
+	}
+
+	/**
+	 * Returns the values of the three site filters, read from one list of
+	 * sites, as the filter screen asks for all of them at once.
+	 */
+	private FilterOptions filterOptions()
+	{
+		return queryCache.get("Site.filterOptions", () -> {
+			List<Site> sites = siteRepo.findAll();
+			return new FilterOptions(
+					sites.stream().map(Site::getStatus).filter(Objects::nonNull).map(Status::toString).distinct()
+							.sorted().toList(),
+					sites.stream().map(Site::getSiteName).filter(Objects::nonNull).distinct().sorted().toList(),
+					sites.stream().map(Site::getVerantwoordelijke).filter(Objects::nonNull)
+							.map(user -> user.getFirstName() + " " + user.getLastName()).distinct().sorted()
+							.toList());
+		});
+	}
+
+	private record FilterOptions(List<String> statusses, List<String> siteNames, List<String> verantwoordelijken)
+	{
 	}
 	
 	/**
@@ -267,12 +326,13 @@ public class SiteController implements Subject
 	 */
 	public List<SiteDTOWithoutMachines> getSitesWithoutMachines()
 	{
-		List<Site> sites = siteRepo.findAll();
+		List<Site> sites = siteRepo.findAll(null, Site.SUMMARY_GRAPH);
 		if (sites == null)
 		{
 			return new ArrayList<>();
 		}
-		return sites.stream().map(site -> DTOMapper.toSiteDTOWithoutMachines(site)).toList();
+		MappingContext context = new MappingContext();
+		return sites.stream().map(site -> DTOMapper.toSiteDTOWithoutMachines(site, context)).toList();
 	}
 
 	/**
@@ -305,10 +365,19 @@ public class SiteController implements Subject
 				.build();
 		
 		siteRepo.startTransaction();
-		siteRepo.insert(newSite);
-		siteRepo.commitTransaction();
+		try
+		{
+			// Persisting the site cascades to the user, so it must be managed by this transaction, not detached
+			newSite.setVerantwoordelijke(userRepo.get(employeeId));
+			siteRepo.insert(newSite);
+			siteRepo.commitTransaction();
+		} catch (RuntimeException e)
+		{
+			siteRepo.rollbackTransaction();
+			throw e;
+		}
 
-		notifyObservers("Site aangemaakt " + newSite.getId() + " " + newSite.getSiteName());
+		eventBus.publish(new SiteCreated(newSite.getId(), newSite.getSiteName()));
 
 		return DTOMapper.toSiteDTOWithMachines(newSite);
 	}
@@ -359,26 +428,9 @@ public class SiteController implements Subject
 		siteRepo.update(updatedSite);
 		siteRepo.commitTransaction();
 
-		notifyObservers("Site bijgewerkt " + updatedSite.getId() + " " + updatedSite.getSiteName());
+		eventBus.publish(new SiteUpdated(updatedSite.getId(), updatedSite.getSiteName(),
+				SITE_FIELDS.between(existingSite, updatedSite)));
 
 		return DTOMapper.toSiteDTOWithMachines(updatedSite);
 	}
-
-	@Override
-	public void addObserver(Observer observer)
-	{
-		observers.add(observer);
-	}
-
-	@Override
-	public void removeObserver(Observer observer)
-	{
-		observers.remove(observer);
-	}
-
-	@Override
-	public void notifyObservers(String message)
-	{
-		observers.forEach(o -> o.update(message));
-	}
 }
\ No newline at end of file
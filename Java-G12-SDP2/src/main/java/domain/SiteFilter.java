@@ -0,0 +1,92 @@
+package domain;
+
+import static repository.Specification.containsIgnoreCase;
+import static repository.Specification.hasText;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import repository.Specification;
+import util.Status;
+
+/**
+ * Filter criteria of the site list, evaluated by the database.
+ *
+ * @param search            text matched against site name, name of the
+ *                          verantwoordelijke and status (case insensitive)
+ * @param status            status to match, or {@code null}
+ * @param siteName          text the site name must contain, or {@code null}
+ * @param verantwoordelijke full name ("first last") of the verantwoordelijke,
+ *                          or {@code null}
+ * @param minMachines       minimum number of machines, or {@code null}
+ * @param maxMachines       maximum number of machines, or {@code null}
+ */
+public record SiteFilter(String search, Status status, String siteName, String verantwoordelijke,
+		Integer minMachines, Integer maxMachines) implements Specification<Site>
+{
+	/**
+	 * Creates a filter from the values selected in the user interface.
+	 * {@link Integer#MIN_VALUE} and {@link Integer#MAX_VALUE} are treated as "no
+	 * bound" for the machine count.
+	 *
+	 * @return the filter
+	 */
+	public static SiteFilter of(String search, String status, String siteName, String verantwoordelijke,
+			Integer minMachines, Integer maxMachines)
+	{
+		return new SiteFilter(search, status == null ? null : Status.valueOf(status), siteName, verantwoordelijke,
+				minMachines == null || minMachines <= 0 ? null : minMachines,
+				maxMachines == null || maxMachines == Integer.MAX_VALUE ? null : maxMachines);
+	}
+
+	@Override
+	public Predicate toPredicate(Root<Site> root, CriteriaQuery<?> query, CriteriaBuilder cb)
+	{
+		List<Predicate> predicates = new ArrayList<>();
+		Join<Site, User> manager = root.join("verantwoordelijke", JoinType.LEFT);
+
+		if (status != null)
+		{
+			predicates.add(cb.equal(root.get("status"), status));
+		}
+		if (hasText(siteName))
+		{
+			predicates.add(containsIgnoreCase(cb, root.get("siteName"), siteName));
+		}
+		if (verantwoordelijke != null)
+		{
+			Expression<String> fullName = cb.concat(cb.concat(manager.get("firstName"), " "), manager.get("lastName"));
+			predicates.add(cb.equal(fullName, verantwoordelijke));
+		}
+		if (minMachines != null)
+		{
+			predicates.add(cb.ge(cb.size(root.get("machines")), minMachines));
+		}
+		if (maxMachines != null)
+		{
+			predicates.add(cb.le(cb.size(root.get("machines")), maxMachines));
+		}
+		if (hasText(search))
+		{
+			List<Predicate> matches = new ArrayList<>(List.of(containsIgnoreCase(cb, root.get("siteName"), search),
+					containsIgnoreCase(cb, manager.get("firstName"), search),
+					containsIgnoreCase(cb, manager.get("lastName"), search)));
+			List<Status> matchingStatusses = Arrays.stream(Status.values())
+					.filter(s -> s.toString().toLowerCase().contains(search.toLowerCase())).toList();
+			if (!matchingStatusses.isEmpty())
+			{
+				matches.add(root.get("status").in(matchingStatusses));
+			}
+			predicates.add(cb.or(matches.toArray(Predicate[]::new)));
+		}
+		return cb.and(predicates.toArray(Predicate[]::new));
+	}
+}
@@ -0,0 +1,101 @@
+package domain;
+
+import event.EventBus;
+import event.NotificationsAdded;
+import event.NotificationsRead;
+import repository.NotificationDao;
+import repository.NotificationDaoJpa;
+
+/**
+ * Keeps the number of unread notifications, so the notification badge costs
+ * one {@code COUNT} query per session instead of loading every unread row.
+ * The number is counted by the database on first use and then kept up to date
+ * from the {@link NotificationsAdded} and {@link NotificationsRead} events.
+ * An event of a transaction that started before the count finished may or may
+ * not be in the count already, so it makes the counter count again on next
+ * use instead of being added twice.
+ * <p>
+ * Notifications stored by another instance of the application are not seen
+ * until the counter is {@link #reset()}.
+ */
+public class UnreadNotificationCounter
+{
+	private static UnreadNotificationCounter instance;
+
+	private final NotificationDao notificationDao;
+	/** The number of unread notifications, or -1 until it is counted. */
+	private long unread = -1;
+	/** The {@link System#nanoTime()} the last count finished at. */
+	private long countedAt;
+
+	private UnreadNotificationCounter(NotificationDao notificationDao)
+	{
+		this.notificationDao = notificationDao;
+	}
+
+	/**
+	 * Creates a counter that follows the notification events of a bus.
+	 *
+	 * @param notificationDao counts the unread notifications
+	 * @param eventBus        the bus the notification events are published on
+	 * @return the counter
+	 */
+	public static UnreadNotificationCounter following(NotificationDao notificationDao, EventBus eventBus)
+	{
+		UnreadNotificationCounter counter = new UnreadNotificationCounter(notificationDao);
+		eventBus.subscribe(NotificationsAdded.class, event -> counter.add(event.count(), event.startedAt()));
+		eventBus.subscribe(NotificationsRead.class, event -> counter.add(-event.count(), event.startedAt()));
+		return counter;
+	}
+
+	/**
+	 * Returns the counter of the shared {@link EventBus}.
+	 *
+	 * @return the shared counter
+	 */
+	public static synchronized UnreadNotificationCounter getInstance()
+	{
+		if (instance == null)
+		{
+			instance = following(new NotificationDaoJpa(), EventBus.getInstance());
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the number of unread notifications, counting them on first use.
+	 *
+	 * @return the number of unread notifications
+	 */
+	public synchronized long get()
+	{
+		if (unread < 0)
+		{
+			unread = notificationDao.countUnread();
+			countedAt = System.nanoTime();
+		}
+		return unread;
+	}
+
+	/**
+	 * Counts the unread notifications again on next use.
+	 */
+	public synchronized void reset()
+	{
+		unread = -1;
+	}
+
+	private synchronized void add(long count, long startedAt)
+	{
+		if (unread < 0)
+		{
+			return;
+		}
+		if (startedAt - countedAt < 0)
+		{
+			unread = -1;
+			return;
+		}
+		unread = Math.max(0, unread + count);
+	}
+}
@@ -3,16 +3,13 @@ package domain;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.Period;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import exceptions.InformationRequiredExceptionAddress;
 import exceptions.InformationRequiredExceptionUser;
-import interfaces.Observer;
 import interfaces.RequiredElement;
-import interfaces.Subject;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -22,38 +19,47 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.NamedQueries;
 import jakarta.persistence.NamedQuery;
 import jakarta.persistence.Table;
-import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.eclipse.persistence.annotations.BatchFetch;
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.annotations.Cache;
+import repository.SharedCache;
 import util.RequiredElementUser;
 import util.Role;
 import util.Status;
 
 /**
  * Represents a user entity in the system. This class models all user-related
- * data and implements the Subject interface for observer pattern support.
+ * data.
  */
 @Setter
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(expiry = SharedCache.EXPIRY_MILLIS)
 @Table(name = "users")
 @NamedQueries({
 		@NamedQuery(name = "User.getAllWithAddress", query = "SELECT u FROM User u JOIN u.address a ORDER BY u.id"),
 		@NamedQuery(name = "User.getAllTechniekers", query = "SELECT u FROM User u WHERE u.role = util.Role.TECHNIEKER"),
-		@NamedQuery(name = "User.getByEmail", query = "SELECT u FROM User u WHERE u.email = :email ORDER BY u.id") })
-public class User implements Serializable, Subject
+		@NamedQuery(name = "User.getByEmail", query = "SELECT u FROM User u WHERE u.email = :email ORDER BY u.id"),
+		@NamedQuery(name = "User.getAllEmails", query = "SELECT u.email FROM User u") })
+@NamedEntityGraph(name = User.WITH_ADDRESS_GRAPH, attributeNodes = @NamedAttributeNode("address"))
+public class User implements Serializable
 {
-	private static final long serialVersionUID = 1L;
+	/** Fetch plan of a user with its address. */
+	public static final String WITH_ADDRESS_GRAPH = "User.withAddress";
 
-	@Transient
-	private List<Observer> observers = new ArrayList<>();
+	private static final long serialVersionUID = 1L;
 
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -67,6 +73,7 @@ public class User implements Serializable, Subject
 	private LocalDate birthdate;
 
 	@ManyToOne(cascade = CascadeType.ALL)
+	@BatchFetch(BatchFetchType.IN)
 	@JoinColumn(name = "address_id")
 	private Address address;
 
@@ -123,26 +130,6 @@ public class User implements Serializable, Subject
 		return String.format("%s %s", firstName, lastName);
 	}
 
-	@Override
-	public void addObserver(Observer o)
-	{
-		observers.add(o);
-		notifyObservers("");
-	}
-
-	@Override
-	public void removeObserver(Observer o)
-	{
-		observers.remove(o);
-		notifyObservers("");
-	}
-
-	@Override
-	public void notifyObservers(String message)
-	{
-		observers.forEach(o -> o.update(message));
-	}
-
 	/**
 	 * Builder class for constructing User instances with validation. Implements a
 	 * fluent interface for setting properties and includes validation of required
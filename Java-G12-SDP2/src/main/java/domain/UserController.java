@@ -3,19 +3,27 @@ package domain;
 import java.security.SecureRandom;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import dto.UserDTO;
+import dto.UserRow;
+import event.EventBus;
+import event.FieldChanges;
+import event.UserCreated;
+import event.UserUpdated;
 import exceptions.InvalidInputException;
-import interfaces.Observer;
-import interfaces.Subject;
 import lombok.Getter;
 import lombok.Setter;
+import repository.Page;
+import repository.PageRequest;
+import repository.Projection;
 import repository.UserDao;
 import repository.UserDaoJpa;
 import util.AuthenticationUtil;
 import util.DTOMapper;
+import util.DTOMapper.MappingContext;
 import util.PasswordHasher;
 import util.Role;
 import util.Status;
@@ -25,23 +33,37 @@ import util.Status;
  * class serves as the main interface between the presentation layer and the
  * data access layer for all user management functionality.
  */
-public class UserController implements Subject
+public class UserController
 {
+	/** The columns of the user list. */
+	private static final Projection<User, UserRow> USER_ROW = new Projection<>(UserRow.class,
+			(root, cb) -> List.of(root.get("id"), root.get("firstName"), root.get("lastName"), root.get("email"),
+					root.get("role"), root.get("status")));
+
 	@Setter
 	@Getter
 	private UserDao userRepo;
 
-	private List<Observer> observers = new ArrayList<>();
+	/** The fields of a user reported in {@link UserUpdated}. */
+	private static final FieldChanges<User> USER_FIELDS = new FieldChanges<User>()
+			.field("firstName", User::getFirstName)
+			.field("lastName", User::getLastName)
+			.field("email", User::getEmail)
+			.field("phoneNumber", User::getPhoneNumber)
+			.field("birthdate", User::getBirthdate)
+			.field("address", user -> Address.fieldsOf(user.getAddress()))
+			.field("role", User::getRole)
+			.field("status", User::getStatus);
+
+	private EventBus eventBus = ChangeListeners.sharedBus();
 
 	/**
 	 * Constructs a new UserController with default dependencies. Initializes the
-	 * UserDaoJpa implementation and adds a default NotificationObserver.
+	 * UserDaoJpa implementation.
 	 */
 	public UserController()
 	{
 		userRepo = new UserDaoJpa();
-		addObserver(new NotificationObserver());
-
 	}
 
 	/**
@@ -85,7 +107,33 @@ public class UserController implements Subject
 	public List<UserDTO> getAllUsers()
 	{
 		List<User> users = userRepo.findAll();
-		return users.stream().map(user -> DTOMapper.toUserDTO(user)).toList();
+		MappingContext context = new MappingContext();
+		return users.stream().map(user -> DTOMapper.toUserDTO(user, context)).toList();
+	}
+
+	/**
+	 * Retrieves one page of user list rows matching a filter in keyset order.
+	 * The rows are read-only projections; use {@link #getUserById(int)} for the
+	 * full user.
+	 * 
+	 * @param filter  the filter to apply, or null for all users
+	 * @param request the page to retrieve
+	 * @return the requested page of UserRow objects
+	 */
+	public Page<UserRow> getUserRows(UserFilter filter, PageRequest request)
+	{
+		return userRepo.findRows(request, filter, USER_ROW);
+	}
+
+	/**
+	 * Counts the users matching a filter.
+	 * 
+	 * @param filter the filter to apply, or null for all users
+	 * @return the number of matching users
+	 */
+	public long countUsers(UserFilter filter)
+	{
+		return userRepo.count(filter);
 	}
 
 	/**
@@ -208,7 +256,7 @@ public class UserController implements Subject
 		userRepo.insert(newUser);
 		userRepo.commitTransaction();
 
-		notifyObservers("Gebruiker bijgewerkt: " + newUser.getId() + " " + newUser.getFullName());
+		eventBus.publish(new UserCreated(newUser.getId(), newUser.getFullName()));
 
 		return DTOMapper.toUserDTO(newUser);
 	}
@@ -283,7 +331,8 @@ public class UserController implements Subject
 	        throw new RuntimeException("Error updating user: " + e.getMessage(), e);
 	    }
 
-	    notifyObservers("Gebruiker bijgewerkt: " + updatedUser.getId() + " " + updatedUser.getFullName());
+	    eventBus.publish(new UserUpdated(updatedUser.getId(), updatedUser.getFullName(),
+	            USER_FIELDS.between(existingUser, updatedUser)));
 
 	    return DTOMapper.toUserDTO(updatedUser);
 	}
@@ -302,7 +351,7 @@ public class UserController implements Subject
 	 * @return A randomly generated secure password as a String
 	 * @see SecureRandom
 	 */
-	private static String generatePassword()
+	static String generatePassword()
 	{
 		SecureRandom random = new SecureRandom();
 		String lower = "abcdefghijklmnopqrstuvwxyz";
@@ -336,47 +385,24 @@ public class UserController implements Subject
 		return sb.toString();
 	}
 
-	@Override
-	public void addObserver(Observer observer)
-	{
-		observers.add(observer);
-	}
-
-	@Override
-	public void removeObserver(Observer observer)
-	{
-		observers.remove(observer);
-
-	}
-
-	@Override
-	public void notifyObservers(String message)
-	{
-		for (Observer o : observers)
-			o.update(message);
-
-	}
-
 	/**
-	 * Retrieves all distinct status values from users in the system.
+	 * Retrieves all status values a user can have, without reading the users.
 	 * 
-	 * @return List of all distinct status values as strings
+	 * @return List of all status values as strings
 	 */
 	public List<String> getAllStatusses()
 	{
-		List<UserDTO> allUsers = getAllUsers();
-		return allUsers.stream().map(u -> u.status().toString()).distinct().sorted().collect(Collectors.toList());
+		return Arrays.stream(Status.values()).map(Status::toString).sorted().collect(Collectors.toList());
 	}
 
 	/**
-	 * Retrieves all distinct role values from users in the system.
+	 * Retrieves all role values a user can have, without reading the users.
 	 * 
-	 * @return List of all distinct role values as strings
+	 * @return List of all role values as strings
 	 */
 	public List<String> getAllRoles()
 	{
-		List<UserDTO> allUsers = getAllUsers();
-		return allUsers.stream().map(u -> u.role().toString()).distinct().sorted().collect(Collectors.toList());
+		return Arrays.stream(Role.values()).map(Role::toString).sorted().collect(Collectors.toList());
 	}
 
 	/**
@@ -389,13 +415,8 @@ public class UserController implements Subject
 	 */
 	public List<UserDTO> getFilteredUsers(String searchFilter, String selectedStatus, String selectedRole)
 	{
-		String lowerCaseSearchFilter = searchFilter == null ? "" : searchFilter.toLowerCase();
-		return getAllUsers().stream()
-				.filter(user -> selectedStatus == null || user.status().toString().equals(selectedStatus))
-				.filter(user -> selectedRole == null || user.role().toString().equals(selectedRole))
-				.filter(user -> user.firstName().toLowerCase().contains(lowerCaseSearchFilter)
-						|| user.lastName().toLowerCase().contains(lowerCaseSearchFilter))
-				.collect(Collectors.toList());
+		UserFilter filter = UserFilter.of(searchFilter, selectedStatus, selectedRole);
+		return userRepo.findAll(filter).stream().map(DTOMapper::toUserDTO).collect(Collectors.toList());
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package domain;
+
+import static repository.Specification.containsIgnoreCase;
+import static repository.Specification.hasText;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import repository.Specification;
+import util.Role;
+import util.Status;
+
+/**
+ * Filter criteria of the user list, evaluated by the database.
+ *
+ * @param search text matched against first and last name (case insensitive)
+ * @param status status to match, or {@code null}
+ * @param role   role to match, or {@code null}
+ */
+public record UserFilter(String search, Status status, Role role) implements Specification<User>
+{
+	/**
+	 * Creates a filter from the values selected in the user interface.
+	 *
+	 * @param search the search text
+	 * @param status name of the status, or {@code null}
+	 * @param role   name of the role, or {@code null}
+	 * @return the filter
+	 */
+	public static UserFilter of(String search, String status, String role)
+	{
+		return new UserFilter(search, status == null ? null : Status.valueOf(status),
+				role == null ? null : Role.valueOf(role));
+	}
+
+	@Override
+	public Predicate toPredicate(Root<User> root, CriteriaQuery<?> query, CriteriaBuilder cb)
+	{
+		List<Predicate> predicates = new ArrayList<>();
+		if (status != null)
+		{
+			predicates.add(cb.equal(root.get("status"), status));
+		}
+		if (role != null)
+		{
+			predicates.add(cb.equal(root.get("role"), role));
+		}
+		if (hasText(search))
+		{
+			predicates.add(cb.or(containsIgnoreCase(cb, root.get("firstName"), search),
+					containsIgnoreCase(cb, root.get("lastName"), search)));
+		}
+		return cb.and(predicates.toArray(Predicate[]::new));
+	}
+}
@@ -0,0 +1,10 @@
+package dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * The metadata of an attached file, selected without its content.
+ */
+public record FileInfoRow(int id, String name, String type, long size, LocalDateTime uploadDate)
+{
+}
@@ -0,0 +1,12 @@
+package dto;
+
+/**
+ * A problem with one field of an imported row.
+ *
+ * @param line    the line of the row in the file, counting from 1
+ * @param field   the column or field the problem is about
+ * @param message a description of the problem
+ */
+public record ImportError(long line, String field, String message)
+{
+}
@@ -0,0 +1,26 @@
+package dto;
+
+import java.util.List;
+
+/**
+ * The outcome of an import.
+ *
+ * @param rowsRead        the number of data rows in the file
+ * @param imported        the number of rows that were saved
+ * @param rejected        the number of rows that were not saved
+ * @param errors          the problems of the rejected rows, in file order
+ * @param errorsTruncated whether more problems occurred than
+ *                        {@link #MAX_REPORTED_ERRORS}, which are all the
+ *                        report keeps
+ */
+public record ImportReport(long rowsRead, long imported, long rejected, List<ImportError> errors,
+		boolean errorsTruncated)
+{
+	/** The maximum number of errors kept in a report. */
+	public static final int MAX_REPORTED_ERRORS = 1000;
+
+	public ImportReport
+	{
+		errors = List.copyOf(errors);
+	}
+}
@@ -0,0 +1,31 @@
+package dto;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import util.MachineStatus;
+import util.ProductionStatus;
+
+/**
+ * One row of the machine list, selected straight from the database.
+ */
+public record MachineRow(int id, String code, String location, String productInfo, MachineStatus machineStatus,
+		ProductionStatus productionStatus, LocalDate lastMaintenance, LocalDate futureMaintenance,
+		int numberDaysSinceLastMaintenance, String siteName, String technicianFirstName)
+{
+	/**
+	 * Hours since the start of the day of the last maintenance, as in
+	 * {@code Machine#getUpTimeInHours()}.
+	 *
+	 * @return the uptime in hours, 0 if the machine was never maintained
+	 */
+	public double upTimeInHours()
+	{
+		if (lastMaintenance == null)
+		{
+			return 0.0;
+		}
+		return Duration.between(lastMaintenance.atStartOfDay(), LocalDateTime.now()).toHours();
+	}
+}
@@ -0,0 +1,17 @@
+package dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import util.MaintenanceStatus;
+
+/**
+ * One row of the maintenance history export, selected straight from the
+ * database. The machine columns are {@code null} for a maintenance without
+ * machine.
+ */
+public record MaintenanceExportRow(int id, String machineCode, String siteName, LocalDate executionDate,
+		LocalDateTime startDate, LocalDateTime endDate, String technicianFirstName, String technicianLastName,
+		String reason, String comments, MaintenanceStatus status)
+{
+}
@@ -0,0 +1,16 @@
+package dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import util.MaintenanceStatus;
+
+/**
+ * One row of the maintenance list, selected straight from the database.
+ * {@code machineId} is {@code null} for a maintenance without machine.
+ */
+public record MaintenanceRow(int id, LocalDate executionDate, LocalDateTime startDate, LocalDateTime endDate,
+		String technicianFirstName, String technicianLastName, String reason, String comments,
+		MaintenanceStatus status, Integer machineId)
+{
+}
@@ -0,0 +1,10 @@
+package dto;
+
+import util.Status;
+
+/**
+ * One row of the site list, selected straight from the database.
+ */
+public record SiteRow(int id, String siteName, String verantwoordelijkeFirstName, Status status, int machineCount)
+{
+}
@@ -0,0 +1,24 @@
+package dto;
+
+import java.io.File;
+
+import util.UploadStatus;
+
+/**
+ * The progress of one file in an upload of several files. Files are told
+ * apart by their path, as two files of an upload can have the same name.
+ *
+ * @param file    the uploaded file
+ * @param status  the stage the file reached
+ * @param message why the file failed, or null
+ */
+public record UploadProgress(File file, UploadStatus status, String message)
+{
+	/**
+	 * @return the name of the file, without its directory
+	 */
+	public String fileName()
+	{
+		return file.getName();
+	}
+}
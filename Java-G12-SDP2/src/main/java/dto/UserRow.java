@@ -0,0 +1,11 @@
+package dto;
+
+import util.Role;
+import util.Status;
+
+/**
+ * One row of the user list, selected straight from the database.
+ */
+public record UserRow(int id, String firstName, String lastName, String email, Role role, Status status)
+{
+}
@@ -0,0 +1,12 @@
+package event;
+
+/**
+ * A change to the data of the application, published on the {@link EventBus}
+ * after it was committed. Events say exactly what changed, so listeners can
+ * refresh only what they show of it.
+ */
+public sealed interface DomainEvent
+		permits SiteCreated, SiteUpdated, MachineCreated, MachineUpdated, UserCreated, UserUpdated, ImportCompleted,
+		NotificationsAdded, NotificationsRead
+{
+}
@@ -0,0 +1,184 @@
+package event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Delivers {@link DomainEvent}s to the listeners that subscribed to their
+ * type. The controllers publish an event after every committed change.
+ * <p>
+ * Synchronous subscribers run on the publishing thread, in the order they
+ * subscribed, before {@link #publish(DomainEvent)} returns; use them for work
+ * that must be done before the change is visible, such as invalidating a
+ * cache. Asynchronous subscribers run on a virtual thread of their own for
+ * every event, so a slow listener, e.g. one that reloads a screen, never
+ * delays the change; they may see events out of order.
+ * <p>
+ * A failing subscriber does not stop the delivery to others. The failure of a
+ * synchronous subscriber is rethrown by {@code publish} once every subscriber
+ * got the event, as the publisher has to know its change was not fully
+ * handled; the failure of an asynchronous subscriber is passed to the
+ * {@link ErrorHandler} of the bus. Subscriptions of short-lived listeners, such
+ * as screens, must be closed when they are no longer needed.
+ */
+public class EventBus
+{
+	private static EventBus instance;
+
+	private final List<Subscriber<?>> subscribers = new CopyOnWriteArrayList<>();
+	private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+	private final ErrorHandler asyncErrorHandler;
+
+	/**
+	 * Creates a bus that reports the failures of asynchronous subscribers on
+	 * the standard error stream.
+	 */
+	public EventBus()
+	{
+		this((event, e) -> System.err
+				.println("Listener of " + event.getClass().getSimpleName() + " failed: " + e.getMessage()));
+	}
+
+	/**
+	 * @param asyncErrorHandler receives the failures of asynchronous
+	 *                          subscribers
+	 */
+	public EventBus(ErrorHandler asyncErrorHandler)
+	{
+		this.asyncErrorHandler = asyncErrorHandler;
+	}
+
+	/**
+	 * Returns the bus shared by the controllers and screens of the application.
+	 *
+	 * @return the shared bus
+	 */
+	public static synchronized EventBus getInstance()
+	{
+		if (instance == null)
+		{
+			instance = new EventBus();
+		}
+		return instance;
+	}
+
+	/**
+	 * Subscribes a listener that runs on the publishing thread.
+	 *
+	 * @param type     the type of events to receive, e.g. {@code DomainEvent}
+	 *                 for all events
+	 * @param listener receives the events
+	 * @return the subscription, to close when the listener is done
+	 */
+	public <E extends DomainEvent> Subscription subscribe(Class<E> type, Consumer<? super E> listener)
+	{
+		return add(new Subscriber<>(type, listener, false));
+	}
+
+	/**
+	 * Subscribes a listener that runs on a virtual thread.
+	 *
+	 * @param type     the type of events to receive, e.g. {@code DomainEvent}
+	 *                 for all events
+	 * @param listener receives the events
+	 * @return the subscription, to close when the listener is done
+	 */
+	public <E extends DomainEvent> Subscription subscribeAsync(Class<E> type, Consumer<? super E> listener)
+	{
+		return add(new Subscriber<>(type, listener, true));
+	}
+
+	/**
+	 * Delivers an event to the subscribers of its type.
+	 *
+	 * @param event the event
+	 * @throws RuntimeException the failure of the first synchronous subscriber
+	 *                          that failed, with those of the others as
+	 *                          suppressed exceptions
+	 */
+	public void publish(DomainEvent event)
+	{
+		RuntimeException failure = null;
+		for (Subscriber<?> subscriber : subscribers)
+		{
+			if (!subscriber.type().isInstance(event))
+			{
+				continue;
+			}
+			if (subscriber.async())
+			{
+				virtualThreads.execute(() -> {
+					try
+					{
+						deliver(subscriber, event);
+					} catch (RuntimeException e)
+					{
+						asyncErrorHandler.failed(event, e);
+					}
+				});
+				continue;
+			}
+			try
+			{
+				deliver(subscriber, event);
+			} catch (RuntimeException e)
+			{
+				if (failure == null)
+				{
+					failure = e;
+				} else
+				{
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		if (failure != null)
+		{
+			throw failure;
+		}
+	}
+
+	private Subscription add(Subscriber<?> subscriber)
+	{
+		subscribers.add(subscriber);
+		return () -> subscribers.remove(subscriber);
+	}
+
+	private static <E extends DomainEvent> void deliver(Subscriber<E> subscriber, DomainEvent event)
+	{
+		subscriber.listener().accept(subscriber.type().cast(event));
+	}
+
+	/**
+	 * Handles the failure of an asynchronous subscriber.
+	 */
+	@FunctionalInterface
+	public interface ErrorHandler
+	{
+		/**
+		 * @param event   the event the subscriber failed on
+		 * @param failure the exception thrown by the subscriber
+		 */
+		void failed(DomainEvent event, RuntimeException failure);
+	}
+
+	/**
+	 * A listener of the bus.
+	 */
+	@FunctionalInterface
+	public interface Subscription extends AutoCloseable
+	{
+		/**
+		 * Stops the delivery of events to the listener.
+		 */
+		@Override
+		void close();
+	}
+
+	private record Subscriber<E extends DomainEvent>(Class<E> type, Consumer<? super E> listener, boolean async)
+	{
+	}
+}
@@ -0,0 +1,67 @@
+package event;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Compares two states of an entity field by field, to tell listeners which
+ * fields an update changed. Related entities are compared by a key, such as
+ * their ID, that is returned by the getter of the field.
+ *
+ * @param <T> the type of the entity
+ */
+public final class FieldChanges<T>
+{
+	private final Map<String, Function<T, ?>> fields = new LinkedHashMap<>();
+
+	/**
+	 * Adds a field to compare.
+	 *
+	 * @param name   the name of the field
+	 * @param getter returns the value of the field, or the key of a related
+	 *               entity
+	 * @return this
+	 */
+	public FieldChanges<T> field(String name, Function<T, ?> getter)
+	{
+		fields.put(name, getter);
+		return this;
+	}
+
+	/**
+	 * @return the names of all fields
+	 */
+	public Set<String> all()
+	{
+		return Collections.unmodifiableSet(fields.keySet());
+	}
+
+	/**
+	 * Returns the fields that differ between two states of an entity.
+	 *
+	 * @param before the entity before the change, or {@code null} if unknown
+	 * @param after  the entity after the change
+	 * @return the names of the changed fields, or of all fields if the state
+	 *         before the change is unknown
+	 */
+	public Set<String> between(T before, T after)
+	{
+		if (before == null)
+		{
+			return all();
+		}
+		Set<String> changed = new LinkedHashSet<>();
+		fields.forEach((name, getter) -> {
+			if (!Objects.equals(getter.apply(before), getter.apply(after)))
+			{
+				changed.add(name);
+			}
+		});
+		return changed;
+	}
+}
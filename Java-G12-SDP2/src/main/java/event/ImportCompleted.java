@@ -0,0 +1,13 @@
+package event;
+
+/**
+ * Rows of a CSV file were imported. Imported entities do not get an event of
+ * their own.
+ *
+ * @param entityType the type of the imported entities
+ * @param imported   the number of imported rows
+ * @param rejected   the number of rejected rows
+ */
+public record ImportCompleted(Class<?> entityType, long imported, long rejected) implements DomainEvent
+{
+}
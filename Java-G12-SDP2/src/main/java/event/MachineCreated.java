@@ -0,0 +1,12 @@
+package event;
+
+/**
+ * A machine was added.
+ *
+ * @param machineId the ID of the new machine
+ * @param siteId    the ID of the site of the machine, or 0 for none
+ * @param code      the code of the new machine
+ */
+public record MachineCreated(int machineId, int siteId, String code) implements DomainEvent
+{
+}
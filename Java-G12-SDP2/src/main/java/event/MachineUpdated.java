@@ -0,0 +1,21 @@
+package event;
+
+import java.util.Set;
+
+/**
+ * A machine was changed.
+ *
+ * @param machineId     the ID of the machine
+ * @param siteId        the ID of the site of the machine after the change, or 0
+ *                      for none
+ * @param code          the code of the machine after the change
+ * @param changedFields the names of the changed fields of
+ *                      {@link domain.Machine}
+ */
+public record MachineUpdated(int machineId, int siteId, String code, Set<String> changedFields) implements DomainEvent
+{
+	public MachineUpdated
+	{
+		changedFields = Set.copyOf(changedFields);
+	}
+}
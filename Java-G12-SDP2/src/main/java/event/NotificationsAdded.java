@@ -0,0 +1,12 @@
+package event;
+
+/**
+ * New, unread notifications were stored.
+ *
+ * @param count     the number of new notifications
+ * @param startedAt the {@link System#nanoTime()} before the transaction that
+ *                  stored them started
+ */
+public record NotificationsAdded(int count, long startedAt) implements DomainEvent
+{
+}
@@ -0,0 +1,12 @@
+package event;
+
+/**
+ * Unread notifications were marked as read.
+ *
+ * @param count     the number of notifications that were unread before
+ * @param startedAt the {@link System#nanoTime()} before the transaction that
+ *                  marked them started
+ */
+public record NotificationsRead(int count, long startedAt) implements DomainEvent
+{
+}
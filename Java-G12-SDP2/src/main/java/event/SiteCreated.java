@@ -0,0 +1,11 @@
+package event;
+
+/**
+ * A site was added.
+ *
+ * @param siteId   the ID of the new site
+ * @param siteName the name of the new site
+ */
+public record SiteCreated(int siteId, String siteName) implements DomainEvent
+{
+}
@@ -0,0 +1,18 @@
+package event;
+
+import java.util.Set;
+
+/**
+ * A site was changed.
+ *
+ * @param siteId        the ID of the site
+ * @param siteName      the name of the site after the change
+ * @param changedFields the names of the changed fields of {@link domain.Site}
+ */
+public record SiteUpdated(int siteId, String siteName, Set<String> changedFields) implements DomainEvent
+{
+	public SiteUpdated
+	{
+		changedFields = Set.copyOf(changedFields);
+	}
+}
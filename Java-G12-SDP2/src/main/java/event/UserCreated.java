@@ -0,0 +1,11 @@
+package event;
+
+/**
+ * A user was added.
+ *
+ * @param userId   the ID of the new user
+ * @param fullName the full name of the new user
+ */
+public record UserCreated(int userId, String fullName) implements DomainEvent
+{
+}
@@ -0,0 +1,18 @@
+package event;
+
+import java.util.Set;
+
+/**
+ * A user was changed.
+ *
+ * @param userId        the ID of the user
+ * @param fullName      the full name of the user after the change
+ * @param changedFields the names of the changed fields of {@link domain.User}
+ */
+public record UserUpdated(int userId, String fullName, Set<String> changedFields) implements DomainEvent
+{
+	public UserUpdated
+	{
+		changedFields = Set.copyOf(changedFields);
+	}
+}
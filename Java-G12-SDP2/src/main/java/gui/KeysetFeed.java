@@ -0,0 +1,128 @@
+package gui;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import repository.Page;
+import repository.PageRequest;
+
+/**
+ * Feeds a keyset paginated query into the items of a
+ * {@link javafx.scene.control.ListView} that grow while the list is scrolled.
+ * The first page is loaded up front and the next one once a cell shows a row
+ * of the second half of the last loaded page, so only the rows the user
+ * scrolls to are ever read. Rows removed from the items do not shift the
+ * following pages, as the cursor is kept by value; when fewer than half a page
+ * is left, the next page is loaded without waiting for a cell.
+ * <p>
+ * Pages are read on a background thread and added to the items on the JavaFX
+ * application thread. All methods must be called on the JavaFX application
+ * thread.
+ */
+public final class KeysetFeed<T>
+{
+	private static final ExecutorService fetchThreads = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "keyset-feed");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Function<PageRequest, Page<T>> fetcher;
+	private final PageRequest firstPage;
+	private final ObservableList<T> items = FXCollections.observableArrayList();
+
+	/** The request of the next page, or {@code null} after the last page. */
+	private PageRequest nextPage;
+	private boolean loading;
+	/** Incremented by {@link #reset()}, so pages requested before are ignored. */
+	private int generation;
+
+	public KeysetFeed(Function<PageRequest, Page<T>> fetcher, String sortKey, int pageSize)
+	{
+		this.fetcher = fetcher;
+		this.firstPage = PageRequest.first(sortKey, pageSize);
+		items.addListener((ListChangeListener<T>) change -> {
+			if (items.size() < firstPage.pageSize() / 2)
+			{
+				loadNextPage();
+			}
+		});
+	}
+
+	/**
+	 * @return the loaded rows, to show in a list view
+	 */
+	public ObservableList<T> getItems()
+	{
+		return items;
+	}
+
+	/**
+	 * Forgets the loaded rows and loads the first page again, e.g. after the
+	 * data changed.
+	 */
+	public void reset()
+	{
+		generation++;
+		loading = false;
+		nextPage = firstPage;
+		items.clear();
+		loadNextPage();
+	}
+
+	/**
+	 * Tells the feed that a cell shows a row, to load the next page in time.
+	 *
+	 * @param index the index of the shown row
+	 */
+	public void shown(int index)
+	{
+		if (index >= items.size() - firstPage.pageSize() / 2)
+		{
+			loadNextPage();
+		}
+	}
+
+	private void loadNextPage()
+	{
+		if (nextPage == null || loading)
+		{
+			return;
+		}
+		loading = true;
+		PageRequest request = nextPage;
+		int requestGeneration = generation;
+		Task<Page<T>> fetch = new Task<>()
+		{
+			@Override
+			protected Page<T> call()
+			{
+				return fetcher.apply(request);
+			}
+		};
+		// The items are changed after the current layout pass, as they cannot change while the cells are updated
+		fetch.setOnSucceeded(event -> {
+			if (requestGeneration != generation)
+			{
+				return;
+			}
+			Page<T> page = fetch.getValue();
+			loading = false;
+			nextPage = page.hasNext() ? request.after(page.nextCursor()) : null;
+			items.addAll(page.content());
+		});
+		fetch.setOnFailed(event -> {
+			if (requestGeneration == generation)
+			{
+				loading = false;
+				System.err.println("Could not load the next page: " + fetch.getException().getMessage());
+			}
+		});
+		fetchThreads.execute(fetch);
+	}
+}
@@ -0,0 +1,83 @@
+package gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import repository.Page;
+import repository.PageRequest;
+
+/**
+ * Adapts a keyset paginated query to the page indexes of a
+ * {@link javafx.scene.control.Pagination} control. The cursor at which every
+ * visited page starts is remembered, so moving back or to the next page costs
+ * one query; jumping further ahead walks the intermediate pages once.
+ */
+public final class KeysetPager<T>
+{
+	private final Function<PageRequest, Page<T>> fetcher;
+	private final LongSupplier counter;
+	private final String sortKey;
+
+	private final List<PageRequest.Cursor> pageStarts = new ArrayList<>();
+	private int pageSize;
+	private long totalItems;
+
+	public KeysetPager(Function<PageRequest, Page<T>> fetcher, LongSupplier counter, String sortKey, int pageSize)
+	{
+		this.fetcher = fetcher;
+		this.counter = counter;
+		this.sortKey = sortKey;
+		reset(pageSize);
+	}
+
+	/**
+	 * Forgets all cursors and recounts the rows, e.g. after the data or the page
+	 * size changed.
+	 *
+	 * @param pageSize the new number of rows per page
+	 */
+	public void reset(int pageSize)
+	{
+		this.pageSize = pageSize;
+		this.totalItems = counter.getAsLong();
+		pageStarts.clear();
+		pageStarts.add(null);
+	}
+
+	public int getPageCount()
+	{
+		return (int) Math.max(1, (totalItems + pageSize - 1) / pageSize);
+	}
+
+	/**
+	 * Fetches the rows of the page with the given index.
+	 *
+	 * @param pageIndex zero-based page index
+	 * @return the rows of that page, or of the last page if the index lies
+	 *         beyond the end
+	 */
+	public List<T> getPage(int pageIndex)
+	{
+		int index = Math.min(pageIndex, pageStarts.size() - 1);
+		Page<T> page = fetch(index);
+		while (index < pageIndex && page.hasNext())
+		{
+			index++;
+			page = fetch(index);
+		}
+		return page.content();
+	}
+
+	private Page<T> fetch(int index)
+	{
+		PageRequest.Cursor start = pageStarts.get(index);
+		Page<T> page = fetcher.apply(new PageRequest(sortKey, pageSize, start));
+		if (page.hasNext() && pageStarts.size() == index + 1)
+		{
+			pageStarts.add(page.nextCursor());
+		}
+		return page;
+	}
+}
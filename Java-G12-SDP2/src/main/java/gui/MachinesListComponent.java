@@ -5,9 +5,14 @@ import java.util.List;
 
 import org.kordamp.ikonli.javafx.FontIcon;
 
+import domain.Machine;
 import domain.MachineController;
-import dto.MachineDTO;
-import interfaces.Observer;
+import domain.MachineFilter;
+import dto.MachineRow;
+import event.ImportCompleted;
+import event.MachineCreated;
+import event.MachineUpdated;
+import event.SiteUpdated;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -33,10 +38,10 @@ import util.AuthenticationUtil;
 import util.CurrentPage;
 import util.Role;
 
-public class MachinesListComponent extends GridPane implements Observer
+public class MachinesListComponent extends GridPane
 {
 
-	private TableView<MachineDTO> machineTable;
+	private TableView<MachineRow> machineTable;
 	private MachineController machineController;
 	private final MainLayout mainLayout;
 
@@ -44,8 +49,8 @@ public class MachinesListComponent extends GridPane implements Observer
 	private ComboBox<String> machStatFilter;
 	private ComboBox<String> prodStatFilter;
 
-	private List<MachineDTO> allMachines;
-	private List<MachineDTO> filteredMachines;
+	private KeysetPager<MachineRow> machinePager;
+	private MachineFilter machineFilter;
 
 	private int itemsPerPage = 10;
 	private int currentPage = 0;
@@ -60,6 +65,23 @@ public class MachinesListComponent extends GridPane implements Observer
 		this.machineController = mainLayout.getServices().getMachineController();
 		initializeGUI();
 		loadMachines();
+
+		// The list shows the name of the site of every machine
+		ScreenEvents.subscribeWhileShown(this, bus -> List.of(
+				bus.subscribe(MachineCreated.class, event -> refresh()),
+				bus.subscribe(MachineUpdated.class, event -> refresh()),
+				bus.subscribe(SiteUpdated.class, event -> {
+					if (event.changedFields().contains("siteName"))
+					{
+						refresh();
+					}
+				}),
+				bus.subscribe(ImportCompleted.class, event -> {
+					if (event.entityType() == Machine.class)
+					{
+						refresh();
+					}
+				})));
 	}
 
 	private void initializeGUI()
@@ -68,8 +90,8 @@ public class MachinesListComponent extends GridPane implements Observer
 
 		this.getChildren().add(createTitleSection());
 
-		allMachines = machineController.getMachineList();
-		filteredMachines = allMachines;
+		machinePager = new KeysetPager<>(request -> machineController.getMachineRows(machineFilter, request),
+				() -> machineController.countMachines(machineFilter), "id", itemsPerPage);
 
 		machineTable = new TableView<>();
 		machineTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_ALL_COLUMNS);
@@ -106,52 +128,52 @@ public class MachinesListComponent extends GridPane implements Observer
 
 		HBox filterBox = createTableHeaders();
 
-		TableColumn<MachineDTO, String> idCol = new TableColumn<>("ID");
+		TableColumn<MachineRow, String> idCol = new TableColumn<>("ID");
 		idCol.setCellValueFactory(data -> new SimpleStringProperty(String.valueOf(data.getValue().id())));
 
-		TableColumn<MachineDTO, String> siteCol = new TableColumn<>("Site");
+		TableColumn<MachineRow, String> siteCol = new TableColumn<>("Site");
 		siteCol.setCellValueFactory(data -> new SimpleStringProperty(
-				data.getValue().site() != null ? data.getValue().site().siteName() : "Onbekend"));
+				data.getValue().siteName() != null ? data.getValue().siteName() : "Onbekend"));
 
-		TableColumn<MachineDTO, String> technicianCol = new TableColumn<>("Technieker");
+		TableColumn<MachineRow, String> technicianCol = new TableColumn<>("Technieker");
 		technicianCol.setCellValueFactory(data -> new SimpleStringProperty(
-				data.getValue().technician() != null ? data.getValue().technician().firstName() : "Onbekend"));
+				data.getValue().technicianFirstName() != null ? data.getValue().technicianFirstName() : "Onbekend"));
 
-		TableColumn<MachineDTO, String> productInfoCol = new TableColumn<>("Product info");
+		TableColumn<MachineRow, String> productInfoCol = new TableColumn<>("Product info");
 		productInfoCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().productInfo()));
 
-		TableColumn<MachineDTO, String> lastMaintenanceCol = new TableColumn<>("Laatste onderhoud");
+		TableColumn<MachineRow, String> lastMaintenanceCol = new TableColumn<>("Laatste onderhoud");
 		lastMaintenanceCol.setCellValueFactory(data -> new SimpleStringProperty(
 				data.getValue().lastMaintenance() != null ? data.getValue().lastMaintenance().toString() : "Geen"));
 
-		TableColumn<MachineDTO, String> daysSinceMaintenanceCol = new TableColumn<>("Dagen sinds laatste onderhoud");
+		TableColumn<MachineRow, String> daysSinceMaintenanceCol = new TableColumn<>("Dagen sinds laatste onderhoud");
 		daysSinceMaintenanceCol.setCellValueFactory(
 				data -> new SimpleStringProperty(String.valueOf(data.getValue().numberDaysSinceLastMaintenance())));
 
-		TableColumn<MachineDTO, String> uptimeCol = new TableColumn<>("Uptime (uren)");
+		TableColumn<MachineRow, String> uptimeCol = new TableColumn<>("Uptime (uren)");
 		uptimeCol.setCellValueFactory(
 				data -> new SimpleStringProperty(String.format("%.2f", data.getValue().upTimeInHours())));
 
-		TableColumn<MachineDTO, String> codeCol = new TableColumn<>("Code");
+		TableColumn<MachineRow, String> codeCol = new TableColumn<>("Code");
 		codeCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().code()));
 
-		TableColumn<MachineDTO, String> locationCol = new TableColumn<>("Locatie");
+		TableColumn<MachineRow, String> locationCol = new TableColumn<>("Locatie");
 		locationCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().location()));
 
-		TableColumn<MachineDTO, String> statusCol = new TableColumn<>("Machinestatus");
+		TableColumn<MachineRow, String> statusCol = new TableColumn<>("Machinestatus");
 		statusCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().machineStatus().toString()));
 
-		TableColumn<MachineDTO, String> prodStatusCol = new TableColumn<>("Productiestatus");
+		TableColumn<MachineRow, String> prodStatusCol = new TableColumn<>("Productiestatus");
 		prodStatusCol
 				.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().productionStatus().toString()));
 
-		TableColumn<MachineDTO, String> maintenanceCol = new TableColumn<>("Onderhoud gepland");
+		TableColumn<MachineRow, String> maintenanceCol = new TableColumn<>("Onderhoud gepland");
 		maintenanceCol
 				.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().futureMaintenance().toString()));
 
-		TableColumn<MachineDTO, Void> editCol = new TableColumn<>("Bewerken");
+		TableColumn<MachineRow, Void> editCol = new TableColumn<>("Bewerken");
 		editCol.setCellFactory(param -> {
-			TableCell<MachineDTO, Void> cell = new TableCell<MachineDTO, Void>()
+			TableCell<MachineRow, Void> cell = new TableCell<MachineRow, Void>()
 			{
 				private final Button editButton = new Button();
 
@@ -161,7 +183,7 @@ public class MachinesListComponent extends GridPane implements Observer
 					editButton.setGraphic(editIcon);
 					editButton.setBackground(Background.EMPTY);
 					editButton.setOnAction(event -> {
-						MachineDTO selectedMachine = getTableView().getItems().get(getIndex());
+						MachineRow selectedMachine = getTableView().getItems().get(getIndex());
 						openEditMachineForm(selectedMachine);
 					});
 				}
@@ -182,7 +204,7 @@ public class MachinesListComponent extends GridPane implements Observer
 			return cell;
 		});
 
-		TableColumn<MachineDTO, Void> onderhoudCol = new TableColumn<>("Onderhouden");
+		TableColumn<MachineRow, Void> onderhoudCol = new TableColumn<>("Onderhouden");
 		onderhoudCol.setCellFactory(param -> new TableCell<>()
 		{
 
@@ -194,9 +216,9 @@ public class MachinesListComponent extends GridPane implements Observer
 				onderhoudButton.setGraphic(wrenchIcon);
 				onderhoudButton.setBackground(Background.EMPTY);
 				onderhoudButton.setOnAction(event -> {
-					MachineDTO selectedMachine = getTableView().getItems().get(getIndex());
+					MachineRow selectedMachine = getTableView().getItems().get(getIndex());
 					System.out.println("Onderhoud for machine: " + selectedMachine.code());
-					mainLayout.showMaintenanceList(selectedMachine);
+					mainLayout.showMaintenanceList(machineController.getMachineById(selectedMachine.id()));
 				});
 				onderhoudButton.setStyle("-fx-background-color: transparent;");
 			}
@@ -225,9 +247,6 @@ public class MachinesListComponent extends GridPane implements Observer
 			machineTable.getColumns().add(editCol);
 		}
 
-		List<MachineDTO> dtos = machineController.getMachineList();
-		machineTable.getItems().setAll(dtos);
-
 		HBox paginationControls = new HBox(20);
 		pagination = createPagination();
 
@@ -304,6 +323,7 @@ public class MachinesListComponent extends GridPane implements Observer
 	{
 		this.itemsPerPage = itemsPerPage;
 		this.currentPage = 0;
+		machinePager.reset(itemsPerPage);
 		updatePagination();
 		updateTableItems();
 	}
@@ -314,9 +334,10 @@ public class MachinesListComponent extends GridPane implements Observer
 		String selectedProdStat = prodStatFilter.getValue();
 		String selectedMachStat = machStatFilter.getValue();
 
-		filteredMachines = machineController.getFilteredMachines(searchQuery, selectedProdStat, selectedMachStat);
+		machineFilter = MachineFilter.of(searchQuery, selectedProdStat, selectedMachStat);
 
 		currentPage = 0;
+		machinePager.reset(itemsPerPage);
 		updatePagination();
 		updateTableItems();
 	}
@@ -354,7 +375,7 @@ public class MachinesListComponent extends GridPane implements Observer
 		mainLayout.setContent(addMachineForm, true, false, CurrentPage.NONE);
 	}
 
-	private void openEditMachineForm(MachineDTO machine)
+	private void openEditMachineForm(MachineRow machine)
 	{
 		Parent editMachineForm = new AddOrEditMachineForm(mainLayout, machine.id());
 		mainLayout.setContent(editMachineForm, true, false, CurrentPage.NONE);
@@ -362,34 +383,13 @@ public class MachinesListComponent extends GridPane implements Observer
 
 	private void loadMachines()
 	{
-		allMachines = machineController.getMachineList();
-		filteredMachines = allMachines;
 		updateFilterOptions();
-		updateTable(allMachines);
-	}
-
-	private void updateTable(List<MachineDTO> machines)
-	{
-		filteredMachines = machines;
-		currentPage = 0;
-		updatePagination();
-		updateTableItems();
+		filterTable();
 	}
 
 	private void updateTableItems()
 	{
-		int fromIndex = currentPage * itemsPerPage;
-		int toIndex = Math.min(fromIndex + itemsPerPage, filteredMachines.size());
-
-		if (filteredMachines.isEmpty())
-		{
-			machineTable.getItems().clear();
-		} else
-		{
-			List<MachineDTO> currentPageItems = fromIndex < toIndex ? filteredMachines.subList(fromIndex, toIndex)
-					: List.of();
-			machineTable.getItems().setAll(currentPageItems);
-		}
+		machineTable.getItems().setAll(machinePager.getPage(currentPage));
 	}
 
 	private void updatePagination()
@@ -401,7 +401,7 @@ public class MachinesListComponent extends GridPane implements Observer
 
 	private void updateTotalPages()
 	{
-		totalPages = (int) Math.ceil((double) filteredMachines.size() / itemsPerPage);
+		totalPages = machinePager.getPageCount();
 	}
 
 	private void updateFilterOptions()
@@ -417,10 +417,8 @@ public class MachinesListComponent extends GridPane implements Observer
 		machStatFilter.setItems(FXCollections.observableArrayList(machStats));
 	}
 
-	@Override
-	public void update(String message)
+	private void refresh()
 	{
 		Platform.runLater(this::loadMachines);
-
 	}
 }
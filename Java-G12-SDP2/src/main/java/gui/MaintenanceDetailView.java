@@ -1,36 +1,38 @@
 package gui;
 
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.PDFRenderer;
 import org.kordamp.ikonli.javafx.FontIcon;
 
 import domain.FileInfo;
 import domain.FileInfoController;
 import domain.Maintenance;
 import domain.MaintenanceController;
+import dto.FileInfoRow;
 import dto.MaintenanceDTO;
+import dto.UploadProgress;
 import javafx.application.Platform;
-import javafx.embed.swing.SwingFXUtils;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Cursor;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.OverrunStyle;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.ScrollPane.ScrollBarPolicy;
 import javafx.scene.image.Image;
@@ -47,11 +49,14 @@ import javafx.scene.paint.Color;
 import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import util.DTOMapper;
+import util.UploadStatus;
 
 public class MaintenanceDetailView extends BorderPane
 {
 	private MaintenanceController maintenanceController;
 	private FileInfoController fileInfoController;
+	private PreviewLoader previewLoader;
 	private MaintenanceDTO currentMaintenance;
 	private Stage primaryStage;
 
@@ -59,12 +64,15 @@ public class MaintenanceDetailView extends BorderPane
 	private Label machineInfoLabel;
 	private VBox filesSection;
 	private FlowPane filesContainer;
-	private List<FileInfo> currentFiles;
+	private List<FileInfoRow> currentFiles;
 	private ComboBox<String> fileTypeFilter;
 	private ComboBox<String> sortOrder;
 	private String currentFilter = "Alle";
 	private String currentSort = "Datum (Nieuwste)";
 	private Label messageLabel;
+	private Button uploadButton;
+	private ProgressBar uploadProgressBar;
+	private Label uploadProgressLabel;
 
 	private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 	private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
@@ -75,6 +83,7 @@ public class MaintenanceDetailView extends BorderPane
 		this.mainLayout = mainLayout;
 		this.maintenanceController = mainLayout.getServices().getMaintenanceController();
 		this.fileInfoController = mainLayout.getServices().getFileInfoController();
+		this.previewLoader = new PreviewLoader(fileInfoController, ThumbnailCache.getInstance());
 		this.primaryStage = (Stage) mainLayout.getMainScene().getWindow();
 
 		if (maintenance != null)
@@ -87,10 +96,18 @@ public class MaintenanceDetailView extends BorderPane
 		getStylesheets().add(getClass().getResource("/css/maintenanceDetails.css").toExternalForm());
 		getStyleClass().add("maintenance-details");
 
+		// Stop loading previews once the user navigates away
+		sceneProperty().addListener((observable, oldScene, newScene) -> {
+			if (newScene == null)
+			{
+				previewLoader.cancelAll();
+			}
+		});
+
 		initialize();
 	}
 
-	private List<FileInfo> getFilesFromDatabase()
+	private List<FileInfoRow> getFilesFromDatabase()
 	{
 		if (currentMaintenance == null)
 		{
@@ -155,7 +172,7 @@ public class MaintenanceDetailView extends BorderPane
 		titleBox.setAlignment(Pos.CENTER_LEFT);
 		titleBox.getChildren().addAll(backButton, titleVBox);
 
-		Button uploadButton = new Button("Bestanden toevoegen");
+		uploadButton = new Button("Bestanden toevoegen");
 		FontIcon uploadIcon = new FontIcon("fas-upload");
 		uploadIcon.setIconSize(16);
 		uploadIcon.setIconColor(Color.WHITE);
@@ -163,9 +180,13 @@ public class MaintenanceDetailView extends BorderPane
 		uploadButton.getStyleClass().add("action-button");
 		uploadButton.setOnAction(e -> uploadFiles());
 
+		uploadProgressLabel = new Label();
+		uploadProgressBar = new ProgressBar(0);
+		showUploadProgress(false);
+
 		HBox actionsBox = new HBox(10);
 		actionsBox.setAlignment(Pos.CENTER_RIGHT);
-		actionsBox.getChildren().add(uploadButton);
+		actionsBox.getChildren().addAll(uploadProgressLabel, uploadProgressBar, uploadButton);
 
 		// Combine title and actions in a header bar
 		BorderPane headerPane = new BorderPane();
@@ -335,13 +356,14 @@ public class MaintenanceDetailView extends BorderPane
 
 	private void refreshFilesDisplay()
 	{
+		previewLoader.cancelAll();
 		filesContainer.getChildren().clear();
 
-		List<FileInfo> filteredFiles = currentFiles.stream().filter(file ->
+		List<FileInfoRow> filteredFiles = currentFiles.stream().filter(file ->
 		{
 			if (currentFilter.equals("Alle"))
 				return true;
-			String fileType = file.getType().toLowerCase();
+			String fileType = file.type().toLowerCase();
 			switch (currentFilter)
 			{
 			case "PDF":
@@ -360,23 +382,23 @@ public class MaintenanceDetailView extends BorderPane
 			switch (currentSort)
 			{
 			case "Datum (Nieuwste)":
-				return f2.getUploadDate().compareTo(f1.getUploadDate());
+				return f2.uploadDate().compareTo(f1.uploadDate());
 			case "Datum (Oudste)":
-				return f1.getUploadDate().compareTo(f2.getUploadDate());
+				return f1.uploadDate().compareTo(f2.uploadDate());
 			case "Grootte (Grootste)":
-				return Long.compare(f2.getSize(), f1.getSize());
+				return Long.compare(f2.size(), f1.size());
 			case "Grootte (Kleinste)":
-				return Long.compare(f1.getSize(), f2.getSize());
+				return Long.compare(f1.size(), f2.size());
 			case "Naam (A-Z)":
-				return f1.getName().compareToIgnoreCase(f2.getName());
+				return f1.name().compareToIgnoreCase(f2.name());
 			case "Naam (Z-A)":
-				return f2.getName().compareToIgnoreCase(f1.getName());
+				return f2.name().compareToIgnoreCase(f1.name());
 			default:
 				return 0;
 			}
 		});
 
-		for (FileInfo file : filteredFiles)
+		for (FileInfoRow file : filteredFiles)
 		{
 			filesContainer.getChildren().add(createFileBox(file));
 		}
@@ -394,7 +416,7 @@ public class MaintenanceDetailView extends BorderPane
 		}
 	}
 
-	private VBox createFileBox(FileInfo fileInfo)
+	private VBox createFileBox(FileInfoRow fileInfo)
 	{
 		VBox fileBox = new VBox();
 		fileBox.getStyleClass().add("file-box");
@@ -402,129 +424,37 @@ public class MaintenanceDetailView extends BorderPane
 		StackPane previewContainer = new StackPane();
 		previewContainer.getStyleClass().add("image-container");
 
-		String fileType = fileInfo.getType();
-
-		if (fileType.equals("pdf"))
-		{
-			try
-			{
-				byte[] pdfContent = fileInfoController.getFileContent(fileInfo);
-				if (pdfContent != null)
-				{
-					// Load the first page of the PDF
-					PDDocument document = Loader.loadPDF(pdfContent);
-					PDFRenderer pdfRenderer = new PDFRenderer(document);
-
-					BufferedImage image = pdfRenderer.renderImageWithDPI(0, 150); // Increased DPI for better quality
-
-					// Convert to JavaFX Image
-					Image pdfImage = SwingFXUtils.toFXImage(image, null);
-					ImageView pdfImageView = new ImageView(pdfImage);
-
-					// Create a container to center the image
-					StackPane imageContainer = new StackPane();
-					imageContainer.setStyle("-fx-background-color: white;");
-					imageContainer.setPrefSize(217, 160);
-
-					// Set dimensions while preserving aspect ratio
-					pdfImageView.setFitWidth(200); // Slightly smaller than container to allow for padding
-					pdfImageView.setFitHeight(140);
-					pdfImageView.setPreserveRatio(true);
-					pdfImageView.setSmooth(true);
-
-					StackPane.setAlignment(pdfImageView, Pos.CENTER);
-
-					imageContainer.getChildren().add(pdfImageView);
-
-					previewContainer.getChildren().add(imageContainer);
-
-					document.close();
-				} else
-				{
-					throw new IOException("No PDF content available");
-				}
-			} catch (Exception e)
-			{
-				// Fallback to icon if preview fails
-				VBox pdfPreview = new VBox(10);
-				pdfPreview.setAlignment(Pos.CENTER);
-
-				FontIcon pdfIcon = new FontIcon("fas-file-pdf");
-				pdfIcon.setIconSize(60);
-				pdfIcon.setIconColor(Color.web("#333333"));
-
-				Label pdfName = new Label(fileInfo.getName());
-				pdfName.setStyle("-fx-font-size: 14px; -fx-text-fill: #333;");
-				pdfName.setMaxWidth(200);
-				pdfName.setWrapText(true);
+		String fileType = fileInfo.type();
 
-				pdfPreview.getChildren().addAll(pdfIcon, pdfName);
-				previewContainer.getChildren().add(pdfPreview);
-			}
-		} else if (fileType.equals("image"))
+		if (fileType.equals("pdf") || fileType.equals("image"))
 		{
-			try
-			{
-				byte[] imageContent = fileInfoController.getFileContent(fileInfo);
-				if (imageContent != null)
-				{
-					Image image = new Image(new ByteArrayInputStream(imageContent));
-					ImageView imageView = new ImageView(image);
-
-					imageView.setFitWidth(217);
-					imageView.setFitHeight(160);
-					imageView.setPreserveRatio(true);
-					imageView.setSmooth(true);
-
-					StackPane.setAlignment(imageView, Pos.CENTER);
-
-					previewContainer.getChildren().add(imageView);
-				} else
+			// Show the icon until the thumbnail is loaded; it stays when there is none
+			previewContainer.getChildren()
+					.add(createIconPreview(fileType.equals("pdf") ? "fas-file-pdf" : "fas-image", fileInfo));
+			previewLoader.load(fileInfo, image -> {
+				if (image != null)
 				{
-					throw new IOException("No image content available");
+					previewContainer.getChildren()
+							.setAll(fileType.equals("pdf") ? createPdfPreview(image) : createImagePreview(image));
 				}
-			} catch (Exception e)
-			{
-
-				VBox imagePreview = new VBox(10);
-				imagePreview.setAlignment(Pos.CENTER);
-
-				FontIcon imageIcon = new FontIcon("fas-image");
-				imageIcon.setIconSize(60);
-				imageIcon.setIconColor(Color.web("#333333"));
-
-				Label imageName = new Label(fileInfo.getName());
-				imageName.setStyle("-fx-font-size: 14px; -fx-text-fill: #333;");
-				imageName.setMaxWidth(200);
-				imageName.setWrapText(true);
-
-				imagePreview.getChildren().addAll(imageIcon, imageName);
-				previewContainer.getChildren().add(imagePreview);
-			}
+			});
 		} else
 		{
+			previewContainer.getChildren().add(createIconPreview("fas-file", fileInfo));
+		}
 
-			VBox genericPreview = new VBox(10);
-			genericPreview.setAlignment(Pos.CENTER);
-
-			FontIcon fileIcon = new FontIcon("fas-file");
-			fileIcon.setIconSize(60);
-			fileIcon.setIconColor(Color.web("#333333"));
-
-			Label fileName = new Label(fileInfo.getName());
-			fileName.setStyle("-fx-font-size: 14px; -fx-text-fill: #333;");
-			fileName.setMaxWidth(200);
-			fileName.setWrapText(true);
-
-			genericPreview.getChildren().addAll(fileIcon, fileName);
-			previewContainer.getChildren().add(genericPreview);
+		if (fileType.equals("pdf"))
+		{
+			// Open the whole document on click
+			previewContainer.setCursor(Cursor.HAND);
+			previewContainer.setOnMouseClicked(e -> new PdfViewer(getStage(), fileInfoController, fileInfo).show());
 		}
 
 		HBox fileActions = new HBox();
 		fileActions.getStyleClass().add("file-actions");
 		fileActions.setAlignment(Pos.CENTER_LEFT);
 
-		Label fileName = new Label(fileInfo.getName());
+		Label fileName = new Label(fileInfo.name());
 		fileName.getStyleClass().add("file-name");
 		fileName.setMaxWidth(140);
 		fileName.setWrapText(true);
@@ -554,6 +484,58 @@ public class MaintenanceDetailView extends BorderPane
 		return fileBox;
 	}
 
+	private StackPane createPdfPreview(Image pdfImage)
+	{
+		ImageView pdfImageView = new ImageView(pdfImage);
+
+		// Create a container to center the image
+		StackPane imageContainer = new StackPane();
+		imageContainer.setStyle("-fx-background-color: white;");
+		imageContainer.setPrefSize(217, 160);
+
+		// Set dimensions while preserving aspect ratio
+		pdfImageView.setFitWidth(200); // Slightly smaller than container to allow for padding
+		pdfImageView.setFitHeight(140);
+		pdfImageView.setPreserveRatio(true);
+		pdfImageView.setSmooth(true);
+
+		StackPane.setAlignment(pdfImageView, Pos.CENTER);
+
+		imageContainer.getChildren().add(pdfImageView);
+		return imageContainer;
+	}
+
+	private ImageView createImagePreview(Image image)
+	{
+		ImageView imageView = new ImageView(image);
+
+		imageView.setFitWidth(217);
+		imageView.setFitHeight(160);
+		imageView.setPreserveRatio(true);
+		imageView.setSmooth(true);
+
+		StackPane.setAlignment(imageView, Pos.CENTER);
+		return imageView;
+	}
+
+	private VBox createIconPreview(String iconCode, FileInfoRow fileInfo)
+	{
+		VBox iconPreview = new VBox(10);
+		iconPreview.setAlignment(Pos.CENTER);
+
+		FontIcon fileIcon = new FontIcon(iconCode);
+		fileIcon.setIconSize(60);
+		fileIcon.setIconColor(Color.web("#333333"));
+
+		Label fileName = new Label(fileInfo.name());
+		fileName.setStyle("-fx-font-size: 14px; -fx-text-fill: #333;");
+		fileName.setMaxWidth(200);
+		fileName.setWrapText(true);
+
+		iconPreview.getChildren().addAll(fileIcon, fileName);
+		return iconPreview;
+	}
+
 	private Stage getStage()
 	{
 		return (Stage) getScene().getWindow();
@@ -602,106 +584,119 @@ public class MaintenanceDetailView extends BorderPane
 				return;
 			}
 
-			List<String> failedUploads = new ArrayList<>();
-			List<FileInfo> successfulUploads = new ArrayList<>();
+			int total = selectedFiles.size();
+			Map<File, UploadProgress> progressByFile = new LinkedHashMap<>();
+			uploadButton.setDisable(true);
+			uploadProgressBar.setProgress(0);
+			uploadProgressLabel.setText(String.format("Uploaden: 0/%d", total));
+			showUploadProgress(true);
 
-			for (File file : selectedFiles)
+			Thread uploadThread = new Thread(() ->
 			{
 				try
 				{
-
-					String fileType = getFileType(file.getName());
-					if (!isValidFileType(fileType))
-					{
-						failedUploads.add(String.format(
-								"- %s: Bestandstype niet ondersteund. Alleen PDF en afbeelding bestanden zijn toegestaan.",
-								file.getName()));
-						continue;
-					}
-
-					FileInfo newFile = new FileInfo(file.getName(), fileType, null, maintenance);
-
-					fileInfoController.saveFileContent(file, newFile);
-
-					successfulUploads.add(newFile);
-
-				} catch (Exception e)
+					List<FileInfo> successfulUploads = fileInfoController.uploadFiles(selectedFiles, maintenance,
+							progress -> Platform.runLater(() -> updateUploadProgress(progress, progressByFile, total)));
+					Platform.runLater(() -> finishUpload(successfulUploads, progressByFile.values()));
+				} catch (RuntimeException e)
 				{
-					String errorMessage = e.getMessage();
-					if (errorMessage.contains("Packet for query is too large"))
-					{
-						errorMessage = "Het bestand is te groot voor de database (max 65MB)";
-					}
-					failedUploads.add(String.format("- %s: %s", file.getName(), errorMessage));
+					List<UploadProgress> failed = selectedFiles.stream()
+							.map(file -> new UploadProgress(file, UploadStatus.FAILED, e.getMessage())).toList();
+					Platform.runLater(() -> finishUpload(List.of(), failed));
 				}
-			}
+			}, "file-upload");
+			uploadThread.setDaemon(true);
+			uploadThread.start();
+		}
+	}
 
-			if (!successfulUploads.isEmpty())
-			{
+	/**
+	 * Shows the stage of a file; a file counts half once it is processed and
+	 * fully once it is saved or failed. Files are kept by path, so files with
+	 * the same name from different folders are counted apart.
+	 */
+	private void updateUploadProgress(UploadProgress progress, Map<File, UploadProgress> progressByFile, int total)
+	{
+		progressByFile.put(progress.file(), progress);
+		long finished = progressByFile.values().stream().map(UploadProgress::status)
+				.filter(status -> status == UploadStatus.SAVED || status == UploadStatus.FAILED).count();
+		long ready = progressByFile.values().stream().filter(file -> file.status() == UploadStatus.READY).count();
+		uploadProgressBar.setProgress((finished + ready / 2.0) / total);
+		uploadProgressLabel.setText(String.format("Uploaden: %d/%d", finished, total));
+	}
 
-				if (filesSection == null)
-				{
+	private void finishUpload(List<FileInfo> successfulUploads, Collection<UploadProgress> progress)
+	{
+		showUploadProgress(false);
+		uploadButton.setDisable(false);
 
-					if (currentFiles == null)
-					{
-						currentFiles = new ArrayList<>();
-					}
+		if (!successfulUploads.isEmpty())
+		{
 
-					createFilesSection();
-				}
+			if (filesSection == null)
+			{
 
-				for (FileInfo file : successfulUploads)
+				if (currentFiles == null)
 				{
-					currentFiles.add(file);
-					filesContainer.getChildren().add(createFileBox(file));
+					currentFiles = new ArrayList<>();
 				}
+
+				createFilesSection();
 			}
 
-			if (!failedUploads.isEmpty())
+			for (FileInfo file : successfulUploads)
 			{
-				StringBuilder errorMessage = new StringBuilder(
-						"De volgende bestanden konden niet worden geüpload:\n\n");
-				errorMessage.append(String.join("\n", failedUploads));
-				errorMessage.append("\n\nControleer of de bestanden het juiste type zijn en niet te groot zijn.");
-
-				Platform.runLater(() ->
-				{
-					try
-					{
-						Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-						errorAlert.setTitle("Upload Fout");
-						errorAlert.setHeaderText("Upload mislukt");
-						errorAlert.setContentText(errorMessage.toString());
-						errorAlert.initOwner(getStage());
-						errorAlert.showAndWait();
-					} catch (Exception e)
-					{
-						System.err.println("Error showing alert: " + e.getMessage());
-					}
-				});
+				FileInfoRow row = DTOMapper.toFileInfoRow(file);
+				currentFiles.add(row);
+				filesContainer.getChildren().add(createFileBox(row));
 			}
 		}
-	}
 
-	private String getFileType(String fileName)
-	{
-		String lowerCaseName = fileName.toLowerCase();
-		if (lowerCaseName.endsWith(".pdf"))
+		List<String> failedUploads = new ArrayList<>();
+		for (UploadProgress file : progress)
 		{
-			return "pdf";
-		} else if (lowerCaseName.matches(".*\\.(jpg|jpeg|png|gif)$"))
+			if (file.status() != UploadStatus.FAILED)
+			{
+				continue;
+			}
+			String errorMessage = file.message() == null ? "Onbekende fout" : file.message();
+			if (errorMessage.contains("Packet for query is too large"))
+			{
+				errorMessage = "Het bestand is te groot voor de database (max 65MB)";
+			}
+			failedUploads.add(String.format("- %s: %s", file.fileName(), errorMessage));
+		}
+
+		if (!failedUploads.isEmpty())
 		{
-			return "image";
+			StringBuilder errorMessage = new StringBuilder("De volgende bestanden konden niet worden geüpload:\n\n");
+			errorMessage.append(String.join("\n", failedUploads));
+			errorMessage.append("\n\nControleer of de bestanden het juiste type zijn en niet te groot zijn.");
+
+			try
+			{
+				Alert errorAlert = new Alert(Alert.AlertType.ERROR);
+				errorAlert.setTitle("Upload Fout");
+				errorAlert.setHeaderText("Upload mislukt");
+				errorAlert.setContentText(errorMessage.toString());
+				errorAlert.initOwner(getStage());
+				errorAlert.showAndWait();
+			} catch (Exception e)
+			{
+				System.err.println("Error showing alert: " + e.getMessage());
+			}
 		}
-		return "other";
 	}
 
-	private boolean isValidFileType(String fileType)
+	private void showUploadProgress(boolean visible)
 	{
-		return fileType.equals("pdf") || fileType.equals("image") || fileType.equals("video");
+		uploadProgressLabel.setVisible(visible);
+		uploadProgressLabel.setManaged(visible);
+		uploadProgressBar.setVisible(visible);
+		uploadProgressBar.setManaged(visible);
 	}
 
-	private void downloadFile(FileInfo fileInfo)
+	private void downloadFile(FileInfoRow fileInfo)
 	{
 
 		DirectoryChooser directoryChooser = new DirectoryChooser();
@@ -713,7 +708,7 @@ public class MaintenanceDetailView extends BorderPane
 			try
 			{
 
-				byte[] content = fileInfoController.getFileContent(fileInfo);
+				InputStream content = fileInfoController.openOriginalContent(fileInfo.id());
 				if (content == null)
 				{
 					Alert errorAlert = new Alert(Alert.AlertType.WARNING);
@@ -725,11 +720,11 @@ public class MaintenanceDetailView extends BorderPane
 					return;
 				}
 
-				File targetFile = new File(selectedDirectory.getAbsolutePath() + File.separator + fileInfo.getName());
+				File targetFile = new File(selectedDirectory.getAbsolutePath() + File.separator + fileInfo.name());
 
-				try (FileOutputStream fos = new FileOutputStream(targetFile))
+				try (content; FileOutputStream fos = new FileOutputStream(targetFile))
 				{
-					fos.write(content);
+					content.transferTo(fos);
 				}
 
 				Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
@@ -751,13 +746,13 @@ public class MaintenanceDetailView extends BorderPane
 		}
 	}
 
-	private void deleteFile(FileInfo fileInfo)
+	private void deleteFile(FileInfoRow fileInfo)
 	{
 
 		Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
 		confirmAlert.setTitle("Bevestig verwijderen");
 		confirmAlert.setHeaderText("Weet u zeker dat u dit bestand wilt verwijderen?");
-		confirmAlert.setContentText("Bestand: " + fileInfo.getName());
+		confirmAlert.setContentText("Bestand: " + fileInfo.name());
 		confirmAlert.initOwner(getStage());
 
 		Optional<ButtonType> result = confirmAlert.showAndWait();
@@ -766,7 +761,9 @@ public class MaintenanceDetailView extends BorderPane
 			try
 			{
 
-				fileInfoController.deleteFile(fileInfo);
+				fileInfoController.deleteFile(fileInfo.id());
+				ThumbnailCache.getInstance().evict(fileInfo);
+				PageCache.getInstance().evict(fileInfo);
 
 				currentFiles.remove(fileInfo);
 				refreshFilesSection();
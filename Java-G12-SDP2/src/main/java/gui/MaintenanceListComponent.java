@@ -1,20 +1,20 @@
 package gui;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.kordamp.ikonli.javafx.FontIcon;
 
 import domain.MaintenanceController;
+import domain.MaintenanceFilter;
 import dto.MachineDTO;
 import dto.MaintenanceDTO;
+import dto.MaintenanceRow;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.event.Event;
@@ -41,7 +41,7 @@ public class MaintenanceListComponent extends VBox
 {
 	private final MainLayout mainLayout;
 	private MaintenanceController mc;
-	private TableView<MaintenanceDTO> table;
+	private TableView<MaintenanceRow> table;
 
 	private TextField searchField;
 	private DatePicker executionDatePickerFilter;
@@ -51,8 +51,8 @@ public class MaintenanceListComponent extends VBox
 	private TextField commentsFilter;
 	private ComboBox<String> statusFilter;
 
-	private List<MaintenanceDTO> allMaintenances;
-	private List<MaintenanceDTO> filteredMaintenances;
+	private KeysetPager<MaintenanceRow> maintenancePager;
+	private MaintenanceFilter maintenanceFilter;
 	private MachineDTO machineDTO;
 
 	private int itemsPerPage = 10;
@@ -81,9 +81,9 @@ public class MaintenanceListComponent extends VBox
 	{
 		this.getStylesheets().add(getClass().getResource("/css/tablePane.css").toExternalForm());
 
-		allMaintenances = machineDTO == null ? mc.getMaintenances()
-				: mc.getMaintenances().stream().filter((m) -> m.machine().equals(machineDTO)).toList();
-		filteredMaintenances = allMaintenances;
+		maintenanceFilter = MaintenanceFilter.forMachine(machineDTO != null ? machineDTO.id() : null);
+		maintenancePager = new KeysetPager<>(request -> mc.getMaintenanceRows(maintenanceFilter, request),
+				() -> mc.countMaintenances(maintenanceFilter), "id", itemsPerPage);
 
 		table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_ALL_COLUMNS);
 
@@ -93,7 +93,7 @@ public class MaintenanceListComponent extends VBox
 		this.setSpacing(20);
 
 		this.getChildren().addAll(titleSection, tableSection);
-		updateTable(filteredMaintenances);
+		filterTable();
 	}
 
 	private VBox createTitleSection()
@@ -151,8 +151,8 @@ public class MaintenanceListComponent extends VBox
 	{
 		HBox filterBox = createTableHeaders();
 
-		TableColumn<MaintenanceDTO, Void> editColumn = new TableColumn<>("Bewerken");
-		editColumn.setCellFactory(param -> new TableCell<MaintenanceDTO, Void>()
+		TableColumn<MaintenanceRow, Void> editColumn = new TableColumn<>("Bewerken");
+		editColumn.setCellFactory(param -> new TableCell<MaintenanceRow, Void>()
 		{
 			private final Button editButton = new Button();
 			{
@@ -162,10 +162,10 @@ public class MaintenanceListComponent extends VBox
 				editButton.setBackground(Background.EMPTY);
 				editButton.setOnAction(event ->
 				{
-					MaintenanceDTO maintenance = getTableRow().getItem();
+					MaintenanceRow maintenance = getTableRow().getItem();
 					if (maintenance != null)
 					{
-						goToEditMaintenanceForm(maintenance);
+						goToEditMaintenanceForm(mc.getMaintenanceDTO(maintenance.id()));
 					}
 				});
 			}
@@ -178,27 +178,27 @@ public class MaintenanceListComponent extends VBox
 			}
 		});
 
-		TableColumn<MaintenanceDTO, String> col1 = createColumn("Datum uitgevoerd", m -> m.executionDate().toString());
-		TableColumn<MaintenanceDTO, String> col2 = createColumn("Starttijdstip",
+		TableColumn<MaintenanceRow, String> col1 = createColumn("Datum uitgevoerd", m -> m.executionDate().toString());
+		TableColumn<MaintenanceRow, String> col2 = createColumn("Starttijdstip",
 				m -> m.startDate().toLocalTime().format(DateTimeFormatter.ofPattern("HH:mm")).toString());
-		TableColumn<MaintenanceDTO, String> col3 = createColumn("Eindtijdstip",
+		TableColumn<MaintenanceRow, String> col3 = createColumn("Eindtijdstip",
 				m -> m.endDate().toLocalTime().format(DateTimeFormatter.ofPattern("HH:mm")).toString());
-		TableColumn<MaintenanceDTO, String> col4 = createColumn("Naam technieker", m ->
+		TableColumn<MaintenanceRow, String> col4 = createColumn("Naam technieker", m ->
 		{
-			if (m.technician() == null)
+			if (m.technicianLastName() == null)
 				return "Onbekend";
-			String first = m.technician().firstName();
-			String last = m.technician().lastName();
+			String first = m.technicianFirstName();
+			String last = m.technicianLastName();
 			String formattedLast = last.substring(0, 1).toUpperCase() + last.substring(1).toLowerCase();
 			return String.format("%s %s", first, formattedLast);
 		});
-		TableColumn<MaintenanceDTO, String> col5 = createColumn("Reden", MaintenanceDTO::reason);
-		TableColumn<MaintenanceDTO, String> col6 = createColumn("Opmerkingen", MaintenanceDTO::comments);
-		TableColumn<MaintenanceDTO, String> col7 = createColumn("Status", m -> m.status().toString());
-		TableColumn<MaintenanceDTO, String> col8 = createColumn("Machine",
-				m -> String.format("Machine %d", m.machine().id()));
+		TableColumn<MaintenanceRow, String> col5 = createColumn("Reden", MaintenanceRow::reason);
+		TableColumn<MaintenanceRow, String> col6 = createColumn("Opmerkingen", MaintenanceRow::comments);
+		TableColumn<MaintenanceRow, String> col7 = createColumn("Status", m -> m.status().toString());
+		TableColumn<MaintenanceRow, String> col8 = createColumn("Machine",
+				m -> String.format("Machine %d", m.machineId()));
 
-		List<TableColumn<MaintenanceDTO, ?>> columns;
+		List<TableColumn<MaintenanceRow, ?>> columns;
 		if (machineDTO != null)
 		{
 			columns = new ArrayList<>(List.of(col1, col2, col3, col4, col5, col6, col7));
@@ -215,14 +215,14 @@ public class MaintenanceListComponent extends VBox
 
 		if (AuthenticationUtil.hasRole(Role.VERANTWOORDELIJKE) || AuthenticationUtil.hasRole(Role.ADMINISTRATOR))
 		{
-			TableColumn<MaintenanceDTO, Void> col9 = createDetailsButton();
+			TableColumn<MaintenanceRow, Void> col9 = createDetailsButton();
 			columns.add(col9);
 
 		}
 
 		if (AuthenticationUtil.hasRole(Role.TECHNIEKER) || AuthenticationUtil.hasRole(Role.ADMINISTRATOR))
 		{
-			TableColumn<MaintenanceDTO, Void> col10 = createAddReportButton();
+			TableColumn<MaintenanceRow, Void> col10 = createAddReportButton();
 			columns.add(col10);
 		}
 
@@ -314,6 +314,7 @@ public class MaintenanceListComponent extends VBox
 	{
 		this.itemsPerPage = value;
 		this.currentPage = 0;
+		maintenancePager.reset(itemsPerPage);
 		updatePagination();
 		updateTableItems();
 	}
@@ -339,51 +340,27 @@ public class MaintenanceListComponent extends VBox
 		String technicianString = technicianFilter.getValue();
 		String reasonQuery = reasonFilter.getText() != null ? reasonFilter.getText().toLowerCase().trim() : "";
 		String commentsQuery = commentsFilter.getText() != null ? commentsFilter.getText().toLowerCase().trim() : "";
-		String statusString = statusFilter.getValue() != null ? statusFilter.getValue().toLowerCase() : "";
+		MaintenanceStatus status = MaintenanceFilter.statusOf(statusFilter.getValue());
 
-		filteredMaintenances = allMaintenances.stream().filter(m ->
-		{
-			boolean matchesQuery = query.isEmpty() || (m.reason() != null && m.reason().toLowerCase().contains(query))
-					|| (m.comments() != null && m.comments().toLowerCase().contains(query))
-					|| (m.technician() != null && m.technician().firstName().toLowerCase().contains(query))
-					|| (m.technician() != null && m.technician().lastName().toLowerCase().contains(query));
-
-			boolean matchesDate = selectedDate == null || selectedDate.equals(m.executionDate());
-
-			boolean matchesStartTime = selectedStartTime == null
-					|| m.startDate() == LocalDateTime.of(m.executionDate(), selectedStartTime);
-			boolean matchesEndTime = selectedEndTime == null
-					|| m.endDate() == LocalDateTime.of(m.executionDate(), selectedEndTime);
-
-			boolean matchesTechnician = technicianString == null
-					|| String.format("%s %s", m.technician().firstName(), m.technician().lastName()).toLowerCase()
-							.equals(technicianString.toLowerCase());
-
-			boolean matchesReason = reasonQuery.isBlank() || m.reason().toLowerCase().contains(reasonQuery);
-
-			boolean matchesComment = commentsQuery.isBlank() || m.comments().toLowerCase().contains(commentsQuery);
-
-			boolean matchesStatus = statusString.isBlank() || m.status().toString().toLowerCase().equals(statusString);
-
-			return matchesQuery && matchesDate && matchesStartTime && matchesEndTime && matchesTechnician
-					&& matchesReason && matchesComment && matchesStatus;
-		}).collect(Collectors.toList());
+		maintenanceFilter = new MaintenanceFilter(machineDTO != null ? machineDTO.id() : null, query, selectedDate,
+				selectedStartTime, selectedEndTime, technicianString, reasonQuery, commentsQuery, status);
 
 		currentPage = 0;
+		maintenancePager.reset(itemsPerPage);
 		updatePagination();
 		updateTableItems();
 	}
 
-	private TableColumn<MaintenanceDTO, String> createColumn(String title, Function<MaintenanceDTO, String> mapper)
+	private TableColumn<MaintenanceRow, String> createColumn(String title, Function<MaintenanceRow, String> mapper)
 	{
-		TableColumn<MaintenanceDTO, String> col = new TableColumn<>(title);
+		TableColumn<MaintenanceRow, String> col = new TableColumn<>(title);
 		col.setCellValueFactory(data -> new SimpleStringProperty(mapper.apply(data.getValue())));
 		return col;
 	}
 
-	private TableColumn<MaintenanceDTO, Void> createDetailsButton()
+	private TableColumn<MaintenanceRow, Void> createDetailsButton()
 	{
-		TableColumn<MaintenanceDTO, Void> col = new TableColumn<>("Details");
+		TableColumn<MaintenanceRow, Void> col = new TableColumn<>("Details");
 
 		col.setCellFactory(param -> new TableCell<>()
 		{
@@ -394,8 +371,8 @@ public class MaintenanceListComponent extends VBox
 					if (AuthenticationUtil.hasRole(Role.ADMINISTRATOR)
 							|| AuthenticationUtil.hasRole(Role.VERANTWOORDELIJKE))
 					{
-						MaintenanceDTO selectedMaintenance = getTableView().getItems().get(getIndex());
-						goToDetails(mainLayout, selectedMaintenance);
+						MaintenanceRow selectedMaintenance = getTableView().getItems().get(getIndex());
+						goToDetails(mainLayout, mc.getMaintenanceDTO(selectedMaintenance.id()));
 					} else
 					{
 						mainLayout.showNotAllowedAlert();
@@ -417,9 +394,9 @@ public class MaintenanceListComponent extends VBox
 		return col;
 	}
 
-	private TableColumn<MaintenanceDTO, Void> createAddReportButton()
+	private TableColumn<MaintenanceRow, Void> createAddReportButton()
 	{
-		TableColumn<MaintenanceDTO, Void> col = new TableColumn<>("Rapport toevoegen");
+		TableColumn<MaintenanceRow, Void> col = new TableColumn<>("Rapport toevoegen");
 
 		col.setCellFactory(param -> new TableCell<>()
 		{
@@ -429,8 +406,8 @@ public class MaintenanceListComponent extends VBox
 				{
 					if (AuthenticationUtil.hasRole(Role.ADMINISTRATOR) || AuthenticationUtil.hasRole(Role.TECHNIEKER))
 					{
-						MaintenanceDTO selectedMaintenance = getTableView().getItems().get(getIndex());
-						goToAddReport(mainLayout, selectedMaintenance);
+						MaintenanceRow selectedMaintenance = getTableView().getItems().get(getIndex());
+						goToAddReport(mainLayout, mc.getMaintenanceDTO(selectedMaintenance.id()));
 
 					} else
 					{
@@ -480,31 +457,12 @@ public class MaintenanceListComponent extends VBox
 
 	private void updateTotalPages()
 	{
-		totalPages = (int) Math.ceil((double) filteredMaintenances.size() / itemsPerPage);
+		totalPages = maintenancePager.getPageCount();
 	}
 
 	private void updateTableItems()
 	{
-		int fromIndex = currentPage * itemsPerPage;
-		int toIndex = Math.min(fromIndex + itemsPerPage, filteredMaintenances.size());
-
-		if (filteredMaintenances.isEmpty())
-		{
-			table.getItems().clear();
-		} else
-		{
-			List<MaintenanceDTO> currentPageItems = fromIndex < toIndex
-					? filteredMaintenances.subList(fromIndex, toIndex)
-					: List.of();
-			table.getItems().setAll(currentPageItems);
-		}
-	}
-
-	private void updateTable(List<MaintenanceDTO> list)
-	{
-		filteredMaintenances = list;
-		updatePagination();
-		updateTableItems();
+		table.getItems().setAll(maintenancePager.getPage(currentPage));
 	}
 
 	private void goToEditMaintenanceForm(MaintenanceDTO maintenanceDTO)
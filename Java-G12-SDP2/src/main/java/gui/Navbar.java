@@ -7,6 +7,9 @@ import org.kordamp.ikonli.javafx.FontIcon;
 import domain.NotificationController;
 import domain.User;
 import dto.NotificationDTO;
+import event.NotificationsAdded;
+import event.NotificationsRead;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.Pos;
@@ -21,6 +24,7 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import util.AuthenticationUtil;
 import util.CurrentPage;
@@ -28,11 +32,16 @@ import util.Role;
 
 public class Navbar extends HBox
 {
+	/** The number of unread notifications listed in the notification menu. */
+	private static final int LATEST_NOTIFICATIONS = 20;
+	/** The highest number the notification badge shows exactly. */
+	private static final long MAX_BADGE_COUNT = 99;
 
 	private Label userName;
 	private Label userRole;
 	private final NotificationController notificationController;
 	private final MainLayout mainLayout;
+	private final Label notificationBadge = new Label();
 
 	public Navbar(MainLayout mainLayout, boolean isHomeScreen, CurrentPage activePage)
 	{
@@ -60,7 +69,16 @@ public class Navbar extends HBox
 		Button notificationBtn = new Button();
 		FontIcon bellIcon = new FontIcon("fas-bell");
 		bellIcon.setIconSize(20);
-		notificationBtn.setGraphic(bellIcon);
+		notificationBadge.getStyleClass().add("notification-badge");
+		notificationBadge.setMouseTransparent(true);
+		notificationBadge.managedProperty().bind(notificationBadge.visibleProperty());
+		StackPane.setAlignment(notificationBadge, Pos.TOP_RIGHT);
+		StackPane bell = new StackPane(bellIcon, notificationBadge);
+		notificationBtn.setGraphic(bell);
+		updateNotificationBadge();
+		ScreenEvents.subscribeWhileShown(this, bus -> List.of(
+				bus.subscribeAsync(NotificationsAdded.class, event -> Platform.runLater(this::updateNotificationBadge)),
+				bus.subscribeAsync(NotificationsRead.class, event -> Platform.runLater(this::updateNotificationBadge))));
 		notificationBtn.getStyleClass().add("icon-btn");
 
 		ContextMenu notificationMenu = new ContextMenu();
@@ -71,7 +89,7 @@ public class Navbar extends HBox
 			{
 				notificationMenu.getItems().clear();
 
-				List<NotificationDTO> unread = notificationController.getAllUnread();
+				List<NotificationDTO> unread = notificationController.getLatestUnread(LATEST_NOTIFICATIONS);
 
 				if (unread.isEmpty())
 				{
@@ -159,6 +177,13 @@ public class Navbar extends HBox
 		return button;
 	}
 
+	private void updateNotificationBadge()
+	{
+		long unread = notificationController.countUnread();
+		notificationBadge.setText(unread > MAX_BADGE_COUNT ? MAX_BADGE_COUNT + "+" : Long.toString(unread));
+		notificationBadge.setVisible(unread > 0);
+	}
+
 	private void fillUserData()
 	{
 		User user = AuthenticationUtil.getAuthenticatedUser();
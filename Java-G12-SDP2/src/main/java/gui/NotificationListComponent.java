@@ -1,28 +1,32 @@
 package gui;
 
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 import domain.NotificationController;
 import dto.NotificationDTO;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.beans.binding.Bindings;
 import javafx.geometry.Insets;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.SelectionMode;
 import javafx.scene.control.Separator;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
 public class NotificationListComponent extends VBox
 {
+	/** The number of notifications loaded at a time while scrolling. */
+	private static final int PAGE_SIZE = 50;
 
 	private ListView<NotificationDTO> notificationList;
 	private NotificationController nc;
 	private final MainLayout mainLayout;
 
-	private ObservableList<NotificationDTO> unreadNotifications;
-	private ObservableList<NotificationDTO> readNotifications;
+	private KeysetFeed<NotificationDTO> unreadNotifications;
+	private KeysetFeed<NotificationDTO> readNotifications;
 
 	public NotificationListComponent(MainLayout mainLayout)
 	{
@@ -47,8 +51,10 @@ public class NotificationListComponent extends VBox
 		unreadLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #2c3e50;");
 
 		ListView<NotificationDTO> unreadListView = new ListView<>();
-		unreadNotifications = FXCollections.observableArrayList(nc.getAllUnread());
-		unreadListView.setItems(unreadNotifications);
+		unreadNotifications = new KeysetFeed<>(nc::getAllUnread, "time", PAGE_SIZE);
+		unreadNotifications.reset();
+		unreadListView.setItems(unreadNotifications.getItems());
+		unreadListView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 		unreadListView.setMaxHeight(300);
 
 		unreadListView.setCellFactory(lv ->
@@ -71,8 +77,8 @@ public class NotificationListComponent extends VBox
 						if (item != null)
 						{
 							nc.markAsRead(item.id());
-							unreadNotifications.remove(item);
-							readNotifications.add(item);
+							unreadNotifications.getItems().remove(item);
+							readNotifications.reset();
 						}
 					});
 
@@ -112,6 +118,7 @@ public class NotificationListComponent extends VBox
 						// setPadding on the ListCell for spacing between items
 						setPadding(new Insets(5, 0, 5, 0));
 						setGraphic(layout);
+						unreadNotifications.shown(getIndex());
 					}
 				}
 			};
@@ -120,7 +127,28 @@ public class NotificationListComponent extends VBox
 
 		unreadListView.setStyle("-fx-background-color: transparent;" + "-fx-background-insets: 0;" + "-fx-padding: 5;");
 
-		VBox unreadBox = new VBox(10, unreadLabel, unreadListView);
+		Button markSelectedButton = new Button("Markeer selectie als gelezen");
+		markSelectedButton.disableProperty()
+				.bind(Bindings.isEmpty(unreadListView.getSelectionModel().getSelectedItems()));
+		markSelectedButton.setOnAction(e -> {
+			List<NotificationDTO> selected = List.copyOf(unreadListView.getSelectionModel().getSelectedItems());
+			nc.markAsRead(selected.stream().map(NotificationDTO::id).toList());
+			unreadListView.getSelectionModel().clearSelection();
+			unreadNotifications.getItems().removeAll(selected);
+			readNotifications.reset();
+		});
+
+		Button markAllButton = new Button("Markeer alles als gelezen");
+		markAllButton.disableProperty().bind(Bindings.isEmpty(unreadNotifications.getItems()));
+		markAllButton.setOnAction(e -> {
+			nc.markAllAsRead();
+			unreadNotifications.reset();
+			readNotifications.reset();
+		});
+
+		HBox unreadActions = new HBox(10, markSelectedButton, markAllButton);
+
+		VBox unreadBox = new VBox(10, unreadLabel, unreadActions, unreadListView);
 		unreadBox.setPadding(new Insets(15));
 		unreadBox.setStyle("-fx-background-color: #e8f4f8;" + "-fx-background-radius: 8px;"
 				+ "-fx-border-color: #d0e8f2;" + "-fx-border-radius: 8px;");
@@ -129,8 +157,9 @@ public class NotificationListComponent extends VBox
 		readLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #2c3e50;");
 
 		ListView<NotificationDTO> readListView = new ListView<>();
-		readNotifications = FXCollections.observableArrayList(nc.getAllRead());
-		readListView.setItems(readNotifications);
+		readNotifications = new KeysetFeed<>(nc::getAllRead, "time", PAGE_SIZE);
+		readNotifications.reset();
+		readListView.setItems(readNotifications.getItems());
 		readListView.setMaxHeight(300);
 
 		readListView.setCellFactory(lv ->
@@ -177,6 +206,7 @@ public class NotificationListComponent extends VBox
 
 						setPadding(new Insets(4, 0, 4, 0));
 						setGraphic(layout);
+						readNotifications.shown(getIndex());
 					}
 				}
 			};
@@ -0,0 +1,104 @@
+package gui;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import dto.FileInfoRow;
+import javafx.scene.image.Image;
+
+/**
+ * Keeps the most recently rendered PDF pages, so scrolling back through a
+ * manual or opening it again does not render the same pages twice. Pages are
+ * kept per file, page and resolution. The least recently used pages are
+ * evicted once the cached pages together take more than
+ * {@value #MAX_BYTES} bytes, counting four bytes per pixel.
+ */
+public class PageCache
+{
+	private static final long MAX_BYTES = 128L << 20;
+
+	private static PageCache instance;
+
+	private final Map<Key, Image> pages = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes;
+
+	/**
+	 * A rendered page of a file at a resolution.
+	 */
+	private record Key(int fileId, float dpi, int page)
+	{
+	}
+
+	public static synchronized PageCache getInstance()
+	{
+		if (instance == null)
+		{
+			instance = new PageCache();
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns a rendered page if it is cached.
+	 *
+	 * @param fileId the ID of the PDF
+	 * @param dpi    the resolution of the page
+	 * @param page   the index of the page
+	 * @return the page, or {@code null} if it is not cached
+	 */
+	public synchronized Image get(int fileId, float dpi, int page)
+	{
+		return pages.get(new Key(fileId, dpi, page));
+	}
+
+	/**
+	 * Caches a rendered page and evicts the least recently used pages that no
+	 * longer fit.
+	 *
+	 * @param fileId the ID of the PDF
+	 * @param dpi    the resolution of the page
+	 * @param page   the index of the page
+	 * @param image  the rendered page
+	 */
+	public synchronized void put(int fileId, float dpi, int page, Image image)
+	{
+		Image previous = pages.put(new Key(fileId, dpi, page), image);
+		if (previous != null)
+		{
+			bytes -= sizeOf(previous);
+		}
+		bytes += sizeOf(image);
+
+		Iterator<Image> eldest = pages.values().iterator();
+		while (bytes > MAX_BYTES && pages.size() > 1)
+		{
+			bytes -= sizeOf(eldest.next());
+			eldest.remove();
+		}
+	}
+
+	/**
+	 * Drops all pages of a file, e.g. after it was deleted.
+	 *
+	 * @param file the file
+	 */
+	public synchronized void evict(FileInfoRow file)
+	{
+		Iterator<Map.Entry<Key, Image>> entries = pages.entrySet().iterator();
+		while (entries.hasNext())
+		{
+			Map.Entry<Key, Image> entry = entries.next();
+			if (entry.getKey().fileId() == file.id())
+			{
+				bytes -= sizeOf(entry.getValue());
+				entries.remove();
+			}
+		}
+	}
+
+	private static long sizeOf(Image image)
+	{
+		return 4L * (long) image.getWidth() * (long) image.getHeight();
+	}
+}
@@ -0,0 +1,325 @@
+package gui;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.kordamp.ikonli.javafx.FontIcon;
+
+import domain.FileInfoController;
+import dto.FileInfoRow;
+import javafx.application.Platform;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import util.PdfPageRenderer;
+
+/**
+ * Shows all pages of a PDF attachment in a window of its own. Pages are
+ * rendered on a background thread as they scroll into view, together with the
+ * page after them, so a long manual opens right away and reading on does not
+ * wait for the next page. Rendered pages are kept in the shared
+ * {@link PageCache}.
+ * <p>
+ * Pages are laid out by a {@link ListView}, which only creates cells for the
+ * visible pages. Until a page is rendered its cell keeps the size of the page,
+ * so the scroll bar does not jump.
+ */
+public final class PdfViewer extends Stage
+{
+	private static final double SCREEN_DPI = 96;
+	private static final double MIN_ZOOM = 0.5;
+	private static final double MAX_ZOOM = 3;
+	private static final double ZOOM_STEP = 1.25;
+
+	private final FileInfoController fileInfoController;
+	private final FileInfoRow file;
+	private final PageCache pageCache = PageCache.getInstance();
+
+	/** Renders one page at a time, as a PDF document is not thread safe. */
+	private final ExecutorService renderThread = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "pdf-viewer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	/** The cells of the visible pages, which are rendered first. */
+	private final Map<Integer, PageCell> visibleCells = new ConcurrentHashMap<>();
+	/** The pages waiting to be rendered at the current resolution. */
+	private final Set<Integer> queuedPages = ConcurrentHashMap.newKeySet();
+
+	private final ListView<Integer> pageList = new ListView<>();
+	private final Label zoomLabel = new Label();
+	private PdfPageRenderer renderer;
+	private List<PDRectangle> pageSizes;
+	private double zoom = 1;
+	private volatile float dpi;
+	private volatile boolean closed;
+
+	/**
+	 * @param owner              the window that opens the viewer
+	 * @param fileInfoController reads the PDF
+	 * @param file               the PDF to show
+	 */
+	public PdfViewer(Window owner, FileInfoController fileInfoController, FileInfoRow file)
+	{
+		this.fileInfoController = fileInfoController;
+		this.file = file;
+
+		initOwner(owner);
+		setTitle(file.name());
+		dpi = resolution();
+
+		pageList.setCellFactory(list -> new PageCell());
+		pageList.setPlaceholder(new Label("PDF wordt geladen..."));
+		pageList.setFocusTraversable(false);
+
+		BorderPane root = new BorderPane(pageList);
+		root.setTop(createToolbar());
+		setScene(new Scene(root, 900, 1000));
+
+		setOnHidden(event -> closePdf());
+		renderThread.submit(this::open);
+	}
+
+	private HBox createToolbar()
+	{
+		Label title = new Label(file.name());
+		Region spacer = new Region();
+		HBox.setHgrow(spacer, Priority.ALWAYS);
+
+		Button zoomOut = new Button();
+		zoomOut.setGraphic(new FontIcon("fas-search-minus"));
+		zoomOut.setOnAction(event -> setZoom(zoom / ZOOM_STEP));
+		Button zoomIn = new Button();
+		zoomIn.setGraphic(new FontIcon("fas-search-plus"));
+		zoomIn.setOnAction(event -> setZoom(zoom * ZOOM_STEP));
+		updateZoomLabel();
+
+		HBox toolbar = new HBox(10, title, spacer, zoomOut, zoomLabel, zoomIn);
+		toolbar.setAlignment(Pos.CENTER_LEFT);
+		toolbar.setPadding(new Insets(8, 12, 8, 12));
+		return toolbar;
+	}
+
+	private void setZoom(double zoom)
+	{
+		this.zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+		updateZoomLabel();
+		dpi = resolution();
+		queuedPages.clear();
+		pageList.refresh();
+	}
+
+	private void updateZoomLabel()
+	{
+		zoomLabel.setText(Math.round(zoom * 100) + "%");
+	}
+
+	/**
+	 * The resolution at which pages are rendered: the zoomed screen
+	 * resolution, times the scale of a high density screen.
+	 */
+	private float resolution()
+	{
+		Window owner = getOwner();
+		double outputScale = owner == null ? 1 : owner.getOutputScaleX();
+		return (float) (SCREEN_DPI * zoom * outputScale);
+	}
+
+	/**
+	 * Opens the PDF and lists its pages. Runs on the render thread.
+	 */
+	private void open()
+	{
+		try
+		{
+			renderer = fileInfoController.openPdf(file.id());
+			if (renderer == null)
+			{
+				throw new IllegalStateException("Het bestand bestaat niet meer.");
+			}
+			pageSizes = IntStream.range(0, renderer.getPageCount()).mapToObj(renderer::getPageSize).toList();
+		} catch (Exception e)
+		{
+			Platform.runLater(() -> {
+				Alert errorAlert = new Alert(Alert.AlertType.ERROR);
+				errorAlert.setTitle("PDF Fout");
+				errorAlert.setHeaderText("PDF kon niet worden geopend");
+				errorAlert.setContentText(e.getMessage());
+				errorAlert.initOwner(getOwner());
+				hide();
+				errorAlert.showAndWait();
+			});
+			return;
+		}
+		Platform.runLater(() -> {
+			if (pageSizes.isEmpty())
+			{
+				pageList.setPlaceholder(new Label("Deze PDF heeft geen pagina's."));
+			}
+			pageList.getItems().setAll(IntStream.range(0, pageSizes.size()).boxed().toList());
+		});
+	}
+
+	/**
+	 * Queues a page to be rendered, unless it already is.
+	 *
+	 * @param prefetch whether the page is rendered ahead, without being shown
+	 */
+	private void queue(int page, float pageDpi, boolean prefetch)
+	{
+		if (page >= pageSizes.size() || !queuedPages.add(page))
+		{
+			return;
+		}
+		renderThread.submit(() -> render(page, pageDpi, prefetch));
+	}
+
+	/**
+	 * Renders a page and the page after it. Runs on the render thread; pages
+	 * that scrolled out of view or were queued before the zoom changed are
+	 * skipped.
+	 */
+	private void render(int page, float pageDpi, boolean prefetch)
+	{
+		if (closed || pageDpi != dpi || (!prefetch && !visibleCells.containsKey(page)))
+		{
+			queuedPages.remove(page);
+			return;
+		}
+		Image image = pageCache.get(file.id(), pageDpi, page);
+		try
+		{
+			if (image == null)
+			{
+				image = SwingFXUtils.toFXImage(renderer.render(page, pageDpi), null);
+				pageCache.put(file.id(), pageDpi, page, image);
+			}
+		} catch (Exception e)
+		{
+			// The page stays blank
+			return;
+		} finally
+		{
+			queuedPages.remove(page);
+		}
+
+		Image rendered = image;
+		Platform.runLater(() -> {
+			PageCell cell = visibleCells.get(page);
+			if (cell != null)
+			{
+				cell.show(page, pageDpi, rendered);
+			}
+		});
+		if (!prefetch && pageCache.get(file.id(), pageDpi, page + 1) == null)
+		{
+			queue(page + 1, pageDpi, true);
+		}
+	}
+
+	/**
+	 * Closes the PDF once the page being rendered is done.
+	 */
+	private void closePdf()
+	{
+		closed = true;
+		renderThread.submit(() -> {
+			try
+			{
+				if (renderer != null)
+				{
+					renderer.close();
+				}
+			} catch (Exception e)
+			{
+				// Nothing left to clean up but a temporary file
+			}
+		});
+		renderThread.shutdown();
+	}
+
+	/**
+	 * Shows one page, or a blank area of its size while it is rendered.
+	 */
+	private class PageCell extends ListCell<Integer>
+	{
+		private final ImageView imageView = new ImageView();
+		private final StackPane frame = new StackPane(imageView);
+
+		PageCell()
+		{
+			frame.setStyle("-fx-background-color: white; -fx-effect: dropshadow(gaussian, rgba(0,0,0,0.2), 6, 0, 0, 1);");
+			setAlignment(Pos.CENTER);
+			setPadding(new Insets(8));
+			imageView.setPreserveRatio(true);
+			imageView.setSmooth(true);
+		}
+
+		@Override
+		protected void updateItem(Integer page, boolean empty)
+		{
+			if (getItem() != null)
+			{
+				visibleCells.remove(getItem(), this);
+			}
+			super.updateItem(page, empty);
+			if (empty || page == null)
+			{
+				setGraphic(null);
+				return;
+			}
+
+			PDRectangle size = pageSizes.get(page);
+			double width = size.getWidth() / PdfPageRenderer.POINTS_PER_INCH * SCREEN_DPI * zoom;
+			double height = size.getHeight() / PdfPageRenderer.POINTS_PER_INCH * SCREEN_DPI * zoom;
+			frame.setMinSize(width, height);
+			frame.setMaxSize(width, height);
+			imageView.setFitWidth(width);
+			imageView.setFitHeight(height);
+			setGraphic(frame);
+
+			visibleCells.put(page, this);
+			Image image = pageCache.get(file.id(), dpi, page);
+			imageView.setImage(image);
+			if (image == null)
+			{
+				queue(page, dpi, false);
+			} else if (pageCache.get(file.id(), dpi, page + 1) == null)
+			{
+				queue(page + 1, dpi, true);
+			}
+		}
+
+		/**
+		 * Shows a rendered page, if the cell still shows that page.
+		 */
+		void show(int page, float pageDpi, Image image)
+		{
+			if (getItem() != null && getItem() == page && pageDpi == dpi)
+			{
+				imageView.setImage(image);
+			}
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import domain.FileInfoController;
+import dto.FileInfoRow;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+/**
+ * Loads attachment previews off the JavaFX application thread. Reading,
+ * rendering and decoding thumbnails runs on a small shared pool of worker
+ * threads; the results are handed back on the application thread.
+ * <p>
+ * Every view uses its own loader and calls {@link #cancelAll()} when its
+ * previews become obsolete, e.g. when the grid is rebuilt or the view is
+ * closed. Queued loads are then dropped and the results of running ones are
+ * ignored.
+ * <p>
+ * All methods must be called on the JavaFX application thread.
+ */
+public class PreviewLoader
+{
+	private static final int WORKER_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+	private static final AtomicInteger threadNumber = new AtomicInteger();
+	private static final ExecutorService workers = Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+		Thread thread = new Thread(runnable, "preview-loader-" + threadNumber.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final FileInfoController fileInfoController;
+	private final ThumbnailCache thumbnailCache;
+	private final List<Future<?>> pending = new ArrayList<>();
+	/** Incremented by {@link #cancelAll()}, so loads started before are ignored. */
+	private int generation;
+
+	public PreviewLoader(FileInfoController fileInfoController, ThumbnailCache thumbnailCache)
+	{
+		this.fileInfoController = fileInfoController;
+		this.thumbnailCache = thumbnailCache;
+	}
+
+	/**
+	 * Loads the preview of a file. A cached preview is handed over right away,
+	 * any other one once a worker has loaded it.
+	 *
+	 * @param file     the file
+	 * @param onLoaded receives the preview, or {@code null} if the file has no
+	 *                 preview, on the JavaFX application thread
+	 */
+	public void load(FileInfoRow file, Consumer<Image> onLoaded)
+	{
+		Image cached = thumbnailCache.getIfPresent(file);
+		if (cached != null)
+		{
+			onLoaded.accept(cached);
+			return;
+		}
+
+		int loadGeneration = generation;
+		pending.removeIf(Future::isDone);
+		pending.add(workers.submit(() -> {
+			Image image;
+			try
+			{
+				image = thumbnailCache.get(file, fileInfoController);
+			} catch (RuntimeException e)
+			{
+				image = null;
+			}
+			Image preview = image;
+			Platform.runLater(() -> {
+				if (loadGeneration == generation)
+				{
+					onLoaded.accept(preview);
+				}
+			});
+		}));
+	}
+
+	/**
+	 * Drops all queued loads and ignores the results of the running ones.
+	 */
+	public void cancelAll()
+	{
+		generation++;
+		pending.forEach(future -> future.cancel(false));
+		pending.clear();
+	}
+}
@@ -0,0 +1,47 @@
+package gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import event.EventBus;
+import event.EventBus.Subscription;
+import javafx.scene.Node;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ties the event subscriptions of a screen to its lifetime: the screen
+ * listens to the shared {@link EventBus} while it is part of a scene, and its
+ * subscriptions are closed when it is removed, e.g. when the user navigates
+ * away. A screen that is not shown is therefore neither refreshed nor kept
+ * alive by the bus.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ScreenEvents
+{
+	/**
+	 * Subscribes a screen whenever it is shown.
+	 *
+	 * @param screen    the screen
+	 * @param subscribe subscribes the listeners of the screen to the bus
+	 */
+	static void subscribeWhileShown(Node screen, Function<EventBus, List<Subscription>> subscribe)
+	{
+		List<Subscription> subscriptions = new ArrayList<>();
+		if (screen.getScene() != null)
+		{
+			subscriptions.addAll(subscribe.apply(EventBus.getInstance()));
+		}
+		screen.sceneProperty().addListener((observable, oldScene, newScene) -> {
+			if (newScene == null)
+			{
+				subscriptions.forEach(Subscription::close);
+				subscriptions.clear();
+			} else if (subscriptions.isEmpty())
+			{
+				subscriptions.addAll(subscribe.apply(EventBus.getInstance()));
+			}
+		});
+	}
+}
@@ -4,11 +4,15 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.kordamp.ikonli.javafx.FontIcon;
+import domain.Machine;
 import domain.SiteController;
 import dto.MachineDTO;
 import dto.SiteDTOWithMachines;
 import dto.UserDTO;
-import interfaces.Observer;
+import event.ImportCompleted;
+import event.MachineCreated;
+import event.MachineUpdated;
+import event.SiteUpdated;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -33,7 +37,7 @@ import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import util.CurrentPage;
 
-public class SiteDetailsComponent extends VBox implements Observer
+public class SiteDetailsComponent extends VBox
 {
 	private final MainLayout mainLayout;
 	private SiteController sc;
@@ -73,8 +77,6 @@ public class SiteDetailsComponent extends VBox implements Observer
 		this.siteId = siteId;
 		this.site = sc.getSite(siteId);
 
-		this.sc.addObserver(this);
-
 		this.table = new TableView<>();
 		table.setPlaceholder(new Label("Geen machines beschikbaar voor deze site!"));
 		table.setEditable(false);
@@ -84,6 +86,33 @@ public class SiteDetailsComponent extends VBox implements Observer
 		initializeGUI();
 		loadMachines();
 
+		// Reload the machines of this site off the application thread
+		ScreenEvents.subscribeWhileShown(this, bus -> List.of(
+				bus.subscribeAsync(MachineCreated.class, event -> {
+					if (event.siteId() == siteId)
+					{
+						reloadMachines();
+					}
+				}),
+				bus.subscribeAsync(MachineUpdated.class, event -> {
+					// A machine that moved to another site must disappear from this one
+					if (event.siteId() == siteId || event.changedFields().contains("site"))
+					{
+						reloadMachines();
+					}
+				}),
+				bus.subscribeAsync(SiteUpdated.class, event -> {
+					if (event.siteId() == siteId)
+					{
+						reloadMachines();
+					}
+				}),
+				bus.subscribeAsync(ImportCompleted.class, event -> {
+					if (event.entityType() == Machine.class)
+					{
+						reloadMachines();
+					}
+				})));
 	}
 
 	private void loadMachines()
@@ -500,13 +529,16 @@ public class SiteDetailsComponent extends VBox implements Observer
 		alert.showAndWait();
 	}
 
-	@Override
-	public void update(String message)
+	/**
+	 * Reads the machines of the site on the calling thread and shows them on
+	 * the application thread.
+	 */
+	private void reloadMachines()
 	{
+		List<MachineDTO> machines = sc.getSite(siteId).machines().stream().toList();
 		Platform.runLater(() ->
 		{
-				SiteDTOWithMachines updatedSite = sc.getSite(siteId);
-				allMachines = updatedSite.machines().stream().toList();
+				allMachines = machines;
 				filteredMachines = new ArrayList<>(allMachines);
 				updateFilterOptions();
 				updateTable(filteredMachines);
@@ -5,9 +5,16 @@ import java.util.List;
 
 import org.kordamp.ikonli.javafx.FontIcon;
 
+import domain.Machine;
+import domain.Site;
 import domain.SiteController;
-import dto.SiteDTOWithMachines;
-import interfaces.Observer;
+import domain.SiteFilter;
+import dto.SiteRow;
+import event.ImportCompleted;
+import event.MachineCreated;
+import event.MachineUpdated;
+import event.SiteCreated;
+import event.SiteUpdated;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -31,12 +38,12 @@ import util.AuthenticationUtil;
 import util.CurrentPage;
 import util.Role;
 
-public class SitesListComponent extends VBox implements Observer
+public class SitesListComponent extends VBox
 {
 	private final MainLayout mainLayout;
 	private SiteController sc;
 
-	private TableView<SiteDTOWithMachines> table;
+	private TableView<SiteRow> table;
 	private TextField searchField;
 
 	private ComboBox<String> statusFilter;
@@ -44,8 +51,8 @@ public class SitesListComponent extends VBox implements Observer
 	private ComboBox<String> verantwoordelijkeFilter;
 	private TextField minMachinesField;
 	private TextField maxMachinesField;
-	private List<SiteDTOWithMachines> allSites;
-	private List<SiteDTOWithMachines> filteredSites;
+	private KeysetPager<SiteRow> sitePager;
+	private SiteFilter siteFilter;
 
 	private int itemsPerPage = 10;
 	private int currentPage = 0;
@@ -59,22 +66,38 @@ public class SitesListComponent extends VBox implements Observer
 		this.table = new TableView<>();
 		initializeGUI();
 		loadSites();
+
+		// The list shows the number of machines of every site
+		ScreenEvents.subscribeWhileShown(this, bus -> List.of(
+				bus.subscribe(SiteCreated.class, event -> refresh()),
+				bus.subscribe(SiteUpdated.class, event -> refresh()),
+				bus.subscribe(MachineCreated.class, event -> refresh()),
+				bus.subscribe(MachineUpdated.class, event -> {
+					if (event.changedFields().contains("site"))
+					{
+						refresh();
+					}
+				}),
+				bus.subscribe(ImportCompleted.class, event -> {
+					if (event.entityType() == Site.class || event.entityType() == Machine.class)
+					{
+						refresh();
+					}
+				})));
 	}
 
 	private void loadSites()
 	{
-		allSites = sc.getSites();
-		filteredSites = allSites;
 		updateFilterOptions();
-		updateTable(allSites);
+		filterTable();
 	}
 
 	private void initializeGUI()
 	{
 		this.getStylesheets().add(getClass().getResource("/css/tablePane.css").toExternalForm());
 
-		allSites = sc.getSites();
-		filteredSites = allSites;
+		sitePager = new KeysetPager<>(request -> sc.getSiteRows(siteFilter, request), () -> sc.countSites(siteFilter),
+				"id", itemsPerPage);
 
 		table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_ALL_COLUMNS);
 
@@ -84,8 +107,6 @@ public class SitesListComponent extends VBox implements Observer
 		this.setSpacing(20);
 		this.getChildren().addAll(titleSection, tableSection);
 
-		updateFilterOptions();
-		updateTable(filteredSites);
 		configureTableLayout();
 	}
 
@@ -143,8 +164,8 @@ public class SitesListComponent extends VBox implements Observer
 	{
 		HBox filterBox = createTableHeaders();
 
-		TableColumn<SiteDTOWithMachines, Void> editColumn = new TableColumn<>("Bewerken");
-		editColumn.setCellFactory(param -> new TableCell<SiteDTOWithMachines, Void>()
+		TableColumn<SiteRow, Void> editColumn = new TableColumn<>("Bewerken");
+		editColumn.setCellFactory(param -> new TableCell<SiteRow, Void>()
 		{
 			private final Button editButton = new Button();
 			{
@@ -154,7 +175,7 @@ public class SitesListComponent extends VBox implements Observer
 				editButton.setBackground(Background.EMPTY);
 				editButton.setOnAction(event ->
 				{
-					SiteDTOWithMachines site = getTableRow().getItem();
+					SiteRow site = getTableRow().getItem();
 					if (site != null)
 					{
 						openEditSiteForm(site.id());
@@ -170,37 +191,37 @@ public class SitesListComponent extends VBox implements Observer
 			}
 		});
 
-		TableColumn<SiteDTOWithMachines, Number> col1 = new TableColumn<>("Nr.");
+		TableColumn<SiteRow, Number> col1 = new TableColumn<>("Nr.");
 		col1.setMaxWidth(70);
 		col1.setMinWidth(70);
 		col1.setCellValueFactory(data -> new SimpleIntegerProperty(data.getValue().id()));
 
-		TableColumn<SiteDTOWithMachines, String> col2 = new TableColumn<>("Naam");
+		TableColumn<SiteRow, String> col2 = new TableColumn<>("Naam");
 		col2.setPrefWidth(200);
 		col2.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().siteName()));
 
-		TableColumn<SiteDTOWithMachines, String> col3 = new TableColumn<>("Verantwoordelijke");
+		TableColumn<SiteRow, String> col3 = new TableColumn<>("Verantwoordelijke");
 		col3.setPrefWidth(200);
-		col3.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().verantwoordelijke().firstName()));
+		col3.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().verantwoordelijkeFirstName()));
 
-		TableColumn<SiteDTOWithMachines, String> col4 = new TableColumn<>("Status");
+		TableColumn<SiteRow, String> col4 = new TableColumn<>("Status");
 		col4.setPrefWidth(100);
 		col4.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().status().toString()));
 
-		TableColumn<SiteDTOWithMachines, Number> col5 = new TableColumn<>("Aantal machines");
+		TableColumn<SiteRow, Number> col5 = new TableColumn<>("Aantal machines");
 		col5.setPrefWidth(150);
-		col5.setCellValueFactory(data -> new SimpleIntegerProperty(data.getValue().machines().size()));
+		col5.setCellValueFactory(data -> new SimpleIntegerProperty(data.getValue().machineCount()));
 
-		TableColumn<SiteDTOWithMachines, String> showColumn = new TableColumn<>("Details");
+		TableColumn<SiteRow, String> showColumn = new TableColumn<>("Details");
 		showColumn.setMaxWidth(100);
 		showColumn.setMinWidth(100);
-		showColumn.setCellFactory(param -> new TableCell<SiteDTOWithMachines, String>()
+		showColumn.setCellFactory(param -> new TableCell<SiteRow, String>()
 		{
 			private final Button viewButton = new Button("Details");
 			{
 				viewButton.setOnAction(event ->
 				{
-					SiteDTOWithMachines site = getTableRow().getItem();
+					SiteRow site = getTableRow().getItem();
 					if (site != null)
 					{
 						openSiteDetails(site.id());
@@ -314,6 +335,7 @@ public class SitesListComponent extends VBox implements Observer
 	{
 		this.itemsPerPage = itemsPerPage;
 		this.currentPage = 0;
+		sitePager.reset(itemsPerPage);
 		updatePagination();
 		updateTableItems();
 	}
@@ -345,10 +367,11 @@ public class SitesListComponent extends VBox implements Observer
 
 		int minMachines = parseIntSafely(minMachinesField.getText(), Integer.MIN_VALUE);
 		int maxMachines = parseIntSafely(maxMachinesField.getText(), Integer.MAX_VALUE);
-		filteredSites = sc.getFilteredSites(searchQuery, selectedStatus, selectedName, selectedVerantwoordelijke,
-				minMachines, maxMachines);
+		siteFilter = SiteFilter.of(searchQuery, selectedStatus, selectedName, selectedVerantwoordelijke, minMachines,
+				maxMachines);
 
 		currentPage = 0;
+		sitePager.reset(itemsPerPage);
 		updatePagination();
 		updateTableItems();
 	}
@@ -395,31 +418,12 @@ public class SitesListComponent extends VBox implements Observer
 
 	private void updateTotalPages()
 	{
-		totalPages = (int) Math.ceil((double) filteredSites.size() / itemsPerPage);
+		totalPages = sitePager.getPageCount();
 	}
 
 	private void updateTableItems()
 	{
-		int fromIndex = currentPage * itemsPerPage;
-		int toIndex = Math.min(fromIndex + itemsPerPage, filteredSites.size());
-
-		if (filteredSites.isEmpty())
-		{
-			table.getItems().clear();
-		} else
-		{
-			List<SiteDTOWithMachines> currentPageItems = fromIndex < toIndex ? filteredSites.subList(fromIndex, toIndex)
-					: List.of();
-			table.getItems().setAll(currentPageItems);
-		}
-	}
-
-	private void updateTable(List<SiteDTOWithMachines> sites)
-	{
-		filteredSites = sites;
-		currentPage = 0;
-		updatePagination();
-		updateTableItems();
+		table.getItems().setAll(sitePager.getPage(currentPage));
 	}
 
 	private void openAddSiteForm()
@@ -440,15 +444,8 @@ public class SitesListComponent extends VBox implements Observer
 		mainLayout.setContent(siteDetails, true, false, CurrentPage.NONE);
 	}
 
-	@Override
-	public void update(String message)
+	private void refresh()
 	{
-		Platform.runLater(() ->
-		{
-			allSites = sc.getSites();
-			filteredSites = new ArrayList<>(allSites);
-			updateFilterOptions();
-			updateTable(filteredSites);
-		});
+		Platform.runLater(this::loadSites);
 	}
 }
\ No newline at end of file
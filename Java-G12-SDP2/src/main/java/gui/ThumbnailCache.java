@@ -0,0 +1,96 @@
+package gui;
+
+import java.io.ByteArrayInputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import domain.FileInfoController;
+import dto.FileInfoRow;
+import javafx.scene.image.Image;
+
+/**
+ * Keeps the decoded thumbnails of the most recently shown attachments, so that
+ * redrawing the attachment grid (after filtering or sorting) neither reads nor
+ * decodes anything. The least recently used thumbnail is evicted once the
+ * cache holds {@value #MAX_ENTRIES} of them.
+ */
+public class ThumbnailCache
+{
+	private static final int MAX_ENTRIES = 256;
+
+	private static ThumbnailCache instance;
+
+	private final Map<Integer, Image> images = new LinkedHashMap<>(16, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, Image> eldest)
+		{
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	public static synchronized ThumbnailCache getInstance()
+	{
+		if (instance == null)
+		{
+			instance = new ThumbnailCache();
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the thumbnail of a file if it is cached.
+	 *
+	 * @param file the file
+	 * @return the thumbnail, or {@code null} if it is not cached
+	 */
+	public synchronized Image getIfPresent(FileInfoRow file)
+	{
+		return images.get(file.id());
+	}
+
+	/**
+	 * Returns the thumbnail of a file, loading and decoding it on the first
+	 * request. Loading happens without holding the cache lock and may touch the
+	 * database, so call this from a background thread.
+	 *
+	 * @param file       the file
+	 * @param controller loads the thumbnail of a file that is not cached
+	 * @return the thumbnail, or {@code null} if the file has no preview
+	 */
+	public Image get(FileInfoRow file, FileInfoController controller)
+	{
+		Image image = getIfPresent(file);
+		if (image != null)
+		{
+			return image;
+		}
+		byte[] thumbnail = controller.getThumbnail(file);
+		if (thumbnail == null)
+		{
+			return null;
+		}
+		image = new Image(new ByteArrayInputStream(thumbnail));
+		if (image.isError())
+		{
+			return null;
+		}
+		synchronized (this)
+		{
+			images.put(file.id(), image);
+		}
+		return image;
+	}
+
+	/**
+	 * Drops the thumbnail of a file, e.g. after it was deleted.
+	 *
+	 * @param file the file
+	 */
+	public synchronized void evict(FileInfoRow file)
+	{
+		images.remove(file.id());
+	}
+}
@@ -5,9 +5,13 @@ import java.util.List;
 
 import org.kordamp.ikonli.javafx.FontIcon;
 
+import domain.User;
 import domain.UserController;
-import dto.UserDTO;
-import interfaces.Observer;
+import domain.UserFilter;
+import dto.UserRow;
+import event.ImportCompleted;
+import event.UserCreated;
+import event.UserUpdated;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -21,6 +25,7 @@ import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.Pagination;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
@@ -35,17 +40,22 @@ import util.AuthenticationUtil;
 import util.CurrentPage;
 import util.Role;
 
-public class UserManagementPane extends GridPane implements Observer
+public class UserManagementPane extends GridPane
 {
 
-	private TableView<UserDTO> userTable;
+	private TableView<UserRow> userTable;
 	private Button addButton;
 
 	private TextField searchField;
 	private ComboBox<String> statusFilter;
 	private ComboBox<String> roleFilter;
-	private List<UserDTO> allUsers;
-	private List<UserDTO> filteredUsers;
+	private KeysetPager<UserRow> userPager;
+	private UserFilter userFilter;
+
+	private int itemsPerPage = 10;
+	private int currentPage = 0;
+	private int totalPages = 0;
+	private Pagination pagination;
 
 	private final MainLayout mainLayout;
 
@@ -59,14 +69,24 @@ public class UserManagementPane extends GridPane implements Observer
 
 		buildGUI();
 		loadUsers();
+
+		ScreenEvents.subscribeWhileShown(this, bus -> List.of(
+				bus.subscribe(UserCreated.class, event -> refresh()),
+				bus.subscribe(UserUpdated.class, event -> refresh()),
+				bus.subscribe(ImportCompleted.class, event -> {
+					if (event.entityType() == User.class)
+					{
+						refresh();
+					}
+				})));
 	}
 
 	private void buildGUI()
 	{
 		this.getStylesheets().add(getClass().getResource("/css/tablePane.css").toExternalForm());
 
-		allUsers = uc.getAllUsers();
-		filteredUsers = allUsers;
+		userPager = new KeysetPager<>(request -> uc.getUserRows(userFilter, request), () -> uc.countUsers(userFilter),
+				"id", itemsPerPage);
 
 		this.getChildren().add(createTitleSection());
 
@@ -93,15 +113,19 @@ public class UserManagementPane extends GridPane implements Observer
 		GridPane.setHalignment(addButton, HPos.RIGHT);
 		GridPane.setMargin(addButton, new Insets(0, 0, 10, 0));
 
+		pagination = createPagination();
+		HBox paginationControls = new HBox(20, pagination);
+		paginationControls.setAlignment(Pos.CENTER);
+
 		add(addButton, 0, 0);
 		add(filterBox, 0, 1);
 		add(userTable, 0, 2);
+		add(paginationControls, 0, 3);
 
 		GridPane.setHgrow(userTable, Priority.ALWAYS);
 		GridPane.setVgrow(userTable, Priority.ALWAYS);
 
 		updateFilterOptions();
-		updateTable(filteredUsers);
 	}
 
 	private HBox createFilters()
@@ -121,42 +145,77 @@ public class UserManagementPane extends GridPane implements Observer
 		roleFilter.setPrefWidth(150);
 		roleFilter.valueProperty().addListener((obs, oldVal, newVal) -> filterTable());
 
-		HBox filterBox = new HBox(10, searchField, statusFilter, roleFilter);
+		Region spacer = new Region();
+		HBox.setHgrow(spacer, Priority.ALWAYS);
+
+		HBox filterBox = new HBox(10, searchField, statusFilter, roleFilter, spacer, createPageSelector());
 		filterBox.setAlignment(Pos.CENTER_LEFT);
 		return filterBox;
 	}
 
-	private void filterTable()
+	private HBox createPageSelector()
 	{
-		String searchQuery = searchField.getText().toLowerCase();
-		String selectedStatus = statusFilter.getValue();
-		String selectedRole = roleFilter.getValue();
+		Label lblItemsPerPage = new Label("Aantal per pagina:");
+
+		ComboBox<Integer> comboItemsPerPage = new ComboBox<>(FXCollections.observableArrayList(10, 20, 50, 100));
+		comboItemsPerPage.setValue(itemsPerPage);
+		comboItemsPerPage.setOnAction(e -> updateItemsPerPage(comboItemsPerPage.getValue()));
 
-		filteredUsers = uc.getFilteredUsers(searchQuery, selectedStatus, selectedRole);
+		HBox pageSelector = new HBox(10, lblItemsPerPage, comboItemsPerPage);
+		pageSelector.setAlignment(Pos.CENTER_RIGHT);
+		return pageSelector;
+	}
 
+	private void updateItemsPerPage(int itemsPerPage)
+	{
+		this.itemsPerPage = itemsPerPage;
+		this.currentPage = 0;
+		userPager.reset(itemsPerPage);
+		updatePagination();
 		updateTableItems();
 	}
 
-	private void updateTable(List<UserDTO> filteredUsers2)
+	private void filterTable()
 	{
 		String searchQuery = searchField.getText().toLowerCase();
 		String selectedStatus = statusFilter.getValue();
 		String selectedRole = roleFilter.getValue();
 
-		filteredUsers = uc.getFilteredUsers(searchQuery, selectedStatus, selectedRole);
+		userFilter = UserFilter.of(searchQuery, selectedStatus, selectedRole);
 
+		currentPage = 0;
+		userPager.reset(itemsPerPage);
+		updatePagination();
 		updateTableItems();
 	}
 
+	private Pagination createPagination()
+	{
+		updateTotalPages();
+		Pagination pagination = new Pagination(Math.max(1, totalPages), 0);
+		pagination.setPageFactory(pageIndex -> new HBox());
+		pagination.currentPageIndexProperty().addListener((obs, oldIndex, newIndex) -> {
+			currentPage = newIndex.intValue();
+			updateTableItems();
+		});
+		return pagination;
+	}
+
+	private void updatePagination()
+	{
+		updateTotalPages();
+		pagination.setPageCount(Math.max(1, totalPages));
+		pagination.setCurrentPageIndex(Math.min(currentPage, Math.max(0, totalPages - 1)));
+	}
+
+	private void updateTotalPages()
+	{
+		totalPages = userPager.getPageCount();
+	}
+
 	private void updateTableItems()
 	{
-		if (filteredUsers.isEmpty())
-		{
-			userTable.getItems().clear();
-		} else
-		{
-			userTable.getItems().setAll(filteredUsers);
-		}
+		userTable.getItems().setAll(userPager.getPage(currentPage));
 	}
 
 	private void updateFilterOptions()
@@ -203,26 +262,26 @@ public class UserManagementPane extends GridPane implements Observer
 	{
 		userTable.getColumns().clear();
 
-		TableColumn<UserDTO, Integer> idColumn = new TableColumn<>("ID");
+		TableColumn<UserRow, Integer> idColumn = new TableColumn<>("ID");
 		idColumn.setCellValueFactory(cellData -> new SimpleIntegerProperty(cellData.getValue().id()).asObject());
 
-		TableColumn<UserDTO, String> firstnameColumn = new TableColumn<>("Voornaam");
+		TableColumn<UserRow, String> firstnameColumn = new TableColumn<>("Voornaam");
 		firstnameColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().firstName()));
 
-		TableColumn<UserDTO, String> lastnameColumn = new TableColumn<>("Achternaam");
+		TableColumn<UserRow, String> lastnameColumn = new TableColumn<>("Achternaam");
 		lastnameColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().lastName()));
 
-		TableColumn<UserDTO, String> emailColumn = new TableColumn<>("Email");
+		TableColumn<UserRow, String> emailColumn = new TableColumn<>("Email");
 		emailColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().email()));
 
-		TableColumn<UserDTO, String> roleColumn = new TableColumn<>("Rol");
+		TableColumn<UserRow, String> roleColumn = new TableColumn<>("Rol");
 		roleColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().role().toString()));
 
-		TableColumn<UserDTO, String> statusColumn = new TableColumn<>("Status");
+		TableColumn<UserRow, String> statusColumn = new TableColumn<>("Status");
 		statusColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().status().toString()));
 
-		TableColumn<UserDTO, Void> editColumn = new TableColumn<>("Bewerken");
-		editColumn.setCellFactory(param -> new TableCell<UserDTO, Void>()
+		TableColumn<UserRow, Void> editColumn = new TableColumn<>("Bewerken");
+		editColumn.setCellFactory(param -> new TableCell<UserRow, Void>()
 		{
 			private final Button editButton = new Button();
 
@@ -265,7 +324,7 @@ public class UserManagementPane extends GridPane implements Observer
 
 	private void loadUsers()
 	{
-		userTable.getItems().setAll(uc.getAllUsers());
+		filterTable();
 	}
 
 	private void openAddUserForm()
@@ -280,8 +339,7 @@ public class UserManagementPane extends GridPane implements Observer
 		mainLayout.setContent(editUserForm, true, false, CurrentPage.NONE);
 	}
 
-	@Override
-	public void update(String message)
+	private void refresh()
 	{
 		Platform.runLater(this::loadUsers);
 	}
@@ -1,5 +0,0 @@
-package interfaces;
-
-public interface Observer {
-	void update(String message);
-}
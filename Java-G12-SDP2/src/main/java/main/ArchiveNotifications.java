@@ -0,0 +1,32 @@
+package main;
+
+import java.io.IOException;
+
+import domain.NotificationArchiver;
+import util.JPAUtil;
+
+/**
+ * Moves the old read notifications to the archive directory right away,
+ * instead of waiting for the daily run of the application. The number of days
+ * to keep is the first argument, or else the configured one.
+ */
+public class ArchiveNotifications
+{
+
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length > 0)
+		{
+			System.setProperty(NotificationArchiver.RETENTION_DAYS_PROPERTY, args[0]);
+		}
+		try
+		{
+			long moved = new NotificationArchiver().archive();
+			System.out.printf("%d notificaties gearchiveerd in %s%n", moved, NotificationArchiver.archiveDirectory());
+		} finally
+		{
+			JPAUtil.close();
+		}
+	}
+
+}
@@ -0,0 +1,33 @@
+package main;
+
+import java.io.IOException;
+
+import domain.FileInfoController;
+import util.JPAUtil;
+
+/**
+ * Moves all attachment content from the database to the attachment directory.
+ * The directory is the first argument, or else the configured one. Start the
+ * application with {@code -Dshopfloor.attachment.store=directory} afterwards,
+ * so that new uploads are stored there as well.
+ */
+public class MigrateAttachments
+{
+
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length > 0)
+		{
+			System.setProperty(FileInfoController.DIRECTORY_PROPERTY, args[0]);
+		}
+		try
+		{
+			int moved = new FileInfoController().moveContentToDirectory();
+			System.out.printf("%d bijlagen verplaatst naar %s%n", moved, FileInfoController.attachmentDirectory());
+		} finally
+		{
+			JPAUtil.close();
+		}
+	}
+
+}
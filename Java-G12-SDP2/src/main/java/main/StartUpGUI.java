@@ -1,5 +1,6 @@
 package main;
 
+import domain.NotificationArchiver;
 import gui.MainLayout;
 import javafx.application.Application;
 import javafx.scene.image.Image;
@@ -23,6 +24,8 @@ public class StartUpGUI extends Application
 
 		primaryStage.show();
 
+		NotificationArchiver.scheduleDaily();
+
 	}
 
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ module be.hogent.Java_G12_SDP_22
 {
 	requires javafx.controls;
 	requires jakarta.persistence;
+	requires org.eclipse.persistence.core;
 	requires lombok;
 	requires org.kordamp.ikonli.javafx;
 	requires org.kordamp.ikonli.bootstrapicons;
@@ -16,9 +17,11 @@ module be.hogent.Java_G12_SDP_22
 	exports dto;
 	exports util;
 	exports interfaces;
+	exports event;
 
 	opens images;
 	opens css;
 
 	opens domain to org.eclipse.persistence.core, jakarta.persistence;
+	opens repository to org.eclipse.persistence.core;
 }
\ No newline at end of file
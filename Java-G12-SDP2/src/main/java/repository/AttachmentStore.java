@@ -0,0 +1,44 @@
+package repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import domain.FileContent;
+
+/**
+ * Keeps the bytes of stored {@link FileContent}. The database row of the
+ * content is always kept in the database; a store decides where the bytes go.
+ *
+ * @see DatabaseAttachmentStore
+ * @see DirectoryAttachmentStore
+ */
+public interface AttachmentStore
+{
+	/**
+	 * Stores the bytes of content that was inserted in the current transaction.
+	 * The store may update the content, e.g. to record where the bytes are.
+	 *
+	 * @param content the content, managed by the current transaction
+	 * @param data    the bytes, read until the end
+	 * @throws IOException if the bytes cannot be read or stored
+	 */
+	void write(FileContent content, InputStream data) throws IOException;
+
+	/**
+	 * Opens the bytes of content for reading.
+	 *
+	 * @param content the content
+	 * @return the bytes, or null if the store has none for the content
+	 * @throws IOException if the bytes cannot be opened
+	 */
+	InputStream open(FileContent content) throws IOException;
+
+	/**
+	 * Removes the bytes of content whose database row was deleted and
+	 * committed.
+	 *
+	 * @param content the deleted content
+	 * @throws IOException if the bytes cannot be removed
+	 */
+	void delete(FileContent content) throws IOException;
+}
@@ -0,0 +1,63 @@
+package repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import domain.FileContent;
+
+/**
+ * Stores attachment bytes in the database, as chunks of at most a fixed size
+ * so that only one chunk is held in memory at a time and no single row
+ * exceeds the maximum packet size of the database.
+ */
+public class DatabaseAttachmentStore implements AttachmentStore
+{
+	private final FileInfoDao fileInfoDao;
+	private final int chunkSize;
+
+	/**
+	 * @param fileInfoDao the DAO that reads and writes the chunks
+	 * @param chunkSize   the maximum size of a chunk, in bytes
+	 */
+	public DatabaseAttachmentStore(FileInfoDao fileInfoDao, int chunkSize)
+	{
+		if (chunkSize < 1)
+		{
+			throw new IllegalArgumentException("chunkSize must be at least 1");
+		}
+		this.fileInfoDao = fileInfoDao;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Empty content still gets one empty chunk, so that its bytes exist.
+	 */
+	@Override
+	public void write(FileContent content, InputStream data) throws IOException
+	{
+		int sequence = 0;
+		byte[] chunk;
+		do
+		{
+			chunk = data.readNBytes(chunkSize);
+			if (chunk.length > 0 || sequence == 0)
+			{
+				fileInfoDao.insertChunk(content, sequence++, chunk);
+			}
+		} while (chunk.length == chunkSize);
+	}
+
+	@Override
+	public InputStream open(FileContent content)
+	{
+		return fileInfoDao.openChunks(content.getId());
+	}
+
+	/**
+	 * Does nothing: the chunks are deleted together with the content row.
+	 */
+	@Override
+	public void delete(FileContent content)
+	{
+	}
+}
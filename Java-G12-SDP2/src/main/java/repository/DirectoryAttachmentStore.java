@@ -0,0 +1,169 @@
+package repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import domain.FileContent;
+
+/**
+ * Stores attachment bytes as files in a local directory, outside the database.
+ * The database only keeps the path of the file, relative to the directory, and
+ * the SHA-256 hash of the bytes, which is also the file name. Files are spread
+ * over two levels of subdirectories named after the first digits of the hash.
+ * <p>
+ * Files are written to a temporary file first and then moved in place, so a
+ * reader never sees a partly written file. A file left behind by an upload
+ * whose transaction failed is overwritten by the next upload of the same
+ * bytes. Files are read through memory mapped {@link FileChannel}s, mapping at
+ * most {@value #MAP_WINDOW} bytes at a time.
+ */
+public class DirectoryAttachmentStore implements AttachmentStore
+{
+	/** The maximum number of bytes mapped into memory at a time. */
+	static final long MAP_WINDOW = 64L << 20;
+
+	private final Path root;
+
+	/**
+	 * @param root the directory that holds the files; it is created on the
+	 *             first write
+	 */
+	public DirectoryAttachmentStore(Path root)
+	{
+		this.root = root;
+	}
+
+	@Override
+	public void write(FileContent content, InputStream data) throws IOException
+	{
+		String path = pathOf(content.getSha256());
+		Path target = root.resolve(path);
+		Files.createDirectories(target.getParent());
+		Path temporary = Files.createTempFile(target.getParent(), content.getSha256(), ".tmp");
+		try
+		{
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE))
+			{
+				OutputStream out = Channels.newOutputStream(channel);
+				data.transferTo(out);
+				channel.force(true);
+			}
+			Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException | RuntimeException e)
+		{
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+		content.setPath(path);
+	}
+
+	@Override
+	public InputStream open(FileContent content) throws IOException
+	{
+		try
+		{
+			return new MappedInputStream(FileChannel.open(root.resolve(content.getPath()), StandardOpenOption.READ));
+		} catch (NoSuchFileException e)
+		{
+			return null;
+		}
+	}
+
+	@Override
+	public void delete(FileContent content) throws IOException
+	{
+		if (content.getPath() != null)
+		{
+			Files.deleteIfExists(root.resolve(content.getPath()));
+		}
+	}
+
+	private static String pathOf(String sha256)
+	{
+		return sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256;
+	}
+
+	/**
+	 * Reads a file by mapping consecutive windows of it into memory.
+	 */
+	private static class MappedInputStream extends InputStream
+	{
+		private final FileChannel channel;
+		private final long size;
+		private long mapped;
+		private MappedByteBuffer window;
+
+		MappedInputStream(FileChannel channel) throws IOException
+		{
+			this.channel = channel;
+			this.size = channel.size();
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			if (!fill())
+			{
+				return -1;
+			}
+			return window.get() & 0xff;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException
+		{
+			if (length == 0)
+			{
+				return 0;
+			}
+			if (!fill())
+			{
+				return -1;
+			}
+			int count = Math.min(length, window.remaining());
+			window.get(buffer, offset, count);
+			return count;
+		}
+
+		@Override
+		public int available()
+		{
+			return window == null ? 0 : window.remaining();
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			channel.close();
+		}
+
+		/**
+		 * Maps the next window once the current one is consumed.
+		 *
+		 * @return false at the end of the file
+		 */
+		private boolean fill() throws IOException
+		{
+			while (window == null || !window.hasRemaining())
+			{
+				if (mapped >= size)
+				{
+					return false;
+				}
+				long length = Math.min(MAP_WINDOW, size - mapped);
+				window = channel.map(FileChannel.MapMode.READ_ONLY, mapped, length);
+				mapped += length;
+			}
+			return true;
+		}
+	}
+}
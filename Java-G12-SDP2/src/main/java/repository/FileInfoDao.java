@@ -0,0 +1,163 @@
+package repository;
+
+import java.io.InputStream;
+import java.util.List;
+
+import domain.FileContent;
+import domain.FileInfo;
+import dto.FileInfoRow;
+
+/**
+ * Data Access Object interface for FileInfo entities. The content and
+ * thumbnail of a file are large, so they are read and written separately from
+ * its metadata. Files with the same bytes share one stored
+ * {@link FileContent}.
+ */
+public interface FileInfoDao extends GenericDao<FileInfo>
+{
+	/**
+	 * Retrieves the metadata of the files of a maintenance, without their
+	 * content.
+	 *
+	 * @param maintenanceId the ID of the maintenance record
+	 * @return the metadata of the files, in upload order
+	 */
+	List<FileInfoRow> findRowsByMaintenance(int maintenanceId);
+
+	/**
+	 * @param fileId the ID of the file
+	 * @return the stored content of the file, or null for a file that does not
+	 *         exist or was uploaded before content was stored separately
+	 */
+	FileContent findContent(int fileId);
+
+	/**
+	 * @param fileId the ID of the file
+	 * @return the original content of a photo that was compressed on upload, or
+	 *         null if no original was kept
+	 */
+	FileContent findOriginalContent(int fileId);
+
+	/**
+	 * @param contentId the ID of the content
+	 * @return the content, or null if it does not exist
+	 */
+	FileContent findContentById(int contentId);
+
+	/**
+	 * @param fileId the ID of the file
+	 * @return the content kept in the file row itself by files uploaded before
+	 *         content was stored separately, or null
+	 */
+	byte[] getLegacyContent(int fileId);
+
+	/**
+	 * @return the IDs of the files that keep their content in the file row
+	 *         itself
+	 */
+	List<Integer> findLegacyFileIds();
+
+	/**
+	 * Makes a file refer to stored content instead of keeping the content in
+	 * its own row, in the current transaction.
+	 *
+	 * @param fileId  the ID of the file
+	 * @param content the stored content
+	 */
+	void attachContent(int fileId, FileContent content);
+
+	/**
+	 * @param sha256 the SHA-256 hash of the content, in hexadecimal
+	 * @return the stored content with that hash, or null if there is none
+	 */
+	FileContent findContentByHash(String sha256);
+
+	/**
+	 * Inserts new content in the current transaction, right away so that its
+	 * chunks and files can refer to it.
+	 *
+	 * @param content the content
+	 */
+	void insertContent(FileContent content);
+
+	/**
+	 * Stores one chunk of content in the current transaction. The chunk is
+	 * written right away and not kept in the persistence context.
+	 *
+	 * @param content  the content, inserted in the same transaction
+	 * @param sequence the position of the chunk in the content, starting at 0
+	 * @param data     the bytes of the chunk
+	 */
+	void insertChunk(FileContent content, int sequence, byte[] data);
+
+	/**
+	 * Opens the chunks of content for reading. They are read from the database
+	 * one at a time while the stream is consumed.
+	 *
+	 * @param contentId the ID of the content
+	 * @return the bytes of the content, or null if it has no chunks
+	 */
+	InputStream openChunks(int contentId);
+
+	/**
+	 * @return the IDs of the contents whose bytes are stored in the database
+	 */
+	List<Integer> findContentIdsInDatabase();
+
+	/**
+	 * Records that the bytes of content were moved to a file and deletes its
+	 * chunks, in the current transaction.
+	 *
+	 * @param contentId the ID of the content
+	 * @param path      the path of the file, relative to the attachment
+	 *                  directory
+	 */
+	void moveContentToFile(int contentId, String path);
+
+	/**
+	 * Counts one more file referring to stored content, in the current
+	 * transaction.
+	 *
+	 * @param contentId the ID of the content
+	 * @return the content, to refer to from the new file
+	 */
+	FileContent addReference(int contentId);
+
+	/**
+	 * Counts one file less referring to stored content, in the current
+	 * transaction.
+	 *
+	 * @param contentId the ID of the content
+	 * @return the number of files still referring to the content
+	 */
+	int removeReference(int contentId);
+
+	/**
+	 * Deletes stored content and its chunks in the current transaction.
+	 *
+	 * @param contentId the ID of the content
+	 */
+	void deleteContent(int contentId);
+
+	/**
+	 * @param fileId the ID of the file
+	 * @return the thumbnail of the file, or null if it has none
+	 */
+	byte[] getThumbnail(int fileId);
+
+	/**
+	 * Stores the thumbnail of a file in the current transaction.
+	 *
+	 * @param fileId    the ID of the file
+	 * @param thumbnail the thumbnail
+	 */
+	void saveThumbnail(int fileId, byte[] thumbnail);
+
+	/**
+	 * Deletes a file in the current transaction without loading it. Its stored
+	 * content is left alone, see {@link #removeReference(int)}.
+	 *
+	 * @param fileId the ID of the file
+	 */
+	void deleteById(int fileId);
+}
@@ -0,0 +1,237 @@
+package repository;
+
+import java.io.InputStream;
+import java.util.List;
+
+import domain.FileChunk;
+import domain.FileContent;
+import domain.FileInfo;
+import dto.FileInfoRow;
+import jakarta.persistence.EntityManager;
+
+/**
+ * JPA implementation of the FileInfoDao interface.
+ */
+public class FileInfoDaoJpa extends GenericDaoJpa<FileInfo> implements FileInfoDao
+{
+	public FileInfoDaoJpa()
+	{
+		super(FileInfo.class);
+	}
+
+	@Override
+	public List<FileInfoRow> findRowsByMaintenance(int maintenanceId)
+	{
+		return read(em -> em.createNamedQuery("FileInfo.rowsByMaintenance", FileInfoRow.class)
+				.setParameter("maintenanceId", maintenanceId).getResultList());
+	}
+
+	@Override
+	public FileContent findContent(int fileId)
+	{
+		return read(em -> em.createNamedQuery("FileInfo.storedContent", FileContent.class).setParameter("id", fileId)
+				.getResultList().stream().findFirst().orElse(null));
+	}
+
+	@Override
+	public FileContent findOriginalContent(int fileId)
+	{
+		return read(em -> em.createNamedQuery("FileInfo.originalContent", FileContent.class).setParameter("id", fileId)
+				.getResultList().stream().findFirst().orElse(null));
+	}
+
+	@Override
+	public FileContent findContentById(int contentId)
+	{
+		return read(em -> em.find(FileContent.class, contentId));
+	}
+
+	@Override
+	public byte[] getLegacyContent(int fileId)
+	{
+		return readBytes("FileInfo.content", fileId);
+	}
+
+	@Override
+	public List<Integer> findLegacyFileIds()
+	{
+		return read(em -> em.createNamedQuery("FileInfo.idsWithLegacyContent", Integer.class).getResultList());
+	}
+
+	@Override
+	public void attachContent(int fileId, FileContent content)
+	{
+		transactionalEntityManager().createNamedQuery("FileInfo.attachStoredContent").setParameter("id", fileId)
+				.setParameter("storedContent", content).executeUpdate();
+	}
+
+	@Override
+	public FileContent findContentByHash(String sha256)
+	{
+		return read(em -> em.createNamedQuery("FileContent.byHash", FileContent.class).setParameter("sha256", sha256)
+				.getResultList().stream().findFirst().orElse(null));
+	}
+
+	@Override
+	public void insertContent(FileContent content)
+	{
+		EntityManager em = transactionalEntityManager();
+		em.persist(content);
+		em.flush();
+	}
+
+	@Override
+	public void insertChunk(FileContent content, int sequence, byte[] data)
+	{
+		EntityManager em = transactionalEntityManager();
+		FileChunk chunk = new FileChunk(content, sequence, data);
+		em.persist(chunk);
+		em.flush();
+		em.detach(chunk);
+	}
+
+	@Override
+	public InputStream openChunks(int contentId)
+	{
+		byte[] first = readChunk(contentId, 0);
+		return first == null ? null : new ChunkInputStream(contentId, first);
+	}
+
+	@Override
+	public List<Integer> findContentIdsInDatabase()
+	{
+		return read(em -> em.createNamedQuery("FileContent.idsInDatabase", Integer.class).getResultList());
+	}
+
+	@Override
+	public void moveContentToFile(int contentId, String path)
+	{
+		EntityManager em = transactionalEntityManager();
+		em.createNamedQuery("FileContent.movedToFile").setParameter("id", contentId).setParameter("path", path)
+				.executeUpdate();
+		em.createNamedQuery("FileChunk.deleteByContent").setParameter("contentId", contentId).executeUpdate();
+	}
+
+	@Override
+	public FileContent addReference(int contentId)
+	{
+		EntityManager em = transactionalEntityManager();
+		em.createNamedQuery("FileContent.addReference").setParameter("id", contentId).executeUpdate();
+		return em.getReference(FileContent.class, contentId);
+	}
+
+	@Override
+	public int removeReference(int contentId)
+	{
+		EntityManager em = transactionalEntityManager();
+		em.createNamedQuery("FileContent.removeReference").setParameter("id", contentId).executeUpdate();
+		return em.createNamedQuery("FileContent.referenceCount", Integer.class).setParameter("id", contentId)
+				.getResultList().stream().findFirst().orElse(0);
+	}
+
+	@Override
+	public void deleteContent(int contentId)
+	{
+		EntityManager em = transactionalEntityManager();
+		em.createNamedQuery("FileChunk.deleteByContent").setParameter("contentId", contentId).executeUpdate();
+		em.createNamedQuery("FileContent.deleteById").setParameter("id", contentId).executeUpdate();
+	}
+
+	@Override
+	public byte[] getThumbnail(int fileId)
+	{
+		return readBytes("FileInfo.thumbnail", fileId);
+	}
+
+	private byte[] readBytes(String queryName, int fileId)
+	{
+		return read(em -> em.createNamedQuery(queryName, byte[].class).setParameter("id", fileId).getResultList()
+				.stream().findFirst().orElse(null));
+	}
+
+	private byte[] readChunk(int contentId, int sequence)
+	{
+		return read(em -> em.createNamedQuery("FileChunk.data", byte[].class).setParameter("contentId", contentId)
+				.setParameter("sequence", sequence).getResultList().stream().findFirst().orElse(null));
+	}
+
+	@Override
+	public void saveThumbnail(int fileId, byte[] thumbnail)
+	{
+		transactionalEntityManager().createNamedQuery("FileInfo.saveThumbnail").setParameter("id", fileId)
+				.setParameter("thumbnail", thumbnail).executeUpdate();
+	}
+
+	@Override
+	public void deleteById(int fileId)
+	{
+		transactionalEntityManager().createNamedQuery("FileInfo.deleteById").setParameter("id", fileId)
+				.executeUpdate();
+	}
+
+	/**
+	 * Reads the chunks of stored content one query at a time, so only the chunk
+	 * being read is held in memory.
+	 */
+	private class ChunkInputStream extends InputStream
+	{
+		private final int contentId;
+		private byte[] chunk;
+		private int sequence;
+		private int position;
+
+		ChunkInputStream(int contentId, byte[] first)
+		{
+			this.contentId = contentId;
+			this.chunk = first;
+		}
+
+		@Override
+		public int read()
+		{
+			if (!fill())
+			{
+				return -1;
+			}
+			return chunk[position++] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length)
+		{
+			if (length == 0)
+			{
+				return 0;
+			}
+			if (!fill())
+			{
+				return -1;
+			}
+			int count = Math.min(length, chunk.length - position);
+			System.arraycopy(chunk, position, buffer, offset, count);
+			position += count;
+			return count;
+		}
+
+		@Override
+		public int available()
+		{
+			return chunk == null ? 0 : chunk.length - position;
+		}
+
+		/**
+		 * Loads the next chunk once the current one is consumed.
+		 *
+		 * @return false at the end of the content
+		 */
+		private boolean fill()
+		{
+			while (chunk != null && position == chunk.length)
+			{
+				chunk = readChunk(contentId, ++sequence);
+				position = 0;
+			}
+			return chunk != null;
+		}
+	}
+}
@@ -1,14 +1,29 @@
 package repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface GenericDao<T> {
 	
     public List<T> findAll();  
+    public List<T> findAll(Specification<T> specification);
+    public List<T> findAll(Specification<T> specification, String fetchGraph);
+    public Page<T> findPage(PageRequest request);
+    public Page<T> findPage(PageRequest request, Specification<T> specification);
+    public Page<T> findPage(PageRequest request, Specification<T> specification, String fetchGraph);
+    public <R> Page<R> findRows(PageRequest request, Specification<T> specification, Projection<T, R> projection);
+    public <R> long streamRows(Specification<T> specification, Projection<T, R> projection, int fetchSize, Consumer<? super R> action);
+    public long count();
+    public long count(Specification<T> specification);
     public <U> T get(U id);
+    public <U> T get(U id, String fetchGraph);
     public T update(T object);
     public void delete(T object);
     public void insert(T object);
+    public void insertAll(Collection<? extends T> objects);
+    public void insertAll(Collection<? extends T> objects, Consumer<? super T> prepare);
+    public List<T> updateAll(Collection<? extends T> objects);
     public <U> boolean exists(U id);
     public void closePersistency();
     public void startTransaction();
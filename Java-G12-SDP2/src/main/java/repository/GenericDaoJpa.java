@@ -1,49 +1,139 @@
 package repository;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.queries.CursoredStream;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import util.JPAUtil;
 
+/**
+ * JPA implementation of {@link GenericDao}.
+ * <p>
+ * The DAO itself is stateless: every operation runs in the {@link UnitOfWork}
+ * of the calling thread. Reads outside a transaction get their own
+ * short-lived {@link EntityManager}, while {@link #startTransaction()} keeps
+ * one open on the thread until {@link #commitTransaction()} or
+ * {@link #rollbackTransaction()}.
+ */
 public class GenericDaoJpa<T> implements GenericDao<T>
 {
 
-	private static final String PU_NAME = "shopfloor-app";
-	private static final EntityManagerFactory emf = Persistence.createEntityManagerFactory(PU_NAME);
-	public static final EntityManager em = emf.createEntityManager();
-	private final Class<T> type;
+	private static final String LOAD_GRAPH = "jakarta.persistence.loadgraph";
+
+	/** Default number of entities written between two flushes of a bulk operation. */
+	public static final int DEFAULT_FLUSH_INTERVAL = 100;
+
+	protected final Class<T> type;
+	private int flushInterval = DEFAULT_FLUSH_INTERVAL;
 
 	public GenericDaoJpa(Class<T> type)
 	{
 		this.type = type;
 	}
 
+	/**
+	 * Runs a read against the current unit of work, opening (and afterwards
+	 * closing) a short-lived one when the thread has none.
+	 *
+	 * @param work the query to execute
+	 * @return the result of the query
+	 */
+	protected <R> R read(Function<EntityManager, R> work)
+	{
+		try (UnitOfWork unitOfWork = UnitOfWork.begin())
+		{
+			return work.apply(unitOfWork.getEntityManager());
+		}
+	}
+
+	/**
+	 * Returns the {@link EntityManager} of the transaction running on this
+	 * thread.
+	 *
+	 * @return the transactional entity manager
+	 * @throws IllegalStateException if no transaction was started
+	 */
+	protected EntityManager transactionalEntityManager()
+	{
+		UnitOfWork unitOfWork = UnitOfWork.current();
+		if (unitOfWork == null || !unitOfWork.isTransactionActive())
+		{
+			throw new IllegalStateException("No active transaction, call startTransaction() first");
+		}
+		return unitOfWork.getEntityManager();
+	}
+
 	@Override
 	public void closePersistency()
 	{
-		em.close();
-		emf.close();
+		UnitOfWork unitOfWork = UnitOfWork.current();
+		if (unitOfWork != null)
+		{
+			unitOfWork.close();
+		}
+		JPAUtil.close();
 	}
 
 	@Override
 	public void startTransaction()
 	{
-		em.getTransaction().begin();
+		UnitOfWork unitOfWork = UnitOfWork.begin();
+		try
+		{
+			unitOfWork.getEntityManager().getTransaction().begin();
+		} catch (RuntimeException e)
+		{
+			unitOfWork.close();
+			throw e;
+		}
 	}
 
 	@Override
 	public void commitTransaction()
 	{
-		em.getTransaction().commit();
+		EntityManager em = transactionalEntityManager();
+		try
+		{
+			em.getTransaction().commit();
+		} finally
+		{
+			UnitOfWork.current().close();
+		}
 	}
 
 	@Override
 	public void rollbackTransaction()
 	{
-		if (em.getTransaction().isActive())
+		UnitOfWork unitOfWork = UnitOfWork.current();
+		if (unitOfWork != null && unitOfWork.isTransactionActive())
 		{
-			em.getTransaction().rollback();
+			try
+			{
+				unitOfWork.getEntityManager().getTransaction().rollback();
+			} finally
+			{
+				unitOfWork.close();
+			}
 		}
 	}
 
@@ -51,39 +141,439 @@ public class GenericDaoJpa<T> implements GenericDao<T>
 	public List<T> findAll()
 	{
 		// return em.createNamedQuery(type.getName()+".findAll", type).getResultList();
-		return em.createQuery("select entity from " + type.getSimpleName() + " entity", type).getResultList();
+		return read(em -> em.createQuery("select entity from " + type.getSimpleName() + " entity", type)
+				.getResultList());
+	}
+
+	/**
+	 * Retrieves the entities matching a specification.
+	 */
+	@Override
+	public List<T> findAll(Specification<T> specification)
+	{
+		return findAll(specification, null);
+	}
+
+	/**
+	 * Retrieves the entities matching a specification, loading the
+	 * relationships of the given named entity graph.
+	 */
+	@Override
+	public List<T> findAll(Specification<T> specification, String fetchGraph)
+	{
+		return read(em -> {
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+			CriteriaQuery<T> cq = cb.createQuery(type);
+			Root<T> root = cq.from(type);
+			cq.select(root).where(restriction(specification, root, cq, cb));
+			cq.orderBy(cb.asc(root.get(idAttribute(em))));
+			return withFetchGraph(em, em.createQuery(cq), fetchGraph).getResultList();
+		});
+	}
+
+	@Override
+	public Page<T> findPage(PageRequest request)
+	{
+		return findPage(request, null, null);
+	}
+
+	@Override
+	public Page<T> findPage(PageRequest request, Specification<T> specification)
+	{
+		return findPage(request, specification, null);
+	}
+
+	/**
+	 * Fetches one page of the entities matching a specification in keyset
+	 * order: {@code sortKey} ascending, then id ascending. One extra row is
+	 * read to know whether a next page exists.
+	 */
+	@Override
+	public Page<T> findPage(PageRequest request, Specification<T> specification, String fetchGraph)
+	{
+		return read(em -> {
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+			CriteriaQuery<T> cq = cb.createQuery(type);
+			Root<T> root = cq.from(type);
+			cq.select(root);
+			seekPage(em, cb, cq, root, request, specification);
+
+			TypedQuery<T> query = em.createQuery(cq).setMaxResults(request.pageSize() + 1);
+			List<T> rows = withFetchGraph(em, query, fetchGraph).getResultList();
+			return toPage(rows, request, last -> new PageRequest.Cursor(attributeValue(em, last, request.sortKey()),
+					em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(last)));
+		});
+	}
+
+	/**
+	 * Fetches one page of read-only rows of the entities matching a
+	 * specification, in the same keyset order as
+	 * {@link #findPage(PageRequest, Specification, String)}. The rows are
+	 * built by the query itself, no entities are loaded.
+	 */
+	@Override
+	public <R> Page<R> findRows(PageRequest request, Specification<T> specification, Projection<T, R> projection)
+	{
+		return read(em -> {
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+			CriteriaQuery<R> cq = cb.createQuery(projection.rowType());
+			Root<T> root = cq.from(type);
+			cq.select(cb.construct(projection.rowType(),
+					projection.columns().select(root, cb).toArray(Selection<?>[]::new)));
+			String idName = seekPage(em, cb, cq, root, request, specification);
+
+			List<R> rows = em.createQuery(cq).setMaxResults(request.pageSize() + 1).getResultList();
+			return toPage(rows, request, last -> new PageRequest.Cursor(componentValue(last, request.sortKey()),
+					componentValue(last, idName)));
+		});
+	}
+
+	/**
+	 * Streams read-only rows of all entities matching a specification, in id
+	 * order, through a database cursor. Rows are fetched {@code fetchSize} at a
+	 * time, by the driver as well as {@link JPAUtil} enables server-side cursor
+	 * fetching, and released once handed to the action, so memory use does not
+	 * grow with the number of rows. The action runs while the cursor is open.
+	 *
+	 * @return the number of rows streamed
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public <R> long streamRows(Specification<T> specification, Projection<T, R> projection, int fetchSize,
+			Consumer<? super R> action)
+	{
+		return read(em -> {
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+			CriteriaQuery<R> cq = cb.createQuery(projection.rowType());
+			Root<T> root = cq.from(type);
+			cq.select(cb.construct(projection.rowType(),
+					projection.columns().select(root, cb).toArray(Selection<?>[]::new)));
+			cq.where(restriction(specification, root, cq, cb));
+			cq.orderBy(cb.asc(root.get(idAttribute(em))));
+
+			CursoredStream cursor = (CursoredStream) em.createQuery(cq)
+					.setHint(QueryHints.CURSOR, true)
+					.setHint(QueryHints.CURSOR_PAGE_SIZE, fetchSize)
+					.setHint(QueryHints.JDBC_FETCH_SIZE, fetchSize)
+					.getSingleResult();
+			long count = 0;
+			try
+			{
+				while (cursor.hasNext())
+				{
+					action.accept((R) cursor.next());
+					if (++count % fetchSize == 0)
+					{
+						cursor.releasePrevious();
+					}
+				}
+			} finally
+			{
+				cursor.close();
+			}
+			return count;
+		});
+	}
+
+	/**
+	 * Restricts a query to the page after the request's cursor and orders it
+	 * by sort key, then id.
+	 *
+	 * @return the name of the id attribute
+	 */
+	private String seekPage(EntityManager em, CriteriaBuilder cb, CriteriaQuery<?> cq, Root<T> root,
+			PageRequest request, Specification<T> specification)
+	{
+		String idName = idAttribute(em);
+		Path<Comparable<Object>> idPath = root.get(idName);
+		Path<Comparable<Object>> sortPath = request.sortKey().equals(idName) ? idPath : root.get(request.sortKey());
+
+		Predicate where = restriction(specification, root, cq, cb);
+		if (request.after() != null)
+		{
+			where = cb.and(where, seekAfter(cb, sortPath, idPath, request.after()));
+		}
+		cq.where(where);
+		cq.orderBy(cb.asc(sortPath), cb.asc(idPath));
+		return idName;
+	}
+
+	/**
+	 * Cuts the extra row off a page query's result and derives the cursor of
+	 * the next page from the last row that is kept.
+	 */
+	protected static <R> Page<R> toPage(List<R> rows, PageRequest request, Function<R, PageRequest.Cursor> cursorOf)
+	{
+		if (rows.size() <= request.pageSize())
+		{
+			return new Page<>(rows, null);
+		}
+		List<R> content = rows.subList(0, request.pageSize());
+		return new Page<>(content, cursorOf.apply(content.get(content.size() - 1)));
+	}
+
+	@Override
+	public long count()
+	{
+		return count(null);
+	}
+
+	@Override
+	public long count(Specification<T> specification)
+	{
+		return read(em -> {
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+			CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+			Root<T> root = cq.from(type);
+			cq.select(cb.count(root)).where(restriction(specification, root, cq, cb));
+			return em.createQuery(cq).getSingleResult();
+		});
+	}
+
+	private Predicate restriction(Specification<T> specification, Root<T> root, CriteriaQuery<?> cq,
+			CriteriaBuilder cb)
+	{
+		return specification == null ? cb.conjunction() : specification.toPredicate(root, cq, cb);
+	}
+
+	/**
+	 * Builds {@code (sortKey > value) or (sortKey = value and id > lastId)}.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Predicate seekAfter(CriteriaBuilder cb, Path<Comparable<Object>> sortPath,
+			Path<Comparable<Object>> idPath, PageRequest.Cursor after)
+	{
+		Comparable<Object> lastId = (Comparable<Object>) after.id();
+		if (sortPath == idPath)
+		{
+			return cb.greaterThan(idPath, lastId);
+		}
+		Comparable<Object> lastValue = (Comparable<Object>) after.sortValue();
+		return cb.or(cb.greaterThan(sortPath, lastValue),
+				cb.and(cb.equal(sortPath, lastValue), cb.greaterThan(idPath, lastId)));
+	}
+
+	/**
+	 * Applies a named entity graph as load graph: the attributes of the graph
+	 * are loaded together with the query results, all other attributes keep
+	 * their mapped fetch type.
+	 */
+	protected <Q extends TypedQuery<?>> Q withFetchGraph(EntityManager em, Q query, String fetchGraph)
+	{
+		if (fetchGraph != null)
+		{
+			query.setHint(LOAD_GRAPH, em.getEntityGraph(fetchGraph));
+		}
+		return query;
+	}
+
+	/**
+	 * Reads the value of a persistent attribute of an entity.
+	 */
+	protected Object attributeValue(EntityManager em, T entity, String attribute)
+	{
+		Member member = em.getMetamodel().entity(type).getAttribute(attribute).getJavaMember();
+		try
+		{
+			if (member instanceof Field field)
+			{
+				field.trySetAccessible();
+				return field.get(entity);
+			}
+			return ((Method) member).invoke(entity);
+		} catch (ReflectiveOperationException e)
+		{
+			throw new IllegalStateException("Cannot read " + attribute + " of " + type.getSimpleName(), e);
+		}
+	}
+
+	/**
+	 * Reads a component of a projected row.
+	 */
+	private static Object componentValue(Object row, String component)
+	{
+		for (RecordComponent recordComponent : row.getClass().getRecordComponents())
+		{
+			if (recordComponent.getName().equals(component))
+			{
+				try
+				{
+					return recordComponent.getAccessor().invoke(row);
+				} catch (ReflectiveOperationException e)
+				{
+					throw new IllegalStateException("Cannot read " + component + " of " + row, e);
+				}
+			}
+		}
+		throw new IllegalArgumentException(
+				row.getClass().getSimpleName() + " has no component " + component + " to page on");
+	}
+
+	/**
+	 * Name of the identifier attribute of this entity type.
+	 */
+	protected String idAttribute(EntityManager em)
+	{
+		EntityType<T> entityType = em.getMetamodel().entity(type);
+		return entityType.getSingularAttributes().stream().filter(SingularAttribute::isId).findFirst()
+				.map(SingularAttribute::getName)
+				.orElseThrow(() -> new IllegalStateException("No id attribute on " + type.getSimpleName()));
+	}
+
+	/**
+	 * Executes a named query of this entity type.
+	 *
+	 * @param queryName  the name of the query
+	 * @param parameters the named parameters to bind
+	 * @return the matching entities
+	 */
+	public List<T> findByNamedQuery(String queryName, Map<String, Object> parameters)
+	{
+		return read(em -> {
+			TypedQuery<T> query = em.createNamedQuery(queryName, type);
+			parameters.forEach(query::setParameter);
+			return query.getResultList();
+		});
 	}
 
 	@Override
 	public <U> T get(U id)
 	{
-		T entity = em.find(type, id);
-		return entity;
+		return get(id, null);
+	}
+
+	/**
+	 * Finds an entity by id, loading the relationships of the given named
+	 * entity graph.
+	 */
+	@Override
+	public <U> T get(U id, String fetchGraph)
+	{
+		if (fetchGraph == null)
+		{
+			return read(em -> em.find(type, id));
+		}
+		return read(em -> em.find(type, id, Map.of(LOAD_GRAPH, em.getEntityGraph(fetchGraph))));
 	}
 
 	@Override
 	public T update(T object)
 	{
-		return em.merge(object);
+		return transactionalEntityManager().merge(object);
 	}
 
 	@Override
 	public void delete(T object)
 	{
+		EntityManager em = transactionalEntityManager();
 		em.remove(em.merge(object));
 	}
 
 	@Override
 	public void insert(T object)
 	{
-		em.persist(object);
+		transactionalEntityManager().persist(object);
+	}
+
+	/**
+	 * Persists all objects in the current transaction. Every
+	 * {@link #setFlushInterval(int) flush interval} the pending inserts are
+	 * flushed, as JDBC batches when batch writing is enabled, and the
+	 * persistence context is cleared so memory stays bounded. Entities loaded
+	 * earlier in the same transaction become detached by that.
+	 */
+	@Override
+	public void insertAll(Collection<? extends T> objects)
+	{
+		insertAll(objects, null);
+	}
+
+	/**
+	 * Persists all objects like {@link #insertAll(Collection)}, passing each
+	 * one to {@code prepare} right before it is persisted. As the persistence
+	 * context is cleared every flush interval, {@code prepare} is the place to
+	 * load the entities an object refers to, so they are managed by the
+	 * transaction instead of detached.
+	 *
+	 * @param prepare called with every object before it is persisted, or
+	 *                {@code null}
+	 */
+	@Override
+	public void insertAll(Collection<? extends T> objects, Consumer<? super T> prepare)
+	{
+		EntityManager em = transactionalEntityManager();
+		int pending = 0;
+		for (T object : objects)
+		{
+			if (prepare != null)
+			{
+				prepare.accept(object);
+			}
+			em.persist(object);
+			if (++pending == flushInterval)
+			{
+				flushAndClear(em);
+				pending = 0;
+			}
+		}
+		em.flush();
+	}
+
+	/**
+	 * Merges all objects in the current transaction, flushing and clearing the
+	 * persistence context every {@link #setFlushInterval(int) flush interval}
+	 * like {@link #insertAll(Collection)}. The context is cleared after the last
+	 * flush as well, so every returned instance is detached, whichever chunk it
+	 * was merged in; merge one again to change it further in the same
+	 * transaction.
+	 *
+	 * @return the merged instances, in the order of the objects, all detached
+	 */
+	@Override
+	public List<T> updateAll(Collection<? extends T> objects)
+	{
+		EntityManager em = transactionalEntityManager();
+		List<T> merged = new ArrayList<>(objects.size());
+		int pending = 0;
+		for (T object : objects)
+		{
+			merged.add(em.merge(object));
+			if (++pending == flushInterval)
+			{
+				flushAndClear(em);
+				pending = 0;
+			}
+		}
+		flushAndClear(em);
+		return merged;
+	}
+
+	private void flushAndClear(EntityManager em)
+	{
+		em.flush();
+		em.clear();
+	}
+
+	/**
+	 * Sets the number of entities {@link #insertAll(Collection)} and
+	 * {@link #updateAll(Collection)} write between two flushes. Should be a
+	 * multiple of the JDBC batch size ({@code eclipselink.jdbc.batch-writing.size}).
+	 *
+	 * @param flushInterval the number of entities per flush, at least 1
+	 */
+	public void setFlushInterval(int flushInterval)
+	{
+		if (flushInterval < 1)
+		{
+			throw new IllegalArgumentException("flushInterval must be at least 1");
+		}
+		this.flushInterval = flushInterval;
 	}
 
 	@Override
 	public <U> boolean exists(U id)
 	{
-		T entity = em.find(type, id);
-		return entity != null;
+		return get(id) != null;
 	}
 
 }
@@ -1,5 +1,7 @@
 package repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import domain.Notification;
@@ -7,5 +9,69 @@ import domain.Notification;
 public interface NotificationDao extends GenericDao<Notification>{
 	public List<Notification> getAllRead();
 	public List<Notification> getAllUnread();
-	void markAsRead(int notificationId);
+
+	/**
+	 * Fetches one page of read notifications, newest first: by time, then id,
+	 * both descending. The sort key of the request is not used.
+	 *
+	 * @param request the page to fetch
+	 * @return the requested page
+	 */
+	Page<Notification> getAllRead(PageRequest request);
+
+	/**
+	 * Fetches one page of unread notifications in the order of
+	 * {@link #getAllRead(PageRequest)}.
+	 *
+	 * @param request the page to fetch
+	 * @return the requested page
+	 */
+	Page<Notification> getAllUnread(PageRequest request);
+
+	/**
+	 * @param max the maximum number of notifications
+	 * @return the newest unread notifications, newest first
+	 */
+	List<Notification> getLatestUnread(int max);
+
+	/**
+	 * @return the number of unread notifications, counted by the database
+	 */
+	long countUnread();
+
+	/**
+	 * @return {@code true} if the notification was unread
+	 */
+	boolean markAsRead(int notificationId);
+
+	/**
+	 * Marks notifications as read with a single update statement.
+	 *
+	 * @param notificationIds the IDs of the notifications
+	 * @return the number of notifications that were unread
+	 */
+	int markAsRead(Collection<Integer> notificationIds);
+
+	/**
+	 * Marks all unread notifications as read with a single update statement.
+	 *
+	 * @return the number of notifications that were unread
+	 */
+	int markAllAsRead();
+
+	/**
+	 * @param cutoff the time before which notifications are returned
+	 * @param max    the maximum number of notifications
+	 * @return the oldest read notifications from before the cutoff, oldest
+	 *         first
+	 */
+	List<Notification> getReadBefore(LocalDateTime cutoff, int max);
+
+	/**
+	 * Deletes notifications with a single delete statement.
+	 *
+	 * @param notificationIds the IDs of the notifications
+	 * @return the number of deleted notifications
+	 */
+	int deleteByIds(Collection<Integer> notificationIds);
 }
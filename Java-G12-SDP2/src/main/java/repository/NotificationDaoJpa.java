@@ -1,8 +1,13 @@
 package repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
 
 import domain.Notification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 
 public class NotificationDaoJpa extends GenericDaoJpa<Notification> implements NotificationDao {
 
@@ -12,21 +17,100 @@ public class NotificationDaoJpa extends GenericDaoJpa<Notification> implements N
 
 	@Override
 	public List<Notification> getAllRead() {
-		return em.createNamedQuery("Notification.getAllRead", Notification.class).getResultList();
+		return read(em -> em.createNamedQuery("Notification.getAllRead", Notification.class).getResultList());
 	}
 
 	@Override
 	public List<Notification> getAllUnread() {
-		return em.createNamedQuery("Notification.getAllUnread", Notification.class).getResultList();
+		return read(em -> em.createNamedQuery("Notification.getAllUnread", Notification.class).getResultList());
 	}
 
 	@Override
-	public void markAsRead(int notificationId) {
-		Notification notification = em.find(Notification.class, notificationId);
-		if (notification != null && !notification.isRead()) {
-			em.getTransaction().begin();
-			notification.setRead(true);
-			em.getTransaction().commit();
+	public Page<Notification> getAllRead(PageRequest request) {
+		return findPage(true, request);
+	}
+
+	@Override
+	public Page<Notification> getAllUnread(PageRequest request) {
+		return findPage(false, request);
+	}
+
+	@Override
+	public List<Notification> getLatestUnread(int max) {
+		return read(em -> em.createNamedQuery("Notification.newest", Notification.class).setParameter("read", false)
+				.setMaxResults(max).getResultList());
+	}
+
+	@Override
+	public long countUnread() {
+		return read(em -> em.createNamedQuery("Notification.countUnread", Long.class).getSingleResult());
+	}
+
+	@Override
+	public boolean markAsRead(int notificationId) {
+		return markAsRead(List.of(notificationId)) == 1;
+	}
+
+	@Override
+	public int markAsRead(Collection<Integer> notificationIds) {
+		if (notificationIds.isEmpty()) {
+			return 0;
+		}
+		return update(em -> em.createNamedQuery("Notification.markAsRead").setParameter("ids", notificationIds)
+				.executeUpdate());
+	}
+
+	@Override
+	public int markAllAsRead() {
+		return update(em -> em.createNamedQuery("Notification.markAllAsRead").executeUpdate());
+	}
+
+	@Override
+	public List<Notification> getReadBefore(LocalDateTime cutoff, int max) {
+		return read(em -> em.createNamedQuery("Notification.readBefore", Notification.class)
+				.setParameter("cutoff", cutoff).setMaxResults(max).getResultList());
+	}
+
+	@Override
+	public int deleteByIds(Collection<Integer> notificationIds) {
+		if (notificationIds.isEmpty()) {
+			return 0;
+		}
+		return update(em -> em.createNamedQuery("Notification.deleteByIds").setParameter("ids", notificationIds)
+				.executeUpdate());
+	}
+
+	/**
+	 * Seeks the page after the request's cursor in newest first order, reading
+	 * one extra row to know whether a next page exists.
+	 */
+	private Page<Notification> findPage(boolean read, PageRequest request) {
+		return read(em -> {
+			PageRequest.Cursor after = request.after();
+			TypedQuery<Notification> query = after == null
+					? em.createNamedQuery("Notification.newest", Notification.class)
+					: em.createNamedQuery("Notification.olderThan", Notification.class)
+							.setParameter("time", after.sortValue()).setParameter("id", after.id());
+			List<Notification> rows = query.setParameter("read", read).setMaxResults(request.pageSize() + 1)
+					.getResultList();
+			return toPage(rows, request, last -> new PageRequest.Cursor(last.getTime(), last.getId()));
+		});
+	}
+
+	/**
+	 * Runs a bulk update or delete statement in a transaction of its own.
+	 *
+	 * @return the number of updated rows
+	 */
+	private int update(Function<EntityManager, Integer> statement) {
+		startTransaction();
+		try {
+			int updated = statement.apply(transactionalEntityManager());
+			commitTransaction();
+			return updated;
+		} catch (RuntimeException e) {
+			rollbackTransaction();
+			throw e;
 		}
 	}
 
@@ -0,0 +1,35 @@
+package repository;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset paginated query.
+ *
+ * @param content    the rows of the page, in keyset order
+ * @param nextCursor cursor to request the following page with, or
+ *                   {@code null} when this is the last page
+ */
+public record Page<T>(List<T> content, PageRequest.Cursor nextCursor)
+{
+	public Page
+	{
+		content = List.copyOf(content);
+	}
+
+	public boolean hasNext()
+	{
+		return nextCursor != null;
+	}
+
+	/**
+	 * Converts the rows of this page while keeping its cursor.
+	 *
+	 * @param mapper conversion applied to every row
+	 * @return a page with the converted rows
+	 */
+	public <R> Page<R> map(Function<? super T, ? extends R> mapper)
+	{
+		return new Page<>(content.stream().<R>map(mapper).toList(), nextCursor);
+	}
+}
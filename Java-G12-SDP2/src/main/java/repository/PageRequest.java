@@ -0,0 +1,64 @@
+package repository;
+
+import java.util.Objects;
+
+/**
+ * Describes one page of a keyset ("seek") paginated query: rows are ordered by
+ * {@code sortKey} and then by id, and only rows positioned after the
+ * {@code after} cursor are returned. Unlike offset paging, fetching page
+ * {@code n} costs the same as fetching the first page.
+ *
+ * @param sortKey  name of the (non-null) entity attribute to order by
+ * @param pageSize maximum number of rows in the page
+ * @param after    position of the last row of the previous page, or
+ *                 {@code null} for the first page
+ */
+public record PageRequest(String sortKey, int pageSize, Cursor after)
+{
+	/**
+	 * Position of a row in the keyset order.
+	 *
+	 * @param sortValue value of the sort key of the row
+	 * @param id        identifier of the row, used as tie-breaker
+	 */
+	public record Cursor(Object sortValue, Object id)
+	{
+	}
+
+	public PageRequest
+	{
+		Objects.requireNonNull(sortKey, "sortKey");
+		if (sortKey.isBlank())
+		{
+			throw new IllegalArgumentException("Sort key cannot be empty");
+		}
+		if (pageSize <= 0)
+		{
+			throw new IllegalArgumentException("Page size must be positive");
+		}
+	}
+
+	/**
+	 * Creates the request for the first page.
+	 *
+	 * @param sortKey  the attribute to order by
+	 * @param pageSize the number of rows per page
+	 * @return a request without cursor
+	 */
+	public static PageRequest first(String sortKey, int pageSize)
+	{
+		return new PageRequest(sortKey, pageSize, null);
+	}
+
+	/**
+	 * Creates the request for the page that follows the given cursor, keeping
+	 * the sort key and page size.
+	 *
+	 * @param cursor the position of the last row already seen
+	 * @return the request for the next page
+	 */
+	public PageRequest after(Cursor cursor)
+	{
+		return new PageRequest(sortKey, pageSize, cursor);
+	}
+}
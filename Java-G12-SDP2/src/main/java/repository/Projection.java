@@ -0,0 +1,45 @@
+package repository;
+
+import java.util.List;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * A read-only row view of entities of type {@code T}: the selected columns are
+ * passed, in order, to the canonical constructor of the record {@code R}, like
+ * a JPQL {@code select new R(...)} constructor expression. The rows are plain
+ * values, so no entities are instantiated, tracked or checked for changes.
+ * <p>
+ * To support keyset paging the record must have components named after the
+ * sort key and the id attribute of the entity.
+ *
+ * @param rowType the record type of the rows
+ * @param columns the columns to select
+ */
+public record Projection<T, R>(Class<R> rowType, Columns<T> columns)
+{
+	public Projection
+	{
+		if (!rowType.isRecord())
+		{
+			throw new IllegalArgumentException(rowType.getSimpleName() + " is not a record");
+		}
+	}
+
+	/**
+	 * Builds the selected columns for a query root.
+	 */
+	@FunctionalInterface
+	public interface Columns<T>
+	{
+		/**
+		 * @param root the root of the query
+		 * @param cb   the criteria builder
+		 * @return the selections, in the order of the row's constructor
+		 *         parameters
+		 */
+		List<Selection<?>> select(Root<T> root, CriteriaBuilder cb);
+	}
+}
@@ -0,0 +1,138 @@
+package repository;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import util.JPAUtil;
+
+/**
+ * Access to the EclipseLink shared (second-level) entity cache: explicit
+ * invalidation and hit/miss/eviction counters per entity type.
+ * <p>
+ * Which entities are cached is decided by {@code @Cacheable}; the size and
+ * type of the cache can be overridden with {@code eclipselink.cache.*} system
+ * properties (see {@link JPAUtil}). Writes made through JPA update the cache on
+ * commit, but the inverse side of a relationship (for example
+ * {@code Site.machines}) is not maintained, so the affected types are evicted
+ * after every change the controllers publish.
+ * <p>
+ * Hits and misses are only counted when {@value #STATISTICS_PROPERTY} is
+ * {@code true}; the counters are then printed when the persistence unit is
+ * closed.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SharedCache
+{
+	/** Whether the hits and misses of the shared cache are counted. */
+	public static final String STATISTICS_PROPERTY = "shopfloor.cache.statistics";
+
+	/** Time after which a cached entity is reloaded, bounding staleness from writes by other clients. */
+	public static final int EXPIRY_MILLIS = 5 * 60 * 1000;
+
+	private static final Map<Class<?>, Counters> COUNTERS = new ConcurrentHashMap<>();
+
+	/**
+	 * Cache counters of one entity type.
+	 *
+	 * @param hits      reads answered from the shared cache
+	 * @param misses    reads that had to go to the database
+	 * @param evictions invalidations of the type issued by the application
+	 */
+	public record Statistics(long hits, long misses, long evictions)
+	{
+		/**
+		 * @return the fraction of reads answered from the cache, 0 when there
+		 *         were no reads
+		 */
+		public double hitRatio()
+		{
+			long reads = hits + misses;
+			return reads == 0 ? 0 : (double) hits / reads;
+		}
+	}
+
+	private static final class Counters
+	{
+		private final LongAdder hits = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+		private final LongAdder evictions = new LongAdder();
+
+		private Statistics snapshot()
+		{
+			return new Statistics(hits.sum(), misses.sum(), evictions.sum());
+		}
+	}
+
+	/**
+	 * @return whether {@value #STATISTICS_PROPERTY} is {@code true}
+	 */
+	public static boolean statisticsEnabled()
+	{
+		return Boolean.getBoolean(STATISTICS_PROPERTY);
+	}
+
+	private static Counters counters(Class<?> type)
+	{
+		return COUNTERS.computeIfAbsent(type, t -> new Counters());
+	}
+
+	static void recordHit(Class<?> type)
+	{
+		counters(type).hits.increment();
+	}
+
+	static void recordMiss(Class<?> type)
+	{
+		counters(type).misses.increment();
+	}
+
+	/**
+	 * Removes all cached instances of an entity type. Does nothing when the
+	 * persistence unit was not started yet.
+	 *
+	 * @param type the entity type
+	 */
+	public static void evict(Class<?> type)
+	{
+		EntityManagerFactory factory = JPAUtil.getEntityManagerFactoryIfOpen();
+		if (factory != null)
+		{
+			factory.getCache().evict(type);
+			counters(type).evictions.increment();
+		}
+	}
+
+	/**
+	 * @param type an entity type
+	 * @return the counters of that type since start or the last reset
+	 */
+	public static Statistics statistics(Class<?> type)
+	{
+		Counters counters = COUNTERS.get(type);
+		return counters == null ? new Statistics(0, 0, 0) : counters.snapshot();
+	}
+
+	/**
+	 * @return the counters of every entity type that was read or evicted, by
+	 *         entity name
+	 */
+	public static Map<String, Statistics> statistics()
+	{
+		Map<String, Statistics> statistics = new TreeMap<>();
+		COUNTERS.forEach((type, counters) -> statistics.put(type.getSimpleName(), counters.snapshot()));
+		return statistics;
+	}
+
+	/**
+	 * Sets all counters back to zero.
+	 */
+	public static void resetStatistics()
+	{
+		COUNTERS.clear();
+	}
+}
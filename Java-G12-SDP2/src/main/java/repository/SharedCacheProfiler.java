@@ -0,0 +1,45 @@
+package repository;
+
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.tools.profiler.PerformanceMonitor;
+
+/**
+ * EclipseLink profiler that reports the shared cache hits and misses of every
+ * entity type to {@link SharedCache}. Installed through the
+ * {@code eclipselink.profiler} property by {@link util.JPAUtil} only when
+ * {@value SharedCache#STATISTICS_PROPERTY} is set, as profiling every query
+ * has a cost of its own.
+ * <p>
+ * Only operations of normal weight are profiled and the periodic log dump of
+ * {@link PerformanceMonitor} is disabled; the counters are read through
+ * {@link SharedCache#statistics()}.
+ */
+public final class SharedCacheProfiler extends PerformanceMonitor
+{
+	private static final long serialVersionUID = 1L;
+
+	public SharedCacheProfiler()
+	{
+		setDumpTime(Long.MAX_VALUE);
+		setProfileWeight(SessionProfiler.NORMAL);
+	}
+
+	@Override
+	public void occurred(String operationName, DatabaseQuery query, AbstractSession session)
+	{
+		super.occurred(operationName, query, session);
+		if (query == null || query.getReferenceClass() == null)
+		{
+			return;
+		}
+		if (SessionProfiler.CacheHits.equals(operationName))
+		{
+			SharedCache.recordHit(query.getReferenceClass());
+		} else if (SessionProfiler.CacheMisses.equals(operationName))
+		{
+			SharedCache.recordMiss(query.getReferenceClass());
+		}
+	}
+}
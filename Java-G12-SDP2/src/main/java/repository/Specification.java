@@ -0,0 +1,51 @@
+package repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * A restriction on entities of type {@code T}, translated into a Criteria
+ * {@link Predicate} so that filtering happens in the database.
+ */
+@FunctionalInterface
+public interface Specification<T>
+{
+	/**
+	 * Builds the predicate for the given query root.
+	 *
+	 * @param root  the root of the query
+	 * @param query the query the predicate will be added to
+	 * @param cb    the criteria builder
+	 * @return the predicate; {@code cb.conjunction()} matches everything
+	 */
+	Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb);
+
+	/**
+	 * Case insensitive "contains" match. Wildcards in {@code text} are escaped
+	 * so they are matched literally.
+	 *
+	 * @param cb         the criteria builder
+	 * @param expression the string expression to search in
+	 * @param text       the text to search for
+	 * @return a {@code lower(expression) like %text%} predicate
+	 */
+	static Predicate containsIgnoreCase(CriteriaBuilder cb, Expression<String> expression, String text)
+	{
+		String escaped = text.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+		return cb.like(cb.lower(expression), "%" + escaped + "%", '\\');
+	}
+
+	/**
+	 * Whether a free text filter value should be applied.
+	 *
+	 * @param text the filter value
+	 * @return {@code true} if the value is neither null nor blank
+	 */
+	static boolean hasText(String text)
+	{
+		return text != null && !text.isBlank();
+	}
+}
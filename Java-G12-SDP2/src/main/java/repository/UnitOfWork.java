@@ -0,0 +1,106 @@
+package repository;
+
+import jakarta.persistence.EntityManager;
+import util.JPAUtil;
+
+/**
+ * A short-lived persistence context bound to the current thread.
+ * <p>
+ * Every DAO call joins the unit of work of its thread; when none is open a
+ * fresh one is created for the duration of that single call. Callers that
+ * want several reads (or a background task) to share one persistence context
+ * can open a unit of work explicitly:
+ *
+ * <pre>
+ * try (UnitOfWork uow = UnitOfWork.begin())
+ * {
+ * 	...
+ * }
+ * </pre>
+ *
+ * Units of work are reference counted: nested {@link #begin()} calls on the
+ * same thread return the same instance and the underlying
+ * {@link EntityManager} is only closed when the outermost one is closed.
+ * Because each thread owns its own {@link EntityManager}, DAOs can safely be
+ * used from worker threads.
+ */
+public final class UnitOfWork implements AutoCloseable
+{
+	private static final ThreadLocal<UnitOfWork> current = new ThreadLocal<>();
+
+	private final EntityManager entityManager;
+	private int depth;
+
+	private UnitOfWork(EntityManager entityManager)
+	{
+		this.entityManager = entityManager;
+	}
+
+	/**
+	 * Opens a unit of work on the current thread, or joins the one that is
+	 * already open.
+	 *
+	 * @return the unit of work bound to the current thread
+	 */
+	public static UnitOfWork begin()
+	{
+		UnitOfWork unitOfWork = current.get();
+		if (unitOfWork == null)
+		{
+			unitOfWork = new UnitOfWork(JPAUtil.getEntityManagerFactory().createEntityManager());
+			current.set(unitOfWork);
+		}
+		unitOfWork.depth++;
+		return unitOfWork;
+	}
+
+	/**
+	 * Returns the unit of work bound to the current thread.
+	 *
+	 * @return the current unit of work, or {@code null} if none is open
+	 */
+	public static UnitOfWork current()
+	{
+		return current.get();
+	}
+
+	public EntityManager getEntityManager()
+	{
+		return entityManager;
+	}
+
+	/**
+	 * Whether a transaction is running in this unit of work.
+	 *
+	 * @return {@code true} if the transaction is active
+	 */
+	public boolean isTransactionActive()
+	{
+		return entityManager.getTransaction().isActive();
+	}
+
+	/**
+	 * Leaves the unit of work. When the outermost caller leaves, any
+	 * transaction that is still running is rolled back and the
+	 * {@link EntityManager} is closed, releasing its persistence context.
+	 */
+	@Override
+	public void close()
+	{
+		if (--depth > 0)
+		{
+			return;
+		}
+		current.remove();
+		try
+		{
+			if (isTransactionActive())
+			{
+				entityManager.getTransaction().rollback();
+			}
+		} finally
+		{
+			entityManager.close();
+		}
+	}
+}
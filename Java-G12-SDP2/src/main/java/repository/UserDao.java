@@ -27,4 +27,11 @@ public interface UserDao extends GenericDao<User>
 	 *         if none exist
 	 */
 	List<User> getAllTechniekers();
+
+	/**
+	 * Retrieves the email addresses of all users, without loading the users.
+	 * 
+	 * @return The email addresses in use
+	 */
+	List<String> getAllEmails();
 }
\ No newline at end of file
@@ -34,7 +34,8 @@ public class UserDaoJpa extends GenericDaoJpa<User> implements UserDao
 	{
 		try
 		{
-			return em.createNamedQuery("User.getByEmail", User.class).setParameter("email", email).getSingleResult();
+			return read(em -> em.createNamedQuery("User.getByEmail", User.class).setParameter("email", email)
+					.getSingleResult());
 		} catch (Exception e)
 		{
 			throw new UserNotFoundWithEmailException(email);
@@ -50,6 +51,17 @@ public class UserDaoJpa extends GenericDaoJpa<User> implements UserDao
 	@Override
 	public List<User> getAllTechniekers()
 	{
-		return em.createNamedQuery("User.getAllTechniekers", User.class).getResultList();
+		return read(em -> em.createNamedQuery("User.getAllTechniekers", User.class).getResultList());
+	}
+
+	/**
+	 * Retrieves the email addresses of all users with a projection query.
+	 * 
+	 * @return List of the email addresses in use
+	 */
+	@Override
+	public List<String> getAllEmails()
+	{
+		return read(em -> em.createNamedQuery("User.getAllEmails", String.class).getResultList());
 	}
 }
\ No newline at end of file
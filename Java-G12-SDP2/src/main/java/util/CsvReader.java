@@ -0,0 +1,160 @@
+package util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for comma- or semicolon-separated files, reading one record
+ * at a time so that files of any size can be processed in constant memory.
+ * <p>
+ * The first record is the header. Its delimiter decides the delimiter of the
+ * whole file: a header containing a semicolon (as written by a Dutch-language
+ * Excel) is read as semicolon-separated, any other as comma-separated. Fields
+ * may be quoted with double quotes, in which case they can contain the
+ * delimiter, line breaks and doubled quotes. Blank lines are skipped.
+ */
+public class CsvReader implements Closeable
+{
+	private static final char QUOTE = '"';
+	private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+	private final BufferedReader reader;
+	private final List<String> header;
+	private char delimiter;
+	private long lineNumber;
+	private long recordLineNumber;
+
+	/**
+	 * Opens the reader and reads the header.
+	 *
+	 * @param reader the source of the file
+	 * @throws IOException if the header cannot be read
+	 */
+	public CsvReader(Reader reader) throws IOException
+	{
+		this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+		String firstLine = nextNonBlankLine();
+		if (firstLine == null)
+		{
+			this.header = List.of();
+			return;
+		}
+		if (firstLine.charAt(0) == BYTE_ORDER_MARK)
+		{
+			firstLine = firstLine.substring(1);
+		}
+		delimiter = firstLine.indexOf(';') >= 0 ? ';' : ',';
+		this.header = List.copyOf(parse(firstLine).stream().map(String::trim).toList());
+	}
+
+	/**
+	 * @return the column names of the header, or an empty list for an empty file
+	 */
+	public List<String> header()
+	{
+		return header;
+	}
+
+	/**
+	 * Reads the next record.
+	 *
+	 * @return the fields of the record, or {@code null} at the end of the file
+	 * @throws IOException if the file cannot be read, or ends inside a quoted
+	 *                     field
+	 */
+	public List<String> next() throws IOException
+	{
+		if (header.isEmpty())
+		{
+			return null;
+		}
+		String line = nextNonBlankLine();
+		return line == null ? null : parse(line);
+	}
+
+	/**
+	 * @return the line on which the last record returned by {@link #next()}
+	 *         starts, counting from 1
+	 */
+	public long lineNumber()
+	{
+		return recordLineNumber;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		reader.close();
+	}
+
+	private String nextNonBlankLine() throws IOException
+	{
+		String line;
+		do
+		{
+			line = reader.readLine();
+			lineNumber++;
+		} while (line != null && line.isBlank());
+		recordLineNumber = lineNumber;
+		return line;
+	}
+
+	private List<String> parse(String line) throws IOException
+	{
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		int i = 0;
+		while (true)
+		{
+			if (i == line.length())
+			{
+				if (!quoted)
+				{
+					break;
+				}
+				// a quoted field continues on the next line
+				line = reader.readLine();
+				lineNumber++;
+				if (line == null)
+				{
+					throw new IOException("Unterminated quoted field starting on line " + recordLineNumber);
+				}
+				field.append('\n');
+				i = 0;
+				continue;
+			}
+			char c = line.charAt(i++);
+			if (quoted)
+			{
+				if (c != QUOTE)
+				{
+					field.append(c);
+				} else if (i < line.length() && line.charAt(i) == QUOTE)
+				{
+					field.append(QUOTE);
+					i++;
+				} else
+				{
+					quoted = false;
+				}
+			} else if (c == QUOTE)
+			{
+				quoted = true;
+			} else if (c == delimiter)
+			{
+				fields.add(field.toString());
+				field.setLength(0);
+			} else
+			{
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+}
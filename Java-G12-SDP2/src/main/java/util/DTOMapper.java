@@ -1,15 +1,20 @@
 package util;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import domain.Address;
+import domain.FileInfo;
 import domain.Machine;
 import domain.Maintenance;
 import domain.Report;
 import domain.Site;
 import domain.User;
 import dto.AddressDTO;
+import dto.FileInfoRow;
 import dto.MachineDTO;
 import dto.MaintenanceDTO;
 import dto.ReportDTO;
@@ -19,95 +24,153 @@ import dto.UserDTO;
 
 public class DTOMapper {
 
+    /**
+     * Remembers the DTOs produced during one mapping pass, keyed by entity id,
+     * so an entity that is reachable from many rows (the site and verantwoordelijke
+     * shared by all machines of a site, the technician of many maintenances) is
+     * converted once and the same DTO instance is reused. Entities that have not
+     * been persisted yet (id 0) are never shared.
+     * <p>
+     * A context is meant for a single pass over freshly loaded entities and is
+     * not thread-safe.
+     */
+    public static final class MappingContext {
+
+        private final Map<Integer, AddressDTO> addresses = new HashMap<>();
+        private final Map<Integer, UserDTO> users = new HashMap<>();
+        private final Map<Integer, SiteDTOWithoutMachines> sites = new HashMap<>();
+        private final Map<Integer, MachineDTO> machines = new HashMap<>();
+
+        private static <E, D> D lookup(Map<Integer, D> cache, int id, E entity, Function<E, D> mapper) {
+            if (id == 0) {
+                return mapper.apply(entity);
+            }
+            D dto = cache.get(id);
+            if (dto == null) {
+                dto = mapper.apply(entity);
+                cache.put(id, dto);
+            }
+            return dto;
+        }
+    }
+
     public static  AddressDTO toAddressDTO(Address address) {
+        return toAddressDTO(address, new MappingContext());
+    }
+
+    public static AddressDTO toAddressDTO(Address address, MappingContext context) {
         if (address == null) {
             return null;
         }
-        return new AddressDTO(
-                address.getId(),
-                address.getStreet(),
-                address.getNumber(),
-                address.getPostalcode(),
-                address.getCity()
-        );
+        return MappingContext.lookup(context.addresses, address.getId(), address, a -> new AddressDTO(
+                a.getId(),
+                a.getStreet(),
+                a.getNumber(),
+                a.getPostalcode(),
+                a.getCity()
+        ));
     }
 
     public static UserDTO toUserDTO(User user) {
+        return toUserDTO(user, new MappingContext());
+    }
+
+    public static UserDTO toUserDTO(User user, MappingContext context) {
         if (user == null) {
             return null;
         }
         
-        return new UserDTO(
-                user.getId(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getEmail(),
-                user.getPhoneNumber(),
-                user.getBirthdate(),
-                toAddressDTO(user.getAddress()),
-                user.getRole(),
-                user.getStatus(),
-                user.getPassword()
-        );
+        return MappingContext.lookup(context.users, user.getId(), user, u -> new UserDTO(
+                u.getId(),
+                u.getFirstName(),
+                u.getLastName(),
+                u.getEmail(),
+                u.getPhoneNumber(),
+                u.getBirthdate(),
+                toAddressDTO(u.getAddress(), context),
+                u.getRole(),
+                u.getStatus(),
+                u.getPassword()
+        ));
     }
 
     public static SiteDTOWithoutMachines toSiteDTOWithoutMachines(Site site) {
+        return toSiteDTOWithoutMachines(site, new MappingContext());
+    }
+
+    public static SiteDTOWithoutMachines toSiteDTOWithoutMachines(Site site, MappingContext context) {
         if (site == null) {
             return null;
         }
-        return new SiteDTOWithoutMachines(
-                site.getId(),
-                site.getSiteName(),
-                toUserDTO(site.getVerantwoordelijke()),
-                site.getStatus(),
-                toAddressDTO(site.getAddress())
-        );
+        return MappingContext.lookup(context.sites, site.getId(), site, s -> new SiteDTOWithoutMachines(
+                s.getId(),
+                s.getSiteName(),
+                toUserDTO(s.getVerantwoordelijke(), context),
+                s.getStatus(),
+                toAddressDTO(s.getAddress(), context)
+        ));
     }
 
     public static MachineDTO toMachineDTO(Machine machine) {
+        return toMachineDTO(machine, new MappingContext());
+    }
+
+    public static MachineDTO toMachineDTO(Machine machine, MappingContext context) {
         if (machine == null) {
             return null;
         }
-        return new MachineDTO(
-                machine.getId(),
-                toSiteDTOWithoutMachines(machine.getSite()),
-                toUserDTO(machine.getTechnician()),
-                machine.getCode(),
-                machine.getMachineStatus(),
-                machine.getProductionStatus(),
-                machine.getLocation(),
-                machine.getProductInfo(),
-                machine.getLastMaintenance(),
-                machine.getFutureMaintenance(),
-                machine.getNumberDaysSinceLastMaintenance(),
-                machine.getUpTimeInHours()
-        );
+        return MappingContext.lookup(context.machines, machine.getId(), machine, m -> new MachineDTO(
+                m.getId(),
+                toSiteDTOWithoutMachines(m.getSite(), context),
+                toUserDTO(m.getTechnician(), context),
+                m.getCode(),
+                m.getMachineStatus(),
+                m.getProductionStatus(),
+                m.getLocation(),
+                m.getProductInfo(),
+                m.getLastMaintenance(),
+                m.getFutureMaintenance(),
+                m.getNumberDaysSinceLastMaintenance(),
+                m.getUpTimeInHours()
+        ));
     }
 
     public static Set<MachineDTO> toMachineDTOSet(Set<Machine> machines) {
+        return toMachineDTOSet(machines, new MappingContext());
+    }
+
+    public static Set<MachineDTO> toMachineDTOSet(Set<Machine> machines, MappingContext context) {
         if (machines == null) {
             return new HashSet<>();
         }
         return machines.stream()
-                .map(DTOMapper::toMachineDTO)
+                .map(machine -> toMachineDTO(machine, context))
                 .collect(Collectors.toSet());
     }
 
     public static SiteDTOWithMachines toSiteDTOWithMachines(Site site) {
+        return toSiteDTOWithMachines(site, new MappingContext());
+    }
+
+    public static SiteDTOWithMachines toSiteDTOWithMachines(Site site, MappingContext context) {
         if (site == null) {
             return null;
         }
         return new SiteDTOWithMachines(
                 site.getId(),
                 site.getSiteName(),
-                toUserDTO(site.getVerantwoordelijke()),
-                toMachineDTOSet(site.getMachines()),
+                toUserDTO(site.getVerantwoordelijke(), context),
+                toMachineDTOSet(site.getMachines(), context),
                 site.getStatus(),
-                toAddressDTO(site.getAddress())
+                toAddressDTO(site.getAddress(), context)
         );
     }
 
     public static MaintenanceDTO toMaintenanceDTO(Maintenance maintenance) {
+        return toMaintenanceDTO(maintenance, new MappingContext());
+    }
+
+    public static MaintenanceDTO toMaintenanceDTO(Maintenance maintenance, MappingContext context) {
         if (maintenance == null) {
             return null;
         }
@@ -116,11 +179,11 @@ public class DTOMapper {
                 maintenance.getExecutionDate(),
                 maintenance.getStartDate(),
                 maintenance.getEndDate(),
-                toUserDTO(maintenance.getTechnician()),
+                toUserDTO(maintenance.getTechnician(), context),
                 maintenance.getReason(),
                 maintenance.getComments(),
                 maintenance.getStatus(),
-                toMachineDTO(maintenance.getMachine())
+                toMachineDTO(maintenance.getMachine(), context)
         );
     }
 
@@ -282,6 +345,14 @@ public class DTOMapper {
         }
     }
 
+    public static FileInfoRow toFileInfoRow(FileInfo fileInfo) {
+        if (fileInfo == null) {
+            return null;
+        }
+        return new FileInfoRow(fileInfo.getId(), fileInfo.getName(), fileInfo.getType(), fileInfo.getSize(),
+                fileInfo.getUploadDate());
+    }
+
     public static Report toReport(ReportDTO dto) {
         if (dto == null) {
             return null;
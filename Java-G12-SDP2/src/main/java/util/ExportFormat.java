@@ -0,0 +1,12 @@
+package util;
+
+/**
+ * The file formats of an export.
+ */
+public enum ExportFormat
+{
+	/** Comma-separated values with a header line. */
+	CSV,
+	/** One JSON object per line. */
+	JSON_LINES
+}
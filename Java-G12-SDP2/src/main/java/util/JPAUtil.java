@@ -1,14 +1,122 @@
 package util;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.persistence.config.BatchWriting;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
-import lombok.Getter;
+import jakarta.persistence.SharedCacheMode;
+import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import repository.SharedCache;
+import repository.SharedCacheProfiler;
 
-@NoArgsConstructor
+/**
+ * Holder of the single, application-wide {@link EntityManagerFactory}. The
+ * factory is created lazily on first use so that merely loading a DAO class
+ * (for example in unit tests) does not require a database connection.
+ * <p>
+ * Only entities marked {@code @Cacheable} use the shared cache, and writes are
+ * sent as JDBC batches. Queries with a JDBC fetch size read their rows in
+ * chunks through a server-side cursor. These defaults can be overridden at
+ * startup with system properties, e.g.
+ * {@code -Declipselink.cache.size.Site=5000},
+ * {@code -Declipselink.jdbc.batch-writing.size=500} or
+ * {@code -Djakarta.persistence.sharedCache.mode=NONE}. The shared cache hits
+ * and misses are counted with {@code -Dshopfloor.cache.statistics=true} and
+ * printed when the factory is closed.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class JPAUtil
 {
-	@Getter
-	private final static EntityManagerFactory entityManagerFactory = Persistence
-			.createEntityManagerFactory("shopfloor-app");
+	public static final String PU_NAME = "shopfloor-app";
+
+	private static final String SHARED_CACHE_SIZE = "1000";
+	private static final String JDBC_BATCH_SIZE = "100";
+	/**
+	 * Makes MySQL Connector/J honour a positive JDBC fetch size by reading the
+	 * rows through a server-side cursor; without it the driver reads the whole
+	 * result set into memory before the first row is returned.
+	 */
+	private static final String USE_CURSOR_FETCH = PersistenceUnitProperties.JDBC_PROPERTY + "useCursorFetch";
+
+	private static volatile EntityManagerFactory entityManagerFactory;
+
+	/**
+	 * Returns the shared factory, creating it on first access.
+	 *
+	 * @return the open {@link EntityManagerFactory}
+	 */
+	public static EntityManagerFactory getEntityManagerFactory()
+	{
+		EntityManagerFactory factory = entityManagerFactory;
+		if (factory == null)
+		{
+			synchronized (JPAUtil.class)
+			{
+				factory = entityManagerFactory;
+				if (factory == null || !factory.isOpen())
+				{
+					factory = Persistence.createEntityManagerFactory(PU_NAME, properties());
+					entityManagerFactory = factory;
+				}
+			}
+		}
+		return factory;
+	}
+
+	/**
+	 * Returns the shared factory without creating it.
+	 *
+	 * @return the open factory, or {@code null} if it was not created yet
+	 */
+	public static EntityManagerFactory getEntityManagerFactoryIfOpen()
+	{
+		EntityManagerFactory factory = entityManagerFactory;
+		return factory != null && factory.isOpen() ? factory : null;
+	}
+
+	private static Map<String, Object> properties()
+	{
+		Map<String, Object> properties = new HashMap<>();
+		properties.put(PersistenceUnitProperties.SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE.name());
+		properties.put(PersistenceUnitProperties.CACHE_SIZE_DEFAULT, SHARED_CACHE_SIZE);
+		if (SharedCache.statisticsEnabled())
+		{
+			properties.put(PersistenceUnitProperties.PROFILER, SharedCacheProfiler.class.getName());
+		}
+		properties.put(PersistenceUnitProperties.BATCH_WRITING, BatchWriting.JDBC);
+		properties.put(PersistenceUnitProperties.BATCH_WRITING_SIZE, JDBC_BATCH_SIZE);
+		properties.put(USE_CURSOR_FETCH, "true");
+		System.getProperties().forEach((key, value) -> {
+			String name = key.toString();
+			if (name.startsWith("eclipselink.") || name.equals(PersistenceUnitProperties.SHARED_CACHE_MODE))
+			{
+				properties.put(name, value);
+			}
+		});
+		return properties;
+	}
+
+	/**
+	 * Closes the shared factory if it was ever created, printing the shared
+	 * cache statistics first when they are counted.
+	 */
+	public static synchronized void close()
+	{
+		if (entityManagerFactory != null && entityManagerFactory.isOpen())
+		{
+			if (SharedCache.statisticsEnabled())
+			{
+				SharedCache.statistics().forEach((entity, statistics) -> System.err.printf(
+						"Shared cache %s: %d hits, %d misses, %d evictions%n", entity, statistics.hits(),
+						statistics.misses(), statistics.evictions()));
+			}
+			entityManagerFactory.close();
+		}
+		entityManagerFactory = null;
+	}
 }
@@ -0,0 +1,92 @@
+package util;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+/**
+ * Renders the pages of a PDF one at a time. The document is read from a file
+ * on disk as pages are rendered, so opening a large manual neither reads nor
+ * parses all of it up front.
+ * <p>
+ * A PDF document cannot be used by several threads at once, so all methods
+ * are synchronized; render pages from a single background thread.
+ */
+public class PdfPageRenderer implements Closeable
+{
+	/** The resolution at which a page is shown at its actual size. */
+	public static final float POINTS_PER_INCH = 72f;
+
+	private final PDDocument document;
+	private final PDFRenderer renderer;
+	private final Path temporaryFile;
+
+	/**
+	 * @param file          the PDF
+	 * @param temporaryFile whether the file is deleted when the renderer is
+	 *                      closed
+	 * @throws IOException if the file cannot be read as a PDF
+	 */
+	public PdfPageRenderer(Path file, boolean temporaryFile) throws IOException
+	{
+		this.document = Loader.loadPDF(file.toFile());
+		this.renderer = new PDFRenderer(document);
+		// Large scanned images are decoded at screen resolution instead of in full
+		renderer.setSubsamplingAllowed(true);
+		this.temporaryFile = temporaryFile ? file : null;
+	}
+
+	public synchronized int getPageCount()
+	{
+		return document.getNumberOfPages();
+	}
+
+	/**
+	 * Returns the size of a page, without rendering it.
+	 *
+	 * @param page the index of the page, starting at 0
+	 * @return the width and height of the page in points
+	 */
+	public synchronized PDRectangle getPageSize(int page)
+	{
+		PDRectangle box = document.getPage(page).getCropBox();
+		int rotation = document.getPage(page).getRotation();
+		return rotation % 180 == 0 ? box : new PDRectangle(box.getHeight(), box.getWidth());
+	}
+
+	/**
+	 * Renders a page.
+	 *
+	 * @param page the index of the page, starting at 0
+	 * @param dpi  the resolution, {@value #POINTS_PER_INCH} for the actual size
+	 * @return the rendered page
+	 * @throws IOException if the page cannot be rendered
+	 */
+	public synchronized BufferedImage render(int page, float dpi) throws IOException
+	{
+		return renderer.renderImageWithDPI(page, dpi, ImageType.RGB);
+	}
+
+	@Override
+	public synchronized void close() throws IOException
+	{
+		try
+		{
+			document.close();
+		} finally
+		{
+			if (temporaryFile != null)
+			{
+				Files.deleteIfExists(temporaryFile);
+			}
+		}
+	}
+}
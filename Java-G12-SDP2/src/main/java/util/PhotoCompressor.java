@@ -0,0 +1,243 @@
+package util;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import lombok.Getter;
+
+/**
+ * Shrinks uploaded JPEG photos before they are stored: photos larger than
+ * {@link #getMaxDimension()} pixels on their longest side are scaled down, and
+ * all are recompressed. Large photos are decoded with subsampling, so a phone
+ * photo is never held in memory at full resolution.
+ * <p>
+ * Other images, such as PNG screenshots and animated GIFs, are left alone, as
+ * is a photo that would not get smaller. The embedded metadata of a photo is
+ * not kept; its EXIF orientation is applied to the pixels instead, so a photo
+ * taken with a phone held upright is stored upright.
+ */
+@Getter
+public class PhotoCompressor
+{
+	/** The default maximum width and height of a stored photo. */
+	public static final int DEFAULT_MAX_DIMENSION = 2048;
+
+	/** The default JPEG compression quality. */
+	public static final float DEFAULT_QUALITY = 0.85f;
+
+	/** Set to {@code false} to store photos as they are uploaded. */
+	public static final String ENABLED_PROPERTY = "shopfloor.photo.compress";
+
+	/** The maximum width and height of a stored photo; 0 for no maximum. */
+	public static final String MAX_DIMENSION_PROPERTY = "shopfloor.photo.max-dimension";
+
+	/** The JPEG compression quality, from 0 to 1. */
+	public static final String QUALITY_PROPERTY = "shopfloor.photo.quality";
+
+	/** Set to {@code true} to store the original photo next to the compressed one. */
+	public static final String KEEP_ORIGINAL_PROPERTY = "shopfloor.photo.keep-original";
+
+	/** The EXIF tag of the orientation of a photo. */
+	private static final int ORIENTATION_TAG = 0x0112;
+
+	private final int maxDimension;
+	private final float quality;
+	private final boolean keepOriginal;
+
+	/**
+	 * @param maxDimension the maximum width and height of a stored photo, or 0
+	 *                     to only recompress
+	 * @param quality      the JPEG compression quality, from 0 (smallest) to 1
+	 *                     (best)
+	 * @param keepOriginal whether the original photo is stored as well
+	 */
+	public PhotoCompressor(int maxDimension, float quality, boolean keepOriginal)
+	{
+		if (maxDimension < 0 || quality < 0 || quality > 1)
+		{
+			throw new IllegalArgumentException("Invalid photo compression settings");
+		}
+		this.maxDimension = maxDimension;
+		this.quality = quality;
+		this.keepOriginal = keepOriginal;
+	}
+
+	/**
+	 * Returns the compressor configured with system properties.
+	 *
+	 * @return the compressor, or {@code null} if compression is turned off
+	 */
+	public static PhotoCompressor configured()
+	{
+		if (!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true")))
+		{
+			return null;
+		}
+		return new PhotoCompressor(Integer.getInteger(MAX_DIMENSION_PROPERTY, DEFAULT_MAX_DIMENSION),
+				Float.parseFloat(System.getProperty(QUALITY_PROPERTY, String.valueOf(DEFAULT_QUALITY))),
+				Boolean.getBoolean(KEEP_ORIGINAL_PROPERTY));
+	}
+
+	/**
+	 * Compresses a photo.
+	 *
+	 * @param file the uploaded file
+	 * @return the compressed JPEG, or {@code null} if the file is not a JPEG
+	 *         photo or would not get smaller
+	 * @throws IOException if the photo cannot be read
+	 */
+	public byte[] compress(File file) throws IOException
+	{
+		try (ImageInputStream input = ImageIO.createImageInputStream(file))
+		{
+			Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+			if (readers == null || !readers.hasNext())
+			{
+				return null;
+			}
+			ImageReader reader = readers.next();
+			try
+			{
+				if (!"jpeg".equalsIgnoreCase(reader.getFormatName()))
+				{
+					return null;
+				}
+				reader.setInput(input, true, true);
+				int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+				int target = maxDimension > 0 ? Math.min(maxDimension, longest) : longest;
+
+				// Skip whole rows and columns while decoding, but never below the target size
+				ImageReadParam parameters = reader.getDefaultReadParam();
+				int subsampling = longest / target;
+				if (subsampling > 1)
+				{
+					parameters.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				}
+				BufferedImage photo = orient(reader.read(0, parameters), orientationOf(file));
+
+				byte[] jpeg = ThumbnailGenerator.encode(ThumbnailGenerator.scale(photo, target, target), quality);
+				return jpeg.length < file.length() ? jpeg : null;
+			} finally
+			{
+				reader.dispose();
+			}
+		}
+	}
+
+	/**
+	 * Reads the EXIF orientation of a JPEG photo from its APP1 segment.
+	 *
+	 * @param file the photo
+	 * @return the orientation, from 1 (upright) to 8, or 1 if the photo has
+	 *         none
+	 * @throws IOException if the photo cannot be read
+	 */
+	static int orientationOf(File file) throws IOException
+	{
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+		{
+			if (in.readUnsignedShort() != 0xFFD8)
+			{
+				return 1;
+			}
+			while (true)
+			{
+				int marker = in.readUnsignedShort();
+				// The image data starts at SOS, after all metadata segments
+				if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9)
+				{
+					return 1;
+				}
+				byte[] segment = new byte[in.readUnsignedShort() - 2];
+				in.readFully(segment);
+				if (marker == 0xFFE1 && segment.length > 14
+						&& new String(segment, 0, 6, StandardCharsets.ISO_8859_1).equals("Exif\0\0"))
+				{
+					return orientationOf(ByteBuffer.wrap(segment, 6, segment.length - 6).slice());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the orientation tag in the first IFD of an EXIF TIFF structure.
+	 */
+	private static int orientationOf(ByteBuffer tiff)
+	{
+		try
+		{
+			tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+			int directory = tiff.getInt(4);
+			int entries = Short.toUnsignedInt(tiff.getShort(directory));
+			for (int i = 0; i < entries; i++)
+			{
+				int entry = directory + 2 + i * 12;
+				if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG)
+				{
+					int orientation = Short.toUnsignedInt(tiff.getShort(entry + 8));
+					return orientation >= 1 && orientation <= 8 ? orientation : 1;
+				}
+			}
+		} catch (IndexOutOfBoundsException e)
+		{
+			// A damaged EXIF segment is treated as no orientation
+		}
+		return 1;
+	}
+
+	/**
+	 * Turns a decoded photo upright.
+	 *
+	 * @param photo       the pixels as stored
+	 * @param orientation the EXIF orientation of the photo
+	 * @return the upright photo
+	 */
+	static BufferedImage orient(BufferedImage photo, int orientation)
+	{
+		int width = photo.getWidth();
+		int height = photo.getHeight();
+		// Maps the stored pixels onto the upright ones, as defined by the EXIF specification
+		AffineTransform transform = switch (orientation)
+		{
+		case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);
+		case 3 -> new AffineTransform(-1, 0, 0, -1, width, height);
+		case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);
+		case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+		case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);
+		case 7 -> new AffineTransform(0, -1, -1, 0, height, width);
+		case 8 -> new AffineTransform(0, -1, 1, 0, 0, width);
+		default -> null;
+		};
+		if (transform == null)
+		{
+			return photo;
+		}
+		boolean turned = orientation >= 5;
+		BufferedImage upright = new BufferedImage(turned ? height : width, turned ? width : height,
+				BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = upright.createGraphics();
+		try
+		{
+			graphics.drawImage(photo, transform, null);
+		} finally
+		{
+			graphics.dispose();
+		}
+		return upright;
+	}
+}
@@ -0,0 +1,151 @@
+package util;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.RecordComponent;
+
+/**
+ * Writes records one at a time as CSV lines or JSON lines, using the names of
+ * the record components as column names. Nothing is buffered beyond the
+ * given {@link Writer}, so rows can be streamed to a file as they are read.
+ * <p>
+ * Numbers and booleans are written as is, {@code null} as an empty CSV field
+ * or JSON {@code null}, and all other values (dates, enums, text) as the text
+ * of their {@code toString()}.
+ *
+ * @param <R> the record type of the rows
+ */
+public class RowWriter<R extends Record> implements Flushable
+{
+	private final ExportFormat format;
+	private final Writer out;
+	private final RecordComponent[] components;
+
+	/**
+	 * Creates the writer and, for CSV, writes the header line.
+	 *
+	 * @param format  the format to write
+	 * @param rowType the record type of the rows
+	 * @param out     the destination
+	 * @throws IOException if the header cannot be written
+	 */
+	public RowWriter(ExportFormat format, Class<R> rowType, Writer out) throws IOException
+	{
+		this.format = format;
+		this.out = out;
+		this.components = rowType.getRecordComponents();
+		if (format == ExportFormat.CSV)
+		{
+			for (int i = 0; i < components.length; i++)
+			{
+				if (i > 0)
+				{
+					out.write(',');
+				}
+				writeCsvField(components[i].getName());
+			}
+			out.write('\n');
+		}
+	}
+
+	/**
+	 * Writes one row.
+	 *
+	 * @param row the row to write
+	 * @throws IOException if the row cannot be written
+	 */
+	public void write(R row) throws IOException
+	{
+		if (format == ExportFormat.JSON_LINES)
+		{
+			out.write('{');
+		}
+		for (int i = 0; i < components.length; i++)
+		{
+			if (i > 0)
+			{
+				out.write(',');
+			}
+			Object value = valueOf(row, components[i]);
+			if (format == ExportFormat.CSV)
+			{
+				writeCsvField(value == null ? "" : value.toString());
+			} else
+			{
+				writeJsonString(components[i].getName());
+				out.write(':');
+				writeJsonValue(value);
+			}
+		}
+		out.write(format == ExportFormat.JSON_LINES ? "}\n" : "\n");
+	}
+
+	@Override
+	public void flush() throws IOException
+	{
+		out.flush();
+	}
+
+	private static Object valueOf(Record row, RecordComponent component)
+	{
+		try
+		{
+			return component.getAccessor().invoke(row);
+		} catch (ReflectiveOperationException e)
+		{
+			throw new IllegalStateException("Cannot read " + component.getName() + " of " + row, e);
+		}
+	}
+
+	private void writeCsvField(String text) throws IOException
+	{
+		if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0)
+		{
+			out.write(text);
+			return;
+		}
+		out.write('"');
+		out.write(text.replace("\"", "\"\""));
+		out.write('"');
+	}
+
+	private void writeJsonValue(Object value) throws IOException
+	{
+		if (value == null || value instanceof Number || value instanceof Boolean)
+		{
+			out.write(String.valueOf(value));
+		} else
+		{
+			writeJsonString(value.toString());
+		}
+	}
+
+	private void writeJsonString(String text) throws IOException
+	{
+		out.write('"');
+		for (int i = 0; i < text.length(); i++)
+		{
+			char c = text.charAt(i);
+			switch (c)
+			{
+			case '"' -> out.write("\\\"");
+			case '\\' -> out.write("\\\\");
+			case '\n' -> out.write("\\n");
+			case '\r' -> out.write("\\r");
+			case '\t' -> out.write("\\t");
+			default ->
+			{
+				if (c < 0x20)
+				{
+					out.write(String.format("\\u%04x", (int) c));
+				} else
+				{
+					out.write(c);
+				}
+			}
+			}
+		}
+		out.write('"');
+	}
+}
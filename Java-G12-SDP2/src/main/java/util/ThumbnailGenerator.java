@@ -0,0 +1,172 @@
+package util;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Creates small JPEG previews of uploaded files: the first page of a PDF or a
+ * scaled down copy of an image. Thumbnails fit in {@value #MAX_WIDTH} by
+ * {@value #MAX_HEIGHT} pixels, twice the size of the preview boxes so they
+ * stay sharp on high density screens.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ThumbnailGenerator
+{
+	public static final int MAX_WIDTH = 434;
+	public static final int MAX_HEIGHT = 320;
+
+	private static final float JPEG_QUALITY = 0.8f;
+	private static final float POINTS_PER_INCH = 72f;
+
+	/**
+	 * Whether files of a type can have a thumbnail.
+	 *
+	 * @param fileType the type of the file
+	 * @return {@code true} for PDFs and images
+	 */
+	public static boolean supports(String fileType)
+	{
+		return "pdf".equals(fileType) || "image".equals(fileType);
+	}
+
+	/**
+	 * Creates the thumbnail of a file.
+	 *
+	 * @param fileType the type of the file, {@code "pdf"} or {@code "image"}
+	 * @param content  the content of the file
+	 * @return the JPEG thumbnail, or {@code null} for other types of files
+	 * @throws IOException if the content cannot be read as the given type
+	 */
+	public static byte[] generate(String fileType, byte[] content) throws IOException
+	{
+		if (content == null)
+		{
+			return null;
+		}
+		BufferedImage source = switch (fileType)
+		{
+		case "pdf" ->
+		{
+			try (PDDocument document = Loader.loadPDF(content))
+			{
+				yield renderFirstPage(document);
+			}
+		}
+		case "image" -> ImageIO.read(new ByteArrayInputStream(content));
+		default -> null;
+		};
+		return source == null ? null : encode(scale(source, MAX_WIDTH, MAX_HEIGHT), JPEG_QUALITY);
+	}
+
+	/**
+	 * Creates the thumbnail of a file on disk without reading all of it into
+	 * memory first.
+	 *
+	 * @param fileType the type of the file, {@code "pdf"} or {@code "image"}
+	 * @param file     the file
+	 * @return the JPEG thumbnail, or {@code null} for other types of files
+	 * @throws IOException if the file cannot be read as the given type
+	 */
+	public static byte[] generate(String fileType, File file) throws IOException
+	{
+		BufferedImage source = switch (fileType)
+		{
+		case "pdf" ->
+		{
+			try (PDDocument document = Loader.loadPDF(file))
+			{
+				yield renderFirstPage(document);
+			}
+		}
+		case "image" -> ImageIO.read(file);
+		default -> null;
+		};
+		return source == null ? null : encode(scale(source, MAX_WIDTH, MAX_HEIGHT), JPEG_QUALITY);
+	}
+
+	/**
+	 * Renders the first page at the resolution that makes it just fit the
+	 * thumbnail, instead of rendering at print resolution and scaling down.
+	 */
+	private static BufferedImage renderFirstPage(PDDocument document) throws IOException
+	{
+		if (document.getNumberOfPages() == 0)
+		{
+			return null;
+		}
+		PDRectangle page = document.getPage(0).getCropBox();
+		float scale = Math.min(MAX_WIDTH / page.getWidth(), MAX_HEIGHT / page.getHeight());
+		return new PDFRenderer(document).renderImageWithDPI(0, POINTS_PER_INCH * scale, ImageType.RGB);
+	}
+
+	/**
+	 * Scales an image down to fit the given size, on a white background so
+	 * that transparent images can be stored as JPEG. Smaller images keep their
+	 * size.
+	 */
+	static BufferedImage scale(BufferedImage source, int maxWidth, int maxHeight)
+	{
+		double factor = Math.min(1.0,
+				Math.min((double) maxWidth / source.getWidth(), (double) maxHeight / source.getHeight()));
+		int width = Math.max(1, (int) Math.round(source.getWidth() * factor));
+		int height = Math.max(1, (int) Math.round(source.getHeight() * factor));
+
+		BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = thumbnail.createGraphics();
+		try
+		{
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+		} finally
+		{
+			graphics.dispose();
+		}
+		return thumbnail;
+	}
+
+	/**
+	 * Encodes an image as JPEG.
+	 *
+	 * @param quality the compression quality, from 0 (smallest) to 1 (best)
+	 */
+	static byte[] encode(BufferedImage image, float quality) throws IOException
+	{
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+		ImageWriteParam parameters = writer.getDefaultWriteParam();
+		parameters.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+		parameters.setCompressionQuality(quality);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes))
+		{
+			writer.setOutput(output);
+			writer.write(null, new IIOImage(image, null, null), parameters);
+		} finally
+		{
+			writer.dispose();
+		}
+		return bytes.toByteArray();
+	}
+}
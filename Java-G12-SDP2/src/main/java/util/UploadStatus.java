@@ -0,0 +1,16 @@
+package util;
+
+/**
+ * The stages of a file in an upload of several files.
+ */
+public enum UploadStatus
+{
+	/** The file is being read, checked and previewed. */
+	PROCESSING,
+	/** The file is ready to be saved together with the other files. */
+	READY,
+	/** The file is saved. */
+	SAVED,
+	/** The file could not be uploaded. */
+	FAILED
+}
@@ -0,0 +1,72 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import util.CsvReader;
+
+class CsvReaderTest
+{
+	@Test
+	void next_ShouldReadCommaSeparatedRecordsWithTheirLineNumbers() throws IOException
+	{
+		try (CsvReader csv = new CsvReader(new StringReader("code, site\nM-1,Gent\n\nM-2,Brugge\n")))
+		{
+			assertEquals(List.of("code", "site"), csv.header());
+			assertEquals(List.of("M-1", "Gent"), csv.next());
+			assertEquals(2, csv.lineNumber());
+			assertEquals(List.of("M-2", "Brugge"), csv.next());
+			assertEquals(4, csv.lineNumber());
+			assertNull(csv.next());
+		}
+	}
+
+	@Test
+	void next_ShouldUseSemicolonsWhenTheHeaderHasOne() throws IOException
+	{
+		try (CsvReader csv = new CsvReader(new StringReader("\uFEFFsiteName;city\nHal 1, links;Gent\n")))
+		{
+			assertEquals(List.of("siteName", "city"), csv.header());
+			assertEquals(List.of("Hal 1, links", "Gent"), csv.next());
+		}
+	}
+
+	@Test
+	void next_ShouldReadQuotedFieldsOverSeveralLines() throws IOException
+	{
+		String file = "code,productInfo,location\nM-1,\"Pers \"\"XL\"\"\nmet, komma\",Hal 2\nM-2,,\n";
+		try (CsvReader csv = new CsvReader(new StringReader(file)))
+		{
+			assertEquals(List.of("M-1", "Pers \"XL\"\nmet, komma", "Hal 2"), csv.next());
+			assertEquals(2, csv.lineNumber());
+			assertEquals(List.of("M-2", "", ""), csv.next());
+			assertEquals(4, csv.lineNumber());
+		}
+	}
+
+	@Test
+	void next_ShouldFailOnUnterminatedQuotedField() throws IOException
+	{
+		try (CsvReader csv = new CsvReader(new StringReader("code,location\nM-1,\"Hal 2\n")))
+		{
+			assertThrows(IOException.class, csv::next);
+		}
+	}
+
+	@Test
+	void header_ShouldBeEmptyForAnEmptyFile() throws IOException
+	{
+		try (CsvReader csv = new CsvReader(new StringReader("\n \n")))
+		{
+			assertEquals(List.of(), csv.header());
+			assertNull(csv.next());
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import event.DomainEvent;
+import event.EventBus;
+import event.MachineUpdated;
+import event.SiteCreated;
+
+class EventBusTest
+{
+	private final EventBus eventBus = new EventBus();
+
+	@Test
+	void publish_ShouldDeliverEventsToSubscribersOfTheirType()
+	{
+		List<Object> received = new CopyOnWriteArrayList<>();
+		eventBus.subscribe(SiteCreated.class, received::add);
+		eventBus.subscribe(DomainEvent.class, event -> received.add("any"));
+
+		eventBus.publish(new SiteCreated(1, "Gent"));
+		eventBus.publish(new MachineUpdated(2, 1, "M002", Set.of("location")));
+
+		assertEquals(List.of(new SiteCreated(1, "Gent"), "any", "any"), received);
+	}
+
+	@Test
+	void publish_ShouldRunAsyncSubscribersOnVirtualThreads() throws Exception
+	{
+		CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+		eventBus.subscribeAsync(SiteCreated.class, event -> virtual.complete(Thread.currentThread().isVirtual()));
+
+		eventBus.publish(new SiteCreated(1, "Gent"));
+
+		assertTrue(virtual.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void close_ShouldStopDelivery()
+	{
+		List<SiteCreated> received = new CopyOnWriteArrayList<>();
+		EventBus.Subscription subscription = eventBus.subscribe(SiteCreated.class, received::add);
+
+		subscription.close();
+		eventBus.publish(new SiteCreated(1, "Gent"));
+
+		assertTrue(received.isEmpty());
+	}
+
+	@Test
+	void publish_ShouldDeliverToOtherSubscribersAndRethrowWhenOneFails()
+	{
+		List<SiteCreated> received = new CopyOnWriteArrayList<>();
+		IllegalStateException failure = new IllegalStateException("listener failed");
+		eventBus.subscribe(SiteCreated.class, event -> {
+			throw failure;
+		});
+		eventBus.subscribe(SiteCreated.class, received::add);
+
+		IllegalStateException thrown = assertThrows(IllegalStateException.class,
+				() -> eventBus.publish(new SiteCreated(1, "Gent")));
+
+		assertSame(failure, thrown);
+		assertEquals(List.of(new SiteCreated(1, "Gent")), received);
+	}
+
+	@Test
+	void publish_ShouldPassAsyncFailuresToTheErrorHandler() throws Exception
+	{
+		CompletableFuture<RuntimeException> handled = new CompletableFuture<>();
+		EventBus bus = new EventBus((event, failure) -> handled.complete(failure));
+		IllegalStateException failure = new IllegalStateException("listener failed");
+		bus.subscribeAsync(SiteCreated.class, event -> {
+			throw failure;
+		});
+
+		bus.publish(new SiteCreated(1, "Gent"));
+
+		assertSame(failure, handled.get(5, TimeUnit.SECONDS));
+	}
+}
@@ -0,0 +1,119 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import dto.MachineRow;
+import repository.GenericDaoJpa;
+import util.ExportFormat;
+import util.MachineStatus;
+import util.ProductionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class ExportControllerTest
+{
+	@Mock
+	private GenericDaoJpa<Machine> machineRepo;
+
+	@Mock
+	private GenericDaoJpa<Maintenance> maintenanceRepo;
+
+	@InjectMocks
+	private ExportController exportController;
+
+	private final List<MachineRow> rows = List.of(
+			new MachineRow(1, "M-1", "Hal 1", "Pers, 20 ton", MachineStatus.DRAAIT, ProductionStatus.GEZOND,
+					LocalDate.of(2024, 1, 1), LocalDate.of(2030, 1, 1), 3, "Gent", "Tom"),
+			new MachineRow(2, "M-2", "Hal \"B\"", null, MachineStatus.STARTBAAR, ProductionStatus.FALEND, null,
+					null, 0, null, null));
+
+	@SuppressWarnings("unchecked")
+	private void streamRows()
+	{
+		when(machineRepo.streamRows(isNull(), eq(MachineController.MACHINE_ROW), eq(ExportController.CHUNK_SIZE),
+				any())).thenAnswer(invocation -> {
+					Consumer<MachineRow> action = invocation.getArgument(3);
+					rows.forEach(action);
+					return (long) rows.size();
+				});
+	}
+
+	@Test
+	void exportMachines_ShouldWriteCsvWithHeader() throws IOException
+	{
+		streamRows();
+		StringWriter out = new StringWriter();
+
+		long count = exportController.exportMachines(null, ExportFormat.CSV, out);
+
+		assertEquals(2, count);
+		assertEquals("id,code,location,productInfo,machineStatus,productionStatus,lastMaintenance,futureMaintenance,"
+				+ "numberDaysSinceLastMaintenance,siteName,technicianFirstName\n"
+				+ "1,M-1,Hal 1,\"Pers, 20 ton\",DRAAIT,GEZOND,2024-01-01,2030-01-01,3,Gent,Tom\n"
+				+ "2,M-2,\"Hal \"\"B\"\"\",,STARTBAAR,FALEND,,,0,,\n", out.toString());
+	}
+
+	@Test
+	void exportMachines_ShouldWriteOneJsonObjectPerLine() throws IOException
+	{
+		streamRows();
+		StringWriter out = new StringWriter();
+
+		exportController.exportMachines(null, ExportFormat.JSON_LINES, out);
+
+		String[] lines = out.toString().split("\n");
+		assertEquals(2, lines.length);
+		assertEquals("{\"id\":2,\"code\":\"M-2\",\"location\":\"Hal \\\"B\\\"\",\"productInfo\":null,"
+				+ "\"machineStatus\":\"STARTBAAR\",\"productionStatus\":\"FALEND\",\"lastMaintenance\":null,"
+				+ "\"futureMaintenance\":null,\"numberDaysSinceLastMaintenance\":0,\"siteName\":null,"
+				+ "\"technicianFirstName\":null}", lines[1]);
+	}
+
+	@Test
+	void exportMachines_ShouldRethrowWriteFailures()
+	{
+		streamRows();
+		Writer diskFull = new Writer()
+		{
+			@Override
+			public void write(char[] buffer, int offset, int length) throws IOException
+			{
+				if (new String(buffer, offset, length).equals("M-1"))
+				{
+					throw new IOException("disk full");
+				}
+			}
+
+			@Override
+			public void flush()
+			{
+			}
+
+			@Override
+			public void close()
+			{
+			}
+		};
+
+		IOException e = assertThrows(IOException.class,
+				() -> exportController.exportMachines(null, ExportFormat.CSV, diskFull));
+		assertEquals("disk full", e.getMessage());
+	}
+}
@@ -0,0 +1,458 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import dto.FileInfoRow;
+import dto.UploadProgress;
+import repository.DatabaseAttachmentStore;
+import repository.DirectoryAttachmentStore;
+import repository.FileInfoDao;
+import util.PdfPageRenderer;
+import util.PhotoCompressor;
+import util.ThumbnailGenerator;
+import util.UploadStatus;
+
+@ExtendWith(MockitoExtension.class)
+class FileInfoControllerTest
+{
+	private static final String SHA256_OF_1_2_3 = "039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81";
+
+	@Mock
+	private FileInfoDao fileInfoDao;
+
+	private FileInfoController fileInfoController;
+
+	@BeforeEach
+	void setUp()
+	{
+		fileInfoController = new FileInfoController(fileInfoDao);
+	}
+
+	private static byte[] png(int width, int height) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", bytes);
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * A photo of random noise, which compresses badly.
+	 */
+	private static Path photo(Path directory, int width, int height) throws IOException
+	{
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Random random = new Random(1);
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				image.setRGB(x, y, random.nextInt());
+			}
+		}
+		Path photo = directory.resolve("foto.jpg");
+		ImageIO.write(image, "jpg", photo.toFile());
+		return photo;
+	}
+
+	private static BufferedImage read(byte[] jpeg) throws IOException
+	{
+		return ImageIO.read(new ByteArrayInputStream(jpeg));
+	}
+
+	@Test
+	void saveFileContent_ShouldStoreScaledThumbnailOfImage() throws IOException
+	{
+		FileInfo fileInfo = new FileInfo("foto.png", "image", null, null);
+
+		fileInfoController.saveFileContent(png(2000, 1000), fileInfo);
+
+		verify(fileInfoDao).insert(fileInfo);
+		BufferedImage thumbnail = read(fileInfo.getThumbnail());
+		assertEquals(ThumbnailGenerator.MAX_WIDTH, thumbnail.getWidth());
+		assertEquals(ThumbnailGenerator.MAX_WIDTH / 2, thumbnail.getHeight());
+	}
+
+	@Test
+	void saveFileContent_ShouldStoreThumbnailOfFirstPdfPage() throws IOException
+	{
+		ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+		try (PDDocument document = new PDDocument())
+		{
+			document.addPage(new PDPage(PDRectangle.A4));
+			document.save(pdf);
+		}
+		FileInfo fileInfo = new FileInfo("rapport.pdf", "pdf", null, null);
+
+		fileInfoController.saveFileContent(pdf.toByteArray(), fileInfo);
+
+		BufferedImage thumbnail = read(fileInfo.getThumbnail());
+		assertTrue(thumbnail.getWidth() <= ThumbnailGenerator.MAX_WIDTH);
+		assertTrue(Math.abs(thumbnail.getHeight() - ThumbnailGenerator.MAX_HEIGHT) <= 1);
+	}
+
+	@Test
+	void saveFileContent_ShouldSaveFileWithoutPreview() throws IOException
+	{
+		FileInfo fileInfo = new FileInfo("kapot.pdf", "pdf", null, null);
+
+		fileInfoController.saveFileContent(new byte[] { 1, 2, 3 }, fileInfo);
+
+		verify(fileInfoDao).insert(fileInfo);
+		assertNull(fileInfo.getThumbnail());
+	}
+
+	@Test
+	void saveFileContent_ShouldStoreContentInChunksInOneTransaction()
+	{
+		fileInfoController = new FileInfoController(fileInfoDao, 4);
+		FileInfo fileInfo = new FileInfo("notities.txt", "other", null, null);
+
+		fileInfoController.saveFileContent(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 }, fileInfo);
+
+		FileContent stored = fileInfo.getStoredContent();
+		verify(fileInfoDao).startTransaction();
+		verify(fileInfoDao).insertContent(stored);
+		verify(fileInfoDao).insertChunk(stored, 0, new byte[] { 1, 2, 3, 4 });
+		verify(fileInfoDao).insertChunk(stored, 1, new byte[] { 5, 6, 7, 8 });
+		verify(fileInfoDao).insertChunk(stored, 2, new byte[] { 9 });
+		verify(fileInfoDao, never()).insertChunk(eq(stored), eq(3), any());
+		verify(fileInfoDao).commitTransaction();
+		assertEquals(9, stored.getSize());
+		assertEquals(9, fileInfo.getSize());
+		assertNull(fileInfo.getContent());
+	}
+
+	@Test
+	void saveFileContent_ShouldNotStoreEmptyTrailingChunk()
+	{
+		fileInfoController = new FileInfoController(fileInfoDao, 4);
+		FileInfo fileInfo = new FileInfo("notities.txt", "other", null, null);
+
+		fileInfoController.saveFileContent(new byte[] { 1, 2, 3, 4 }, fileInfo);
+
+		verify(fileInfoDao).insertChunk(fileInfo.getStoredContent(), 0, new byte[] { 1, 2, 3, 4 });
+		verify(fileInfoDao, never()).insertChunk(any(), eq(1), any());
+	}
+
+	@Test
+	void saveFileContent_ShouldRollBackWhenChunkCannotBeStored()
+	{
+		FileInfo fileInfo = new FileInfo("notities.txt", "other", null, null);
+		doThrow(new IllegalStateException("database down")).when(fileInfoDao).insertChunk(any(), eq(0), any());
+
+		assertThrows(IllegalStateException.class,
+				() -> fileInfoController.saveFileContent(new byte[] { 1 }, fileInfo));
+		verify(fileInfoDao).rollbackTransaction();
+		verify(fileInfoDao, never()).commitTransaction();
+	}
+
+	@Test
+	void saveFileContent_ShouldReferToContentThatIsAlreadyStored()
+	{
+		FileInfo fileInfo = new FileInfo("handleiding.pdf", "other", null, null);
+		FileContent existing = new FileContent(SHA256_OF_1_2_3, 3);
+		when(fileInfoDao.findContentByHash(SHA256_OF_1_2_3)).thenReturn(existing);
+		when(fileInfoDao.addReference(existing.getId())).thenReturn(existing);
+
+		fileInfoController.saveFileContent(new byte[] { 1, 2, 3 }, fileInfo);
+
+		assertSame(existing, fileInfo.getStoredContent());
+		verify(fileInfoDao).insert(fileInfo);
+		verify(fileInfoDao, never()).insertContent(any());
+		verify(fileInfoDao, never()).insertChunk(any(), anyInt(), any());
+	}
+
+	@Test
+	void saveFileContent_ShouldStoreNewContentUnderItsHash()
+	{
+		FileInfo fileInfo = new FileInfo("handleiding.pdf", "other", null, null);
+
+		fileInfoController.saveFileContent(new byte[] { 1, 2, 3 }, fileInfo);
+
+		assertEquals(SHA256_OF_1_2_3, fileInfo.getStoredContent().getSha256());
+		assertEquals(1, fileInfo.getStoredContent().getReferenceCount());
+	}
+
+	@Test
+	void deleteFile_ShouldDeleteContentWithLastReference()
+	{
+		when(fileInfoDao.findContent(7)).thenReturn(new FileContent(SHA256_OF_1_2_3, 3));
+		when(fileInfoDao.removeReference(0)).thenReturn(0);
+
+		fileInfoController.deleteFile(7);
+
+		verify(fileInfoDao).deleteById(7);
+		verify(fileInfoDao).deleteContent(0);
+		verify(fileInfoDao).commitTransaction();
+	}
+
+	@Test
+	void deleteFile_ShouldKeepContentOfOtherFiles()
+	{
+		when(fileInfoDao.findContent(7)).thenReturn(new FileContent(SHA256_OF_1_2_3, 3));
+		when(fileInfoDao.removeReference(0)).thenReturn(2);
+
+		fileInfoController.deleteFile(7);
+
+		verify(fileInfoDao).deleteById(7);
+		verify(fileInfoDao, never()).deleteContent(anyInt());
+	}
+
+	@Test
+	void directoryStore_ShouldWriteReadAndDeleteContentAsFile(@TempDir Path directory) throws IOException
+	{
+		fileInfoController = new FileInfoController(fileInfoDao, new DatabaseAttachmentStore(fileInfoDao, 4),
+				new DirectoryAttachmentStore(directory), true);
+		FileInfo fileInfo = new FileInfo("handleiding.pdf", "other", null, null);
+
+		fileInfoController.saveFileContent(new byte[] { 1, 2, 3 }, fileInfo);
+
+		FileContent stored = fileInfo.getStoredContent();
+		Path file = directory.resolve(stored.getPath());
+		assertTrue(file.endsWith(SHA256_OF_1_2_3));
+		verify(fileInfoDao, never()).insertChunk(any(), anyInt(), any());
+		when(fileInfoDao.findContent(7)).thenReturn(stored);
+		try (InputStream content = fileInfoController.openFileContent(7))
+		{
+			assertArrayEquals(new byte[] { 1, 2, 3 }, content.readAllBytes());
+		}
+
+		fileInfoController.deleteFile(7);
+
+		assertFalse(Files.exists(file));
+	}
+
+	/**
+	 * Lets the mocked insertAll call its prepare callback, which stores the
+	 * content of every file.
+	 */
+	private void insertAllPreparingEveryFile()
+	{
+		doAnswer(invocation -> {
+			Collection<FileInfo> fileInfos = invocation.getArgument(0);
+			Consumer<FileInfo> prepare = invocation.getArgument(1);
+			fileInfos.forEach(prepare);
+			return null;
+		}).when(fileInfoDao).insertAll(anyCollection(), any());
+	}
+
+	@Test
+	void uploadFiles_ShouldSaveSupportedFilesInOneTransaction(@TempDir Path directory) throws IOException
+	{
+		insertAllPreparingEveryFile();
+		Path photo = Files.write(directory.resolve("foto.png"), png(20, 10));
+		Path manual = Files.write(directory.resolve("handleiding.pdf"), new byte[] { 1, 2, 3 });
+		Path notes = Files.write(directory.resolve("notities.txt"), new byte[] { 4 });
+		List<UploadProgress> progress = Collections.synchronizedList(new ArrayList<>());
+
+		List<FileInfo> saved = fileInfoController.uploadFiles(List.of(photo.toFile(), notes.toFile(), manual.toFile()),
+				null, progress::add);
+
+		assertEquals(List.of("foto.png", "handleiding.pdf"), saved.stream().map(FileInfo::getName).toList());
+		assertNotNull(saved.get(0).getThumbnail());
+		assertEquals(SHA256_OF_1_2_3, saved.get(1).getStoredContent().getSha256());
+		verify(fileInfoDao).startTransaction();
+		verify(fileInfoDao).insertAll(anyCollection(), any());
+		verify(fileInfoDao).commitTransaction();
+		assertTrue(progress.contains(new UploadProgress(photo.toFile(), UploadStatus.SAVED, null)));
+		assertTrue(progress.contains(new UploadProgress(manual.toFile(), UploadStatus.SAVED, null)));
+		assertTrue(progress.stream().anyMatch(
+				file -> file.fileName().equals("notities.txt") && file.status() == UploadStatus.FAILED));
+	}
+
+	@Test
+	void uploadFiles_ShouldFailAllFilesWhenSavingFails(@TempDir Path directory) throws IOException
+	{
+		Path first = Files.write(directory.resolve("a.pdf"), new byte[] { 1 });
+		Path second = Files.write(directory.resolve("b.pdf"), new byte[] { 2 });
+		doThrow(new IllegalStateException("database down")).when(fileInfoDao).insertAll(anyCollection(), any());
+		List<UploadProgress> progress = Collections.synchronizedList(new ArrayList<>());
+
+		List<FileInfo> saved = fileInfoController.uploadFiles(List.of(first.toFile(), second.toFile()), null,
+				progress::add);
+
+		assertTrue(saved.isEmpty());
+		verify(fileInfoDao).rollbackTransaction();
+		verify(fileInfoDao, never()).commitTransaction();
+		assertTrue(progress.contains(new UploadProgress(first.toFile(), UploadStatus.FAILED, "database down")));
+		assertTrue(progress.contains(new UploadProgress(second.toFile(), UploadStatus.FAILED, "database down")));
+	}
+
+	@Test
+	void uploadFiles_ShouldTellFilesWithTheSameNameApart(@TempDir Path directory) throws IOException
+	{
+		Path first = Files.write(Files.createDirectory(directory.resolve("a")).resolve("rapport.pdf"), new byte[] { 1 });
+		Path second = Files.write(Files.createDirectory(directory.resolve("b")).resolve("rapport.pdf"), new byte[] { 2 });
+		insertAllPreparingEveryFile();
+		List<UploadProgress> progress = Collections.synchronizedList(new ArrayList<>());
+
+		fileInfoController.uploadFiles(List.of(first.toFile(), second.toFile()), null, progress::add);
+
+		assertTrue(progress.contains(new UploadProgress(first.toFile(), UploadStatus.SAVED, null)));
+		assertTrue(progress.contains(new UploadProgress(second.toFile(), UploadStatus.SAVED, null)));
+	}
+
+	@Test
+	void uploadFiles_ShouldStoreDownscaledPhoto(@TempDir Path directory) throws IOException
+	{
+		Path photo = photo(directory, 1200, 600);
+		Path store = Files.createDirectory(directory.resolve("store"));
+		fileInfoController = new FileInfoController(fileInfoDao, new DatabaseAttachmentStore(fileInfoDao, 4),
+				new DirectoryAttachmentStore(store), true);
+		fileInfoController.setPhotoCompressor(new PhotoCompressor(300, 0.8f, false));
+		insertAllPreparingEveryFile();
+
+		FileInfo saved = fileInfoController.uploadFiles(List.of(photo.toFile()), null, progress -> {
+		}).get(0);
+
+		assertTrue(saved.getSize() < Files.size(photo));
+		assertEquals(saved.getSize(), saved.getStoredContent().getSize());
+		assertNull(saved.getOriginalContent());
+		BufferedImage stored = read(Files.readAllBytes(store.resolve(saved.getStoredContent().getPath())));
+		assertEquals(300, stored.getWidth());
+		assertEquals(150, stored.getHeight());
+	}
+
+	@Test
+	void uploadFiles_ShouldKeepOriginalPhotoWhenConfigured(@TempDir Path directory) throws IOException
+	{
+		Path photo = photo(directory, 400, 200);
+		fileInfoController.setPhotoCompressor(new PhotoCompressor(100, 0.8f, true));
+		insertAllPreparingEveryFile();
+
+		FileInfo saved = fileInfoController.uploadFiles(List.of(photo.toFile()), null, progress -> {
+		}).get(0);
+
+		assertTrue(saved.getStoredContent().getSize() < Files.size(photo));
+		assertEquals(Files.size(photo), saved.getOriginalContent().getSize());
+	}
+
+	@Test
+	void uploadFiles_ShouldStorePhotoAsUploadedWhenCompressionIsOff(@TempDir Path directory) throws IOException
+	{
+		Path photo = photo(directory, 400, 200);
+		fileInfoController.setPhotoCompressor(null);
+		insertAllPreparingEveryFile();
+
+		FileInfo saved = fileInfoController.uploadFiles(List.of(photo.toFile()), null, progress -> {
+		}).get(0);
+
+		assertEquals(Files.size(photo), saved.getSize());
+		assertNull(saved.getOriginalContent());
+	}
+
+	@Test
+	void deleteFile_ShouldDeleteOriginalPhotoWithLastReference()
+	{
+		FileContent stored = new FileContent(SHA256_OF_1_2_3, 3);
+		when(fileInfoDao.findContent(7)).thenReturn(stored);
+		when(fileInfoDao.findOriginalContent(7)).thenReturn(new FileContent("0".repeat(64), 10));
+		when(fileInfoDao.removeReference(0)).thenReturn(0);
+
+		fileInfoController.deleteFile(7);
+
+		verify(fileInfoDao, times(2)).deleteContent(0);
+	}
+
+	@Test
+	void openPdf_ShouldRenderPagesOnDemand() throws IOException
+	{
+		ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+		try (PDDocument document = new PDDocument())
+		{
+			document.addPage(new PDPage(PDRectangle.A4));
+			document.addPage(new PDPage(PDRectangle.A5));
+			document.save(pdf);
+		}
+		when(fileInfoDao.getLegacyContent(7)).thenReturn(pdf.toByteArray());
+
+		PdfPageRenderer renderer = fileInfoController.openPdf(7);
+		BufferedImage page;
+		try (renderer)
+		{
+			assertEquals(2, renderer.getPageCount());
+			assertEquals(PDRectangle.A5.getWidth(), renderer.getPageSize(1).getWidth());
+			page = renderer.render(1, PdfPageRenderer.POINTS_PER_INCH);
+		}
+
+		assertEquals((int) PDRectangle.A5.getWidth(), page.getWidth());
+		assertNull(fileInfoController.openPdf(8));
+	}
+
+	@Test
+	void getThumbnail_ShouldReturnStoredThumbnailWithoutReadingContent()
+	{
+		FileInfoRow file = new FileInfoRow(7, "foto.png", "image", 10, LocalDateTime.now());
+		byte[] stored = { 1, 2, 3 };
+		when(fileInfoDao.getThumbnail(7)).thenReturn(stored);
+
+		assertEquals(stored, fileInfoController.getThumbnail(file));
+		verify(fileInfoDao, never()).findContent(anyInt());
+	}
+
+	@Test
+	void getThumbnail_ShouldCreateAndSaveMissingThumbnail() throws IOException
+	{
+		FileInfoRow file = new FileInfoRow(7, "foto.png", "image", 10, LocalDateTime.now());
+		when(fileInfoDao.getLegacyContent(7)).thenReturn(png(10, 10));
+
+		byte[] thumbnail = fileInfoController.getThumbnail(file);
+
+		assertNotNull(thumbnail);
+		verify(fileInfoDao).saveThumbnail(7, thumbnail);
+	}
+
+	@Test
+	void getThumbnail_ShouldNotReadContentOfFileWithoutPreview()
+	{
+		FileInfoRow file = new FileInfoRow(7, "notities.txt", "other", 1, LocalDateTime.now());
+
+		assertNull(fileInfoController.getThumbnail(file));
+		verify(fileInfoDao, never()).findContent(anyInt());
+		verify(fileInfoDao, never()).saveThumbnail(anyInt(), any());
+	}
+}
@@ -0,0 +1,209 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.calls;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.queries.CursoredStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import repository.GenericDaoJpa;
+import repository.Projection;
+
+@ExtendWith(MockitoExtension.class)
+class GenericDaoJpaTest
+{
+	@Mock
+	private EntityManager em;
+
+	private GenericDaoJpa<Notification> dao;
+
+	@BeforeEach
+	void setUp()
+	{
+		dao = new GenericDaoJpa<>(Notification.class)
+		{
+			@Override
+			protected EntityManager transactionalEntityManager()
+			{
+				return em;
+			}
+		};
+		dao.setFlushInterval(2);
+	}
+
+	private static List<Notification> notifications(int count)
+	{
+		return IntStream.range(0, count)
+				.mapToObj(i -> new Notification(i, false, "Melding " + i, LocalDateTime.now())).toList();
+	}
+
+	@Test
+	void insertAll_shouldFlushAndClearEveryInterval()
+	{
+		List<Notification> notifications = notifications(5);
+
+		dao.insertAll(notifications);
+
+		InOrder order = inOrder(em);
+		order.verify(em, times(2)).persist(any());
+		order.verify(em).flush();
+		order.verify(em).clear();
+		order.verify(em, times(2)).persist(any());
+		order.verify(em).flush();
+		order.verify(em).clear();
+		order.verify(em).persist(notifications.get(4));
+		order.verify(em).flush();
+		order.verifyNoMoreInteractions();
+	}
+
+	@Test
+	void insertAll_shouldPrepareEveryObjectRightBeforePersistingIt()
+	{
+		List<Notification> notifications = notifications(3);
+		List<Notification> prepared = new ArrayList<>();
+		doAnswer(invocation -> {
+			assertEquals(prepared.size(), notifications.indexOf(invocation.getArgument(0)) + 1);
+			return null;
+		}).when(em).persist(any());
+
+		dao.insertAll(notifications, prepared::add);
+
+		assertEquals(notifications, prepared);
+		verify(em, times(3)).persist(any());
+	}
+
+	@Test
+	void insertAll_shouldStopAtTheFailingChunk()
+	{
+		doNothing().doThrow(new PersistenceException("duplicate key")).when(em).flush();
+		List<Notification> notifications = notifications(5);
+
+		assertThrows(PersistenceException.class, () -> dao.insertAll(notifications));
+
+		verify(em, times(4)).persist(any());
+		verify(em, never()).persist(notifications.get(4));
+		verify(em, times(1)).clear();
+	}
+
+	@Test
+	void updateAll_shouldReturnTheMergedInstancesAllDetached()
+	{
+		List<Notification> notifications = notifications(3);
+		List<Notification> merged = notifications(3);
+		for (int i = 0; i < 3; i++)
+		{
+			when(em.merge(notifications.get(i))).thenReturn(merged.get(i));
+		}
+
+		List<Notification> result = dao.updateAll(notifications);
+
+		assertEquals(3, result.size());
+		for (int i = 0; i < 3; i++)
+		{
+			assertSame(merged.get(i), result.get(i));
+		}
+		InOrder order = inOrder(em);
+		order.verify(em, times(2)).merge(any());
+		order.verify(em).flush();
+		order.verify(em).clear();
+		order.verify(em).merge(notifications.get(2));
+		order.verify(em).flush();
+		order.verify(em).clear();
+	}
+
+	@Test
+	void updateAll_shouldPropagateAFailingChunk()
+	{
+		doThrow(new PersistenceException("deadlock")).when(em).flush();
+
+		assertThrows(PersistenceException.class, () -> dao.updateAll(notifications(3)));
+
+		verify(em, times(2)).merge(any());
+		verify(em, never()).clear();
+	}
+
+	private record MessageRow(int id, String message)
+	{
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void streamRows_shouldHandOverEveryRowBeforeReadingTheNext()
+	{
+		EntityManager readEm = mock(EntityManager.class, RETURNS_DEEP_STUBS);
+		TypedQuery<Object> query = mock(TypedQuery.class);
+		CursoredStream cursor = mock(CursoredStream.class);
+		when(readEm.createQuery(any(CriteriaQuery.class))).thenReturn(query);
+		when(query.setHint(anyString(), any())).thenReturn(query);
+		when(query.getSingleResult()).thenReturn(cursor);
+		when(cursor.hasNext()).thenReturn(true, true, true, true, true, false);
+		AtomicInteger read = new AtomicInteger();
+		when(cursor.next()).thenAnswer(invocation -> {
+			int id = read.incrementAndGet();
+			return new MessageRow(id, "Melding " + id);
+		});
+		GenericDaoJpa<Notification> streamingDao = new GenericDaoJpa<>(Notification.class)
+		{
+			@Override
+			protected <R> R read(Function<EntityManager, R> work)
+			{
+				return work.apply(readEm);
+			}
+
+			@Override
+			protected String idAttribute(EntityManager em)
+			{
+				return "id";
+			}
+		};
+		Projection<Notification, MessageRow> projection = new Projection<>(MessageRow.class,
+				(root, cb) -> List.of(root.get("id"), root.get("message")));
+		List<Integer> readWhenHandedOver = new ArrayList<>();
+
+		long count = streamingDao.streamRows(null, projection, 2, row -> readWhenHandedOver.add(read.get()));
+
+		assertEquals(5, count);
+		assertEquals(List.of(1, 2, 3, 4, 5), readWhenHandedOver);
+		verify(query).setHint(QueryHints.CURSOR_PAGE_SIZE, 2);
+		verify(query).setHint(QueryHints.JDBC_FETCH_SIZE, 2);
+		InOrder order = inOrder(cursor);
+		order.verify(cursor, calls(2)).next();
+		order.verify(cursor).releasePrevious();
+		order.verify(cursor, calls(2)).next();
+		order.verify(cursor).releasePrevious();
+		order.verify(cursor, calls(1)).next();
+		order.verify(cursor).close();
+	}
+}
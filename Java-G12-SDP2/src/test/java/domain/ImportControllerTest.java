@@ -0,0 +1,245 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import dto.ImportError;
+import dto.ImportReport;
+import event.EventBus;
+import event.ImportCompleted;
+import exceptions.UserNotFoundWithEmailException;
+import jakarta.persistence.PersistenceException;
+import repository.GenericDaoJpa;
+import repository.UserDao;
+import util.MachineStatus;
+import util.Role;
+import util.Status;
+
+@ExtendWith(MockitoExtension.class)
+class ImportControllerTest
+{
+	@Mock
+	private GenericDaoJpa<Site> siteRepo;
+
+	@Mock
+	private GenericDaoJpa<Machine> machineRepo;
+
+	@Mock
+	private UserDao userRepo;
+
+	@Mock
+	private EventBus eventBus;
+
+	@InjectMocks
+	private ImportController importController;
+
+	@Captor
+	private ArgumentCaptor<Collection<Machine>> machinesCaptor;
+
+	@Captor
+	private ArgumentCaptor<Collection<Site>> sitesCaptor;
+
+	@Captor
+	private ArgumentCaptor<Collection<User>> usersCaptor;
+
+	@Captor
+	private ArgumentCaptor<Consumer<Site>> prepareCaptor;
+
+	private User technician;
+	private Site site;
+
+	@BeforeEach
+	void setUp()
+	{
+		technician = new User.Builder().buildFirstName("Tom").buildLastName("Peeters").buildEmail("tom@shopfloor.be")
+				.buildBirthdate(LocalDate.of(1990, 1, 1)).buildRole(Role.TECHNIEKER)
+				.buildStatus(Status.ACTIEF).build();
+		site = new Site.Builder().buildSiteName("Gent").buildAddress("Kerkstraat", 1, 9000, "Gent")
+				.buildVerantwoordelijke(technician).buildStatus(Status.ACTIEF).build();
+	}
+
+	@Test
+	void importMachines_ShouldSaveValidRowsAndReportInvalidOnes() throws IOException
+	{
+		when(siteRepo.findAll(null, Site.SUMMARY_GRAPH)).thenReturn(List.of(site));
+		when(userRepo.getAllTechniekers()).thenReturn(List.of(technician));
+		String csv = """
+				code,site,technician,location,productInfo,machineStatus,productionStatus,futureMaintenance
+				M-1,Gent,tom@shopfloor.be,Hal 1,Pers,draait,GEZOND,2030-01-01
+				M-2,Brugge,tom@shopfloor.be,Hal 1,Pers,DRAAIT,GEZOND,2030-01-01
+				,Gent,tom@shopfloor.be,Hal 2,Pers,DRAAIT,GEZOND,2030-01-01
+				M-4,Gent,tom@shopfloor.be,Hal 2,Pers,DRAAIT,GEZOND,01/01/2030
+				""";
+
+		ImportReport report = importController.importMachines(new StringReader(csv));
+
+		verify(machineRepo).startTransaction();
+		verify(machineRepo).insertAll(machinesCaptor.capture(), isNull());
+		verify(machineRepo).commitTransaction();
+		Machine machine = machinesCaptor.getValue().iterator().next();
+		assertEquals(1, machinesCaptor.getValue().size());
+		assertEquals("M-1", machine.getCode());
+		assertSame(site, machine.getSite());
+		assertEquals(MachineStatus.DRAAIT, machine.getMachineStatus());
+
+		assertEquals(4, report.rowsRead());
+		assertEquals(1, report.imported());
+		assertEquals(3, report.rejected());
+		assertEquals(List.of(3L, 4L, 5L), report.errors().stream().map(ImportError::line).toList());
+		assertEquals(List.of("site", "code", "futureMaintenance"),
+				report.errors().stream().map(ImportError::field).toList());
+		assertFalse(report.errorsTruncated());
+		verify(eventBus).publish(new ImportCompleted(Machine.class, 1, 3));
+	}
+
+	@Test
+	void importSites_ShouldReadSemicolonFilesInChunks() throws IOException
+	{
+		when(userRepo.getByEmail("tom@shopfloor.be")).thenReturn(technician);
+		StringBuilder csv = new StringBuilder("siteName;street;number;postalCode;city;verantwoordelijke\n");
+		int rows = ImportController.CHUNK_SIZE + 1;
+		for (int i = 0; i < rows; i++)
+		{
+			csv.append("\"Site ").append(i).append("; hal\";Kerkstraat;1;9000;Gent;tom@shopfloor.be\n");
+		}
+
+		ImportReport report = importController.importSites(new StringReader(csv.toString()));
+
+		verify(siteRepo, times(2)).insertAll(sitesCaptor.capture(), any());
+		assertEquals(ImportController.CHUNK_SIZE, sitesCaptor.getAllValues().get(0).size());
+		assertEquals(1, sitesCaptor.getAllValues().get(1).size());
+		assertEquals("Site 0; hal", sitesCaptor.getAllValues().get(0).iterator().next().getSiteName());
+		assertEquals(rows, report.imported());
+		assertEquals(0, report.rejected());
+		verify(userRepo, times(1)).getByEmail("tom@shopfloor.be");
+	}
+
+	@Test
+	void importSites_ShouldLoadTheResponsibleUserAgainBeforeSavingASite() throws IOException
+	{
+		technician.setId(7);
+		User managed = new User.Builder().buildFirstName("Tom").buildLastName("Peeters")
+				.buildEmail("tom@shopfloor.be").buildBirthdate(LocalDate.of(1990, 1, 1)).buildRole(Role.TECHNIEKER)
+				.buildStatus(Status.ACTIEF).build();
+		when(userRepo.getByEmail("tom@shopfloor.be")).thenReturn(technician);
+		when(userRepo.get(7)).thenReturn(managed);
+		String csv = """
+				siteName,street,number,postalCode,city,verantwoordelijke
+				Gent,Kerkstraat,1,9000,Gent,tom@shopfloor.be
+				""";
+
+		importController.importSites(new StringReader(csv));
+
+		verify(siteRepo).insertAll(sitesCaptor.capture(), prepareCaptor.capture());
+		Site imported = sitesCaptor.getValue().iterator().next();
+		assertSame(technician, imported.getVerantwoordelijke());
+		prepareCaptor.getValue().accept(imported);
+		assertSame(managed, imported.getVerantwoordelijke());
+	}
+
+	@Test
+	void importSites_ShouldRollBackFailingChunkAndSaveTheNext() throws IOException
+	{
+		when(userRepo.getByEmail("tom@shopfloor.be")).thenReturn(technician);
+		doThrow(new PersistenceException("duplicate key")).doNothing().when(siteRepo).insertAll(anyCollection(), any());
+		StringBuilder csv = new StringBuilder("siteName,street,number,postalCode,city,verantwoordelijke\n");
+		int rows = ImportController.CHUNK_SIZE + 1;
+		for (int i = 0; i < rows; i++)
+		{
+			csv.append("Site ").append(i).append(",Kerkstraat,1,9000,Gent,tom@shopfloor.be\n");
+		}
+
+		ImportReport report = importController.importSites(new StringReader(csv.toString()));
+
+		verify(siteRepo, times(2)).startTransaction();
+		verify(siteRepo).rollbackTransaction();
+		verify(siteRepo).commitTransaction();
+		assertEquals(1, report.imported());
+		assertEquals(ImportController.CHUNK_SIZE, report.rejected());
+		assertEquals("Opslaan mislukt: duplicate key", report.errors().get(0).message());
+	}
+
+	@Test
+	void importSites_ShouldNotSaveWhenNoRowIsValid() throws IOException
+	{
+		String csv = """
+				siteName,street,number,postalCode,city,verantwoordelijke
+				Gent,,x,9000,Gent,tom@shopfloor.be
+				""";
+
+		ImportReport report = importController.importSites(new StringReader(csv));
+
+		verify(siteRepo, never()).insertAll(anyCollection(), any());
+		assertEquals(1, report.rejected());
+		assertEquals(List.of("number"), report.errors().stream().map(ImportError::field).toList());
+		verify(eventBus, never()).publish(any());
+	}
+
+	@Test
+	void importSites_ShouldRejectUnknownResponsibleUser() throws IOException
+	{
+		when(userRepo.getByEmail("jan@shopfloor.be")).thenThrow(new UserNotFoundWithEmailException("jan@shopfloor.be"));
+		String csv = """
+				siteName,street,number,postalCode,city,verantwoordelijke
+				Gent,Kerkstraat,1,9000,Gent,jan@shopfloor.be
+				""";
+
+		ImportReport report = importController.importSites(new StringReader(csv));
+
+		assertEquals(1, report.rejected());
+		assertEquals("verantwoordelijke", report.errors().get(0).field());
+	}
+
+	@Test
+	void importUsers_ShouldRejectEmailsInUseInTheDatabaseOrEarlierInTheFile() throws IOException
+	{
+		when(userRepo.getAllEmails()).thenReturn(List.of("tom@shopfloor.be"));
+		String csv = """
+				firstName,lastName,email,phoneNumber,birthdate,street,number,postalCode,city,role
+				Ann,Claes,ann@shopfloor.be,0470123456,1992-03-04,Kerkstraat,1,9000,Gent,technieker
+				Tom,Peeters,tom@shopfloor.be,0470123457,1990-01-01,Kerkstraat,2,9000,Gent,technieker
+				Anna,Claes,ann@shopfloor.be,0470123458,1993-05-06,Kerkstraat,3,9000,Gent,verantwoordelijke
+				""";
+
+		ImportReport report = importController.importUsers(new StringReader(csv));
+
+		verify(userRepo).insertAll(usersCaptor.capture(), isNull());
+		User user = usersCaptor.getValue().iterator().next();
+		assertEquals(1, usersCaptor.getValue().size());
+		assertEquals("ann@shopfloor.be", user.getEmail());
+		assertEquals(Role.TECHNIEKER, user.getRole());
+		assertEquals(Status.ACTIEF, user.getStatus());
+		assertNotNull(user.getPassword());
+		assertEquals(1, report.imported());
+		assertEquals(List.of(3L, 4L), report.errors().stream().map(ImportError::line).toList());
+		assertEquals(List.of("email", "email"), report.errors().stream().map(ImportError::field).toList());
+		verify(userRepo, never()).findAll();
+		verify(eventBus).publish(new ImportCompleted(User.class, 1, 2));
+	}
+}
@@ -4,23 +4,24 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import domain.Machine;
-import domain.NotificationObserver;
 import dto.MachineDTO;
-import interfaces.Observer;
-import interfaces.Subject;
+import event.EventBus;
+import event.MachineCreated;
+import event.MachineUpdated;
 import util.MachineStatus;
 import util.ProductionStatus;
 
@@ -29,7 +30,7 @@ class MachineControllerTest
 
 	private MachineRepository machineRepo;
 	private MachineControllerTestImpl controller;
-	private NotificationObserver notificationObserver;
+	private EventBus eventBus;
 
 	interface MachineRepository
 	{
@@ -50,38 +51,20 @@ class MachineControllerTest
 	void setUp()
 	{
 		machineRepo = mock(MachineRepository.class);
-		notificationObserver = mock(NotificationObserver.class);
+		eventBus = mock(EventBus.class);
 
-		controller = new MachineControllerTestImpl(machineRepo);
-		controller.addObserver(notificationObserver);
+		controller = new MachineControllerTestImpl(machineRepo, eventBus);
 	}
 
-	private static class MachineControllerTestImpl implements Subject
+	private static class MachineControllerTestImpl
 	{
 		private final MachineRepository machineRepo;
-		private final List<Observer> observers = new ArrayList<>();
+		private final EventBus eventBus;
 
-		public MachineControllerTestImpl(MachineRepository machineRepo)
+		public MachineControllerTestImpl(MachineRepository machineRepo, EventBus eventBus)
 		{
 			this.machineRepo = machineRepo;
-		}
-
-		@Override
-		public void addObserver(Observer observer)
-		{
-			observers.add(observer);
-		}
-
-		@Override
-		public void removeObserver(Observer observer)
-		{
-			observers.remove(observer);
-		}
-
-		@Override
-		public void notifyObservers(String message)
-		{
-			observers.forEach(o -> o.update(message));
+			this.eventBus = eventBus;
 		}
 
 		public List<MachineDTO> getMachineList()
@@ -99,7 +82,7 @@ class MachineControllerTest
 			machineRepo.startTransaction();
 			machineRepo.insert(machine);
 			machineRepo.commitTransaction();
-			notifyObservers("Nieuwe machine toegevoegd: " + machine.getCode());
+			eventBus.publish(new MachineCreated(machine.getId(), 0, machine.getCode()));
 		}
 
 		public void updateMachine(Machine machine)
@@ -107,7 +90,7 @@ class MachineControllerTest
 			machineRepo.startTransaction();
 			machineRepo.update(machine);
 			machineRepo.commitTransaction();
-			notifyObservers("Machine bijgewerkt: " + machine.getCode());
+			eventBus.publish(new MachineUpdated(machine.getId(), 0, machine.getCode(), Set.of()));
 		}
 
 		public MachineDTO getMachineById(int machineId)
@@ -161,7 +144,7 @@ class MachineControllerTest
 		verify(machineRepo, times(1)).startTransaction();
 		verify(machineRepo, times(1)).insert(machine);
 		verify(machineRepo, times(1)).commitTransaction();
-		verify(notificationObserver, times(1)).update("Nieuwe machine toegevoegd: M001");
+		verify(eventBus, times(1)).publish(new MachineCreated(1, 0, "M001"));
 	}
 
 	@Test
@@ -174,7 +157,7 @@ class MachineControllerTest
 		verify(machineRepo, times(1)).startTransaction();
 		verify(machineRepo, times(1)).update(machine);
 		verify(machineRepo, times(1)).commitTransaction();
-		verify(notificationObserver, times(1)).update("Machine bijgewerkt: M001");
+		verify(eventBus, times(1)).publish(any(MachineUpdated.class));
 	}
 
 	@Test
@@ -202,22 +185,6 @@ class MachineControllerTest
 		verify(machineRepo, times(1)).get(999);
 	}
 
-	@Test
-	void testObserverManagement()
-	{
-		Observer testObserver = mock(Observer.class);
-
-		controller.addObserver(testObserver);
-		controller.notifyObservers("Test message");
-
-		verify(testObserver, times(1)).update("Test message");
-
-		controller.removeObserver(testObserver);
-		controller.notifyObservers("Another message");
-
-		verify(testObserver, times(1)).update("Test message");
-	}
-
 	private Machine createTestMachine(int id, String code)
 	{
 		Machine machine = new Machine();
@@ -3,7 +3,10 @@ package domain;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -23,10 +26,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import dto.MaintenanceDTO;
+import dto.MaintenanceRow;
 import exceptions.InformationRequiredExceptionMachine;
 import exceptions.InformationRequiredExceptionSite;
 import exceptions.InformationRequiredExceptionUser;
 import repository.GenericDaoJpa;
+import repository.Page;
+import repository.PageRequest;
 import util.MachineStatus;
 import util.MaintenanceStatus;
 import util.ProductionStatus;
@@ -192,6 +198,23 @@ class MaintenanceControllerTest
 				defaultEndDate.plusDays(1), "Repair", "Fixed issue", MaintenanceStatus.INGEPLAND, 1, "John", 1);
 	}
 
+	@Test
+	@DisplayName("makeMaintenanceDTOs should map a shared technician and machine only once")
+	void makeMaintenanceDTOs_ShouldShareDTOsOfSameEntity()
+	{
+		Maintenance maintenance1 = createTestMaintenance(1, defaultExecutionDate, defaultStartDate, defaultEndDate,
+				"Regular check", "All good", MaintenanceStatus.VOLTOOID);
+		Maintenance maintenance2 = createTestMaintenance(2, defaultExecutionDate.plusDays(1),
+				defaultStartDate.plusDays(1), defaultEndDate.plusDays(1), "Repair", "Fixed issue",
+				MaintenanceStatus.INGEPLAND);
+
+		List<MaintenanceDTO> result = maintenanceController.makeMaintenanceDTOs(List.of(maintenance1, maintenance2));
+
+		assertSame(result.get(0).technician(), result.get(1).technician());
+		assertSame(result.get(0).machine(), result.get(1).machine());
+		assertSame(result.get(0).technician(), result.get(0).machine().technician());
+	}
+
 	@Test
 	@DisplayName("makeMaintenanceDTOs should handle null input by returning empty list")
 	void makeMaintenanceDTOs_ShouldHandleNullInput()
@@ -259,7 +282,7 @@ class MaintenanceControllerTest
 		Maintenance maintenance = createTestMaintenance(maintenanceId, defaultExecutionDate, defaultStartDate,
 				defaultEndDate, "Regular check", "All good", MaintenanceStatus.VOLTOOID);
 
-		when(maintenanceRepo.get(maintenanceId)).thenReturn(maintenance);
+		when(maintenanceRepo.get(maintenanceId, Maintenance.DETAIL_GRAPH)).thenReturn(maintenance);
 
 		MaintenanceDTO result = maintenanceController.getMaintenanceDTO(maintenanceId);
 
@@ -267,7 +290,7 @@ class MaintenanceControllerTest
 		assertMaintenanceDTOEquals(result, maintenanceId, defaultExecutionDate, defaultStartDate, defaultEndDate,
 				"Regular check", "All good", MaintenanceStatus.VOLTOOID, 1, "John", 1);
 
-		verify(maintenanceRepo, times(1)).get(maintenanceId);
+		verify(maintenanceRepo, times(1)).get(maintenanceId, Maintenance.DETAIL_GRAPH);
 	}
 
 	@Test
@@ -275,11 +298,44 @@ class MaintenanceControllerTest
 	void getMaintenanceDTO_ShouldReturnNullWhenNotFound()
 	{
 		int nonExistentId = 999;
-		when(maintenanceRepo.get(nonExistentId)).thenReturn(null);
+		when(maintenanceRepo.get(nonExistentId, Maintenance.DETAIL_GRAPH)).thenReturn(null);
 
 		MaintenanceDTO result = maintenanceController.getMaintenanceDTO(nonExistentId);
 
 		assertNull(result);
-		verify(maintenanceRepo, times(1)).get(nonExistentId);
+		verify(maintenanceRepo, times(1)).get(nonExistentId, Maintenance.DETAIL_GRAPH);
+	}
+
+	@Test
+	@DisplayName("getMaintenanceRows should return the projected page of the repository")
+	void getMaintenanceRows_ShouldReturnProjectedPage()
+	{
+		MaintenanceRow first = new MaintenanceRow(1, defaultExecutionDate, defaultStartDate, defaultEndDate, "John",
+				"Doe", "Regular check", "All good", MaintenanceStatus.VOLTOOID, 1);
+		MaintenanceRow second = new MaintenanceRow(2, defaultExecutionDate, defaultStartDate, defaultEndDate, "John",
+				"Doe", "Repair", "Belt replaced", MaintenanceStatus.IN_UITVOERING, 1);
+		PageRequest request = PageRequest.first("id", 2);
+		PageRequest.Cursor next = new PageRequest.Cursor(2, 2);
+
+		MaintenanceFilter filter = MaintenanceFilter.forMachine(1);
+
+		when(maintenanceRepo.<MaintenanceRow>findRows(eq(request), eq(filter), any()))
+				.thenReturn(new Page<>(List.of(first, second), next));
+
+		Page<MaintenanceRow> result = maintenanceController.getMaintenanceRows(filter, request);
+
+		assertEquals(List.of(first, second), result.content());
+		assertTrue(result.hasNext());
+		assertEquals(next, result.nextCursor());
+		verify(maintenanceRepo, times(1)).findRows(eq(request), eq(filter), any());
+	}
+
+	@Test
+	@DisplayName("countMaintenances should delegate to the repository")
+	void countMaintenances_ShouldReturnRepositoryCount()
+	{
+		when(maintenanceRepo.count(null)).thenReturn(42L);
+
+		assertEquals(42L, maintenanceController.countMaintenances(null));
 	}
-}
\ No newline at end of file
+}
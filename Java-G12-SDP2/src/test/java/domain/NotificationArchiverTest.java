@@ -0,0 +1,137 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import repository.NotificationDao;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationArchiverTest
+{
+	@Mock
+	private NotificationDao notificationDao;
+
+	@TempDir
+	private Path directory;
+
+	private NotificationArchiver archiver()
+	{
+		return new NotificationArchiver(notificationDao, directory, Duration.ofDays(30), 2);
+	}
+
+	@Test
+	void archive_shouldMoveBatchesToOneFile() throws IOException
+	{
+		LocalDateTime old = LocalDateTime.now().minusDays(40);
+		when(notificationDao.getReadBefore(any(), eq(2))).thenReturn(
+				List.of(new Notification(1, true, "Site 1 gewijzigd", old),
+						new Notification(2, true, "Machine 2 gewijzigd", old)),
+				List.of(new Notification(3, true, "Gebruiker 3 gewijzigd", old)));
+
+		long moved = archiver().archive();
+
+		assertEquals(3, moved);
+		verify(notificationDao).deleteByIds(List.of(1, 2));
+		verify(notificationDao).deleteByIds(List.of(3));
+		List<Path> files;
+		try (Stream<Path> list = Files.list(directory))
+		{
+			files = list.toList();
+		}
+		assertEquals(1, files.size());
+		List<String> lines = readGzipLines(files.get(0));
+		assertEquals(3, lines.size());
+		assertTrue(lines.get(0).startsWith("{\"id\":1,"));
+		assertTrue(lines.get(2).contains("\"message\":\"Gebruiker 3 gewijzigd\""));
+	}
+
+	@Test
+	void archive_withoutOldNotifications_shouldNotCreateFile() throws IOException
+	{
+		when(notificationDao.getReadBefore(any(), eq(2))).thenReturn(List.of());
+
+		assertEquals(0, archiver().archive());
+
+		verify(notificationDao, never()).deleteByIds(anyCollection());
+		try (Stream<Path> list = Files.list(directory))
+		{
+			assertEquals(0, list.count());
+		}
+	}
+
+	@Test
+	void archive_shouldOnlyMoveNotificationsOlderThanRetention() throws IOException
+	{
+		when(notificationDao.getReadBefore(any(), eq(2))).thenReturn(List.of());
+		LocalDateTime before = LocalDateTime.now().minusDays(30);
+
+		archiver().archive();
+
+		verify(notificationDao).getReadBefore(
+				argThat(cutoff -> !cutoff.isBefore(before)
+						&& !cutoff.isAfter(LocalDateTime.now().minusDays(30))),
+				eq(2));
+	}
+
+	@Test
+	void run_shouldKeepTheOutcomeAsLastRun()
+	{
+		when(notificationDao.getReadBefore(any(), eq(2))).thenReturn(List.of());
+
+		NotificationArchiver.ArchiveRun run = NotificationArchiver.run(archiver());
+
+		assertSame(run, NotificationArchiver.lastRun());
+		assertTrue(run.succeeded());
+		assertEquals(0, run.moved());
+		assertEquals(directory, run.directory());
+	}
+
+	@Test
+	void run_shouldKeepTheFailure()
+	{
+		IllegalStateException failure = new IllegalStateException("database down");
+		when(notificationDao.getReadBefore(any(), eq(2))).thenThrow(failure);
+
+		NotificationArchiver.ArchiveRun run = NotificationArchiver.run(archiver());
+
+		assertSame(run, NotificationArchiver.lastRun());
+		assertFalse(run.succeeded());
+		assertSame(failure, run.failure());
+	}
+
+	private static List<String> readGzipLines(Path file) throws IOException
+	{
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8)))
+		{
+			return reader.lines().toList();
+		}
+	}
+}
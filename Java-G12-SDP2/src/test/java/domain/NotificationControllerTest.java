@@ -1,9 +1,17 @@
 package domain;
 
 import dto.NotificationDTO;
+import event.EventBus;
+import event.NotificationsRead;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 import repository.NotificationDao;
+import repository.Page;
+import repository.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -17,10 +25,20 @@ import static org.mockito.Mockito.*;
  * Test class for NotificationController that avoids JPA initialization
  * by using a custom test implementation of the controller.
  */
+@ExtendWith(MockitoExtension.class)
 class NotificationControllerTest {
 
     private NotificationDao notificationDao;
     private NotificationControllerTestImpl controller;
+
+    @Mock
+    private NotificationDao notificationRepo;
+    @Mock
+    private UnreadNotificationCounter unreadCounter;
+    @Mock
+    private EventBus eventBus;
+    @InjectMocks
+    private NotificationController notificationController;
     
     private Notification readNotification1;
     private Notification readNotification2;
@@ -172,4 +190,47 @@ class NotificationControllerTest {
         assertEquals("Test message", dto.message());
         assertTrue(dto.isRead());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMarkSelectedAsReadPublishesOneEvent() {
+        // Arrange
+        when(notificationRepo.markAsRead(List.of(3, 4))).thenReturn(2);
+
+        // Act
+        int marked = notificationController.markAsRead(List.of(3, 4));
+
+        // Assert
+        assertEquals(2, marked);
+        verify(eventBus, times(1)).publish(
+                argThat(event -> event instanceof NotificationsRead read && read.count() == 2));
+    }
+
+    @Test
+    void testMarkAllAsReadWithoutUnreadPublishesNothing() {
+        // Arrange
+        when(notificationRepo.markAllAsRead()).thenReturn(0);
+
+        // Act
+        int marked = notificationController.markAllAsRead();
+
+        // Assert
+        assertEquals(0, marked);
+        verifyNoInteractions(eventBus);
+    }
+
+    @Test
+    void testGetUnreadPageKeepsCursor() {
+        // Arrange
+        PageRequest request = PageRequest.first("time", 1);
+        PageRequest.Cursor next = new PageRequest.Cursor(unreadNotification1.getTime(), 3);
+        when(notificationRepo.getAllUnread(request)).thenReturn(new Page<>(List.of(unreadNotification1), next));
+
+        // Act
+        Page<NotificationDTO> page = notificationController.getAllUnread(request);
+
+        // Assert
+        assertEquals(1, page.content().size());
+        assertEquals("Unread message 1", page.content().get(0).message());
+        assertEquals(next, page.nextCursor());
+    }
+}
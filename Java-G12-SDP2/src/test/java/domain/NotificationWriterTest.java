@@ -0,0 +1,208 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import event.EventBus;
+import event.NotificationsAdded;
+import repository.NotificationDao;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationWriterTest
+{
+	@Mock
+	private NotificationDao notificationDao;
+
+	private final EventBus eventBus = new EventBus();
+	private NotificationWriter writer;
+
+	/** The notifications of every insertAll call, with the name of the calling thread. */
+	private final List<String> batches = new CopyOnWriteArrayList<>();
+
+	private void recordBatches()
+	{
+		doAnswer(invocation -> {
+			Collection<?> notifications = invocation.getArgument(0);
+			batches.add(Thread.currentThread().getName() + ":" + notifications.size());
+			return null;
+		}).when(notificationDao).insertAll(any());
+	}
+
+	private NotificationWriter writer(int capacity)
+	{
+		return new NotificationWriter(notificationDao, capacity, eventBus, Duration.ofMillis(1));
+	}
+
+	@AfterEach
+	void tearDown()
+	{
+		if (writer != null)
+		{
+			writer.close();
+		}
+	}
+
+	private static Notification notification(int number)
+	{
+		return new Notification(false, "Melding " + number, LocalDateTime.now());
+	}
+
+	@Test
+	void write_ShouldInsertNotificationsInBatchesInTheBackground() throws InterruptedException
+	{
+		recordBatches();
+		writer = writer(1000);
+
+		for (int i = 0; i < 250; i++)
+		{
+			writer.write(notification(i));
+		}
+
+		assertTrue(writer.flush(5, TimeUnit.SECONDS));
+		assertEquals(250, batches.stream().mapToInt(batch -> Integer.parseInt(batch.split(":")[1])).sum());
+		assertTrue(batches.stream().allMatch(batch -> batch.startsWith("notification-writer:")));
+		assertTrue(batches.stream()
+				.allMatch(batch -> Integer.parseInt(batch.split(":")[1]) <= NotificationWriter.BATCH_SIZE));
+		verify(notificationDao, times(batches.size())).commitTransaction();
+	}
+
+	@Test
+	void write_ShouldWriteOnCallingThreadWhenQueueIsFull() throws InterruptedException
+	{
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			if (Thread.currentThread().getName().equals("notification-writer"))
+			{
+				writing.countDown();
+				release.await();
+			}
+			batches.add(Thread.currentThread().getName() + ":" + ((Collection<?>) invocation.getArgument(0)).size());
+			return null;
+		}).when(notificationDao).insertAll(any());
+		writer = writer(1);
+
+		writer.write(notification(1));
+		assertTrue(writing.await(5, TimeUnit.SECONDS));
+		writer.write(notification(2));
+		writer.write(notification(3));
+
+		assertEquals(List.of(Thread.currentThread().getName() + ":1"), batches);
+		release.countDown();
+		assertTrue(writer.flush(5, TimeUnit.SECONDS));
+		assertEquals(3, batches.size());
+	}
+
+	@Test
+	void close_ShouldWriteQueuedNotificationsAndThenWriteDirectly()
+	{
+		recordBatches();
+		writer = writer(100);
+		writer.write(notification(1));
+
+		writer.close();
+		assertEquals(1, batches.size());
+		writer.write(notification(2));
+
+		assertEquals(Thread.currentThread().getName() + ":1", batches.get(1));
+	}
+
+	@Test
+	void close_ShouldNotLoseNotificationsWrittenWhileClosing() throws InterruptedException
+	{
+		recordBatches();
+		writer = writer(10_000);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++)
+		{
+			Thread thread = new Thread(() -> {
+				try
+				{
+					start.await();
+				} catch (InterruptedException e)
+				{
+					return;
+				}
+				for (int i = 0; i < 500; i++)
+				{
+					writer.write(notification(i));
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+
+		start.countDown();
+		writer.close();
+		for (Thread thread : threads)
+		{
+			thread.join(5000);
+		}
+
+		assertEquals(2000, batches.stream().mapToInt(batch -> Integer.parseInt(batch.split(":")[1])).sum());
+	}
+
+	@Test
+	void write_ShouldRetryFailedBatch() throws InterruptedException
+	{
+		List<NotificationsAdded> added = new CopyOnWriteArrayList<>();
+		eventBus.subscribe(NotificationsAdded.class, added::add);
+		writer = writer(100);
+		doThrow(new IllegalStateException("database down")).doAnswer(invocation -> {
+			batches.add("written");
+			return null;
+		}).when(notificationDao).insertAll(any());
+
+		writer.write(notification(1));
+		assertTrue(writer.flush(5, TimeUnit.SECONDS));
+
+		assertEquals(List.of("written"), batches);
+		assertEquals(List.of(1), added.stream().map(NotificationsAdded::count).toList());
+		verify(notificationDao).rollbackTransaction();
+	}
+
+	@Test
+	void write_ShouldDropBatchAfterLastAttemptAndKeepWriting() throws InterruptedException
+	{
+		List<NotificationsAdded> added = new CopyOnWriteArrayList<>();
+		eventBus.subscribe(NotificationsAdded.class, added::add);
+		writer = writer(100);
+		IllegalStateException down = new IllegalStateException("database down");
+		doThrow(down, down, down).doAnswer(invocation -> {
+			batches.add("written");
+			return null;
+		}).when(notificationDao).insertAll(any());
+
+		writer.write(notification(1));
+		assertTrue(writer.flush(5, TimeUnit.SECONDS));
+		verify(notificationDao, times(NotificationWriter.MAX_ATTEMPTS)).rollbackTransaction();
+		verify(notificationDao, never()).commitTransaction();
+		writer.write(notification(2));
+		assertTrue(writer.flush(5, TimeUnit.SECONDS));
+
+		assertEquals(List.of("written"), batches);
+		assertEquals(List.of(1), added.stream().map(NotificationsAdded::count).toList());
+	}
+}
@@ -0,0 +1,113 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import event.EventBus;
+import event.MachineUpdated;
+import event.NotificationsRead;
+
+@DisplayName("QueryCache Tests")
+class QueryCacheTest
+{
+	private QueryCache cache;
+	private AtomicInteger loads;
+
+	@BeforeEach
+	void setUp()
+	{
+		cache = new QueryCache(2);
+		loads = new AtomicInteger();
+	}
+
+	private List<String> load(String value)
+	{
+		loads.incrementAndGet();
+		return List.of(value);
+	}
+
+	@Test
+	@DisplayName("get should run the query once per query and parameters")
+	void get_ShouldCacheByQueryAndParameters()
+	{
+		cache.get("q", () -> load("a"), 1);
+		cache.get("q", () -> load("a"), 1);
+		cache.get("q", () -> load("b"), 2);
+
+		assertEquals(2, loads.get());
+		assertEquals(List.of("a"), cache.get("q", () -> load("x"), 1));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	@DisplayName("get should evict the least recently used entry when full")
+	void get_ShouldEvictLeastRecentlyUsed()
+	{
+		cache.get("q1", () -> load("1"));
+		cache.get("q2", () -> load("2"));
+		cache.get("q1", () -> load("1"));
+		cache.get("q3", () -> load("3"));
+
+		assertEquals(2, cache.size());
+		cache.get("q1", () -> load("1"));
+		assertEquals(3, loads.get());
+		cache.get("q2", () -> load("2"));
+		assertEquals(4, loads.get());
+	}
+
+	@Test
+	@DisplayName("a published change should drop all entries")
+	void change_ShouldInvalidateAll()
+	{
+		EventBus eventBus = new EventBus();
+		ChangeListeners.subscribeTo(eventBus, cache, new ChangeNotifier(mock(NotificationWriter.class)));
+		cache.get("q", () -> load("a"));
+
+		eventBus.publish(new MachineUpdated(1, 1, "M001", Set.of("location")));
+
+		assertEquals(0, cache.size());
+		cache.get("q", () -> load("a"));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	@DisplayName("reading notifications should keep the entries")
+	void notificationsRead_ShouldNotInvalidate()
+	{
+		EventBus eventBus = new EventBus();
+		ChangeListeners.subscribeTo(eventBus, cache, new ChangeNotifier(mock(NotificationWriter.class)));
+		cache.get("q", () -> load("a"));
+
+		eventBus.publish(new NotificationsRead(1, System.nanoTime()));
+
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	@DisplayName("a result loaded while the cache was invalidated should not be stored")
+	void get_ShouldNotStoreResultOfRacingLoad()
+	{
+		cache.get("q", () -> {
+			cache.invalidateAll();
+			return load("stale");
+		});
+
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	@DisplayName("constructor should reject a non positive size")
+	void constructor_ShouldRejectNonPositiveSize()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new QueryCache(0));
+	}
+}
@@ -0,0 +1,50 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.queries.ReadObjectQuery;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import repository.SharedCache;
+import repository.SharedCacheProfiler;
+
+@DisplayName("SharedCache Tests")
+class SharedCacheTest
+{
+	private SharedCacheProfiler profiler;
+
+	@BeforeEach
+	void setUp()
+	{
+		SharedCache.resetStatistics();
+		profiler = new SharedCacheProfiler();
+	}
+
+	@Test
+	@DisplayName("the profiler should count cache hits and misses per entity type")
+	void profiler_ShouldCountHitsAndMissesPerEntity()
+	{
+		profiler.occurred(SessionProfiler.CacheHits, new ReadObjectQuery(Site.class), null);
+		profiler.occurred(SessionProfiler.CacheHits, new ReadAllQuery(Site.class), null);
+		profiler.occurred(SessionProfiler.CacheMisses, new ReadObjectQuery(Site.class), null);
+		profiler.occurred(SessionProfiler.CacheMisses, new ReadObjectQuery(User.class), null);
+
+		assertEquals(new SharedCache.Statistics(2, 1, 0), SharedCache.statistics(Site.class));
+		assertEquals(new SharedCache.Statistics(0, 1, 0), SharedCache.statistics(User.class));
+		assertEquals(2.0 / 3, SharedCache.statistics(Site.class).hitRatio(), 1e-9);
+	}
+
+	@Test
+	@DisplayName("evicting before the persistence unit started should be a no-op")
+	void evict_WithoutFactory_ShouldNotCount()
+	{
+		SharedCache.evict(Site.class);
+
+		assertEquals(0, SharedCache.statistics(Site.class).evictions());
+		assertEquals(0.0, SharedCache.statistics(Site.class).hitRatio());
+	}
+}
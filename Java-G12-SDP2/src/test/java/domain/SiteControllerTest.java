@@ -2,12 +2,14 @@ package domain;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.contains;
-import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -21,18 +23,22 @@ import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import domain.Machine;
-import domain.NotificationObserver;
 import domain.Site;
 import domain.SiteController;
 import domain.User;
 import dto.SiteDTOWithMachines;
+import event.EventBus;
+import event.SiteCreated;
+import event.SiteUpdated;
 import exceptions.InformationRequiredExceptionSite;
-import interfaces.Observer;
+import jakarta.persistence.PersistenceException;
 import repository.GenericDaoJpa;
 import repository.UserDao;
 import util.MachineStatus;
@@ -50,7 +56,10 @@ class SiteControllerTest
 	private UserDao userRepo;
 
 	@Mock
-	private NotificationObserver notificationObserver;
+	private EventBus eventBus;
+
+	@Spy
+	private QueryCache queryCache = new QueryCache(16);
 
 	@InjectMocks
 	private SiteController siteController;
@@ -81,8 +90,6 @@ class SiteControllerTest
 		testMachines.add(machine1);
 
 		testSite.addMachine(machine1);
-
-		siteController.addObserver(notificationObserver);
 	}
 
 	@Test
@@ -127,6 +134,36 @@ class SiteControllerTest
 		assertTrue(result.contains("INACTIEF"));
 	}
 
+	@Test
+	void getAllStatusses_shouldServeRepeatedCallsFromCacheUntilInvalidated()
+	{
+		when(siteRepo.findAll()).thenReturn(List.of(testSite));
+
+		List<String> first = siteController.getAllStatusses();
+		List<String> second = siteController.getAllStatusses();
+
+		assertEquals(List.of("ACTIEF"), second);
+		assertSame(first, second);
+		verify(siteRepo, times(1)).findAll();
+
+		queryCache.invalidateAll();
+		siteController.getAllStatusses();
+
+		verify(siteRepo, times(2)).findAll();
+	}
+
+	@Test
+	void filterOptions_shouldBeReadFromOneListOfSites()
+	{
+		when(siteRepo.findAll()).thenReturn(List.of(testSite));
+
+		assertEquals(List.of("ACTIEF"), siteController.getAllStatusses());
+		assertEquals(List.of("Test Site"), siteController.getAllSiteNames());
+		assertEquals(List.of("John Doe"), siteController.getAllVerantwoordelijken());
+
+		verify(siteRepo, times(1)).findAll();
+	}
+
 	@Test
 	void createSite_shouldCreateNewSite() throws Exception
 	{
@@ -137,7 +174,36 @@ class SiteControllerTest
 		assertNotNull(result);
 		assertEquals("New Site", result.siteName());
 		verify(siteRepo).insert(any(Site.class));
-		verify(notificationObserver).update(contains("Site aangemaakt"));
+		verify(eventBus).publish(any(SiteCreated.class));
+	}
+
+	@Test
+	void createSite_shouldReferToTheUserReadInTheTransaction() throws Exception
+	{
+		User managedUser = new User();
+		managedUser.setId(1);
+		when(userRepo.get(1)).thenReturn(testUser, managedUser);
+
+		siteController.createSite("New Site", "Street", "123", "2000", "City", 1);
+
+		InOrder order = inOrder(siteRepo, userRepo);
+		order.verify(siteRepo).startTransaction();
+		order.verify(userRepo).get(1);
+		order.verify(siteRepo).insert(argThat(site -> site.getVerantwoordelijke() == managedUser));
+		order.verify(siteRepo).commitTransaction();
+	}
+
+	@Test
+	void createSite_whenInsertFails_shouldRollBack()
+	{
+		when(userRepo.get(1)).thenReturn(testUser);
+		doThrow(new PersistenceException("duplicate key")).when(siteRepo).insert(any());
+
+		assertThrows(PersistenceException.class,
+				() -> siteController.createSite("New Site", "Street", "123", "2000", "City", 1));
+
+		verify(siteRepo).rollbackTransaction();
+		verify(eventBus, never()).publish(any());
 	}
 
 	@Test
@@ -164,7 +230,18 @@ class SiteControllerTest
 		assertEquals("Updated Site", result.siteName());
 		assertEquals("INACTIEF", result.status().toString());
 		verify(siteRepo).update(any(Site.class));
-		verify(notificationObserver).update(contains("Site bijgewerkt"));
+		verify(eventBus).publish(any(SiteUpdated.class));
+	}
+
+	@Test
+	void updateSite_shouldPublishChangedFields() throws Exception
+	{
+		when(siteRepo.get(1)).thenReturn(testSite);
+		when(userRepo.get(1)).thenReturn(testUser);
+
+		siteController.updateSite(1, "Test Site", "Street", "1", "1234", "City", 1, Status.INACTIEF);
+
+		verify(eventBus).publish(new SiteUpdated(1, "Test Site", Set.of("status")));
 	}
 
 	@Test
@@ -196,17 +273,4 @@ class SiteControllerTest
 		assertTrue(result.contains("John Doe"));
 		assertTrue(result.contains("Jane Smith"));
 	}
-
-	@Test
-	void observerMethods_shouldWorkCorrectly()
-	{
-		Observer testObserver = mock(Observer.class);
-		siteController.addObserver(testObserver);
-		siteController.notifyObservers("Test message");
-		verify(testObserver).update("Test message");
-
-		siteController.removeObserver(testObserver);
-		siteController.notifyObservers("Another message");
-		verify(testObserver, times(1)).update(anyString());
-	}
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import event.EventBus;
+import event.NotificationsAdded;
+import event.NotificationsRead;
+import repository.NotificationDao;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadNotificationCounterTest
+{
+	@Mock
+	private NotificationDao notificationDao;
+
+	private EventBus eventBus;
+	private UnreadNotificationCounter counter;
+
+	@BeforeEach
+	void setUp()
+	{
+		eventBus = new EventBus();
+		counter = UnreadNotificationCounter.following(notificationDao, eventBus);
+	}
+
+	@Test
+	void get_shouldCountOnlyOnce()
+	{
+		when(notificationDao.countUnread()).thenReturn(5L);
+
+		assertEquals(5, counter.get());
+		assertEquals(5, counter.get());
+
+		verify(notificationDao, times(1)).countUnread();
+	}
+
+	@Test
+	void get_shouldFollowNotificationEvents()
+	{
+		when(notificationDao.countUnread()).thenReturn(5L);
+		counter.get();
+
+		eventBus.publish(new NotificationsAdded(3, System.nanoTime()));
+		eventBus.publish(new NotificationsRead(1, System.nanoTime()));
+
+		assertEquals(7, counter.get());
+		verify(notificationDao, times(1)).countUnread();
+	}
+
+	@Test
+	void get_shouldNotGoBelowZero()
+	{
+		when(notificationDao.countUnread()).thenReturn(1L);
+		counter.get();
+
+		eventBus.publish(new NotificationsRead(2, System.nanoTime()));
+
+		assertEquals(0, counter.get());
+	}
+
+	@Test
+	void events_shouldNotCountBeforeFirstUse()
+	{
+		eventBus.publish(new NotificationsAdded(3, System.nanoTime()));
+
+		verifyNoInteractions(notificationDao);
+	}
+
+	@Test
+	void get_shouldCountAgainAfterEventOfTransactionStartedBeforeCount()
+	{
+		long startedAt = System.nanoTime();
+		when(notificationDao.countUnread()).thenReturn(5L, 5L);
+		counter.get();
+
+		eventBus.publish(new NotificationsAdded(3, startedAt));
+
+		assertEquals(5, counter.get());
+		verify(notificationDao, times(2)).countUnread();
+	}
+
+	@Test
+	void reset_shouldCountAgain()
+	{
+		when(notificationDao.countUnread()).thenReturn(5L, 8L);
+		counter.get();
+
+		counter.reset();
+
+		assertEquals(8, counter.get());
+		verify(notificationDao, times(2)).countUnread();
+	}
+}
@@ -11,6 +11,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
@@ -26,9 +27,11 @@ import org.mockito.MockitoAnnotations;
 
 import dto.AddressDTO;
 import dto.UserDTO;
+import event.EventBus;
+import event.UserCreated;
+import event.UserUpdated;
 import exceptions.InformationRequiredExceptionUser;
 import exceptions.InvalidInputException;
-import interfaces.Observer;
 import repository.UserDao;
 import util.AuthenticationUtil;
 import util.DTOMapper;
@@ -45,7 +48,7 @@ class UserControllerTest
 	private AuthenticationUtil authenticationUtil;
 
 	@Mock
-	private Observer notificationObserver;
+	private EventBus eventBus;
 
 	@InjectMocks
 	private UserController userController;
@@ -54,7 +57,6 @@ class UserControllerTest
 	void setUp()
 	{
 		MockitoAnnotations.openMocks(this);
-		userController.addObserver(notificationObserver);
 	}
 
 	@Test
@@ -209,7 +211,7 @@ class UserControllerTest
 		assertEquals("Doe", result.lastName());
 		verify(userRepo).startTransaction();
 		verify(userRepo).commitTransaction();
-		verify(notificationObserver).update(anyString());
+		verify(eventBus).publish(any(UserCreated.class));
 	}
 
 	@Test
@@ -229,7 +231,7 @@ class UserControllerTest
 		assertEquals("Name", result.lastName());
 		verify(userRepo).startTransaction();
 		verify(userRepo).commitTransaction();
-		verify(notificationObserver).update(anyString());
+		verify(eventBus).publish(any(UserUpdated.class));
 	}
 
 	@Test
@@ -243,33 +245,21 @@ class UserControllerTest
 	}
 
 	@Test
-	void getAllStatusses_ReturnsDistinctStatusValues()
+	void getAllStatusses_ReturnsEveryStatusWithoutReadingUsers()
 	{
-		User activeUser = createTestUser(1, Role.VERANTWOORDELIJKE);
-		activeUser.setStatus(Status.ACTIEF);
-		User inactiveUser = createTestUser(2, Role.TECHNIEKER);
-		inactiveUser.setStatus(Status.INACTIEF);
-		when(userRepo.findAll()).thenReturn(Arrays.asList(activeUser, inactiveUser, activeUser));
-
 		List<String> result = userController.getAllStatusses();
 
-		assertEquals(2, result.size());
-		assertTrue(result.contains("ACTIEF"));
-		assertTrue(result.contains("INACTIEF"));
+		assertEquals(List.of("ACTIEF", "INACTIEF"), result);
+		verifyNoInteractions(userRepo);
 	}
 
 	@Test
-	void getAllRoles_ReturnsDistinctRoleValues()
+	void getAllRoles_ReturnsEveryRoleWithoutReadingUsers()
 	{
-		User verantwoordelijke = createTestUser(1, Role.VERANTWOORDELIJKE);
-		User technieker = createTestUser(2, Role.TECHNIEKER);
-		when(userRepo.findAll()).thenReturn(Arrays.asList(verantwoordelijke, technieker, verantwoordelijke));
-
 		List<String> result = userController.getAllRoles();
 
-		assertEquals(2, result.size());
-		assertTrue(result.contains("VERANTWOORDELIJKE"));
-		assertTrue(result.contains("TECHNIEKER"));
+		assertEquals(List.of("ADMINISTRATOR", "MANAGER", "TECHNIEKER", "VERANTWOORDELIJKE"), result);
+		verifyNoInteractions(userRepo);
 	}
 
 	@Test
@@ -281,7 +271,7 @@ class UserControllerTest
 		User user2 = createTestUser(2, Role.TECHNIEKER);
 		user2.setFirstName("Jane");
 		user2.setLastName("Smith");
-		when(userRepo.findAll()).thenReturn(Arrays.asList(user1, user2));
+		when(userRepo.findAll(new UserFilter("John", null, null))).thenReturn(Arrays.asList(user1));
 
 		List<UserDTO> result = userController.getFilteredUsers("John", null, null);
 
@@ -296,7 +286,7 @@ class UserControllerTest
 		activeUser.setStatus(Status.ACTIEF);
 		User inactiveUser = createTestUser(2, Role.TECHNIEKER);
 		inactiveUser.setStatus(Status.INACTIEF);
-		when(userRepo.findAll()).thenReturn(Arrays.asList(activeUser, inactiveUser));
+		when(userRepo.findAll(new UserFilter("", Status.ACTIEF, null))).thenReturn(Arrays.asList(activeUser));
 
 		List<UserDTO> result = userController.getFilteredUsers("", "ACTIEF", null);
 
@@ -309,7 +299,7 @@ class UserControllerTest
 	{
 		User verantwoordelijke = createTestUser(1, Role.VERANTWOORDELIJKE);
 		User technieker = createTestUser(2, Role.TECHNIEKER);
-		when(userRepo.findAll()).thenReturn(Arrays.asList(verantwoordelijke, technieker));
+		when(userRepo.findAll(new UserFilter("", null, Role.TECHNIEKER))).thenReturn(Arrays.asList(technieker));
 
 		List<UserDTO> result = userController.getFilteredUsers("", null, "TECHNIEKER");
 
@@ -317,29 +307,6 @@ class UserControllerTest
 		assertEquals(Role.TECHNIEKER, result.get(0).role());
 	}
 
-	@Test
-	void addObserver_AddsObserverToList()
-	{
-		Observer newObserver = mock(Observer.class);
-		userController.addObserver(newObserver);
-
-		userController.notifyObservers("Test message");
-
-		verify(newObserver).update("Test message");
-	}
-
-	@Test
-	void removeObserver_RemovesObserverFromList()
-	{
-		Observer observerToRemove = mock(Observer.class);
-		userController.addObserver(observerToRemove);
-		userController.removeObserver(observerToRemove);
-
-		userController.notifyObservers("Test message");
-
-		verify(observerToRemove, never()).update(anyString());
-	}
-
 	private User createTestUser(int id, Role role)
 	{
 		User user = new User();
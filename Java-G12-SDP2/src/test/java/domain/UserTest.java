@@ -2,7 +2,6 @@ package domain;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
@@ -13,7 +12,6 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import exceptions.InformationRequiredExceptionUser;
-import interfaces.Observer;
 import util.Role;
 import util.Status;
 
@@ -22,9 +20,6 @@ class UserTest
 
 	private User user;
 
-	@Mock
-	private Observer observer;
-
 	@Mock
 	private Address address;
 
@@ -33,7 +28,6 @@ class UserTest
 	{
 		MockitoAnnotations.openMocks(this);
 		user = new User();
-		user.addObserver(observer);
 
 		when(address.getStreet()).thenReturn("Street");
 		when(address.getNumber()).thenReturn(1);
@@ -59,15 +53,6 @@ class UserTest
 		assertEquals("John Doe", user.getFullName());
 	}
 
-	@Test
-	void testObserverPattern()
-	{
-		String message = "Test message";
-		user.notifyObservers(message);
-
-		verify(observer).update(message);
-	}
-
 	@Test
 	void testBuilderWithAllRequiredFields() throws InformationRequiredExceptionUser
 	{